@@ -4,9 +4,11 @@ import com.progress.progress_api.config.JwtProperties; // <-- Importe a nova cla
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties; // <-- Importe a anotação
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableConfigurationProperties(JwtProperties.class) // <-- Adicione esta anotação
+@EnableScheduling // Tarefas periódicas (limpeza de tokens revogados, etc.)
 public class ProgressApiApplication {
 
 	public static void main(String[] args) {
@@ -2,34 +2,42 @@ package com.progress.progress_api.config;
 
 import com.progress.progress_api.model.Role;
 import com.progress.progress_api.repository.RoleRepository;
+import com.progress.progress_api.security.RoleRegistry;
 import com.progress.progress_api.service.UsuarioService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @Component
 public class DataInitializer implements CommandLineRunner {
 
+    private static final List<String> PAPEIS_BASICOS = List.of("ROLE_ADMIN", "ROLE_MANAGER", "ROLE_COLLABORATOR");
+
     @Autowired
     private RoleRepository roleRepository;
-    
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
     @Autowired
     private UsuarioService usuarioService;
 
     @Override
     public void run(String... args) throws Exception {
         // Cria os papéis básicos se eles ainda não existirem no banco de dados
-        if (roleRepository.findByName("ROLE_ADMIN").isEmpty()) {
-            roleRepository.save(new Role(null, "ROLE_ADMIN"));
-        }
-        if (roleRepository.findByName("ROLE_MANAGER").isEmpty()) {
-            roleRepository.save(new Role(null, "ROLE_MANAGER"));
-        }
-        if (roleRepository.findByName("ROLE_COLLABORATOR").isEmpty()) {
-            roleRepository.save(new Role(null, "ROLE_COLLABORATOR"));
-        }
+        Set<String> existentes = roleRepository.findAll().stream().map(Role::getName).collect(Collectors.toSet());
+        PAPEIS_BASICOS.stream()
+                .filter(nome -> !existentes.contains(nome))
+                .forEach(nome -> roleRepository.save(new Role(null, nome)));
+
+        // A partir daqui os papéis são resolvidos pelo registro, sem consultar o banco
+        roleRegistry.recarregar();
 
         // Cria o usuário admin inicial se ele não existir
         usuarioService.criarAdminSeNaoExistir();
     }
-}
\ No newline at end of file
+}
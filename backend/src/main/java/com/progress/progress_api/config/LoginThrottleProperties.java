@@ -0,0 +1,91 @@
+package com.progress.progress_api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "security.login-throttle") // Limites de tentativas de login
+public class LoginThrottleProperties {
+
+    private boolean enabled = true;
+
+    // Balde por email: capacidade (rajada) e tokens repostos por minuto
+    private int capacidadeEmail = 5;
+    private int recargaPorMinutoEmail = 5;
+
+    // Balde por IP de origem
+    private int capacidadeIp = 20;
+    private int recargaPorMinutoIp = 20;
+
+    // Limite de chaves em memória e tempo sem uso até a chave ser descartada
+    private int maxChaves = 100_000;
+    private long idleMs = 600_000;
+
+    // Intervalo da limpeza periódica de chaves ociosas
+    private long purgeIntervalMs = 60_000;
+
+    // Getters e Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getCapacidadeEmail() {
+        return capacidadeEmail;
+    }
+
+    public void setCapacidadeEmail(int capacidadeEmail) {
+        this.capacidadeEmail = capacidadeEmail;
+    }
+
+    public int getRecargaPorMinutoEmail() {
+        return recargaPorMinutoEmail;
+    }
+
+    public void setRecargaPorMinutoEmail(int recargaPorMinutoEmail) {
+        this.recargaPorMinutoEmail = recargaPorMinutoEmail;
+    }
+
+    public int getCapacidadeIp() {
+        return capacidadeIp;
+    }
+
+    public void setCapacidadeIp(int capacidadeIp) {
+        this.capacidadeIp = capacidadeIp;
+    }
+
+    public int getRecargaPorMinutoIp() {
+        return recargaPorMinutoIp;
+    }
+
+    public void setRecargaPorMinutoIp(int recargaPorMinutoIp) {
+        this.recargaPorMinutoIp = recargaPorMinutoIp;
+    }
+
+    public int getMaxChaves() {
+        return maxChaves;
+    }
+
+    public void setMaxChaves(int maxChaves) {
+        this.maxChaves = maxChaves;
+    }
+
+    public long getIdleMs() {
+        return idleMs;
+    }
+
+    public void setIdleMs(long idleMs) {
+        this.idleMs = idleMs;
+    }
+
+    public long getPurgeIntervalMs() {
+        return purgeIntervalMs;
+    }
+
+    public void setPurgeIntervalMs(long purgeIntervalMs) {
+        this.purgeIntervalMs = purgeIntervalMs;
+    }
+}
@@ -0,0 +1,120 @@
+package com.progress.progress_api.config;
+
+import com.progress.progress_api.model.Feedback;
+import com.progress.progress_api.model.MetaPDI;
+import com.progress.progress_api.model.PDI;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Ajustes de schema que o ddl-auto=update do Hibernate não faz sozinho em bancos já existentes.
+ * Roda na inicialização, depois que o Hibernate atualizou o schema e antes de o servidor aceitar requisições.
+ *
+ * - Sequences: as entidades que deixaram de usar IDENTITY ganham uma sequence que começa em 1,
+ *   mas a tabela pode ter linhas antigas. Se a sequence estiver atrás do maior id, ela é adiantada
+ *   para que o próximo bloco alocado (allocationSize ids) comece depois dele.
+ * - Enums: o Hibernate cria um CHECK com os valores do enum quando cria a coluna, mas não o
+ *   atualiza quando o enum ganha valores novos. O CHECK é recriado com os valores atuais.
+ * - Rollup: triggers que registram em rollup_remocoes os PDIs e feedbacks removidos (ver RollupRemocao)
+ *   e o índice parcial dos PDIs com mudança de status ainda não contabilizada.
+ */
+@Component
+public class SchemaInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaInitializer.class);
+
+    private record ColunaEnum(String tabela, String coluna, Class<? extends Enum<?>> tipo) {}
+
+    // sequence -> tabela
+    private static final Map<String, String> SEQUENCIAS = Map.of(
+            "feedbacks_seq", "feedbacks",
+            PDI.SEQUENCIA, "pdis",
+            MetaPDI.SEQUENCIA, "metas_pdi",
+            "analise_feedback_outbox_seq", "analise_feedback_outbox"
+    );
+
+    private static final List<ColunaEnum> COLUNAS_ENUM = List.of(
+            new ColunaEnum("feedbacks", "status_analise", Feedback.StatusAnalise.class)
+    );
+
+    // Funções das triggers de remoção do rollup: cada instrução DELETE grava as linhas removidas de uma vez
+    private static final List<String> FUNCOES_ROLLUP = List.of(
+            "CREATE OR REPLACE FUNCTION rollup_registrar_pdis_removidos() RETURNS trigger LANGUAGE plpgsql AS $$ " +
+            "BEGIN INSERT INTO rollup_remocoes (origem, status) " +
+            "SELECT 'pdis', status_rollup FROM removidos WHERE status_rollup IS NOT NULL; RETURN NULL; END $$",
+            "CREATE OR REPLACE FUNCTION rollup_registrar_feedbacks_removidos() RETURNS trigger LANGUAGE plpgsql AS $$ " +
+            "BEGIN INSERT INTO rollup_remocoes (origem, dia) " +
+            "SELECT DISTINCT 'feedbacks', CAST(data_envio AS date) FROM removidos WHERE data_envio IS NOT NULL; " +
+            "RETURN NULL; END $$"
+    );
+
+    // tabela -> trigger (criada só se ainda não existir, para nunca ficar sem ela com outras instâncias no ar)
+    private static final Map<String, String> TRIGGERS_ROLLUP = Map.of(
+            "pdis", "trg_rollup_pdis_removidos",
+            "feedbacks", "trg_rollup_feedbacks_removidos"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // A dependência do EntityManagerFactory garante que o schema já foi criado/atualizado
+    public SchemaInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void ajustar() {
+        SEQUENCIAS.forEach(this::alinharSequencia);
+        COLUNAS_ENUM.forEach(this::atualizarCheckDeEnum);
+        FUNCOES_ROLLUP.forEach(jdbcTemplate::execute);
+        TRIGGERS_ROLLUP.forEach(this::criarTriggerDeRemocao);
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_pdis_status_rollup_pendente ON pdis (id) " +
+                "WHERE status_rollup IS DISTINCT FROM status");
+    }
+
+    private void alinharSequencia(String sequencia, String tabela) {
+        Long maiorId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + tabela, Long.class);
+        Long ultimoValor = jdbcTemplate.queryForObject("SELECT last_value FROM " + sequencia, Long.class);
+        if (maiorId != null && ultimoValor != null && ultimoValor < maiorId) {
+            // Com is_called = true, o próximo nextval devolve maiorId + incremento,
+            // e o bloco alocado pelo Hibernate é (maiorId, maiorId + incremento]
+            jdbcTemplate.queryForObject("SELECT setval(CAST(? AS regclass), ?, true)", Long.class, sequencia, maiorId);
+            log.info("Sequence {} adiantada de {} para {} (maior id em {})", sequencia, ultimoValor, maiorId, tabela);
+        }
+    }
+
+    private void criarTriggerDeRemocao(String tabela, String trigger) {
+        Integer existentes = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_trigger WHERE tgname = ? AND NOT tgisinternal", Integer.class, trigger);
+        if (existentes != null && existentes == 0) {
+            jdbcTemplate.execute("CREATE TRIGGER " + trigger + " AFTER DELETE ON " + tabela +
+                    " REFERENCING OLD TABLE AS removidos FOR EACH STATEMENT EXECUTE FUNCTION rollup_registrar_" +
+                    tabela + "_removidos()");
+            log.info("Trigger {} criada em {}", trigger, tabela);
+        }
+    }
+
+    private void atualizarCheckDeEnum(ColunaEnum coluna) {
+        String nome = coluna.tabela() + "_" + coluna.coluna() + "_check"; // Nome gerado pelo Hibernate
+        List<String> definicoes = jdbcTemplate.queryForList(
+                "SELECT pg_get_constraintdef(oid) FROM pg_constraint WHERE conname = ?", String.class, nome);
+        List<String> valores = Arrays.stream(coluna.tipo().getEnumConstants()).map(Enum::name).toList();
+        if (definicoes.isEmpty() || valores.stream().allMatch(valor -> definicoes.get(0).contains("'" + valor + "'"))) {
+            return;
+        }
+
+        String lista = valores.stream().map(valor -> "'" + valor + "'").collect(Collectors.joining(", "));
+        jdbcTemplate.execute("ALTER TABLE " + coluna.tabela() + " DROP CONSTRAINT " + nome);
+        jdbcTemplate.execute("ALTER TABLE " + coluna.tabela() + " ADD CONSTRAINT " + nome
+                + " CHECK (" + coluna.coluna() + " IN (" + lista + "))");
+        log.info("CHECK {} recriado com os valores atuais de {}", nome, coluna.tipo().getSimpleName());
+    }
+}
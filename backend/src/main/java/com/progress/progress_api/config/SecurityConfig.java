@@ -2,7 +2,9 @@ package com.progress.progress_api.config;
 
 import com.progress.progress_api.security.JwtRequestFilter;
 import com.progress.progress_api.service.CustomUserDetailsService;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -35,9 +37,13 @@ public class SecurityConfig {
     @Autowired
     private JwtRequestFilter jwtRequestFilter;
 
+    // Fator de custo do BCrypt. Hashes com custo menor são regerados no próximo login.
+    @Value("${security.bcrypt.strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -55,6 +61,7 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(authz -> authz
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll() // Conclusão de respostas assíncronas (SSE/streaming), já autorizadas na requisição original
                 .requestMatchers("/auth/**").permitAll() // Login e registro (se houver)
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll() // Permitir requisições OPTIONS para CORS preflight
                 // Exemplos de permissões (ajuste conforme necessário):
@@ -77,6 +84,8 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(List.of("http://localhost:3000")); // URL do seu front-end
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("Authorization", "Cache-Control", "Content-Type", "X-Requested-With"));
+        // Headers de resposta que o front-end precisa ler (paginação por cursor e limites de requisição)
+        configuration.setExposedHeaders(Arrays.asList("X-Proximo-Cursor", "Retry-After"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L); // 1 hora
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -5,14 +5,23 @@ import com.progress.progress_api.dto.AuthResponseDTO;
 import com.progress.progress_api.model.Role;
 import com.progress.progress_api.model.Usuario;
 import com.progress.progress_api.security.JwtUtil;
+import com.progress.progress_api.security.LoginRateLimiter;
+import com.progress.progress_api.security.PasswordHashingExecutor;
+import com.progress.progress_api.security.TokenRevocationStore;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.HttpServletRequest;
 import com.progress.progress_api.service.CustomUserDetailsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -33,15 +42,34 @@ public class AuthController {
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
     @PostMapping("/login")
-    public ResponseEntity<?> createAuthenticationToken(@RequestBody AuthRequestDTO authRequestDTO) throws Exception {
+    public ResponseEntity<?> createAuthenticationToken(@RequestBody AuthRequestDTO authRequestDTO,
+                                                       HttpServletRequest request) throws Exception {
+        // Limita tentativas por email e por IP antes de gastar CPU com BCrypt
+        long esperaSegundos = loginRateLimiter.tentar(authRequestDTO.getEmail(), request.getRemoteAddr());
+        if (esperaSegundos > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(esperaSegundos))
+                    .body("Muitas tentativas de login. Tente novamente em " + esperaSegundos + " segundos.");
+        }
+
         try {
-            authenticationManager.authenticate(
+            // O BCrypt roda no pool dedicado, não na thread do Tomcat
+            passwordHashingExecutor.executar(() -> authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(authRequestDTO.getEmail(), authRequestDTO.getSenha())
-            );
+            ));
         } catch (BadCredentialsException e) {
             throw new Exception("Email ou senha incorretos", e);
-        }
+        } // HashingSobrecarregadoException vira 503 no HashingSobrecarregadoHandler
 
         final UserDetails userDetails = userDetailsService.loadUserByUsername(authRequestDTO.getEmail());
         final String token = jwtUtil.generateToken(userDetails);
@@ -59,4 +87,21 @@ public class AuthController {
             new AuthResponseDTO(token, usuario.getId(), usuario.getNome(), usuario.getEmail(), roleNames)
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Revoga o token enviado no cabeçalho Authorization até a sua expiração.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorizationHeader) {
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            return ResponseEntity.badRequest().body("Token não informado");
+        }
+        try {
+            Claims claims = jwtUtil.parseToken(authorizationHeader.substring(7));
+            tokenRevocationStore.revogar(claims.getId(), claims.getExpiration());
+        } catch (JwtException e) {
+            // Token inválido ou expirado já não dá acesso; não há o que revogar
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
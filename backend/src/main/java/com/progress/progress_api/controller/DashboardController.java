@@ -0,0 +1,59 @@
+package com.progress.progress_api.controller;
+
+import com.progress.progress_api.dto.AdminDashboardDTO;
+import com.progress.progress_api.dto.ProgressoPDIsDTO;
+import com.progress.progress_api.dto.TendenciasDTO;
+import com.progress.progress_api.service.DashboardService;
+import com.progress.progress_api.service.DashboardStreamService;
+import com.progress.progress_api.service.RollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private DashboardStreamService dashboardStreamService;
+
+    @GetMapping("/admin")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AdminDashboardDTO> getAdminDashboard() {
+        return ResponseEntity.ok(dashboardService.getAdminDashboardData());
+    }
+
+    // Stream (SSE): um evento "snapshot" ao conectar e depois eventos "delta" a cada alteração
+    @GetMapping(value = "/admin/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public SseEmitter streamAdminDashboard() {
+        return dashboardStreamService.inscrever(dashboardService.getAdminDashboardData());
+    }
+
+    // Distribuição do progresso das metas dos PDIs em aberto, lida dos contadores gravados em cada PDI
+    @GetMapping("/progresso-pdis")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<ProgressoPDIsDTO> getProgressoPDIs() {
+        return ResponseEntity.ok(dashboardService.calcularProgressoPDIs());
+    }
+
+    // Séries diárias de status de PDI e sentimento de feedbacks, lidas apenas das tabelas de rollup
+    @GetMapping("/tendencias")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<TendenciasDTO> getTendencias(@RequestParam(defaultValue = "90") int dias) {
+        int diasLimitados = Math.min(Math.max(dias, 1), 365);
+        return ResponseEntity.ok(rollupService.buscarTendencias(diasLimitados));
+    }
+}
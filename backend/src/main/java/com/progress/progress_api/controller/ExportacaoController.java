@@ -0,0 +1,70 @@
+package com.progress.progress_api.controller;
+
+import com.progress.progress_api.service.ExportacaoService;
+import com.progress.progress_api.service.FormatoArquivo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Downloads completos para o RH. O arquivo é gerado enquanto é enviado (StreamingResponseBody),
+ * sem montar a lista em memória. Com gzip=true o arquivo vai compactado (.gz).
+ */
+@RestController
+@RequestMapping("/api/exportacoes")
+public class ExportacaoController {
+
+    @Autowired
+    private ExportacaoService exportacaoService;
+
+    // Feedbacks enviados entre desde e ate (inclusive); sem as datas, todos
+    @GetMapping("/feedbacks")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportarFeedbacks(
+            @RequestParam(defaultValue = "NDJSON") FormatoArquivo formato,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+        LocalDateTime inicio = desde != null ? desde.atStartOfDay() : ExportacaoService.INICIO_SEM_LIMITE;
+        LocalDateTime fim = ate != null ? ate.plusDays(1).atStartOfDay() : ExportacaoService.FIM_SEM_LIMITE;
+        return arquivo("feedbacks", formato, gzip,
+                saida -> exportacaoService.exportarFeedbacks(saida, formato, inicio, fim));
+    }
+
+    // PDIs com as metas
+    @GetMapping("/pdis")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportarPDIs(@RequestParam(defaultValue = "NDJSON") FormatoArquivo formato,
+                                                              @RequestParam(defaultValue = "false") boolean gzip) {
+        return arquivo("pdis", formato, gzip, saida -> exportacaoService.exportarPDIs(saida, formato));
+    }
+
+    private ResponseEntity<StreamingResponseBody> arquivo(String nome, FormatoArquivo formato, boolean gzip,
+                                                          StreamingResponseBody conteudo) {
+        String nomeArquivo = nome + "-" + LocalDate.now() + "." + formato.getExtensao() + (gzip ? ".gz" : "");
+        StreamingResponseBody corpo = !gzip ? conteudo : saida -> {
+            // finish() escreve o rodapé do gzip sem fechar a saída do servidor
+            GZIPOutputStream compactada = new GZIPOutputStream(saida, 64 * 1024);
+            conteudo.writeTo(compactada);
+            compactada.finish();
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(nomeArquivo).build().toString())
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                                  : MediaType.parseMediaType(formato.getContentType() + ";charset=UTF-8"))
+                .body(corpo);
+    }
+}
@@ -1,26 +1,49 @@
 package com.progress.progress_api.controller;
 
 import com.progress.progress_api.dto.FeedbackDTO;
+import com.progress.progress_api.dto.PaginaFeedbackDTO;
+import com.progress.progress_api.dto.ResultadoBuscaFeedbackDTO;
+import com.progress.progress_api.dto.ResultadoImportacaoDTO;
 import com.progress.progress_api.model.Usuario;
+import com.progress.progress_api.service.FeedbackBuscaService;
+import com.progress.progress_api.service.FeedbackImportacaoService;
 import com.progress.progress_api.service.FeedbackService;
+import com.progress.progress_api.service.FormatoArquivo;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/feedbacks")
 public class FeedbackController {
     
+    public static final String HEADER_PROXIMO_CURSOR = "X-Proximo-Cursor";
+    private static final int LIMITE_MAXIMO = 100;
+
     @Autowired
     private FeedbackService feedbackService;
 
+    @Autowired
+    private FeedbackBuscaService feedbackBuscaService;
+
+    @Autowired
+    private FeedbackImportacaoService feedbackImportacaoService;
+
     @PostMapping
     @PreAuthorize("isAuthenticated()") // Qualquer usuário autenticado pode criar
     public ResponseEntity<FeedbackDTO> criarFeedback(@RequestBody FeedbackDTO feedbackDTO, Authentication authentication) {
@@ -43,5 +66,73 @@ public class FeedbackController {
         return new ResponseEntity<>(novoFeedback, HttpStatus.CREATED);
     }
     
-    // Adicione outros endpoints aqui (GET, PUT, DELETE)...
-}
\ No newline at end of file
+    /**
+     * Lista feedbacks em ordem decrescente de envio, paginados por cursor.
+     * O corpo é a lista da página; o cursor da próxima página vem no header X-Proximo-Cursor
+     * (ausente na última página). Colaboradores só listam feedbacks que enviaram ou receberam.
+     */
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<FeedbackDTO>> listarFeedbacks(@RequestParam(required = false) Long autorId,
+                                                             @RequestParam(required = false) Long destinatarioId,
+                                                             @RequestParam(required = false) String sentimento,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "20") int limite,
+                                                             Authentication authentication) {
+        Usuario usuarioLogado = (Usuario) authentication.getPrincipal();
+        boolean podeVerTodos = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(roleName -> roleName.equals("ROLE_ADMIN") || roleName.equals("ROLE_MANAGER"));
+
+        if (!podeVerTodos) {
+            boolean filtraPorSiMesmo = usuarioLogado.getId().equals(autorId) || usuarioLogado.getId().equals(destinatarioId);
+            if (!filtraPorSiMesmo) {
+                if (autorId != null || destinatarioId != null) {
+                    return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+                }
+                destinatarioId = usuarioLogado.getId();
+            }
+        }
+
+        PaginaFeedbackDTO pagina;
+        try {
+            pagina = feedbackService.listarFeedbacks(autorId, destinatarioId, sentimento, cursor,
+                    Math.max(1, Math.min(limite, LIMITE_MAXIMO)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+        if (pagina.proximoCursor() != null) {
+            resposta.header(HEADER_PROXIMO_CURSOR, pagina.proximoCursor());
+        }
+        return resposta.body(pagina.itens());
+    }
+
+    /**
+     * Busca textual nos campos feedbackTextual, habilidadesUtilizadas e dificuldadesEncontradas,
+     * sem diferenciar acentos ou maiúsculas. Resultados ordenados por relevância.
+     */
+    @GetMapping("/busca")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<List<ResultadoBuscaFeedbackDTO>> buscarFeedbacks(@RequestParam String q,
+                                                                          @RequestParam(defaultValue = "20") int limite) {
+        return ResponseEntity.ok(feedbackBuscaService.buscar(q, Math.max(1, Math.min(limite, LIMITE_MAXIMO))));
+    }
+
+    /**
+     * Importa feedbacks em massa. O corpo é NDJSON (application/x-ndjson, um feedback por linha)
+     * ou CSV com cabeçalho (text/csv). Retorna o relatório com os erros por linha.
+     * Com analisar=true os feedbacks entram na fila de análise da IA.
+     */
+    @PostMapping(value = "/importacao", consumes = {"application/x-ndjson", "text/csv"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResultadoImportacaoDTO> importarFeedbacks(InputStream corpo,
+                                                                    @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                                    @RequestParam(defaultValue = "false") boolean analisar) throws IOException {
+        FormatoArquivo formato = contentType.startsWith(FormatoArquivo.CSV.getContentType())
+                ? FormatoArquivo.CSV
+                : FormatoArquivo.NDJSON;
+        return ResponseEntity.ok(feedbackImportacaoService.importar(corpo, formato, analisar));
+    }
+}
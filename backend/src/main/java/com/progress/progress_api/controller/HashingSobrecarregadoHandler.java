@@ -0,0 +1,23 @@
+package com.progress.progress_api.controller;
+
+import com.progress.progress_api.security.HashingSobrecarregadoException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Pool de hashing de senhas saturado, em qualquer endpoint (login, criação ou troca de senha):
+ * 503 com Retry-After, para o cliente tentar de novo em instantes em vez de receber um erro 500.
+ */
+@RestControllerAdvice
+public class HashingSobrecarregadoHandler {
+
+    @ExceptionHandler(HashingSobrecarregadoException.class)
+    public ResponseEntity<String> hashingSobrecarregado(HashingSobrecarregadoException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
+}
@@ -0,0 +1,192 @@
+package com.progress.progress_api.controller;
+
+import com.progress.progress_api.dto.MetaPDIDTO;
+import com.progress.progress_api.dto.PDIDTO;
+import com.progress.progress_api.dto.PaginaDTO;
+import com.progress.progress_api.dto.ProvisionamentoPDIDTO;
+import com.progress.progress_api.dto.ResultadoProvisionamentoDTO;
+import com.progress.progress_api.dto.ResumoPDIDTO;
+import com.progress.progress_api.dto.SugestaoMetasDTO;
+import com.progress.progress_api.model.PDI;
+import com.progress.progress_api.model.Usuario;
+import com.progress.progress_api.service.PDIProvisionamentoService;
+import com.progress.progress_api.service.PDIService;
+import com.progress.progress_api.service.SugestaoMetasService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/pdis")
+public class PDIController {
+
+    private static final int LIMITE_MAXIMO = 100;
+
+    @Autowired
+    private PDIService pdiService;
+
+    @Autowired
+    private PDIProvisionamentoService pdiProvisionamentoService;
+
+    @Autowired
+    private SugestaoMetasService sugestaoMetasService;
+
+    /**
+     * Lista PDIs com as metas, do mais novo para o mais antigo, paginados por cursor.
+     * Filtros opcionais: colaborador, status, intervalo da dataInicio (desde/ate) e faixa de percentual de metas
+     * concluídas (progressoMinimo/progressoMaximo, 0 a 100), todos inclusive. ordenarPor=PROGRESSO lista do
+     * menor para o maior progresso. O cursor da próxima página vem no header X-Proximo-Cursor. Colaboradores só listam os próprios PDIs.
+     */
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<PDIDTO>> listarPDIs(@RequestParam(required = false) Long colaboradorId,
+                                                   @RequestParam(required = false) PDI.StatusPDI status,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+                                                   @RequestParam(required = false) Integer progressoMinimo,
+                                                   @RequestParam(required = false) Integer progressoMaximo,
+                                                   @RequestParam(defaultValue = "RECENTES") PDIService.Ordenacao ordenarPor,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = "20") int limite,
+                                                   Authentication authentication) {
+        PDIService.Filtros filtros = new PDIService.Filtros(colaboradorId, status, desde, ate, progressoMinimo, progressoMaximo);
+        return listar(filtros, ordenarPor, cursor, limite, authentication, pdiService::listarPDIs);
+    }
+
+    /**
+     * Mesma listagem, resumida: título, status e progresso, sem carregar as metas.
+     */
+    @GetMapping("/resumo")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<ResumoPDIDTO>> listarResumos(@RequestParam(required = false) Long colaboradorId,
+                                                            @RequestParam(required = false) PDI.StatusPDI status,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+                                                            @RequestParam(required = false) Integer progressoMinimo,
+                                                            @RequestParam(required = false) Integer progressoMaximo,
+                                                            @RequestParam(defaultValue = "RECENTES") PDIService.Ordenacao ordenarPor,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "20") int limite,
+                                                            Authentication authentication) {
+        PDIService.Filtros filtros = new PDIService.Filtros(colaboradorId, status, desde, ate, progressoMinimo, progressoMaximo);
+        return listar(filtros, ordenarPor, cursor, limite, authentication, pdiService::listarResumos);
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<PDIDTO> buscarPDI(@PathVariable Long id, Authentication authentication) {
+        PDIDTO pdi = pdiService.buscarPDI(id);
+        if (!podeVerTodos(authentication) && !pdi.getColaboradorId().equals(((Usuario) authentication.getPrincipal()).getId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(pdi);
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<PDIDTO> criarPDI(@RequestBody PDIDTO pdiDTO) {
+        return new ResponseEntity<>(pdiService.criarPDI(pdiDTO), HttpStatus.CREATED);
+    }
+
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<PDIDTO> atualizarPDI(@PathVariable Long id, @RequestBody PDIDTO pdiDTO) {
+        return ResponseEntity.ok(pdiService.atualizarPDI(id, pdiDTO));
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> deletarPDI(@PathVariable Long id) {
+        pdiService.deletarPDI(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Cria o mesmo PDI para vários colaboradores (por colaboradorIds ou por area/cargo), em lotes.
+     * Responde com a situação de cada colaborador; quem já tem um PDI em aberto com o mesmo título é ignorado.
+     */
+    @PostMapping("/provisionamento")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<ResultadoProvisionamentoDTO> provisionarPDIs(@RequestBody ProvisionamentoPDIDTO modelo) {
+        try {
+            return ResponseEntity.ok(pdiProvisionamentoService.provisionar(modelo));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // --- SUGESTÕES DE METAS DA IA ---
+
+    // Metas sugeridas para o colaborador, a partir do objetivo principal do PDI
+    @GetMapping("/sugestoes")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<List<MetaPDIDTO>> sugerirMetas(@RequestParam Long colaboradorId, @RequestParam String objetivo) {
+        return ResponseEntity.ok(sugestaoMetasService.sugerir(colaboradorId, objetivo));
+    }
+
+    // Metas sugeridas para cada colaborador da área, numa única chamada
+    @GetMapping("/sugestoes/equipe")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<List<SugestaoMetasDTO>> sugerirMetasParaEquipe(@RequestParam String area, @RequestParam String objetivo) {
+        return ResponseEntity.ok(sugestaoMetasService.sugerirParaEquipe(area, objetivo));
+    }
+
+    // Descarta as sugestões em cache desta instância
+    @DeleteMapping("/sugestoes/cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> invalidarSugestoes() {
+        sugestaoMetasService.invalidar();
+        return ResponseEntity.noContent().build();
+    }
+
+    private interface Listagem<T> {
+        PaginaDTO<T> listar(PDIService.Filtros filtros, PDIService.Ordenacao ordenacao, String cursor, int limite);
+    }
+
+    private <T> ResponseEntity<List<T>> listar(PDIService.Filtros filtros, PDIService.Ordenacao ordenacao, String cursor,
+                                               int limite, Authentication authentication, Listagem<T> listagem) {
+        if (!podeVerTodos(authentication)) {
+            Long usuarioId = ((Usuario) authentication.getPrincipal()).getId();
+            if (filtros.colaboradorId() != null && !filtros.colaboradorId().equals(usuarioId)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            filtros = new PDIService.Filtros(usuarioId, filtros.status(), filtros.desde(), filtros.ate(),
+                    filtros.progressoMinimo(), filtros.progressoMaximo());
+        }
+
+        PaginaDTO<T> pagina;
+        try {
+            pagina = listagem.listar(filtros, ordenacao, cursor, Math.max(1, Math.min(limite, LIMITE_MAXIMO)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+        if (pagina.proximoCursor() != null) {
+            resposta.header(FeedbackController.HEADER_PROXIMO_CURSOR, pagina.proximoCursor());
+        }
+        return resposta.body(pagina.itens());
+    }
+
+    private static boolean podeVerTodos(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(roleName -> roleName.equals("ROLE_ADMIN") || roleName.equals("ROLE_MANAGER"));
+    }
+}
@@ -1,17 +1,24 @@
 package com.progress.progress_api.controller;
 
+import com.progress.progress_api.dto.PaginaDTO;
 import com.progress.progress_api.dto.UsuarioDTO;
+import com.progress.progress_api.dto.UsuarioResumoDTO;
+import com.progress.progress_api.security.HashingSobrecarregadoException;
 import com.progress.progress_api.service.UsuarioService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/usuarios")
 public class UsuarioController {
 
+    private static final int LIMITE_MAXIMO = 100;
+
     @Autowired
     private UsuarioService usuarioService;
 
@@ -22,6 +29,32 @@ public class UsuarioController {
         return ResponseEntity.ok(usuarios);
     }
 
+    /**
+     * Diretório de usuários em ordem de nome, paginado por cursor, com filtros opcionais de área, cargo
+     * e papel (ex: MANAGER). O cursor da próxima página vem no header X-Proximo-Cursor.
+     */
+    @GetMapping("/diretorio")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<List<UsuarioResumoDTO>> listarDiretorio(@RequestParam(required = false) String area,
+                                                                  @RequestParam(required = false) String cargo,
+                                                                  @RequestParam(required = false) String role,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "50") int limite) {
+        PaginaDTO<UsuarioResumoDTO> pagina;
+        try {
+            pagina = usuarioService.listarDiretorio(new UsuarioService.FiltrosDiretorio(area, cargo, role), cursor,
+                    Math.max(1, Math.min(limite, LIMITE_MAXIMO)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+        if (pagina.proximoCursor() != null) {
+            resposta.header(FeedbackController.HEADER_PROXIMO_CURSOR, pagina.proximoCursor());
+        }
+        return resposta.body(pagina.itens());
+    }
+
     @GetMapping("/email/{email}")
     @PreAuthorize("hasRole('ADMIN') or #email == authentication.principal.username")
     public ResponseEntity<UsuarioDTO> buscarUsuarioPorEmail(@PathVariable String email) {
@@ -36,6 +69,8 @@ public class UsuarioController {
         try {
             UsuarioDTO usuarioAtualizado = usuarioService.atualizarUsuario(id, usuarioDTO);
             return ResponseEntity.ok(usuarioAtualizado);
+        } catch (HashingSobrecarregadoException e) {
+            throw e; // 503 no HashingSobrecarregadoHandler, não 400
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -51,4 +86,39 @@ public class UsuarioController {
             return ResponseEntity.notFound().build();
         }
     }
+
+    // Substitui os papéis do usuário (ex: ["MANAGER"])
+    @PutMapping("/admin/{id}/roles")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> alterarRoles(@PathVariable Long id, @RequestBody Set<String> roles) {
+        try {
+            return ResponseEntity.ok(usuarioService.alterarRoles(id, roles));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Cria um papel novo (ex: ?nome=AUDITOR); o registro de papéis é recarregado em seguida
+    @PostMapping("/admin/roles")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> criarRole(@RequestParam String nome) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(usuarioService.criarRole(nome));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/admin/{id}/revogar-tokens")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> revogarTokens(@PathVariable Long id) {
+        try {
+            usuarioService.revogarTokens(id);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
 }
\ No newline at end of file
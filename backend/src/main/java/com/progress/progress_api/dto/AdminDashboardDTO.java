@@ -21,5 +21,31 @@ public record AdminDashboardDTO(
     Map<String, Long> pdisPorStatus,
 
     // Feedbacks Recentes
-    List<FeedbackDTO> feedbacksRecentes
-) {}
\ No newline at end of file
+    List<FeedbackDTO> feedbacksRecentes,
+
+    // Seções que não puderam ser calculadas dentro do tempo limite (ex: "feedbacks")
+    List<String> secoesIndisponiveis
+) {
+
+    /**
+     * Monta o DTO derivando os totais por perfil e por status a partir dos mapas agregados.
+     */
+    public static AdminDashboardDTO of(long totalUsuarios, Map<String, Long> usuariosPorPerfil,
+                                       long totalPDIs, Map<String, Long> pdisPorStatus,
+                                       List<FeedbackDTO> feedbacksRecentes, List<String> secoesIndisponiveis) {
+        return new AdminDashboardDTO(
+            totalUsuarios,
+            usuariosPorPerfil.getOrDefault("ROLE_COLLABORATOR", 0L),
+            usuariosPorPerfil.getOrDefault("ROLE_MANAGER", 0L),
+            usuariosPorPerfil.getOrDefault("ROLE_ADMIN", 0L),
+            usuariosPorPerfil,
+            totalPDIs,
+            pdisPorStatus.getOrDefault("EM_ANDAMENTO", 0L),
+            pdisPorStatus.getOrDefault("CONCLUIDO", 0L),
+            pdisPorStatus.getOrDefault("ATRASADO", 0L),
+            pdisPorStatus,
+            feedbacksRecentes,
+            secoesIndisponiveis
+        );
+    }
+}
@@ -0,0 +1,17 @@
+package com.progress.progress_api.dto;
+
+import java.util.List;
+
+// Item enviado ao endpoint de análise em lote da IA (POST /analises)
+public record AnaliseIARequisicaoDTO(
+    String feedbackTextual,
+    String dificuldadesEncontradas,
+    String interessesAprendizado
+) {
+    public static AnaliseIARequisicaoDTO de(FeedbackDTO feedback) {
+        return new AnaliseIARequisicaoDTO(feedback.getFeedbackTextual(),
+                feedback.getDificuldadesEncontradas(), feedback.getInteressesAprendizado());
+    }
+
+    public record Lote(List<AnaliseIARequisicaoDTO> itens) {}
+}
@@ -0,0 +1,22 @@
+package com.progress.progress_api.dto;
+
+import java.util.List;
+
+// Resultado da análise de um feedback. No lote, os resultados voltam na mesma ordem dos itens enviados.
+public record AnaliseIAResultadoDTO(
+    String sentimentoAnalisado,
+    String categoriaDificuldadeAnalisada,
+    String metaSugeridaIA,
+    String cursoRecomendadoIA,
+    String mentorIndicadoIA
+) {
+    public void aplicarEm(FeedbackDTO feedback) {
+        feedback.setSentimentoAnalisado(sentimentoAnalisado);
+        feedback.setCategoriaDificuldadeAnalisada(categoriaDificuldadeAnalisada);
+        feedback.setMetaSugeridaIA(metaSugeridaIA);
+        feedback.setCursoRecomendadoIA(cursoRecomendadoIA);
+        feedback.setMentorIndicadoIA(mentorIndicadoIA);
+    }
+
+    public record Lote(List<AnaliseIAResultadoDTO> resultados) {}
+}
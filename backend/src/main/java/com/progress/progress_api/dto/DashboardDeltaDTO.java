@@ -0,0 +1,10 @@
+package com.progress.progress_api.dto;
+
+import java.util.Map;
+
+// Variação enviada aos assinantes do stream do dashboard.
+// Ex: {"variacoes": {"totalUsuarios": 1, "usuariosPorPerfil.ROLE_COLLABORATOR": 1}, "novoFeedback": null}
+public record DashboardDeltaDTO(
+    Map<String, Long> variacoes,
+    FeedbackDTO novoFeedback
+) {}
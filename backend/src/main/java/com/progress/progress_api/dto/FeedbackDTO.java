@@ -1,9 +1,14 @@
 package com.progress.progress_api.dto;
 
+import com.progress.progress_api.model.Feedback.StatusAnalise;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor // Usado pela projeção da listagem paginada (FeedbackRepository.buscarPagina)
 public class FeedbackDTO {
     private Long id;
     private Long autorId;
@@ -20,4 +25,5 @@ public class FeedbackDTO {
     private String metaSugeridaIA;
     private String cursoRecomendadoIA;
     private String mentorIndicadoIA;
+    private StatusAnalise statusAnalise; // PENDENTE enquanto a IA não terminou a análise
 }
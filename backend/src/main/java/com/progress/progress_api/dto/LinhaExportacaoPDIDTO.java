@@ -0,0 +1,28 @@
+package com.progress.progress_api.dto;
+
+import com.progress.progress_api.model.PDI.StatusPDI;
+
+import java.time.LocalDate;
+
+/**
+ * Linha da exportação de PDIs: os dados do PDI repetidos em cada uma das suas metas.
+ * Os campos da meta são nulos quando o PDI não tem metas.
+ */
+public record LinhaExportacaoPDIDTO(
+        Long pdiId,
+        Long colaboradorId,
+        String colaboradorNome,
+        String titulo,
+        String descricaoGeral,
+        LocalDate dataInicio,
+        LocalDate dataConclusaoPrevista,
+        LocalDate dataConclusaoReal,
+        StatusPDI status,
+        Long metaId,
+        String descricaoMeta,
+        String acoesNecessarias,
+        LocalDate prazo,
+        Boolean metaConcluida,
+        String recursosNecessarios,
+        String feedbackMeta
+) {}
@@ -2,10 +2,13 @@ package com.progress.progress_api.dto;
 
 import com.progress.progress_api.model.PDI.StatusPDI;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 @Data
+@NoArgsConstructor
 public class PDIDTO {
     private Long id;
     private Long colaboradorId;
@@ -16,5 +19,27 @@ public class PDIDTO {
     private LocalDate dataConclusaoPrevista;
     private LocalDate dataConclusaoReal;
     private StatusPDI status;
+    private int totalMetas;
+    private int metasConcluidas;
+    private int percentualConcluido; // 0 a 100
     private List<MetaPDIDTO> metas;
-}
\ No newline at end of file
+
+    // Usado pela projeção da listagem (PDIRepository.buscarPagina); as metas são carregadas à parte
+    public PDIDTO(Long id, Long colaboradorId, String colaboradorNome, String titulo, String descricaoGeral,
+                  LocalDate dataInicio, LocalDate dataConclusaoPrevista, LocalDate dataConclusaoReal, StatusPDI status,
+                  int totalMetas, int metasConcluidas, int percentualConcluido) {
+        this.id = id;
+        this.colaboradorId = colaboradorId;
+        this.colaboradorNome = colaboradorNome;
+        this.titulo = titulo;
+        this.descricaoGeral = descricaoGeral;
+        this.dataInicio = dataInicio;
+        this.dataConclusaoPrevista = dataConclusaoPrevista;
+        this.dataConclusaoReal = dataConclusaoReal;
+        this.status = status;
+        this.totalMetas = totalMetas;
+        this.metasConcluidas = metasConcluidas;
+        this.percentualConcluido = percentualConcluido;
+        this.metas = new ArrayList<>();
+    }
+}
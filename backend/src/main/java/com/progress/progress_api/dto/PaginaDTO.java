@@ -0,0 +1,9 @@
+package com.progress.progress_api.dto;
+
+import java.util.List;
+
+// Página de uma listagem paginada por cursor. proximoCursor é null na última página.
+public record PaginaDTO<T>(
+    List<T> itens,
+    String proximoCursor
+) {}
@@ -0,0 +1,9 @@
+package com.progress.progress_api.dto;
+
+import java.util.List;
+
+// Página da listagem de feedbacks. proximoCursor é null na última página.
+public record PaginaFeedbackDTO(
+    List<FeedbackDTO> itens,
+    String proximoCursor
+) {}
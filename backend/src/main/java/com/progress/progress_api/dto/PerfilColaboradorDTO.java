@@ -0,0 +1,9 @@
+package com.progress.progress_api.dto;
+
+// Dados do colaborador que personalizam as sugestões de metas (sem carregar a entidade Usuario)
+public record PerfilColaboradorDTO(
+    Long id,
+    String nome,
+    String cargo,
+    String area
+) {}
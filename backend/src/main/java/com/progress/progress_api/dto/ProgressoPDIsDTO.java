@@ -0,0 +1,13 @@
+package com.progress.progress_api.dto;
+
+import java.util.Map;
+
+/**
+ * Progresso das metas dos PDIs em aberto (planejados, em andamento e atrasados).
+ * pdisPorFaixa agrupa por percentual concluído: "0-24", "25-49", "50-74", "75-99" e "100".
+ */
+public record ProgressoPDIsDTO(
+    long totalPDIs,
+    double progressoMedio,
+    Map<String, Long> pdisPorFaixa
+) {}
@@ -0,0 +1,21 @@
+package com.progress.progress_api.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Modelo de PDI a ser criado para vários colaboradores de uma vez (POST /api/pdis/provisionamento).
+ * Seleção: colaboradorIds, ou area e/ou cargo (ambos, quando informados, precisam coincidir).
+ */
+public record ProvisionamentoPDIDTO(
+    String titulo,
+    String descricaoGeral,
+    LocalDate dataInicio,
+    LocalDate dataConclusaoPrevista,
+    List<MetaPDIDTO> metas,
+
+    // Seleção dos colaboradores
+    String area,
+    String cargo,
+    List<Long> colaboradorIds
+) {}
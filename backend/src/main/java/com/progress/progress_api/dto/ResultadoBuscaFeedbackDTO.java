@@ -0,0 +1,11 @@
+package com.progress.progress_api.dto;
+
+import java.util.List;
+
+// Resultado da busca textual. Cada destaque é um trecho de um campo do feedback com o HTML
+// escapado e os termos encontrados entre <mark></mark>.
+public record ResultadoBuscaFeedbackDTO(
+    FeedbackDTO feedback,
+    double pontuacao,
+    List<String> destaques
+) {}
@@ -0,0 +1,16 @@
+package com.progress.progress_api.dto;
+
+import java.util.List;
+
+// Relatório da importação de feedbacks. "linha" é o número da linha (NDJSON) ou do registro (CSV)
+// no arquivo enviado; erros além do limite do relatório são apenas contados em errosOmitidos.
+public record ResultadoImportacaoDTO(
+    long linhasLidas,
+    long importados,
+    long rejeitados,
+    long duracaoMs,
+    List<ErroLinha> erros,
+    long errosOmitidos
+) {
+    public record ErroLinha(long linha, String mensagem) {}
+}
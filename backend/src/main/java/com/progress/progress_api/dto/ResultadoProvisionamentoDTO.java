@@ -0,0 +1,23 @@
+package com.progress.progress_api.dto;
+
+import java.util.List;
+
+// Resultado do provisionamento de PDIs em massa, com uma linha por colaborador selecionado
+public record ResultadoProvisionamentoDTO(
+    int colaboradores,
+    int criados,
+    int ignorados,
+    int falhas,
+    long duracaoMs,
+    List<Item> itens
+) {
+    /**
+     * CRIADO: PDI criado (pdiId).
+     * JA_POSSUI_PDI_ABERTO: o colaborador já tem um PDI em aberto com o mesmo título; nada foi criado.
+     * NAO_ENCONTRADO: id informado em colaboradorIds não existe.
+     * FALHA: o lote do colaborador não pôde ser gravado (mensagem).
+     */
+    public enum Situacao { CRIADO, JA_POSSUI_PDI_ABERTO, NAO_ENCONTRADO, FALHA }
+
+    public record Item(Long colaboradorId, String colaboradorNome, Situacao situacao, Long pdiId, String mensagem) {}
+}
@@ -0,0 +1,19 @@
+package com.progress.progress_api.dto;
+
+import com.progress.progress_api.model.PDI.StatusPDI;
+
+import java.time.LocalDate;
+
+// Linha da listagem resumida de PDIs: sem as metas, só os contadores de progresso
+public record ResumoPDIDTO(
+    Long id,
+    Long colaboradorId,
+    String colaboradorNome,
+    String titulo,
+    StatusPDI status,
+    LocalDate dataInicio,
+    LocalDate dataConclusaoPrevista,
+    int totalMetas,
+    int metasConcluidas,
+    int percentualConcluido
+) {}
@@ -0,0 +1,11 @@
+package com.progress.progress_api.dto;
+
+import java.util.List;
+
+// Metas sugeridas para um colaborador da equipe (GET /api/pdis/sugestoes/equipe)
+public record SugestaoMetasDTO(
+    Long colaboradorId,
+    String colaboradorNome,
+    String cargo,
+    List<MetaPDIDTO> metas
+) {}
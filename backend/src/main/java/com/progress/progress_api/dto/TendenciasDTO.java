@@ -0,0 +1,15 @@
+package com.progress.progress_api.dto;
+
+import com.progress.progress_api.model.PDI.StatusPDI;
+import java.time.LocalDate;
+import java.util.List;
+
+// Séries diárias lidas somente das tabelas de rollup
+public record TendenciasDTO(
+    List<PontoPdi> pdisPorStatus,
+    List<PontoFeedback> feedbacks
+) {
+    public record PontoPdi(LocalDate dia, StatusPDI status, long total) {}
+
+    public record PontoFeedback(LocalDate dia, String sentimento, String categoria, long total) {}
+}
@@ -0,0 +1,13 @@
+package com.progress.progress_api.dto;
+
+import java.util.Set;
+
+// Linha do diretório de usuários (GET /api/usuarios/diretorio): só as colunas listadas, com os papéis
+public record UsuarioResumoDTO(
+    Long id,
+    String nome,
+    String email,
+    String cargo,
+    String area,
+    Set<String> roles
+) {}
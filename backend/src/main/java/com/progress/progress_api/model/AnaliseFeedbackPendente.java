@@ -0,0 +1,51 @@
+package com.progress.progress_api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox da análise de feedbacks pela IA. A linha é gravada na mesma transação do feedback
+ * e processada depois pelo FeedbackAnaliseWorker, fora da transação de escrita.
+ */
+@Entity
+@Table(name = "analise_feedback_outbox",
+       indexes = @Index(name = "idx_analise_outbox_status_proxima", columnList = "status, proximaTentativaEm"))
+@Data
+@NoArgsConstructor
+public class AnaliseFeedbackPendente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "analise_feedback_outbox_seq")
+    @SequenceGenerator(name = "analise_feedback_outbox_seq", sequenceName = "analise_feedback_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long feedbackId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.PENDENTE;
+
+    private int tentativas;
+
+    @Column(nullable = false)
+    private LocalDateTime proximaTentativaEm;
+
+    @Column(length = 1000)
+    private String ultimoErro;
+
+    private LocalDateTime criadoEm;
+
+    public AnaliseFeedbackPendente(Long feedbackId) {
+        this.feedbackId = feedbackId;
+        this.criadoEm = LocalDateTime.now();
+        this.proximaTentativaEm = this.criadoEm;
+    }
+
+    public enum Status {
+        PENDENTE,
+        FALHOU // Excedeu o número máximo de tentativas (poison row)
+    }
+}
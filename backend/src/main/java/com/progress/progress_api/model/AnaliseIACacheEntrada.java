@@ -0,0 +1,26 @@
+package com.progress.progress_api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Nível persistente do cache de análises da IA, indexado pelo hash do conteúdo normalizado do feedback.
+ */
+@Entity
+@Table(name = "analise_ia_cache")
+@Data
+public class AnaliseIACacheEntrada {
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    private String sentimentoAnalisado;
+    private String categoriaDificuldadeAnalisada;
+    private String metaSugeridaIA;
+    private String cursoRecomendadoIA;
+    private String mentorIndicadoIA;
+
+    private LocalDateTime criadoEm;
+}
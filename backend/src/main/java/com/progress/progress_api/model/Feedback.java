@@ -6,13 +6,22 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "feedbacks")
+@Table(name = "feedbacks", indexes = {
+    @Index(name = "idx_feedbacks_atualizado_em", columnList = "atualizadoEm"),
+    // Índices da paginação por cursor (dataEnvio, id), com e sem filtro por autor/destinatário
+    @Index(name = "idx_feedbacks_data_envio_id", columnList = "dataEnvio, id"),
+    @Index(name = "idx_feedbacks_autor_data_envio_id", columnList = "autor_id, dataEnvio, id"),
+    @Index(name = "idx_feedbacks_destinatario_data_envio_id", columnList = "destinatario_id, dataEnvio, id")
+})
 @Data
 @NoArgsConstructor
 public class Feedback {
 
+    // Sequence com alocação em blocos: permite inserts em lote no JDBC (IDENTITY desativa o batching).
+    // O SchemaInitializer alinha a sequence com os ids já existentes.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "feedbacks_seq")
+    @SequenceGenerator(name = "feedbacks_seq", sequenceName = "feedbacks_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -31,6 +40,7 @@ public class Feedback {
     private String interessesAprendizado;
 
     private LocalDateTime dataEnvio;
+    private LocalDateTime atualizadoEm; // Usado pelo job de rollup para processar só o que mudou
 
     // Campos preenchidos pela IA (ou manualmente)
     private String sentimentoAnalisado; // Ex: Positivo, Neutro, Negativo
@@ -39,8 +49,28 @@ public class Feedback {
     private String cursoRecomendadoIA;
     private String mentorIndicadoIA; // Pode ser o nome ou ID de outro Usuario
 
+    // Situação da análise assíncrona da IA (ver FeedbackAnaliseWorker)
+    @Enumerated(EnumType.STRING)
+    private StatusAnalise statusAnalise;
+
     @PrePersist
     protected void onCreate() {
-        dataEnvio = LocalDateTime.now();
+        atualizadoEm = LocalDateTime.now();
+        // Importações de feedbacks históricos trazem a data original
+        if (dataEnvio == null) {
+            dataEnvio = atualizadoEm;
+        }
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        atualizadoEm = LocalDateTime.now();
+    }
+
+    public enum StatusAnalise {
+        PENDENTE,
+        CONCLUIDA,
+        FALHOU,
+        NAO_SOLICITADA // Importado sem pedir análise
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+package com.progress.progress_api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * Rollup diário: feedbacks enviados em cada dia, por sentimento e categoria de dificuldade.
+ */
+@Entity
+@Table(name = "rollup_feedback_diario",
+       indexes = @Index(name = "idx_rollup_feedback_dia", columnList = "dia"))
+@Data
+@NoArgsConstructor
+public class FeedbackDiario {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    private String sentimento;
+    private String categoria;
+    private long total;
+}
@@ -2,21 +2,30 @@ package com.progress.progress_api.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "metas_pdi")
+@Table(name = "metas_pdi", indexes = @Index(name = "idx_metas_pdi_pdi_id", columnList = "pdi_id")) // Metas carregadas por PDI
 @Data
 @NoArgsConstructor
 public class MetaPDI {
 
+    public static final String SEQUENCIA = "metas_pdi_seq";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = SEQUENCIA)
+    @SequenceGenerator(name = SEQUENCIA, sequenceName = SEQUENCIA, allocationSize = PDI.BLOCO_IDS)
     private Long id;
 
-    // Removido o @ManyToOne para PDI daqui, pois o relacionamento é unidirecional de PDI para MetaPDI
-    // e a @JoinColumn está em PDI.
+    // Dono da relação: pdi_id vai no próprio INSERT da meta, sem UPDATE posterior (ver PDI.adicionarMeta)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "pdi_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private PDI pdi;
 
     @Column(nullable = false)
     private String descricaoMeta;
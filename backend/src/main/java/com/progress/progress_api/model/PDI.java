@@ -2,19 +2,35 @@ package com.progress.progress_api.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 import lombok.NoArgsConstructor;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "pdis")
+@Table(name = "pdis", indexes = {
+        @Index(name = "idx_pdis_atualizado_em", columnList = "atualizadoEm"),
+        @Index(name = "idx_pdis_colaborador_id", columnList = "colaborador_id, id"), // Listagem por colaborador
+        @Index(name = "idx_pdis_data_conclusao_prevista", columnList = "dataConclusaoPrevista"), // Marcação de atrasados
+        @Index(name = "idx_pdis_percentual_concluido", columnList = "percentualConcluido, id") // Listagem por progresso
+})
 @Data
 @NoArgsConstructor
 public class PDI {
 
+    /**
+     * Ids de PDI e de MetaPDI vêm de sequences reservadas em blocos deste tamanho (otimizador pooled:
+     * cada nextval cobre os ids (valor - BLOCO_IDS, valor]). Com isso os inserts entram nos lotes
+     * do hibernate.jdbc.batch_size, o que não acontece com IDENTITY.
+     */
+    public static final int BLOCO_IDS = 50;
+    public static final String SEQUENCIA = "pdis_seq";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = SEQUENCIA)
+    @SequenceGenerator(name = SEQUENCIA, sequenceName = SEQUENCIA, allocationSize = BLOCO_IDS)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -34,10 +50,61 @@ public class PDI {
     @Enumerated(EnumType.STRING)
     private StatusPDI status; // Ex: EM_ANDAMENTO, CONCLUIDO, CANCELADO
 
-    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
-    @JoinColumn(name = "pdi_id") // Adiciona a coluna de chave estrangeira na tabela 'meta_pdi'
+    private LocalDateTime criadoEm;
+    private LocalDateTime atualizadoEm; // Data da última alteração
+
+    // Último status já contabilizado no rollup diário (ver RollupService)
+    @Enumerated(EnumType.STRING)
+    private StatusPDI statusRollup;
+
+    // Progresso das metas, gravado junto com o PDI (recalcularProgresso) para que listagens e dashboard
+    // ordenem e filtrem por progresso sem ler metas_pdi. PDIProgressoService corrige eventuais desvios.
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int totalMetas;
+
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int metasConcluidas;
+
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int percentualConcluido; // 0 a 100, arredondado para baixo; 0 quando não há metas
+
+    // Lado inverso: a chave estrangeira é gravada por MetaPDI.pdi. Adicionar metas por adicionarMeta
+    @OneToMany(mappedBy = "pdi", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<MetaPDI> metas = new ArrayList<>();
 
+    public void adicionarMeta(MetaPDI meta) {
+        meta.setPdi(this);
+        metas.add(meta);
+    }
+
+    /**
+     * Atualiza os contadores de progresso a partir das metas carregadas. Chamar antes de salvar
+     * sempre que as metas forem adicionadas, removidas ou marcadas como concluídas.
+     */
+    public void recalcularProgresso() {
+        totalMetas = metas.size();
+        metasConcluidas = (int) metas.stream().filter(MetaPDI::isConcluida).count();
+        percentualConcluido = percentual(totalMetas, metasConcluidas);
+    }
+
+    public static int percentual(int totalMetas, int metasConcluidas) {
+        return totalMetas == 0 ? 0 : metasConcluidas * 100 / totalMetas;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        criadoEm = LocalDateTime.now();
+        atualizadoEm = criadoEm;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        atualizadoEm = LocalDateTime.now();
+    }
+
     public enum StatusPDI {
         PLANEJADO,
         EM_ANDAMENTO,
@@ -0,0 +1,29 @@
+package com.progress.progress_api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * Rollup diário: quantidade de PDIs em cada status ao final de cada dia.
+ */
+@Entity
+@Table(name = "rollup_pdi_status_diario",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"dia", "status"}))
+@Data
+@NoArgsConstructor
+public class PdiStatusDiario {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    @Enumerated(EnumType.STRING)
+    private PDI.StatusPDI status;
+
+    private long total;
+}
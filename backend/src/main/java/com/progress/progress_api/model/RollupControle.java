@@ -0,0 +1,23 @@
+package com.progress.progress_api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Marca d'água de cada rollup: até que instante as alterações já foram processadas.
+ */
+@Entity
+@Table(name = "rollup_controle")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupControle {
+
+    @Id
+    private String nome;
+
+    private LocalDateTime processadoAte;
+}
@@ -0,0 +1,31 @@
+package com.progress.progress_api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * Linha removida de pdis ou feedbacks que o rollup ainda precisa descontar. Gravada por triggers no
+ * banco (ver SchemaInitializer), então remoções feitas por fora da aplicação também entram.
+ * Para PDIs guarda o status já contabilizado; para feedbacks, o dia do envio.
+ */
+@Entity
+@Table(name = "rollup_remocoes")
+@Data
+@NoArgsConstructor
+public class RollupRemocao {
+
+    public static final String PDIS = "pdis";
+    public static final String FEEDBACKS = "feedbacks";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String origem; // PDIS ou FEEDBACKS (nome da tabela)
+
+    private String status;
+    private LocalDate dia;
+}
@@ -0,0 +1,29 @@
+package com.progress.progress_api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Trava de um job agendado entre instâncias (ver TravaJobService) e o resultado da última execução.
+ */
+@Entity
+@Table(name = "trava_job")
+@Data
+@NoArgsConstructor
+public class TravaJob {
+
+    @Id
+    private String nome;
+
+    // Enquanto não passar deste instante, nenhuma outra instância executa o job
+    @Column(nullable = false)
+    private LocalDateTime bloqueadaAte;
+
+    private String bloqueadaPor;
+
+    private LocalDateTime ultimaExecucaoEm;
+    private Long ultimaExecucaoLinhas;
+    private Long ultimaExecucaoMs;
+}
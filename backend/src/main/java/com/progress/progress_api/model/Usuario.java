@@ -12,7 +12,12 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 @Entity
-@Table(name = "usuarios")
+@Table(name = "usuarios", indexes = {
+        // Diretório: ordem por nome, com ou sem filtro de área/cargo
+        @Index(name = "idx_usuarios_nome", columnList = "nome, id"),
+        @Index(name = "idx_usuarios_area", columnList = "area, nome, id"),
+        @Index(name = "idx_usuarios_cargo", columnList = "cargo, nome, id")
+})
 @Data
 @NoArgsConstructor
 public class Usuario implements UserDetails {
@@ -38,7 +43,8 @@ public class Usuario implements UserDetails {
     @JoinTable(
         name = "usuario_roles",
         joinColumns = @JoinColumn(name = "usuario_id"),
-        inverseJoinColumns = @JoinColumn(name = "role_id")
+        inverseJoinColumns = @JoinColumn(name = "role_id"),
+        indexes = @Index(name = "idx_usuario_roles_role_id", columnList = "role_id, usuario_id") // Filtro por papel
     )
     private Set<Role> roles = new HashSet<>();
 
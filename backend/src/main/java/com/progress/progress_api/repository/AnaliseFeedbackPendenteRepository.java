@@ -0,0 +1,24 @@
+package com.progress.progress_api.repository;
+
+import com.progress.progress_api.model.AnaliseFeedbackPendente;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AnaliseFeedbackPendenteRepository extends JpaRepository<AnaliseFeedbackPendente, Long> {
+
+    /**
+     * Reserva até "limite" análises prontas para execução. As linhas ficam bloqueadas até o fim
+     * da transação e linhas já bloqueadas por outra instância são puladas (SKIP LOCKED).
+     */
+    @Query(value = "SELECT * FROM analise_feedback_outbox " +
+                   "WHERE status = 'PENDENTE' AND proxima_tentativa_em <= :agora " +
+                   "ORDER BY proxima_tentativa_em LIMIT :limite FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<AnaliseFeedbackPendente> reservarPendentes(LocalDateTime agora, int limite);
+
+    long countByStatus(AnaliseFeedbackPendente.Status status);
+}
@@ -0,0 +1,63 @@
+package com.progress.progress_api.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Monta uma consulta só com os filtros informados: cada filtro ativo entra no WHERE com o seu parâmetro
+ * e filtros ausentes não aparecem no texto. Cada combinação de filtros vira uma instrução própria, e o
+ * plano genérico que o PostgreSQL guarda para ela usa o índice do filtro (com "(:x = 0 OR col = :x)" o
+ * plano genérico precisa servir para os dois casos e acaba ignorando o índice).
+ */
+final class ConsultaDinamica {
+
+    private final StringBuilder texto;
+    private final Map<String, Object> parametros = new LinkedHashMap<>();
+    private boolean temWhere;
+
+    ConsultaDinamica(String inicio) {
+        this.texto = new StringBuilder(inicio);
+    }
+
+    // Condição sempre presente; os parâmetros dela são informados com parametro()
+    ConsultaDinamica condicao(String condicao) {
+        texto.append(temWhere ? "AND " : "WHERE ").append(condicao).append(' ');
+        temWhere = true;
+        return this;
+    }
+
+    // Condição com um único parâmetro, incluída só quando o valor não é nulo
+    ConsultaDinamica filtro(String condicao, String nome, Object valor) {
+        if (valor != null) {
+            condicao(condicao);
+            parametro(nome, valor);
+        }
+        return this;
+    }
+
+    ConsultaDinamica parametro(String nome, Object valor) {
+        parametros.put(nome, valor);
+        return this;
+    }
+
+    ConsultaDinamica trecho(String trecho) {
+        texto.append(trecho).append(' ');
+        return this;
+    }
+
+    <T> TypedQuery<T> criar(EntityManager entityManager, Class<T> tipo) {
+        TypedQuery<T> query = entityManager.createQuery(texto.toString(), tipo);
+        parametros.forEach(query::setParameter);
+        return query;
+    }
+
+    Query criarNativa(EntityManager entityManager) {
+        Query query = entityManager.createNativeQuery(texto.toString());
+        parametros.forEach(query::setParameter);
+        return query;
+    }
+}
@@ -0,0 +1,19 @@
+package com.progress.progress_api.repository;
+
+import com.progress.progress_api.model.FeedbackDiario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface FeedbackDiarioRepository extends JpaRepository<FeedbackDiario, Long> {
+
+    List<FeedbackDiario> findByDiaGreaterThanEqualOrderByDiaAsc(LocalDate inicio);
+
+    @Modifying
+    @Query("DELETE FROM FeedbackDiario r WHERE r.dia = :dia")
+    void deleteByDia(LocalDate dia);
+}
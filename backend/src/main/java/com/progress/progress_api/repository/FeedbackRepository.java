@@ -1,13 +1,30 @@
 package com.progress.progress_api.repository;
 
+import com.progress.progress_api.dto.FeedbackDTO;
 import com.progress.progress_api.model.Feedback;
 import com.progress.progress_api.model.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface FeedbackRepository extends JpaRepository<Feedback, Long> {
+public interface FeedbackRepository extends JpaRepository<Feedback, Long>, FeedbackRepositoryCustom {
+
+    // Monta o FeedbackDTO direto na consulta, com os nomes de autor e destinatário, sem carregar os usuários
+    String PROJECAO_DTO = "SELECT new com.progress.progress_api.dto.FeedbackDTO(f.id, a.id, a.nome, d.id, d.nome, " +
+            "f.feedbackTextual, f.habilidadesUtilizadas, f.dificuldadesEncontradas, f.interessesAprendizado, " +
+            "f.dataEnvio, f.sentimentoAnalisado, f.categoriaDificuldadeAnalisada, f.metaSugeridaIA, " +
+            "f.cursoRecomendadoIA, f.mentorIndicadoIA, f.statusAnalise) " +
+            "FROM Feedback f JOIN f.autor a JOIN f.destinatario d ";
 
     // Seus métodos existentes (estão corretos)
     List<Feedback> findByAutor(Usuario autor);
@@ -21,4 +38,49 @@ public interface FeedbackRepository extends JpaRepository<Feedback, Long> {
      * @return Uma lista com até 5 entidades de Feedback.
      */
     List<Feedback> findTop5ByOrderByDataEnvioDesc();
-}
\ No newline at end of file
+
+    // --- LISTAGEM PAGINADA POR CURSOR: buscarPagina em FeedbackRepositoryCustom ---
+
+    // --- BUSCA TEXTUAL ---
+
+    /**
+     * Campos indexados pela busca textual, em ordem de id, a partir do id informado.
+     * obj[0] é o id, obj[1] o feedbackTextual, obj[2] as habilidades e obj[3] as dificuldades.
+     */
+    @Query("SELECT f.id, f.feedbackTextual, f.habilidadesUtilizadas, f.dificuldadesEncontradas FROM Feedback f " +
+           "WHERE f.id > :depoisDe ORDER BY f.id")
+    List<Object[]> buscarTextosParaIndice(long depoisDe, Limit limite);
+
+    @Query(PROJECAO_DTO + "WHERE f.id IN :ids")
+    List<FeedbackDTO> buscarDTOsPorIds(Collection<Long> ids);
+
+    // --- EXPORTAÇÃO ---
+
+    /**
+     * Feedbacks enviados no intervalo [inicio, fim), em ordem de id, lidos do banco por cursor
+     * em blocos de fetch size: a memória usada não depende da quantidade de linhas.
+     * Precisa de uma transação aberta (sem ela o driver do PostgreSQL ignora o fetch size) e o Stream deve ser fechado.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(PROJECAO_DTO + "WHERE f.dataEnvio >= :inicio AND f.dataEnvio < :fim ORDER BY f.id")
+    Stream<FeedbackDTO> streamParaExportacao(LocalDateTime inicio, LocalDateTime fim);
+
+    // --- CONSULTAS PARA O ROLLUP DIÁRIO ---
+
+    /**
+     * Dias (pela data de envio) que tiveram feedbacks criados ou alterados no intervalo.
+     */
+    @Query("SELECT DISTINCT CAST(f.dataEnvio AS LocalDate) FROM Feedback f " +
+           "WHERE f.dataEnvio IS NOT NULL " +
+           "AND ((f.atualizadoEm > :desde AND f.atualizadoEm <= :ate) OR (:incluirLegado = TRUE AND f.atualizadoEm IS NULL))")
+    List<LocalDate> findDiasAlterados(LocalDateTime desde, LocalDateTime ate, boolean incluirLegado);
+
+    /**
+     * Conta os feedbacks enviados no intervalo por sentimento e categoria.
+     * obj[0] é o sentimento, obj[1] a categoria e obj[2] a contagem.
+     */
+    @Query("SELECT f.sentimentoAnalisado, f.categoriaDificuldadeAnalisada, COUNT(f) FROM Feedback f " +
+           "WHERE f.dataEnvio >= :inicio AND f.dataEnvio < :fim " +
+           "GROUP BY f.sentimentoAnalisado, f.categoriaDificuldadeAnalisada")
+    List<Object[]> countPorSentimentoECategoria(LocalDateTime inicio, LocalDateTime fim);
+}
@@ -0,0 +1,19 @@
+package com.progress.progress_api.repository;
+
+import com.progress.progress_api.dto.FeedbackDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Consultas de feedbacks montadas conforme os filtros informados (ver ConsultaDinamica).
+ */
+public interface FeedbackRepositoryCustom {
+
+    /**
+     * Uma página de feedbacks em ordem decrescente de (dataEnvio, id), começando logo após o cursor
+     * (dataCursor nulo: primeira página). Filtros nulos não entram na consulta.
+     */
+    List<FeedbackDTO> buscarPagina(LocalDateTime dataCursor, long idCursor, Long autorId, Long destinatarioId,
+                                   String sentimento, int limite);
+}
@@ -0,0 +1,34 @@
+package com.progress.progress_api.repository;
+
+import com.progress.progress_api.dto.FeedbackDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+class FeedbackRepositoryCustomImpl implements FeedbackRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<FeedbackDTO> buscarPagina(LocalDateTime dataCursor, long idCursor, Long autorId, Long destinatarioId,
+                                          String sentimento, int limite) {
+        ConsultaDinamica consulta = new ConsultaDinamica(FeedbackRepository.PROJECAO_DTO);
+        if (dataCursor != null) {
+            // Comparação de linha: uma única faixa nos índices (…, dataEnvio, id)
+            consulta.condicao("(f.dataEnvio, f.id) < (:dataCursor, :idCursor)")
+                    .parametro("dataCursor", dataCursor)
+                    .parametro("idCursor", idCursor);
+        }
+        return consulta
+                .filtro("f.autor.id = :autorId", "autorId", autorId)
+                .filtro("f.destinatario.id = :destinatarioId", "destinatarioId", destinatarioId)
+                .filtro("f.sentimentoAnalisado = :sentimento", "sentimento", sentimento)
+                .trecho("ORDER BY f.dataEnvio DESC, f.id DESC")
+                .criar(entityManager, FeedbackDTO.class)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+}
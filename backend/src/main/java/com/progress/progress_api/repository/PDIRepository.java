@@ -1,14 +1,25 @@
 package com.progress.progress_api.repository;
 
+import com.progress.progress_api.dto.LinhaExportacaoPDIDTO;
+import com.progress.progress_api.dto.PDIDTO;
 import com.progress.progress_api.model.PDI;
 import com.progress.progress_api.model.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query; // <-- Importe a anotação Query
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface PDIRepository extends JpaRepository<PDI, Long> {
+public interface PDIRepository extends JpaRepository<PDI, Long>, PDIRepositoryCustom {
     
     // Seus métodos existentes (estão corretos)
     List<PDI> findByColaborador(Usuario colaborador);
@@ -18,17 +29,156 @@ public interface PDIRepository extends JpaRepository<PDI, Long> {
 
     /**
      * Conta quantos PDIs existem para um determinado status.
-     * Ex: "Em Andamento", "Concluído"
+     * Ex: EM_ANDAMENTO, CONCLUIDO
      * @param status O status a ser contado.
      * @return A contagem de PDIs.
      */
-    long countByStatus(String status);
+    long countByStatus(PDI.StatusPDI status);
 
     /**
      * Retorna uma lista com a contagem de PDIs agrupados por cada status.
-     * Ex: [ ["Em Andamento", 5], ["Concluído", 10] ]
-     * @return Uma lista de arrays de objetos, onde obj[0] é o status (String) e obj[1] é a contagem (Long).
+     * Ex: [ [EM_ANDAMENTO, 5], [CONCLUIDO, 10] ]
+     * @return Uma lista de arrays de objetos, onde obj[0] é o status (StatusPDI) e obj[1] é a contagem (Long).
      */
     @Query("SELECT p.status, COUNT(p) FROM PDI p GROUP BY p.status")
     List<Object[]> countPDIsByStatus();
-}
\ No newline at end of file
+
+    // --- LISTAGEM PAGINADA POR CURSOR ---
+    // As páginas são montadas em PDIRepositoryCustomImpl, só com os filtros informados
+
+    String COLUNAS_PDIDTO = "SELECT new com.progress.progress_api.dto.PDIDTO(p.id, c.id, c.nome, p.titulo, " +
+            "p.descricaoGeral, p.dataInicio, p.dataConclusaoPrevista, p.dataConclusaoReal, p.status, " +
+            "p.totalMetas, p.metasConcluidas, p.percentualConcluido) FROM PDI p JOIN p.colaborador c ";
+
+    String COLUNAS_RESUMO = "SELECT new com.progress.progress_api.dto.ResumoPDIDTO(p.id, c.id, c.nome, p.titulo, " +
+            "p.status, p.dataInicio, p.dataConclusaoPrevista, p.totalMetas, p.metasConcluidas, p.percentualConcluido) " +
+            "FROM PDI p JOIN p.colaborador c ";
+
+    String ORDEM_RECENTES = "ORDER BY p.id DESC";
+    String ORDEM_PROGRESSO = "ORDER BY p.percentualConcluido, p.id";
+
+    @Query(COLUNAS_PDIDTO + "WHERE p.id = :id")
+    Optional<PDIDTO> buscarDTOPorId(Long id);
+
+    /**
+     * Metas de vários PDIs numa única consulta, em ordem de meta.
+     * obj[0] é o id do PDI e obj[1] a MetaPDI.
+     */
+    @Query("SELECT p.id, m FROM PDI p JOIN p.metas m WHERE p.id IN :pdiIds ORDER BY m.id")
+    List<Object[]> buscarMetasPorPDIs(Collection<Long> pdiIds);
+
+    // --- EXPORTAÇÃO ---
+
+    /**
+     * Uma linha por meta (ou uma linha sem meta para PDIs sem metas), em ordem de PDI e de meta,
+     * lidas do banco por cursor em blocos de fetch size. Precisa de uma transação aberta e o Stream deve ser fechado.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.progress.progress_api.dto.LinhaExportacaoPDIDTO(p.id, c.id, c.nome, p.titulo, " +
+           "p.descricaoGeral, p.dataInicio, p.dataConclusaoPrevista, p.dataConclusaoReal, p.status, " +
+           "m.id, m.descricaoMeta, m.acoesNecessarias, m.prazo, m.concluida, m.recursosNecessarios, m.feedbackMeta) " +
+           "FROM PDI p JOIN p.colaborador c LEFT JOIN p.metas m " +
+           "ORDER BY p.id, m.id")
+    Stream<LinhaExportacaoPDIDTO> streamParaExportacao();
+
+    // --- CONSULTAS PARA O ROLLUP DIÁRIO ---
+
+    /**
+     * Marca o status atual como contabilizado (statusRollup) nos PDIs em que ele mudou desde a última marcação
+     * e devolve essas transições agrupadas, numa única instrução: os PDIs são travados antes de contar, então
+     * nenhuma mudança de status fica entre a contagem e a marcação. Não depende de atualizadoEm, então uma
+     * gravação confirmada depois da execução anterior entra na próxima, seja quando for.
+     * obj[0] é o statusRollup anterior (nulo para PDIs novos), obj[1] o status atual e obj[2] a contagem.
+     */
+    @Query(value = "WITH pendentes AS (SELECT id, status_rollup FROM pdis " +
+                   "      WHERE status_rollup IS DISTINCT FROM status FOR UPDATE), " +
+                   "marcados AS (UPDATE pdis p SET status_rollup = p.status FROM pendentes " +
+                   "      WHERE p.id = pendentes.id RETURNING pendentes.status_rollup AS anterior, p.status AS atual) " +
+                   "SELECT anterior, atual, COUNT(*) FROM marcados GROUP BY anterior, atual",
+           nativeQuery = true)
+    List<Object[]> contabilizarTransicoesDeStatus();
+
+    // --- MARCAÇÃO DE ATRASADOS ---
+
+    /**
+     * Marca como ATRASADO até "limite" PDIs com a conclusão prevista antes de "hoje" que não foram
+     * concluídos nem cancelados, sem carregar entidades. Linhas bloqueadas por outra transação ficam
+     * para a próxima execução (SKIP LOCKED). atualizado_em é gravado aqui porque o @PreUpdate não roda
+     * em UPDATE em massa, e é ele que leva a transição para o rollup diário.
+     * @return O número de PDIs marcados; menor que "limite" quando não sobrou nenhum.
+     */
+    @Modifying
+    @Query(value = "UPDATE pdis SET status = 'ATRASADO', atualizado_em = :agora WHERE id IN (" +
+                   "SELECT id FROM pdis WHERE data_conclusao_prevista < :hoje " +
+                   "AND (status IS NULL OR status NOT IN ('CONCLUIDO', 'CANCELADO', 'ATRASADO')) " +
+                   "ORDER BY id LIMIT :limite FOR UPDATE SKIP LOCKED)",
+           nativeQuery = true)
+    int marcarAtrasados(LocalDate hoje, LocalDateTime agora, int limite);
+
+    // --- PROGRESSO DAS METAS ---
+
+    /**
+     * Quantidade de PDIs por percentual concluído, entre os PDIs com um dos status informados.
+     * obj[0] é o percentual (Integer) e obj[1] a contagem (Long). Lê apenas a tabela pdis.
+     */
+    @Query("SELECT p.percentualConcluido, COUNT(p) FROM PDI p WHERE p.status IN :status GROUP BY p.percentualConcluido")
+    List<Object[]> countPorPercentualConcluido(Collection<PDI.StatusPDI> status);
+
+    /**
+     * Trava (FOR UPDATE, em ordem de id) os PDIs com id no intervalo (desde, ate] até o fim da transação.
+     * @return O número de PDIs travados.
+     */
+    @Query(value = "SELECT COUNT(*) FROM (SELECT p.id FROM pdis p WHERE p.id > :desde AND p.id <= :ate " +
+                   "ORDER BY p.id FOR UPDATE) t",
+           nativeQuery = true)
+    long travarFaixa(long desde, long ate);
+
+    /**
+     * Recalcula os contadores de progresso dos PDIs com id no intervalo (desde, ate] a partir de metas_pdi
+     * e grava apenas onde estavam divergentes.
+     * Deve rodar depois de travarFaixa na mesma transação: a contagem vem do snapshot da instrução e, se
+     * um PDI fosse gravado pelo PDIService durante o UPDATE, o PostgreSQL reavaliaria a linha mas gravaria
+     * por cima contadores calculados sem as metas dessa gravação.
+     * @return O número de PDIs corrigidos.
+     */
+    @Modifying
+    @Query(value = "UPDATE pdis p SET total_metas = c.total, metas_concluidas = c.concluidas, " +
+                   "percentual_concluido = CASE WHEN c.total = 0 THEN 0 ELSE c.concluidas * 100 / c.total END " +
+                   "FROM (SELECT p2.id, COUNT(m.id) AS total, COUNT(m.id) FILTER (WHERE m.concluida) AS concluidas " +
+                   "      FROM pdis p2 LEFT JOIN metas_pdi m ON m.pdi_id = p2.id " +
+                   "      WHERE p2.id > :desde AND p2.id <= :ate GROUP BY p2.id) c " +
+                   "WHERE p.id = c.id AND (p.total_metas <> c.total OR p.metas_concluidas <> c.concluidas " +
+                   "OR p.percentual_concluido <> CASE WHEN c.total = 0 THEN 0 ELSE c.concluidas * 100 / c.total END)",
+           nativeQuery = true)
+    int repararProgresso(long desde, long ate);
+
+    @Query("SELECT COALESCE(MAX(p.id), 0) FROM PDI p")
+    long findMaiorId();
+
+    // --- SUGESTÕES DE METAS ---
+
+    /**
+     * Os títulos de PDI mais frequentes de cada área, até "porArea" por área, com o cargo do colaborador.
+     * Usado para pré-calcular as sugestões de metas. obj[0] é a área, obj[1] o cargo e obj[2] o título.
+     */
+    @Query(value = "SELECT area, cargo, objetivo FROM (" +
+                   "SELECT u.area, u.cargo, MIN(p.titulo) AS objetivo, " +
+                   "ROW_NUMBER() OVER (PARTITION BY u.area ORDER BY COUNT(*) DESC, MIN(p.id)) AS posicao " +
+                   "FROM pdis p JOIN usuarios u ON u.id = p.colaborador_id " +
+                   "WHERE u.area IS NOT NULL " +
+                   "GROUP BY u.area, u.cargo, LOWER(TRIM(p.titulo))) t " +
+                   "WHERE posicao <= :porArea",
+           nativeQuery = true)
+    List<Object[]> buscarObjetivosMaisComuns(int porArea);
+
+    // --- PROVISIONAMENTO EM MASSA ---
+
+    /**
+     * Dentre os colaboradores informados, os que já têm um PDI com o título (sem diferenciar maiúsculas)
+     * fora dos status informados (os encerrados).
+     */
+    @Query("SELECT DISTINCT p.colaborador.id FROM PDI p WHERE p.colaborador.id IN :colaboradorIds " +
+           "AND LOWER(p.titulo) = LOWER(:titulo) AND p.status NOT IN :statusEncerrados")
+    List<Long> findColaboradoresComPDIAberto(Collection<Long> colaboradorIds, String titulo,
+                                             Collection<PDI.StatusPDI> statusEncerrados);
+}
@@ -0,0 +1,39 @@
+package com.progress.progress_api.repository;
+
+import com.progress.progress_api.dto.PDIDTO;
+import com.progress.progress_api.dto.ResumoPDIDTO;
+import com.progress.progress_api.model.PDI;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Listagem de PDIs montada conforme os filtros informados (ver ConsultaDinamica). Em todos os métodos os
+ * filtros nulos não entram na consulta, desde/ate se aplicam à dataInicio e progressoMinimo/progressoMaximo
+ * ao percentual concluído (inclusive). Cursor nulo: primeira página.
+ */
+public interface PDIRepositoryCustom {
+
+    /**
+     * Uma página de PDIs em ordem decrescente de id, começando logo após o cursor, sem as metas.
+     */
+    List<PDIDTO> buscarPagina(Long idCursor, Long colaboradorId, PDI.StatusPDI status, LocalDate desde,
+                              LocalDate ate, Integer progressoMinimo, Integer progressoMaximo, int limite);
+
+    /**
+     * Uma página de PDIs do menor para o maior progresso (empates em ordem de id), após o cursor (progresso, id).
+     */
+    List<PDIDTO> buscarPaginaPorProgresso(Integer progressoCursor, Long idCursor, Long colaboradorId,
+                                          PDI.StatusPDI status, LocalDate desde, LocalDate ate,
+                                          Integer progressoMinimo, Integer progressoMaximo, int limite);
+
+    /**
+     * Mesma página de buscarPagina, resumida: contadores de progresso no lugar das metas.
+     */
+    List<ResumoPDIDTO> buscarPaginaResumida(Long idCursor, Long colaboradorId, PDI.StatusPDI status, LocalDate desde,
+                                            LocalDate ate, Integer progressoMinimo, Integer progressoMaximo, int limite);
+
+    List<ResumoPDIDTO> buscarPaginaResumidaPorProgresso(Integer progressoCursor, Long idCursor, Long colaboradorId,
+                                                        PDI.StatusPDI status, LocalDate desde, LocalDate ate,
+                                                        Integer progressoMinimo, Integer progressoMaximo, int limite);
+}
@@ -0,0 +1,90 @@
+package com.progress.progress_api.repository;
+
+import com.progress.progress_api.dto.PDIDTO;
+import com.progress.progress_api.dto.ResumoPDIDTO;
+import com.progress.progress_api.model.PDI;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.LocalDate;
+import java.util.List;
+
+class PDIRepositoryCustomImpl implements PDIRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PDIDTO> buscarPagina(Long idCursor, Long colaboradorId, PDI.StatusPDI status, LocalDate desde,
+                                     LocalDate ate, Integer progressoMinimo, Integer progressoMaximo, int limite) {
+        ConsultaDinamica consulta = new ConsultaDinamica(PDIRepository.COLUNAS_PDIDTO)
+                .filtro("p.id < :idCursor", "idCursor", idCursor);
+        return filtrar(consulta, colaboradorId, status, desde, ate, progressoMinimo, progressoMaximo)
+                .trecho(PDIRepository.ORDEM_RECENTES)
+                .criar(entityManager, PDIDTO.class)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    public List<PDIDTO> buscarPaginaPorProgresso(Integer progressoCursor, Long idCursor, Long colaboradorId,
+                                                 PDI.StatusPDI status, LocalDate desde, LocalDate ate,
+                                                 Integer progressoMinimo, Integer progressoMaximo, int limite) {
+        ConsultaDinamica consulta = aposProgresso(new ConsultaDinamica(PDIRepository.COLUNAS_PDIDTO),
+                progressoCursor, idCursor);
+        return filtrar(consulta, colaboradorId, status, desde, ate, progressoMinimo, progressoMaximo)
+                .trecho(PDIRepository.ORDEM_PROGRESSO)
+                .criar(entityManager, PDIDTO.class)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    public List<ResumoPDIDTO> buscarPaginaResumida(Long idCursor, Long colaboradorId, PDI.StatusPDI status,
+                                                   LocalDate desde, LocalDate ate, Integer progressoMinimo,
+                                                   Integer progressoMaximo, int limite) {
+        ConsultaDinamica consulta = new ConsultaDinamica(PDIRepository.COLUNAS_RESUMO)
+                .filtro("p.id < :idCursor", "idCursor", idCursor);
+        return filtrar(consulta, colaboradorId, status, desde, ate, progressoMinimo, progressoMaximo)
+                .trecho(PDIRepository.ORDEM_RECENTES)
+                .criar(entityManager, ResumoPDIDTO.class)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    public List<ResumoPDIDTO> buscarPaginaResumidaPorProgresso(Integer progressoCursor, Long idCursor,
+                                                               Long colaboradorId, PDI.StatusPDI status,
+                                                               LocalDate desde, LocalDate ate, Integer progressoMinimo,
+                                                               Integer progressoMaximo, int limite) {
+        ConsultaDinamica consulta = aposProgresso(new ConsultaDinamica(PDIRepository.COLUNAS_RESUMO),
+                progressoCursor, idCursor);
+        return filtrar(consulta, colaboradorId, status, desde, ate, progressoMinimo, progressoMaximo)
+                .trecho(PDIRepository.ORDEM_PROGRESSO)
+                .criar(entityManager, ResumoPDIDTO.class)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    // Comparação de linha: uma única faixa no índice (percentual_concluido, id)
+    private static ConsultaDinamica aposProgresso(ConsultaDinamica consulta, Integer progressoCursor, Long idCursor) {
+        if (progressoCursor != null && idCursor != null) {
+            consulta.condicao("(p.percentualConcluido, p.id) > (:progressoCursor, :idCursor)")
+                    .parametro("progressoCursor", progressoCursor)
+                    .parametro("idCursor", idCursor);
+        }
+        return consulta;
+    }
+
+    private static ConsultaDinamica filtrar(ConsultaDinamica consulta, Long colaboradorId, PDI.StatusPDI status,
+                                            LocalDate desde, LocalDate ate, Integer progressoMinimo,
+                                            Integer progressoMaximo) {
+        return consulta
+                .filtro("p.colaborador.id = :colaboradorId", "colaboradorId", colaboradorId)
+                .filtro("p.status = :status", "status", status)
+                .filtro("p.dataInicio >= :desde", "desde", desde)
+                .filtro("p.dataInicio <= :ate", "ate", ate)
+                .filtro("p.percentualConcluido >= :progressoMinimo", "progressoMinimo", progressoMinimo)
+                .filtro("p.percentualConcluido <= :progressoMaximo", "progressoMaximo", progressoMaximo);
+    }
+}
@@ -0,0 +1,22 @@
+package com.progress.progress_api.repository;
+
+import com.progress.progress_api.model.PdiStatusDiario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface PdiStatusDiarioRepository extends JpaRepository<PdiStatusDiario, Long> {
+
+    List<PdiStatusDiario> findByDiaGreaterThanEqualOrderByDiaAsc(LocalDate inicio);
+
+    List<PdiStatusDiario> findByDia(LocalDate dia);
+
+    /**
+     * Retorna as linhas do dia mais recente já registrado (a distribuição atual de status).
+     */
+    @Query("SELECT r FROM PdiStatusDiario r WHERE r.dia = (SELECT MAX(r2.dia) FROM PdiStatusDiario r2)")
+    List<PdiStatusDiario> findUltimoDia();
+}
@@ -0,0 +1,9 @@
+package com.progress.progress_api.repository;
+
+import com.progress.progress_api.model.RollupControle;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RollupControleRepository extends JpaRepository<RollupControle, String> {
+}
@@ -0,0 +1,12 @@
+package com.progress.progress_api.repository;
+
+import com.progress.progress_api.model.RollupRemocao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface RollupRemocaoRepository extends JpaRepository<RollupRemocao, Long> {
+
+    List<RollupRemocao> findByOrigem(String origem);
+}
@@ -0,0 +1,37 @@
+package com.progress.progress_api.repository;
+
+import com.progress.progress_api.model.TravaJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+
+@Repository
+public interface TravaJobRepository extends JpaRepository<TravaJob, String> {
+
+    /**
+     * Cria a linha da trava, já livre, se ela ainda não existir. Seguro com várias instâncias subindo juntas.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO trava_job (nome, bloqueada_ate) VALUES (:nome, :livreDesde) ON CONFLICT (nome) DO NOTHING",
+           nativeQuery = true)
+    int criarSeAusente(String nome, LocalDateTime livreDesde);
+
+    /**
+     * Toma a trava se ela estiver livre. O UPDATE condicional é atômico: só uma instância recebe 1.
+     */
+    @Modifying
+    @Query("UPDATE TravaJob t SET t.bloqueadaAte = :ate, t.bloqueadaPor = :instancia " +
+           "WHERE t.nome = :nome AND t.bloqueadaAte <= :agora")
+    int adquirir(String nome, String instancia, LocalDateTime agora, LocalDateTime ate);
+
+    /**
+     * Libera a trava (a partir de "ate") e grava o resultado da execução, se a trava ainda for desta instância.
+     */
+    @Modifying
+    @Query("UPDATE TravaJob t SET t.bloqueadaAte = :ate, t.ultimaExecucaoEm = :inicio, " +
+           "t.ultimaExecucaoLinhas = :linhas, t.ultimaExecucaoMs = :duracaoMs " +
+           "WHERE t.nome = :nome AND t.bloqueadaPor = :instancia")
+    int liberar(String nome, String instancia, LocalDateTime ate, LocalDateTime inicio, long linhas, long duracaoMs);
+}
@@ -1,15 +1,18 @@
 package com.progress.progress_api.repository;
 
 
+import com.progress.progress_api.dto.PerfilColaboradorDTO;
 import com.progress.progress_api.model.Usuario;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query; // <-- Importe a anotação Query
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+public interface UsuarioRepository extends JpaRepository<Usuario, Long>, UsuarioRepositoryCustom {
     
     // Seus métodos existentes (estão corretos)
     Optional<Usuario> findByEmail(String email);
@@ -35,4 +38,46 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
      */
     @Query("SELECT r.name, COUNT(u) FROM Usuario u JOIN u.roles r GROUP BY r.name")
     List<Object[]> countUsuariosByRole();
-}
\ No newline at end of file
+
+    /**
+     * Dentre os ids informados, retorna os que existem. Usado pela importação de feedbacks
+     * para validar autores e destinatários de um lote inteiro numa única consulta.
+     */
+    @Query("SELECT u.id FROM Usuario u WHERE u.id IN :ids")
+    List<Long> findIdsExistentes(Collection<Long> ids);
+
+    // --- SUGESTÕES DE METAS ---
+
+    @Query("SELECT new com.progress.progress_api.dto.PerfilColaboradorDTO(u.id, u.nome, u.cargo, u.area) " +
+           "FROM Usuario u WHERE u.id = :id")
+    Optional<PerfilColaboradorDTO> buscarPerfil(Long id);
+
+    @Query("SELECT new com.progress.progress_api.dto.PerfilColaboradorDTO(u.id, u.nome, u.cargo, u.area) " +
+           "FROM Usuario u WHERE u.area = :area ORDER BY u.nome, u.id")
+    List<PerfilColaboradorDTO> buscarPerfisPorArea(String area, Limit limite);
+
+    // --- PROVISIONAMENTO DE PDIs ---
+
+    @Query("SELECT new com.progress.progress_api.dto.PerfilColaboradorDTO(u.id, u.nome, u.cargo, u.area) " +
+           "FROM Usuario u WHERE u.id IN :ids")
+    List<PerfilColaboradorDTO> buscarPerfisPorIds(Collection<Long> ids);
+
+    // Filtros desligados pelas flags chegam com valores quaisquer não nulos (o PostgreSQL não tipa parâmetros nulos)
+    @Query("SELECT new com.progress.progress_api.dto.PerfilColaboradorDTO(u.id, u.nome, u.cargo, u.area) " +
+           "FROM Usuario u WHERE (:filtrarArea = FALSE OR u.area = :area) " +
+           "AND (:filtrarCargo = FALSE OR u.cargo = :cargo) ORDER BY u.id")
+    List<PerfilColaboradorDTO> buscarPerfisPorAreaECargo(boolean filtrarArea, String area, boolean filtrarCargo,
+                                                         String cargo, Limit limite);
+
+    // --- DIRETÓRIO ---
+
+    // Linha do diretório (buscarDiretorio): roleIds vem agregado pelo banco, ids separados por vírgula
+    interface LinhaDiretorio {
+        Long getId();
+        String getNome();
+        String getEmail();
+        String getCargo();
+        String getArea();
+        String getRoleIds();
+    }
+}
@@ -0,0 +1,18 @@
+package com.progress.progress_api.repository;
+
+import java.util.List;
+
+/**
+ * Consultas de usuários montadas conforme os filtros informados (ver ConsultaDinamica).
+ */
+public interface UsuarioRepositoryCustom {
+
+    /**
+     * Página do diretório em ordem de nome (e id, para desempate), a partir do cursor (aposNome, aposId).
+     * Os papéis de cada usuário vêm na mesma consulta (string_agg dos ids, resolvidos pelo RoleRegistry),
+     * sem carregar a coleção roles nem ler a tabela roles; a agregação fica numa subconsulta por linha
+     * para que o LIMIT pare a leitura do índice na página. Filtros nulos não entram na consulta.
+     */
+    List<UsuarioRepository.LinhaDiretorio> buscarDiretorio(String aposNome, long aposId, String area, String cargo,
+                                                           Long roleId, int limite);
+}
@@ -0,0 +1,43 @@
+package com.progress.progress_api.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.List;
+
+class UsuarioRepositoryCustomImpl implements UsuarioRepositoryCustom {
+
+    private static final String COLUNAS_DIRETORIO = "SELECT u.id, u.nome, u.email, u.cargo, u.area, " +
+            "(SELECT string_agg(CAST(ur.role_id AS text), ',') FROM usuario_roles ur " +
+            " WHERE ur.usuario_id = u.id) AS role_ids " +
+            "FROM usuarios u ";
+
+    private record Linha(Long getId, String getNome, String getEmail, String getCargo, String getArea,
+                         String getRoleIds) implements UsuarioRepository.LinhaDiretorio {}
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UsuarioRepository.LinhaDiretorio> buscarDiretorio(String aposNome, long aposId, String area,
+                                                                  String cargo, Long roleId, int limite) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> linhas = new ConsultaDinamica(COLUNAS_DIRETORIO)
+                // Com um filtro de área ou cargo, a faixa continua no índice (area|cargo, nome, id)
+                .condicao("(u.nome, u.id) > (:aposNome, :aposId)")
+                .parametro("aposNome", aposNome)
+                .parametro("aposId", aposId)
+                .filtro("u.area = :area", "area", area)
+                .filtro("u.cargo = :cargo", "cargo", cargo)
+                .filtro("EXISTS (SELECT 1 FROM usuario_roles fr WHERE fr.usuario_id = u.id AND fr.role_id = :roleId)",
+                        "roleId", roleId)
+                .trecho("ORDER BY u.nome, u.id")
+                .criarNativa(entityManager)
+                .setMaxResults(limite)
+                .getResultList();
+        return linhas.stream()
+                .<UsuarioRepository.LinhaDiretorio>map(l -> new Linha(((Number) l[0]).longValue(), (String) l[1],
+                        (String) l[2], (String) l[3], (String) l[4], (String) l[5]))
+                .toList();
+    }
+}
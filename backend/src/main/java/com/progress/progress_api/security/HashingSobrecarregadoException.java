@@ -0,0 +1,12 @@
+package com.progress.progress_api.security;
+
+/**
+ * Lançada quando o pool de hashing de senhas está saturado e não aceita mais tarefas.
+ * O HashingSobrecarregadoHandler responde com 503 para que o cliente tente novamente mais tarde.
+ */
+public class HashingSobrecarregadoException extends RuntimeException {
+
+    public HashingSobrecarregadoException(String message) {
+        super(message);
+    }
+}
@@ -1,7 +1,10 @@
 package com.progress.progress_api.security;
 
+import com.progress.progress_api.model.Usuario;
 import com.progress.progress_api.service.CustomUserDetailsService;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,6 +28,15 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
@@ -32,27 +44,41 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         final String authorizationHeader = request.getHeader("Authorization");
 
         String username = null;
-        String jwt = null;
+        Claims claims = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+            String jwt = authorizationHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
+                // A assinatura é verificada uma única vez; as claims são reutilizadas abaixo
+                claims = jwtUtil.parseToken(jwt);
+                if (tokenRevocationStore.isRevoked(claims)) {
+                    logger.warn("JWT Token has been revoked");
+                } else {
+                    username = claims.getSubject();
+                }
             } catch (IllegalArgumentException e) {
                 logger.warn("Unable to get JWT Token");
             } catch (ExpiredJwtException e) {
                 logger.warn("JWT Token has expired");
+            } catch (JwtException e) {
+                logger.warn("Invalid JWT Token");
             }
         } else {
             // logger.warn("JWT Token does not begin with Bearer String or is null");
         }
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            // Reaproveita o principal em cache para não consultar o banco a cada requisição
+            UserDetails userDetails = principalCache.buscar(username);
+            if (userDetails == null) {
+                userDetails = this.userDetailsService.loadUserByUsername(username);
+                principalCache.armazenar((Usuario) userDetails);
+            }
 
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            if (jwtUtil.validateToken(claims, userDetails)) {
+                // Authorities resolvidas pelo registro de papéis, sem recriá-las a cada requisição
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+                        userDetails, null, roleRegistry.autoridades(((Usuario) userDetails).getRoles()));
                 usernamePasswordAuthenticationToken
                         .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
@@ -2,13 +2,22 @@ package com.progress.progress_api.security;
 
 import com.progress.progress_api.config.JwtProperties;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Component
@@ -16,22 +25,59 @@ public final class JwtUtil {
 
     private final JwtProperties jwtProperties;
     private final Key secretKey;
+    private final JwtParser jwtParser;
+
+    // Tokens já verificados, indexados pelo SHA-256 do token. Cada entrada vale até o "exp" do token.
+    private final Map<String, Claims> tokensVerificados = new ConcurrentHashMap<>();
+    private final int tamanhoMaximoCache;
 
     /**
      * Injeta as propriedades de configuração via construtor.
-     * A chave secreta (secretKey) é inicializada aqui uma única vez.
+     * A chave secreta (secretKey) e o parser são inicializados aqui uma única vez.
      */
-    public JwtUtil(JwtProperties jwtProperties) {
+    public JwtUtil(JwtProperties jwtProperties,
+                   @Value("${jwt.verified-cache.max-size:10000}") int tamanhoMaximoCache) {
         this.jwtProperties = jwtProperties;
+        this.tamanhoMaximoCache = tamanhoMaximoCache;
 
         String secretString = jwtProperties.getSecret();
-        
+
         // Garante que a chave tenha pelo menos 256 bits (32 bytes) para o algoritmo HS256
         if (secretString == null || secretString.getBytes().length < 32) {
             throw new IllegalArgumentException("JWT secret key must be at least 256 bits (32 bytes) long.");
         }
-        
+
         this.secretKey = Keys.hmacShaKeyFor(secretString.getBytes());
+        // O JwtParser é imutável e thread-safe, então pode ser reutilizado por todas as requisições
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(this.secretKey)
+                .build();
+    }
+
+    /**
+     * Verifica a assinatura do token uma única vez e retorna as claims.
+     * Tokens verificados recentemente são servidos do cache até expirarem.
+     * Lança ExpiredJwtException/JwtException se o token for inválido.
+     */
+    public Claims parseToken(String token) {
+        String chave = digest(token);
+        Claims claims = tokensVerificados.get(chave);
+        if (claims != null) {
+            if (claims.getExpiration() != null && claims.getExpiration().getTime() > System.currentTimeMillis()) {
+                return claims;
+            }
+            // Expirou: remove e deixa o parser lançar a exceção apropriada
+            tokensVerificados.remove(chave);
+        }
+
+        claims = jwtParser.parseClaimsJws(token).getBody();
+        if (tokensVerificados.size() >= tamanhoMaximoCache) {
+            removerExpirados();
+        }
+        if (tokensVerificados.size() < tamanhoMaximoCache) {
+            tokensVerificados.put(chave, claims);
+        }
+        return claims;
     }
 
     /**
@@ -52,7 +98,7 @@ public final class JwtUtil {
      * Função genérica para extrair uma informação (claim) específica do token.
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseToken(token);
         return claimsResolver.apply(claims);
     }
 
@@ -60,8 +106,14 @@ public final class JwtUtil {
      * Valida o token comparando o username e verificando se não está expirado.
      */
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(parseToken(token), userDetails);
+    }
+
+    /**
+     * Valida claims já verificadas, sem parsear o token novamente.
+     */
+    public Boolean validateToken(Claims claims, UserDetails userDetails) {
+        return (claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims));
     }
 
     /**
@@ -69,6 +121,7 @@ public final class JwtUtil {
      */
     public String generateToken(UserDetails userDetails) {
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString()) // jti, usado para revogação individual
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtProperties.getExpirationMs()))
@@ -76,15 +129,25 @@ public final class JwtUtil {
                 .compact();
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(this.secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Remove do cache os tokens cujo "exp" já passou.
+     */
+    public void removerExpirados() {
+        long agora = System.currentTimeMillis();
+        tokensVerificados.values().removeIf(claims ->
+                claims.getExpiration() == null || claims.getExpiration().getTime() <= agora);
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private Boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,177 @@
+package com.progress.progress_api.security;
+
+import com.progress.progress_api.config.LoginThrottleProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Limita tentativas de login por email e por IP antes de qualquer trabalho de BCrypt.
+ * Cada chave tem o seu próprio balde de tokens atualizado por CAS, então threads
+ * atacando chaves diferentes nunca disputam o mesmo lock. O número de chaves em memória
+ * é limitado: ao atingir o limite só chaves ociosas são descartadas, da menos usada para a mais
+ * usada recentemente; se nenhuma estiver ociosa a chave nova é recusada, porque descartar um balde
+ * ativo zeraria o limite de quem está sendo atacado.
+ */
+@Component
+public class LoginRateLimiter {
+
+    // Chaves examinadas por chave nova quando o limite foi atingido
+    private static final int MAX_INSPECOES = 16;
+
+    private final LoginThrottleProperties properties;
+    private final Baldes baldesPorEmail = new Baldes();
+    private final Baldes baldesPorIp = new Baldes();
+
+    public LoginRateLimiter(LoginThrottleProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Consome uma tentativa para o email e o IP informados.
+     * @return 0 se a tentativa é permitida, ou o número de segundos até a próxima tentativa possível.
+     */
+    public long tentar(String email, String ip) {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        long agora = System.currentTimeMillis();
+
+        long esperaIp = baldesPorIp.consumir(ip, properties.getCapacidadeIp(), properties.getRecargaPorMinutoIp(), agora);
+        if (esperaIp > 0) {
+            return esperaIp;
+        }
+        String chaveEmail = email == null ? "" : email.trim().toLowerCase();
+        return baldesPorEmail.consumir(chaveEmail, properties.getCapacidadeEmail(), properties.getRecargaPorMinutoEmail(), agora);
+    }
+
+    /**
+     * Descarta baldes sem uso recente. Um balde ocioso já estaria cheio, então removê-lo não muda o resultado.
+     */
+    @Scheduled(fixedDelayString = "#{@loginThrottleProperties.purgeIntervalMs}")
+    public void removerOciosos() {
+        long limite = System.currentTimeMillis() - properties.getIdleMs();
+        baldesPorEmail.removerOciosos(limite);
+        baldesPorIp.removerOciosos(limite);
+    }
+
+    int totalChaves() {
+        return baldesPorEmail.porChave.size() + baldesPorIp.porChave.size();
+    }
+
+    /**
+     * Baldes de um tipo de chave. A leitura de uma chave existente não usa lock; criar e descartar
+     * chaves é serializado e mantém a fila de ordem sincronizada com o mapa.
+     */
+    private final class Baldes {
+
+        private final Map<String, Balde> porChave = new ConcurrentHashMap<>();
+
+        // Chaves em ordem aproximada do último acesso: as novas entram no fim e as que estão ativas
+        // quando chegam ao início voltam para o fim
+        private final Deque<String> ordem = new ArrayDeque<>();
+
+        long consumir(String chave, int capacidade, int recargaPorMinuto, long agora) {
+            Balde balde = porChave.get(chave);
+            if (balde == null) {
+                balde = criar(chave, capacidade, agora);
+                if (balde == null) {
+                    return esperaPorVaga(agora);
+                }
+            }
+            return balde.consumir(capacidade, recargaPorMinuto, agora);
+        }
+
+        private synchronized Balde criar(String chave, int capacidade, long agora) {
+            Balde existente = porChave.get(chave);
+            if (existente != null) {
+                return existente;
+            }
+            if (porChave.size() >= properties.getMaxChaves() && !liberarVaga(agora - properties.getIdleMs())) {
+                return null;
+            }
+            Balde balde = new Balde(capacidade, agora);
+            porChave.put(chave, balde);
+            ordem.addLast(chave);
+            return balde;
+        }
+
+        private boolean liberarVaga(long limite) {
+            for (int i = 0; i < MAX_INSPECOES && !ordem.isEmpty(); i++) {
+                String chave = ordem.pollFirst();
+                if (porChave.get(chave).ultimoAcesso() < limite) {
+                    porChave.remove(chave);
+                    return true;
+                }
+                ordem.addLast(chave);
+            }
+            return false;
+        }
+
+        // Segundos até a chave mais antiga da fila ficar ociosa
+        private synchronized long esperaPorVaga(long agora) {
+            String maisAntiga = ordem.peekFirst();
+            long ociosaEm = maisAntiga == null ? agora : porChave.get(maisAntiga).ultimoAcesso() + properties.getIdleMs();
+            return Math.max(1, (long) Math.ceil((ociosaEm - agora) / 1000.0));
+        }
+
+        synchronized void removerOciosos(long limite) {
+            for (int i = ordem.size(); i > 0; i--) {
+                String chave = ordem.pollFirst();
+                if (porChave.get(chave).ultimoAcesso() < limite) {
+                    porChave.remove(chave);
+                } else {
+                    ordem.addLast(chave);
+                }
+            }
+        }
+    }
+
+    /**
+     * Balde de tokens sem lock: o estado é imutável e trocado por compare-and-set.
+     */
+    static final class Balde {
+
+        private record Estado(double tokens, long atualizadoEm) {}
+
+        private final AtomicReference<Estado> estado;
+
+        // Última tentativa, permitida ou não: um balde recusando tentativas continua ativo
+        private volatile long ultimoAcesso;
+
+        Balde(int capacidade, long agora) {
+            this.estado = new AtomicReference<>(new Estado(capacidade, agora));
+            this.ultimoAcesso = agora;
+        }
+
+        long consumir(int capacidade, int recargaPorMinuto, long agora) {
+            if (agora > ultimoAcesso) {
+                ultimoAcesso = agora;
+            }
+            double tokensPorMs = recargaPorMinuto / 60_000.0;
+            while (true) {
+                Estado atual = estado.get();
+                long decorrido = Math.max(0, agora - atual.atualizadoEm());
+                double tokens = Math.min(capacidade, atual.tokens() + decorrido * tokensPorMs);
+                if (tokens < 1) {
+                    if (tokensPorMs <= 0) {
+                        return 60;
+                    }
+                    return (long) Math.ceil((1 - tokens) / tokensPorMs / 1000.0);
+                }
+                if (estado.compareAndSet(atual, new Estado(tokens - 1, Math.max(agora, atual.atualizadoEm())))) {
+                    return 0;
+                }
+            }
+        }
+
+        long ultimoAcesso() {
+            return ultimoAcesso;
+        }
+    }
+}
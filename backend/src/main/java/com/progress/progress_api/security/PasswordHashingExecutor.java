@@ -0,0 +1,100 @@
+package com.progress.progress_api.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool dedicado e limitado para o trabalho de BCrypt (login, criação e troca de senha).
+ * Quando a fila enche, a tarefa é recusada imediatamente com HashingSobrecarregadoException,
+ * em vez de acumular threads do Tomcat esperando CPU.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final PasswordEncoder passwordEncoder;
+    private final long timeoutMs;
+    private final Timer latencia;
+
+    public PasswordHashingExecutor(PasswordEncoder passwordEncoder,
+                                   @Value("${security.hashing.pool-size:0}") int poolSize,
+                                   @Value("${security.hashing.queue-capacity:50}") int capacidadeFila,
+                                   @Value("${security.hashing.timeout-ms:5000}") long timeoutMs,
+                                   MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMs = timeoutMs;
+
+        // Por padrão usa metade dos núcleos, deixando CPU livre para o restante da API
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.latencia = Timer.builder("senha.hash.latencia")
+                .description("Tempo de execução das tarefas de hashing de senha")
+                .register(meterRegistry);
+        Gauge.builder("senha.hash.fila", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("senha.hash.ativas", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    /**
+     * Executa a tarefa no pool de hashing e aguarda o resultado.
+     * Exceções de runtime lançadas pela tarefa (ex: BadCredentialsException) são relançadas como estão.
+     */
+    public <T> T executar(Callable<T> tarefa) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> latencia.recordCallable(tarefa));
+        } catch (RejectedExecutionException e) {
+            throw new HashingSobrecarregadoException("Servidor ocupado processando senhas. Tente novamente em instantes.");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new HashingSobrecarregadoException("Tempo limite excedido aguardando o processamento da senha.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HashingSobrecarregadoException("Processamento da senha interrompido.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Gera o hash da senha no pool dedicado.
+     */
+    public String encode(String senha) {
+        return executar(() -> passwordEncoder.encode(senha));
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,112 @@
+package com.progress.progress_api.security;
+
+import com.progress.progress_api.model.Usuario;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache em memória dos usuários autenticados, indexado pelo email (subject do token).
+ * Evita que o JwtRequestFilter consulte o banco a cada requisição para reconstruir
+ * um principal que já foi validado. As entradas expiram após o TTL configurado e
+ * o tamanho total é limitado.
+ */
+@Component
+public class PrincipalCache {
+
+    private record Entrada(Usuario usuario, long expiraEm) {}
+
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final long ttlMs;
+    private final int tamanhoMaximo;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidacoes;
+
+    public PrincipalCache(@Value("${security.principal-cache.ttl-ms:60000}") long ttlMs,
+                          @Value("${security.principal-cache.max-size:10000}") int tamanhoMaximo,
+                          MeterRegistry meterRegistry) {
+        this.ttlMs = ttlMs;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.hits = meterRegistry.counter("principal.cache.hits");
+        this.misses = meterRegistry.counter("principal.cache.misses");
+        this.invalidacoes = meterRegistry.counter("principal.cache.invalidacoes");
+        Gauge.builder("principal.cache.tamanho", entradas, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Retorna o usuário em cache, ou null se ausente ou expirado.
+     */
+    public Usuario buscar(String email) {
+        Entrada entrada = entradas.get(email);
+        if (entrada == null) {
+            misses.increment();
+            return null;
+        }
+        if (entrada.expiraEm() < System.currentTimeMillis()) {
+            entradas.remove(email, entrada);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entrada.usuario();
+    }
+
+    public void armazenar(Usuario usuario) {
+        if (entradas.size() >= tamanhoMaximo) {
+            liberarEspaco();
+        }
+        entradas.put(usuario.getEmail(), new Entrada(usuario, System.currentTimeMillis() + ttlMs));
+    }
+
+    /**
+     * Remove o usuário do cache. Deve ser chamado sempre que os dados do usuário mudarem.
+     */
+    public void invalidar(String email) {
+        if (email != null && entradas.remove(email) != null) {
+            invalidacoes.increment();
+        }
+    }
+
+    /**
+     * Invalida depois do commit da transação corrente (ou na hora, fora de transação). Invalidar antes
+     * deixaria uma requisição concorrente recolocar no cache o usuário ainda sem a alteração.
+     */
+    public void invalidarAposCommit(String email) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidar(email);
+                }
+            });
+        } else {
+            invalidar(email);
+        }
+    }
+
+    public void limpar() {
+        entradas.clear();
+    }
+
+    // Remove primeiro as entradas expiradas; se ainda estiver cheio, descarta entradas arbitrárias
+    private void liberarEspaco() {
+        long agora = System.currentTimeMillis();
+        entradas.values().removeIf(entrada -> entrada.expiraEm() < agora);
+
+        Iterator<String> iterator = entradas.keySet().iterator();
+        while (entradas.size() >= tamanhoMaximo && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
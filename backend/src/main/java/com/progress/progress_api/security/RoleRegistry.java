@@ -0,0 +1,139 @@
+package com.progress.progress_api.security;
+
+import com.progress.progress_api.model.Role;
+import com.progress.progress_api.repository.RoleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Registro imutável dos papéis (roles): nome → id, referência de entidade e GrantedAuthority.
+ * É carregado pelo DataInitializer depois de garantir os papéis básicos e resolve papéis sem SQL.
+ * Os papéis quase nunca mudam; quando mudam, recarregar() troca o registro inteiro de uma vez.
+ * Um papel criado por outra instância aparece aqui na primeira busca que não o encontrar: a falta
+ * recarrega o registro, no máximo uma vez a cada security.roles.recarga-minima-ms.
+ */
+@Component
+public class RoleRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(RoleRegistry.class);
+
+    public record Papel(Long id, String nome, GrantedAuthority autoridade) {}
+
+    private record Registro(Map<String, Papel> porNome, Map<Long, Papel> porId) {}
+
+    private final RoleRepository roleRepository;
+
+    private final long recargaMinimaNanos;
+
+    private volatile Registro registro;
+    private volatile long ultimaCarga;
+
+    public RoleRegistry(RoleRepository roleRepository,
+                        @Value("${security.roles.recarga-minima-ms:30000}") long recargaMinimaMs) {
+        this.roleRepository = roleRepository;
+        this.recargaMinimaNanos = recargaMinimaMs * 1_000_000;
+    }
+
+    public synchronized void recarregar() {
+        List<Papel> papeis = roleRepository.findAll().stream()
+                .map(role -> new Papel(role.getId(), role.getName(), new SimpleGrantedAuthority(role.getName())))
+                .toList();
+        registro = new Registro(
+                papeis.stream().collect(Collectors.toUnmodifiableMap(Papel::nome, Function.identity())),
+                papeis.stream().collect(Collectors.toUnmodifiableMap(Papel::id, Function.identity())));
+        ultimaCarga = System.nanoTime();
+        log.info("Registro de papéis carregado: {}", registro.porNome().keySet());
+    }
+
+    public Optional<Papel> buscar(String nome) {
+        if (nome == null || nome.isBlank()) {
+            return Optional.empty();
+        }
+        String normalizado = normalizar(nome);
+        Papel papel = registro().porNome().get(normalizado);
+        if (papel == null && recarregarAposFalta()) {
+            papel = registro.porNome().get(normalizado);
+        }
+        return Optional.ofNullable(papel);
+    }
+
+    public Optional<Papel> buscar(Long id) {
+        Papel papel = registro().porId().get(id);
+        if (papel == null && recarregarAposFalta()) {
+            papel = registro.porId().get(id);
+        }
+        return Optional.ofNullable(papel);
+    }
+
+    /**
+     * Referência ao papel para gravar em Usuario.roles: uma entidade nova com id e nome, sem
+     * consultar o banco. Lança RuntimeException se o papel não existir.
+     */
+    public Role referencia(String nome) {
+        Papel papel = buscar(nome)
+                .orElseThrow(() -> new RuntimeException("Erro: Papel '" + normalizar(nome) + "' não encontrado."));
+        return new Role(papel.id(), papel.nome());
+    }
+
+    // Authorities dos papéis do usuário, reaproveitando as instâncias do registro
+    public List<GrantedAuthority> autoridades(Collection<Role> roles) {
+        Registro atual = registro();
+        return roles.stream()
+                .map(role -> {
+                    Papel papel = atual.porNome().get(role.getName());
+                    return papel != null ? papel.autoridade() : new SimpleGrantedAuthority(role.getName());
+                })
+                .toList();
+    }
+
+    public Set<String> nomes() {
+        return registro().porNome().keySet();
+    }
+
+    // Aceita o nome com ou sem o prefixo e em qualquer caixa: "manager" e "ROLE_MANAGER" são o mesmo papel
+    public static String normalizar(String nome) {
+        if (nome == null) {
+            return null;
+        }
+        String maiusculo = nome.trim().toUpperCase(Locale.ROOT);
+        return maiusculo.startsWith("ROLE_") ? maiusculo : "ROLE_" + maiusculo;
+    }
+
+    // Requisições que cheguem antes do DataInitializer carregam o registro na hora
+    private Registro registro() {
+        Registro atual = registro;
+        if (atual == null) {
+            recarregar();
+            atual = registro;
+        }
+        return atual;
+    }
+
+    // Papel desconhecido: recarrega, a menos que a última carga seja recente (buscas por nomes
+    // inexistentes não viram uma consulta cada uma)
+    private boolean recarregarAposFalta() {
+        if (System.nanoTime() - ultimaCarga < recargaMinimaNanos) {
+            return false;
+        }
+        synchronized (this) {
+            // Outra thread pode ter recarregado enquanto esta esperava
+            if (System.nanoTime() - ultimaCarga >= recargaMinimaNanos) {
+                recarregar();
+            }
+        }
+        return true;
+    }
+}
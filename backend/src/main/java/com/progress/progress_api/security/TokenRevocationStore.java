@@ -0,0 +1,125 @@
+package com.progress.progress_api.security;
+
+import com.progress.progress_api.config.JwtProperties;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Armazena tokens revogados em memória, consultado pelo JwtRequestFilter sem acessar o banco.
+ *
+ * - Revogação individual (logout): conjunto exato de "jti" com um filtro de Bloom na frente,
+ *   de forma que tokens não revogados (o caso comum) sejam descartados sem tocar no mapa.
+ * - Revogação de todos os tokens de um usuário: guarda o instante de corte por email;
+ *   tokens emitidos até esse instante são recusados.
+ *
+ * As entradas são removidas quando os tokens que elas cobrem já expiraram.
+ */
+@Component
+public class TokenRevocationStore {
+
+    private static final int NUMERO_HASHES = 3;
+
+    private final Map<String, Long> jtisRevogados = new ConcurrentHashMap<>(); // jti -> expiração (ms)
+    private final Map<String, Long> cortesPorUsuario = new ConcurrentHashMap<>(); // email -> corte (ms)
+    private final JwtProperties jwtProperties;
+    private final int palavrasBloom;
+
+    private volatile AtomicLongArray bloom;
+
+    public TokenRevocationStore(JwtProperties jwtProperties,
+                                @Value("${jwt.revocation.bloom-bits:1048576}") int bitsBloom) {
+        if (bitsBloom < 64) {
+            throw new IllegalArgumentException("jwt.revocation.bloom-bits deve ser ao menos 64: " + bitsBloom);
+        }
+        this.jwtProperties = jwtProperties;
+        this.palavrasBloom = Math.ceilDiv(bitsBloom, 64); // Arredonda para palavras inteiras de 64 bits
+        this.bloom = new AtomicLongArray(palavrasBloom);
+    }
+
+    /**
+     * Revoga um único token até a sua expiração.
+     */
+    public void revogar(String jti, Date expiracao) {
+        if (jti == null) {
+            return;
+        }
+        long expiraEm = expiracao != null ? expiracao.getTime() : System.currentTimeMillis() + jwtProperties.getExpirationMs();
+        jtisRevogados.put(jti, expiraEm);
+        adicionarAoBloom(bloom, jti);
+    }
+
+    /**
+     * Revoga todos os tokens já emitidos para o usuário.
+     */
+    public void revogarTodos(String email) {
+        cortesPorUsuario.put(email, System.currentTimeMillis());
+    }
+
+    /**
+     * Verifica se o token foi revogado. Não faz alocações nem acessa o banco.
+     */
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        if (jti != null && mightContain(jti) && jtisRevogados.containsKey(jti)) {
+            return true;
+        }
+
+        Long corte = cortesPorUsuario.get(claims.getSubject());
+        // "iat" tem precisão de segundos: um token emitido no mesmo segundo do corte também é recusado
+        return corte != null && claims.getIssuedAt() != null && claims.getIssuedAt().getTime() <= corte;
+    }
+
+    /**
+     * Remove entradas cujos tokens já expiraram e reconstrói o filtro de Bloom,
+     * já que ele não permite remoção.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:60000}")
+    public void removerExpirados() {
+        long agora = System.currentTimeMillis();
+        jtisRevogados.values().removeIf(expiraEm -> expiraEm <= agora);
+        cortesPorUsuario.values().removeIf(corte -> corte + jwtProperties.getExpirationMs() <= agora);
+
+        AtomicLongArray novoBloom = new AtomicLongArray(palavrasBloom);
+        jtisRevogados.keySet().forEach(jti -> adicionarAoBloom(novoBloom, jti));
+        // Revogações feitas durante a reconstrução podem ficar de fora do novo filtro; reinsere
+        this.bloom = novoBloom;
+        jtisRevogados.keySet().forEach(jti -> adicionarAoBloom(novoBloom, jti));
+    }
+
+    private boolean mightContain(String jti) {
+        AtomicLongArray atual = bloom;
+        int hash1 = jti.hashCode();
+        int hash2 = espalhar(hash1);
+        for (int i = 0; i < NUMERO_HASHES; i++) {
+            int bit = Math.floorMod(hash1 + i * hash2, atual.length() * 64);
+            if ((atual.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void adicionarAoBloom(AtomicLongArray filtro, String jti) {
+        int hash1 = jti.hashCode();
+        int hash2 = espalhar(hash1);
+        for (int i = 0; i < NUMERO_HASHES; i++) {
+            int bit = Math.floorMod(hash1 + i * hash2, filtro.length() * 64);
+            long mascara = 1L << bit;
+            filtro.getAndAccumulate(bit >>> 6, mascara, (atual, m) -> atual | m);
+        }
+    }
+
+    private static int espalhar(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        return hash | 1;
+    }
+}
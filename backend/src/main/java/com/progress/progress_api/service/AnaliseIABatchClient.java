@@ -0,0 +1,198 @@
+package com.progress.progress_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.progress.progress_api.dto.AnaliseIARequisicaoDTO;
+import com.progress.progress_api.dto.AnaliseIAResultadoDTO;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cliente da IA que agrupa análises concorrentes em uma única chamada HTTP.
+ *
+ * Cada chamada a analisar() entra numa fila e recebe o próprio future. Uma thread despachante
+ * fecha o lote quando ele atinge maxItens ou quando o primeiro item esperou janelaMs, envia
+ * o lote e completa os futures com os resultados na mesma ordem. O número de lotes em voo é
+ * limitado; quando o limite é atingido, a despachante espera e a fila cresce, formando lotes maiores.
+ */
+@Component
+public class AnaliseIABatchClient {
+
+    private static final Logger log = LoggerFactory.getLogger(AnaliseIABatchClient.class);
+
+    private record Pedido(AnaliseIARequisicaoDTO item, CompletableFuture<AnaliseIAResultadoDTO> resultado) {}
+
+    private final boolean ativo;
+    private final URI uri;
+    private final int maxItens;
+    private final long janelaNanos;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final BlockingQueue<Pedido> fila = new LinkedBlockingQueue<>();
+    private final Semaphore lotesEmVoo;
+    private final DistributionSummary tamanhoLote;
+    private final Thread despachante;
+    private volatile boolean encerrado;
+
+    public AnaliseIABatchClient(@Value("${ia.batch.enabled:false}") boolean ativo,
+                                @Value("${ia.batch.url:http://localhost:8099/analises}") String url,
+                                @Value("${ia.batch.max-itens:16}") int maxItens,
+                                @Value("${ia.batch.janela-ms:10}") long janelaMs,
+                                @Value("${ia.batch.max-lotes-em-voo:4}") int maxLotesEmVoo,
+                                @Value("${ia.batch.timeout-ms:10000}") long timeoutMs,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry) {
+        this.ativo = ativo;
+        this.uri = URI.create(url);
+        this.maxItens = maxItens;
+        this.janelaNanos = TimeUnit.MILLISECONDS.toNanos(janelaMs);
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.objectMapper = objectMapper;
+        this.lotesEmVoo = new Semaphore(maxLotesEmVoo);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.tamanhoLote = DistributionSummary.builder("ia.batch.tamanho-lote")
+                .description("Itens por chamada ao endpoint de análise")
+                .register(meterRegistry);
+
+        this.despachante = new Thread(this::despachar, "ia-batch-despachante");
+        this.despachante.setDaemon(true);
+        if (ativo) {
+            this.despachante.start();
+        }
+    }
+
+    public boolean isAtivo() {
+        return ativo;
+    }
+
+    /**
+     * Enfileira um item para o próximo lote. O future é completado com o resultado do item
+     * ou com a exceção da chamada do lote.
+     */
+    public CompletableFuture<AnaliseIAResultadoDTO> analisar(AnaliseIARequisicaoDTO item) {
+        if (!ativo) {
+            throw new IllegalStateException("Cliente em lote da IA desativado (ia.batch.enabled=false)");
+        }
+        if (encerrado) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Cliente da IA encerrado"));
+        }
+        Pedido pedido = new Pedido(item, new CompletableFuture<>());
+        fila.add(pedido);
+        // encerrar() pode ter esvaziado a fila entre a verificação e o add: o pedido não seria mais despachado
+        if (encerrado && fila.remove(pedido)) {
+            pedido.resultado().completeExceptionally(new IllegalStateException("Cliente da IA encerrado"));
+        }
+        return pedido.resultado();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        encerrado = true;
+        despachante.interrupt();
+        Pedido pendente;
+        while ((pendente = fila.poll()) != null) {
+            pendente.resultado().completeExceptionally(new IllegalStateException("Cliente da IA encerrado"));
+        }
+    }
+
+    private void despachar() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Pedido> lote = new ArrayList<>(maxItens);
+            try {
+                lote.add(fila.take());
+
+                // A janela começa no primeiro item do lote
+                long prazo = System.nanoTime() + janelaNanos;
+                while (lote.size() < maxItens) {
+                    long restante = prazo - System.nanoTime();
+                    Pedido proximo = restante > 0 ? fila.poll(restante, TimeUnit.NANOSECONDS) : fila.poll();
+                    if (proximo == null) {
+                        break;
+                    }
+                    lote.add(proximo);
+                }
+
+                lotesEmVoo.acquire();
+                enviar(lote);
+            } catch (InterruptedException e) {
+                // Encerrado com um lote montado e ainda não enviado: quem espera por ele não pode ficar até o timeout
+                falhar(lote, new IllegalStateException("Cliente da IA encerrado"));
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void enviar(List<Pedido> lote) {
+        tamanhoLote.record(lote.size());
+        HttpRequest requisicao;
+        try {
+            AnaliseIARequisicaoDTO.Lote corpo = new AnaliseIARequisicaoDTO.Lote(lote.stream().map(Pedido::item).toList());
+            requisicao = HttpRequest.newBuilder(uri)
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(corpo)))
+                    .build();
+        } catch (IOException e) {
+            lotesEmVoo.release();
+            falhar(lote, e);
+            return;
+        }
+
+        httpClient.sendAsync(requisicao, HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((resposta, erro) -> {
+                    lotesEmVoo.release();
+                    if (erro != null) {
+                        falhar(lote, erro);
+                    } else {
+                        completar(lote, resposta);
+                    }
+                });
+    }
+
+    private void completar(List<Pedido> lote, HttpResponse<byte[]> resposta) {
+        if (resposta.statusCode() != 200) {
+            falhar(lote, new IOException("Endpoint de análise respondeu HTTP " + resposta.statusCode()));
+            return;
+        }
+        try {
+            List<AnaliseIAResultadoDTO> resultados =
+                    objectMapper.readValue(resposta.body(), AnaliseIAResultadoDTO.Lote.class).resultados();
+            if (resultados == null || resultados.size() != lote.size()) {
+                falhar(lote, new IOException("Lote com " + lote.size() + " itens recebeu "
+                        + (resultados == null ? 0 : resultados.size()) + " resultados"));
+                return;
+            }
+            for (int i = 0; i < lote.size(); i++) {
+                lote.get(i).resultado().complete(resultados.get(i));
+            }
+        } catch (IOException e) {
+            falhar(lote, e);
+        }
+    }
+
+    private static void falhar(List<Pedido> lote, Throwable erro) {
+        log.warn("Falha no lote de {} análises: {}", lote.size(), erro.toString());
+        lote.forEach(pedido -> pedido.resultado().completeExceptionally(erro));
+    }
+}
@@ -0,0 +1,195 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.AnaliseIARequisicaoDTO;
+import com.progress.progress_api.dto.AnaliseIAResultadoDTO;
+import com.progress.progress_api.model.AnaliseIACacheEntrada;
+import com.progress.progress_api.repository.AnaliseIACacheRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Cache dos resultados da análise da IA, endereçado pelo conteúdo do feedback.
+ *
+ * A chave é o SHA-256 dos campos analisados (feedbackTextual, dificuldadesEncontradas e
+ * interessesAprendizado) depois de normalizados: espaços colapsados, caixa baixa e Unicode NFC.
+ * Assim, textos de modelo e trechos copiados reaproveitam a mesma análise. O nível em memória é
+ * um LRU limitado; opcionalmente, o nível no banco (analise_ia_cache) preserva os resultados entre
+ * reinícios. A versão do modelo entra no hash, então trocar ia.cache.versao-modelo descarta tudo.
+ */
+@Component
+public class AnaliseIACache {
+
+    private static final Logger log = LoggerFactory.getLogger(AnaliseIACache.class);
+
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+    private static final char SEPARADOR = '\u0000';
+
+    private final Map<String, AnaliseIAResultadoDTO> memoria;
+    private final AnaliseIACacheRepository repository;
+    private final boolean ativo;
+    private final boolean persistente;
+    private final String versaoModelo;
+
+    private final Counter hitsMemoria;
+    private final Counter hitsBanco;
+    private final Counter misses;
+
+    public AnaliseIACache(AnaliseIACacheRepository repository,
+                          @Value("${ia.cache.enabled:true}") boolean ativo,
+                          @Value("${ia.cache.max-size:10000}") int tamanhoMaximo,
+                          @Value("${ia.cache.persistente:false}") boolean persistente,
+                          @Value("${ia.cache.versao-modelo:1}") String versaoModelo,
+                          MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.ativo = ativo;
+        this.persistente = persistente;
+        this.versaoModelo = versaoModelo;
+
+        // LinkedHashMap em ordem de acesso: a entrada mais antiga é a menos usada recentemente
+        this.memoria = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, AnaliseIAResultadoDTO> maisAntiga) {
+                return size() > tamanhoMaximo;
+            }
+        };
+
+        this.hitsMemoria = meterRegistry.counter("ia.cache.hits", "nivel", "memoria");
+        this.hitsBanco = meterRegistry.counter("ia.cache.hits", "nivel", "banco");
+        this.misses = meterRegistry.counter("ia.cache.misses");
+        Gauge.builder("ia.cache.tamanho", this, c -> c.tamanho()).register(meterRegistry);
+        Gauge.builder("ia.cache.chamadas-evitadas", this, c -> c.chamadasEvitadas()).register(meterRegistry);
+        Gauge.builder("ia.cache.taxa-acerto", this, c -> c.taxaAcerto()).register(meterRegistry);
+    }
+
+    public boolean isAtivo() {
+        return ativo;
+    }
+
+    /**
+     * Retorna o resultado em cache para o conteúdo do item, ou null se ele ainda não foi analisado.
+     */
+    public AnaliseIAResultadoDTO buscar(AnaliseIARequisicaoDTO item) {
+        String chave = chave(item);
+        AnaliseIAResultadoDTO resultado;
+        synchronized (memoria) {
+            resultado = memoria.get(chave);
+        }
+        if (resultado != null) {
+            hitsMemoria.increment();
+            return resultado;
+        }
+
+        if (persistente) {
+            resultado = buscarNoBanco(chave);
+            if (resultado != null) {
+                hitsBanco.increment();
+                guardarNaMemoria(chave, resultado);
+                return resultado;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void armazenar(AnaliseIARequisicaoDTO item, AnaliseIAResultadoDTO resultado) {
+        String chave = chave(item);
+        guardarNaMemoria(chave, resultado);
+        if (persistente) {
+            gravarNoBanco(chave, resultado);
+        }
+    }
+
+    public int tamanho() {
+        synchronized (memoria) {
+            return memoria.size();
+        }
+    }
+
+    public double chamadasEvitadas() {
+        return hitsMemoria.count() + hitsBanco.count();
+    }
+
+    public double taxaAcerto() {
+        double consultas = chamadasEvitadas() + misses.count();
+        return consultas == 0 ? 0 : chamadasEvitadas() / consultas;
+    }
+
+    /**
+     * SHA-256 (hex) dos campos normalizados, prefixado pela versão do modelo.
+     */
+    String chave(AnaliseIARequisicaoDTO item) {
+        String conteudo = versaoModelo + SEPARADOR
+                + normalizar(item.feedbackTextual()) + SEPARADOR
+                + normalizar(item.dificuldadesEncontradas()) + SEPARADOR
+                + normalizar(item.interessesAprendizado());
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(conteudo.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
+        }
+    }
+
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String normalizado = Normalizer.normalize(texto, Normalizer.Form.NFC);
+        return ESPACOS.matcher(normalizado).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+
+    // --- AUXILIARES ---
+
+    private void guardarNaMemoria(String chave, AnaliseIAResultadoDTO resultado) {
+        synchronized (memoria) {
+            memoria.put(chave, resultado);
+        }
+    }
+
+    // Falhas no nível persistente não impedem a análise: o cache é só uma otimização
+    private AnaliseIAResultadoDTO buscarNoBanco(String chave) {
+        try {
+            return repository.findById(chave)
+                    .map(e -> new AnaliseIAResultadoDTO(e.getSentimentoAnalisado(), e.getCategoriaDificuldadeAnalisada(),
+                            e.getMetaSugeridaIA(), e.getCursoRecomendadoIA(), e.getMentorIndicadoIA()))
+                    .orElse(null);
+        } catch (DataAccessException e) {
+            log.warn("Falha ao consultar o cache persistente da IA: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void gravarNoBanco(String chave, AnaliseIAResultadoDTO resultado) {
+        try {
+            AnaliseIACacheEntrada entrada = new AnaliseIACacheEntrada();
+            entrada.setHash(chave);
+            entrada.setSentimentoAnalisado(resultado.sentimentoAnalisado());
+            entrada.setCategoriaDificuldadeAnalisada(resultado.categoriaDificuldadeAnalisada());
+            entrada.setMetaSugeridaIA(resultado.metaSugeridaIA());
+            entrada.setCursoRecomendadoIA(resultado.cursoRecomendadoIA());
+            entrada.setMentorIndicadoIA(resultado.mentorIndicadoIA());
+            entrada.setCriadoEm(LocalDateTime.now());
+            // Se outro worker gravar o mesmo hash ao mesmo tempo, a violação de chave cai no catch abaixo
+            repository.save(entrada);
+        } catch (DataAccessException e) {
+            log.warn("Falha ao gravar no cache persistente da IA: {}", e.getMessage());
+        }
+    }
+}
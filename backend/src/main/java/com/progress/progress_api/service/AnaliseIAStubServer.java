@@ -0,0 +1,119 @@
+package com.progress.progress_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.progress.progress_api.dto.AnaliseIARequisicaoDTO;
+import com.progress.progress_api.dto.AnaliseIAResultadoDTO;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servidor HTTP local que imita o endpoint de análise em lote da IA (POST /analises).
+ * Serve para testar e medir o AnaliseIABatchClient sem depender do modelo real:
+ * cada chamada custa latenciaMs fixos mais latenciaPorItemMs por item, e as regras de análise
+ * são as do classificador léxico com o léxico padrão. Só é iniciado com ia.stub.enabled=true.
+ */
+@Component
+public class AnaliseIAStubServer {
+
+    private static final Logger log = LoggerFactory.getLogger(AnaliseIAStubServer.class);
+
+    private final boolean ativo;
+    private final int porta;
+    private final long latenciaMs;
+    private final long latenciaPorItemMs;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong chamadas = new AtomicLong();
+    private final AtomicLong itens = new AtomicLong();
+    private HttpServer servidor;
+
+    @Autowired
+    public AnaliseIAStubServer(@Value("${ia.stub.enabled:false}") boolean ativo,
+                               @Value("${ia.stub.porta:8099}") int porta,
+                               @Value("${ia.stub.latencia-ms:50}") long latenciaMs,
+                               @Value("${ia.stub.latencia-por-item-ms:1}") long latenciaPorItemMs,
+                               ObjectMapper objectMapper) {
+        this.ativo = ativo;
+        this.porta = porta;
+        this.latenciaMs = latenciaMs;
+        this.latenciaPorItemMs = latenciaPorItemMs;
+        this.objectMapper = objectMapper;
+    }
+
+    // Usado nos testes e benchmarks; porta 0 escolhe uma porta livre
+    AnaliseIAStubServer(int porta, long latenciaMs, long latenciaPorItemMs) {
+        this(true, porta, latenciaMs, latenciaPorItemMs, new ObjectMapper());
+    }
+
+    @PostConstruct
+    public void iniciar() throws IOException {
+        if (!ativo) {
+            return;
+        }
+        servidor = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), porta), 0);
+        servidor.createContext("/analises", this::tratar);
+        // A latência simulada é um sleep: threads virtuais atendem lotes concorrentes sem limite de pool
+        servidor.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        servidor.start();
+        log.info("Stub da IA escutando em http://localhost:{}/analises", getPorta());
+    }
+
+    @PreDestroy
+    public void parar() {
+        if (servidor != null) {
+            servidor.stop(0);
+        }
+    }
+
+    public int getPorta() {
+        return servidor != null ? servidor.getAddress().getPort() : porta;
+    }
+
+    public long getChamadas() {
+        return chamadas.get();
+    }
+
+    public long getItens() {
+        return itens.get();
+    }
+
+    private void tratar(HttpExchange troca) throws IOException {
+        try (troca) {
+            if (!"POST".equals(troca.getRequestMethod())) {
+                troca.sendResponseHeaders(405, -1);
+                return;
+            }
+            List<AnaliseIARequisicaoDTO> lote =
+                    objectMapper.readValue(troca.getRequestBody(), AnaliseIARequisicaoDTO.Lote.class).itens();
+            chamadas.incrementAndGet();
+            itens.addAndGet(lote.size());
+
+            Thread.sleep(latenciaMs + latenciaPorItemMs * lote.size());
+
+            List<AnaliseIAResultadoDTO> resultados = lote.stream().map(ClassificadorLexico.padrao()::analisar).toList();
+            byte[] corpo = objectMapper.writeValueAsBytes(new AnaliseIAResultadoDTO.Lote(resultados));
+            troca.getResponseHeaders().set("Content-Type", "application/json");
+            troca.sendResponseHeaders(200, corpo.length);
+            try (OutputStream saida = troca.getResponseBody()) {
+                saida.write(corpo);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,467 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.AnaliseIARequisicaoDTO;
+import com.progress.progress_api.dto.AnaliseIAResultadoDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Classificador local de sentimento e categoria de dificuldade baseado num léxico em português.
+ *
+ * Os termos do léxico são compilados num autômato de Aho-Corasick (tabela de transições completa):
+ * o texto é percorrido uma única vez, caractere a caractere, e todos os termos encontrados pontuam
+ * sentimento e categorias ao mesmo tempo. Acentos e maiúsculas são ignorados por uma tabela de
+ * conversão, sem criar cópias do texto, e os termos casam só com palavras inteiras (ou com o início
+ * da palavra, nos termos terminados em *). Uma negação ("não", "sem", ...) até três palavras antes
+ * de um termo de sentimento inverte o seu peso.
+ *
+ * Imutável e thread-safe; a recarga do léxico cria um classificador novo (ClassificadorLexicoService).
+ */
+public final class ClassificadorLexico {
+
+    /**
+     * Resultado da classificação: a análise no formato da IA, o saldo de sentimento (positivo - negativo)
+     * e quantos termos do léxico foram encontrados.
+     */
+    public record Classificacao(AnaliseIAResultadoDTO resultado, double pontuacaoSentimento, int ocorrencias) {
+
+        /**
+         * O saldo de sentimento é forte o bastante para dispensar o modelo.
+         */
+        public boolean confiante(double limiar) {
+            return limiar > 0 && Math.abs(pontuacaoSentimento) >= limiar;
+        }
+    }
+
+    public static final String RECURSO_PADRAO = "lexico/lexico-pt.txt";
+
+    private static final String POSITIVO = "Positivo";
+    private static final String NEGATIVO = "Negativo";
+    private static final String NEUTRO = "Neutro";
+    private static final String SEM_CATEGORIA = "N/A";
+    private static final double LIMIAR_NEUTRO = 0.5;
+    private static final int JANELA_NEGACAO = 3; // Palavras entre a negação e o termo
+    private static final double PESO_CAMPO_DIFICULDADES = 2.0; // O campo de dificuldades pesa mais na categoria
+
+    private static final int SEPARADOR = 0; // Qualquer caractere que não é letra nem dígito
+    private static final int OUTRO = 1; // Letra ou dígito que não aparece em nenhum termo
+    private static final int LIMITE_TABELA = 0x250; // Latin-1 e Latin Extended-A/B
+    private static final char[] DOBRA = new char[LIMITE_TABELA]; // Caractere sem acento e em caixa baixa
+
+    static {
+        for (char c = 0; c < LIMITE_TABELA; c++) {
+            String decomposto = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            DOBRA[c] = decomposto.toLowerCase(Locale.ROOT).charAt(0);
+        }
+    }
+
+    private static final Pattern SECAO = Pattern.compile("^\\[(\\p{L}+)(?:\\s+(.+?))?\\]$");
+    private static final Pattern PROPRIEDADE = Pattern.compile("^(meta|curso|mentor)\\s*=\\s*(.*)$");
+    private static final Pattern ENTRADA = Pattern.compile("^([+-]?\\d+(?:\\.\\d+)?)\\s+(.+)$");
+
+    private record Categoria(String nome, String meta, String curso, String mentor) {}
+
+    // Acúmulo dos pontos durante a varredura
+    private static final class Placar {
+        final double[] categorias;
+        double positivo;
+        double negativo;
+        int ocorrencias;
+        int palavras; // Palavras completas lidas no campo atual
+        int ultimaNegacao;
+
+        Placar(int totalCategorias) {
+            categorias = new double[totalCategorias];
+        }
+    }
+
+    // Alfabeto: símbolo de cada caractere da tabela
+    private final byte[] simbolos;
+    private final int tamanhoAlfabeto;
+
+    // Autômato: transicoes[estado * tamanhoAlfabeto + simbolo]
+    private final int[] transicoes;
+    private final int[] saida; // Termo que termina no estado, ou -1
+    private final int[] proximaSaida; // Próximo estado na cadeia de falhas com saída, ou 0
+
+    // Dados de cada termo
+    private final double[] pesoSentimento;
+    private final boolean[] negacao;
+    private final int[] palavrasDoTermo;
+    private final boolean[] prefixo;
+    private final int[][] categoriasDoTermo;
+    private final double[][] pesosCategoria;
+
+    private final List<Categoria> categorias;
+    private final int totalTermos;
+
+    private ClassificadorLexico(Construtor construtor) {
+        this.categorias = List.copyOf(construtor.categorias);
+        this.totalTermos = construtor.termos.size();
+
+        // Alfabeto com os caracteres usados nos termos
+        Map<Character, Integer> alfabeto = new HashMap<>();
+        for (String termo : construtor.termos.keySet()) {
+            for (char c : termo.toCharArray()) {
+                if (c != ' ') {
+                    alfabeto.putIfAbsent(c, alfabeto.size() + 2);
+                }
+            }
+        }
+        if (alfabeto.size() + 2 > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Léxico com caracteres distintos demais: " + alfabeto.size());
+        }
+        this.tamanhoAlfabeto = alfabeto.size() + 2;
+        this.simbolos = new byte[LIMITE_TABELA];
+        for (char c = 0; c < LIMITE_TABELA; c++) {
+            simbolos[c] = (byte) (!Character.isLetterOrDigit(c) ? SEPARADOR : alfabeto.getOrDefault(DOBRA[c], OUTRO));
+        }
+
+        // Trie
+        int maximoEstados = 1 + construtor.termos.keySet().stream().mapToInt(String::length).sum();
+        int[] trie = new int[maximoEstados * tamanhoAlfabeto];
+        Arrays.fill(trie, -1);
+        int[] saidaTrie = new int[maximoEstados];
+        Arrays.fill(saidaTrie, -1);
+        int estados = 1;
+
+        int quantidade = construtor.termos.size();
+        this.pesoSentimento = new double[quantidade];
+        this.negacao = new boolean[quantidade];
+        this.palavrasDoTermo = new int[quantidade];
+        this.prefixo = new boolean[quantidade];
+        this.categoriasDoTermo = new int[quantidade][];
+        this.pesosCategoria = new double[quantidade][];
+
+        int indice = 0;
+        for (Map.Entry<String, Termo> entrada : construtor.termos.entrySet()) {
+            String padrao = entrada.getKey();
+            int estado = 0;
+            for (char c : padrao.toCharArray()) {
+                int simbolo = c == ' ' ? SEPARADOR : alfabeto.get(c);
+                int posicao = estado * tamanhoAlfabeto + simbolo;
+                if (trie[posicao] < 0) {
+                    trie[posicao] = estados++;
+                }
+                estado = trie[posicao];
+            }
+            saidaTrie[estado] = indice;
+
+            Termo termo = entrada.getValue();
+            pesoSentimento[indice] = termo.sentimento;
+            negacao[indice] = termo.negacao;
+            prefixo[indice] = !padrao.endsWith(" ");
+            palavrasDoTermo[indice] = padrao.trim().split(" ").length;
+            categoriasDoTermo[indice] = termo.categorias.keySet().stream().mapToInt(Integer::intValue).toArray();
+            pesosCategoria[indice] = termo.categorias.values().stream().mapToDouble(Double::doubleValue).toArray();
+            indice++;
+        }
+
+        // Aho-Corasick: transições de falha embutidas na tabela, em ordem de largura
+        this.transicoes = Arrays.copyOf(trie, estados * tamanhoAlfabeto);
+        this.saida = Arrays.copyOf(saidaTrie, estados);
+        this.proximaSaida = new int[estados];
+        int[] falha = new int[estados];
+        ArrayDeque<Integer> fila = new ArrayDeque<>();
+        for (int simbolo = 0; simbolo < tamanhoAlfabeto; simbolo++) {
+            int filho = transicoes[simbolo];
+            if (filho < 0) {
+                transicoes[simbolo] = 0;
+            } else {
+                fila.add(filho);
+            }
+        }
+        while (!fila.isEmpty()) {
+            int estado = fila.poll();
+            int estadoFalha = falha[estado];
+            proximaSaida[estado] = saida[estadoFalha] >= 0 ? estadoFalha : proximaSaida[estadoFalha];
+            for (int simbolo = 0; simbolo < tamanhoAlfabeto; simbolo++) {
+                int posicao = estado * tamanhoAlfabeto + simbolo;
+                int filho = transicoes[posicao];
+                int destinoFalha = transicoes[estadoFalha * tamanhoAlfabeto + simbolo];
+                if (filho < 0) {
+                    transicoes[posicao] = destinoFalha;
+                } else {
+                    falha[filho] = destinoFalha;
+                    fila.add(filho);
+                }
+            }
+        }
+    }
+
+    // --- CARREGAMENTO ---
+
+    private static final class Holder {
+        static final ClassificadorLexico PADRAO = carregarRecurso(RECURSO_PADRAO);
+    }
+
+    /**
+     * Classificador com o léxico padrão empacotado na aplicação.
+     */
+    public static ClassificadorLexico padrao() {
+        return Holder.PADRAO;
+    }
+
+    public static ClassificadorLexico carregarRecurso(String recurso) {
+        InputStream entrada = ClassificadorLexico.class.getClassLoader().getResourceAsStream(recurso);
+        if (entrada == null) {
+            throw new IllegalArgumentException("Léxico não encontrado no classpath: " + recurso);
+        }
+        try (Reader reader = new InputStreamReader(entrada, StandardCharsets.UTF_8)) {
+            return compilar(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Lê e compila um léxico. Formato (linhas vazias e iniciadas por # são ignoradas):
+     * <pre>
+     * [negacao]
+     * não
+     * [sentimento]
+     * +2 excelente
+     * -1.5 dificuldade*
+     * [categoria Gestão de Tarefas]
+     * meta = Melhorar organização em 20% no próximo mês.
+     * curso = Curso de Produtividade Avançada
+     * 2 prazo*
+     * </pre>
+     * Termos podem ter várias palavras; o * final casa com qualquer palavra que comece pelo termo.
+     *
+     * @throws IllegalArgumentException se alguma linha for inválida
+     */
+    public static ClassificadorLexico compilar(Reader reader) throws IOException {
+        Construtor construtor = new Construtor();
+        BufferedReader linhas = new BufferedReader(reader);
+        String secao = null;
+        Categoria categoria = null;
+        String linha;
+        int numero = 0;
+        while ((linha = linhas.readLine()) != null) {
+            numero++;
+            linha = linha.strip();
+            if (linha.isEmpty() || linha.startsWith("#")) {
+                continue;
+            }
+
+            Matcher cabecalho = SECAO.matcher(linha);
+            if (cabecalho.matches()) {
+                secao = cabecalho.group(1).toLowerCase(Locale.ROOT);
+                if (secao.equals("categoria")) {
+                    if (cabecalho.group(2) == null) {
+                        throw erro(numero, "categoria sem nome");
+                    }
+                    categoria = new Categoria(cabecalho.group(2).strip(), null, null, null);
+                    construtor.categorias.add(categoria);
+                } else if (!secao.equals("negacao") && !secao.equals("sentimento")) {
+                    throw erro(numero, "seção desconhecida: " + secao);
+                }
+                continue;
+            }
+
+            if (secao == null) {
+                throw erro(numero, "linha fora de uma seção");
+            }
+            if (secao.equals("negacao")) {
+                construtor.termo(numero, linha).negacao = true;
+                continue;
+            }
+            if (secao.equals("categoria")) {
+                Matcher propriedade = PROPRIEDADE.matcher(linha);
+                if (propriedade.matches()) {
+                    String valor = propriedade.group(2).isBlank() ? null : propriedade.group(2).strip();
+                    categoria = switch (propriedade.group(1)) {
+                        case "meta" -> new Categoria(categoria.nome(), valor, categoria.curso(), categoria.mentor());
+                        case "curso" -> new Categoria(categoria.nome(), categoria.meta(), valor, categoria.mentor());
+                        default -> new Categoria(categoria.nome(), categoria.meta(), categoria.curso(), valor);
+                    };
+                    construtor.categorias.set(construtor.categorias.size() - 1, categoria);
+                    continue;
+                }
+            }
+
+            Matcher entrada = ENTRADA.matcher(linha);
+            if (!entrada.matches()) {
+                throw erro(numero, "esperado \"peso termo\": " + linha);
+            }
+            double peso = Double.parseDouble(entrada.group(1));
+            Termo termo = construtor.termo(numero, entrada.group(2));
+            if (secao.equals("sentimento")) {
+                termo.sentimento += peso;
+            } else {
+                termo.categorias.merge(construtor.categorias.size() - 1, peso, Double::sum);
+            }
+        }
+        if (construtor.termos.isEmpty()) {
+            throw new IllegalArgumentException("Léxico vazio");
+        }
+        return new ClassificadorLexico(construtor);
+    }
+
+    private static IllegalArgumentException erro(int linha, String mensagem) {
+        return new IllegalArgumentException("Léxico, linha " + linha + ": " + mensagem);
+    }
+
+    private static final class Termo {
+        double sentimento;
+        boolean negacao;
+        final Map<Integer, Double> categorias = new LinkedHashMap<>();
+    }
+
+    private static final class Construtor {
+        final Map<String, Termo> termos = new LinkedHashMap<>();
+        final List<Categoria> categorias = new ArrayList<>();
+
+        // O padrão é o termo normalizado entre separadores (" prazo apertado "); com *, sem o separador final
+        Termo termo(int linha, String texto) {
+            boolean ehPrefixo = texto.endsWith("*");
+            StringBuilder padrao = new StringBuilder(" ");
+            for (char c : (ehPrefixo ? texto.substring(0, texto.length() - 1) : texto).toCharArray()) {
+                if (c >= LIMITE_TABELA) {
+                    throw erro(linha, "caractere não suportado em \"" + texto + "\"");
+                }
+                if (Character.isLetterOrDigit(c)) {
+                    padrao.append(DOBRA[c]);
+                } else if (padrao.charAt(padrao.length() - 1) != ' ') {
+                    padrao.append(' ');
+                }
+            }
+            if (padrao.length() == 1) {
+                throw erro(linha, "termo vazio");
+            }
+            if (padrao.charAt(padrao.length() - 1) != ' ' && !ehPrefixo) {
+                padrao.append(' ');
+            } else if (ehPrefixo && padrao.charAt(padrao.length() - 1) == ' ') {
+                padrao.setLength(padrao.length() - 1);
+            }
+            return termos.computeIfAbsent(padrao.toString(), p -> new Termo());
+        }
+    }
+
+    // --- CLASSIFICAÇÃO ---
+
+    public AnaliseIAResultadoDTO analisar(AnaliseIARequisicaoDTO requisicao) {
+        return classificar(requisicao).resultado();
+    }
+
+    /**
+     * Classifica o feedback pelos três campos enviados à IA. A varredura não cria objetos:
+     * só o placar e o resultado são alocados, uma vez por feedback.
+     */
+    public Classificacao classificar(AnaliseIARequisicaoDTO requisicao) {
+        Placar placar = new Placar(categorias.size());
+        varrer(requisicao.feedbackTextual(), placar, 1.0);
+        varrer(requisicao.dificuldadesEncontradas(), placar, PESO_CAMPO_DIFICULDADES);
+        varrer(requisicao.interessesAprendizado(), placar, 1.0);
+
+        double saldo = placar.positivo - placar.negativo;
+        String sentimento = saldo >= LIMIAR_NEUTRO ? POSITIVO : saldo <= -LIMIAR_NEUTRO ? NEGATIVO : NEUTRO;
+
+        int melhor = -1;
+        for (int i = 0; i < placar.categorias.length; i++) {
+            if (placar.categorias[i] > 0 && (melhor < 0 || placar.categorias[i] > placar.categorias[melhor])) {
+                melhor = i;
+            }
+        }
+
+        AnaliseIAResultadoDTO resultado;
+        if (melhor >= 0) {
+            Categoria categoria = categorias.get(melhor);
+            resultado = new AnaliseIAResultadoDTO(sentimento, categoria.nome(), categoria.meta(),
+                    categoria.curso(), categoria.mentor());
+        } else {
+            String meta = sentimento.equals(NEGATIVO)
+                    ? "Definir com o gestor um plano para os pontos levantados."
+                    : "Continuar o excelente trabalho!";
+            resultado = new AnaliseIAResultadoDTO(sentimento, SEM_CATEGORIA, meta, null, null);
+        }
+        return new Classificacao(resultado, saldo, placar.ocorrencias);
+    }
+
+    public int getTotalTermos() {
+        return totalTermos;
+    }
+
+    public int getTotalCategorias() {
+        return categorias.size();
+    }
+
+    private void varrer(CharSequence texto, Placar placar, double pesoCategorias) {
+        if (texto == null) {
+            return;
+        }
+        placar.palavras = 0;
+        placar.ultimaNegacao = Integer.MIN_VALUE / 2;
+        int estado = transicoes[SEPARADOR]; // Separador virtual antes do texto
+        boolean anteriorSeparador = true;
+        for (int i = 0, n = texto.length(); i < n; i++) {
+            char c = texto.charAt(i);
+            if (c >= '\u0300' && c <= '\u036F') {
+                continue; // Acento combinante (texto em NFD): faz parte da letra anterior
+            }
+            int simbolo = c < LIMITE_TABELA ? simbolos[c] : Character.isLetterOrDigit(c) ? OUTRO : SEPARADOR;
+            if (simbolo == SEPARADOR) {
+                if (anteriorSeparador) {
+                    continue; // Separadores seguidos contam como um
+                }
+                placar.palavras++;
+            }
+            anteriorSeparador = simbolo == SEPARADOR;
+            estado = transicoes[estado * tamanhoAlfabeto + simbolo];
+            pontuar(estado, placar, pesoCategorias);
+        }
+        if (!anteriorSeparador) {
+            placar.palavras++; // Separador virtual depois do texto
+            pontuar(transicoes[estado * tamanhoAlfabeto + SEPARADOR], placar, pesoCategorias);
+        }
+    }
+
+    private void pontuar(int estado, Placar placar, double pesoCategorias) {
+        for (int atual = saida[estado] >= 0 ? estado : proximaSaida[estado]; atual > 0; atual = proximaSaida[atual]) {
+            int termo = saida[atual];
+            placar.ocorrencias++;
+            // Termos com * terminam no meio da palavra, que ainda não foi contada
+            int ultimaPalavra = prefixo[termo] ? placar.palavras + 1 : placar.palavras;
+            int primeiraPalavra = ultimaPalavra - palavrasDoTermo[termo] + 1;
+
+            if (negacao[termo]) {
+                placar.ultimaNegacao = ultimaPalavra;
+            }
+            double peso = pesoSentimento[termo];
+            if (peso != 0) {
+                boolean negado = placar.ultimaNegacao < primeiraPalavra
+                        && placar.ultimaNegacao >= primeiraPalavra - 1 - JANELA_NEGACAO;
+                if (negado) {
+                    peso = -peso;
+                }
+                if (peso > 0) {
+                    placar.positivo += peso;
+                } else {
+                    placar.negativo -= peso;
+                }
+            }
+            int[] categoriasTermo = categoriasDoTermo[termo];
+            for (int i = 0; i < categoriasTermo.length; i++) {
+                placar.categorias[categoriasTermo[i]] += pesosCategoria[termo][i] * pesoCategorias;
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.AnaliseIARequisicaoDTO;
+import com.progress.progress_api.dto.AnaliseIAResultadoDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Mantém o ClassificadorLexico em uso. Sem ia.lexico.arquivo, usa o léxico empacotado na aplicação;
+ * com ele, lê o arquivo externo e o recarrega quando a data de modificação muda, sem reiniciar.
+ * Um léxico inválido é rejeitado e o anterior continua em uso.
+ */
+@Service
+public class ClassificadorLexicoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClassificadorLexicoService.class);
+
+    private final Path arquivo;
+    private final double limiarConfianca;
+    private final Counter recargas;
+    private final Counter recargasComErro;
+    private final Counter analisesSemModelo;
+
+    private volatile ClassificadorLexico classificador;
+    private FileTime versaoCarregada;
+
+    public ClassificadorLexicoService(@Value("${ia.lexico.arquivo:}") String arquivo,
+                                      @Value("${ia.lexico.limiar-confianca:4}") double limiarConfianca,
+                                      MeterRegistry meterRegistry) throws IOException {
+        this.arquivo = arquivo.isBlank() ? null : Path.of(arquivo);
+        this.limiarConfianca = limiarConfianca;
+        this.recargas = meterRegistry.counter("ia.lexico.recargas", "resultado", "ok");
+        this.recargasComErro = meterRegistry.counter("ia.lexico.recargas", "resultado", "erro");
+        this.analisesSemModelo = meterRegistry.counter("ia.lexico.analises-sem-modelo");
+        Gauge.builder("ia.lexico.termos", this, s -> s.classificador.getTotalTermos()).register(meterRegistry);
+
+        if (this.arquivo == null) {
+            this.classificador = ClassificadorLexico.padrao();
+        } else {
+            // Na inicialização um léxico inválido impede a aplicação de subir, em vez de ficar sem classificador
+            this.versaoCarregada = Files.getLastModifiedTime(this.arquivo);
+            this.classificador = compilar(this.arquivo);
+        }
+        log.info("Léxico do classificador local: {} termos, {} categorias ({})", classificador.getTotalTermos(),
+                classificador.getTotalCategorias(), this.arquivo != null ? this.arquivo : ClassificadorLexico.RECURSO_PADRAO);
+    }
+
+    public AnaliseIAResultadoDTO analisar(AnaliseIARequisicaoDTO requisicao) {
+        return classificador.analisar(requisicao);
+    }
+
+    /**
+     * Resultado do léxico quando ele é confiante o bastante (ia.lexico.limiar-confianca) para
+     * dispensar o modelo; caso contrário null. Com limiar 0, sempre null.
+     */
+    public AnaliseIAResultadoDTO analisarSeConfiante(AnaliseIARequisicaoDTO requisicao) {
+        ClassificadorLexico.Classificacao classificacao = classificador.classificar(requisicao);
+        if (!classificacao.confiante(limiarConfianca)) {
+            return null;
+        }
+        analisesSemModelo.increment();
+        return classificacao.resultado();
+    }
+
+    /**
+     * Verifica se o arquivo do léxico mudou e, se mudou, compila e troca o classificador.
+     */
+    @Scheduled(fixedDelayString = "${ia.lexico.intervalo-recarga-ms:10000}")
+    public synchronized void recarregarSeAlterado() {
+        if (arquivo == null) {
+            return;
+        }
+        try {
+            FileTime versao = Files.getLastModifiedTime(arquivo);
+            if (versao.equals(versaoCarregada)) {
+                return;
+            }
+            ClassificadorLexico novo = compilar(arquivo);
+            classificador = novo;
+            // Só depois de compilar: um arquivo lido pela metade ou inválido volta a ser tentado no próximo ciclo,
+            // mesmo que a versão corrigida tenha a mesma data de modificação
+            versaoCarregada = versao;
+            recargas.increment();
+            log.info("Léxico recarregado de {}: {} termos, {} categorias", arquivo, novo.getTotalTermos(),
+                    novo.getTotalCategorias());
+        } catch (IOException | IllegalArgumentException e) {
+            recargasComErro.increment();
+            log.error("Léxico em {} não foi recarregado, o anterior continua em uso: {}", arquivo, e.getMessage());
+        }
+    }
+
+    private static ClassificadorLexico compilar(Path arquivo) throws IOException {
+        try (Reader reader = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            return ClassificadorLexico.compilar(reader);
+        }
+    }
+}
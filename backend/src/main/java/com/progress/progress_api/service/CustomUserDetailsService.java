@@ -2,22 +2,42 @@ package com.progress.progress_api.service;
 
 
 
+import com.progress.progress_api.model.Usuario;
 import com.progress.progress_api.repository.UsuarioRepository;
+import com.progress.progress_api.security.PrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         return usuarioRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com o email: " + email));
     }
+
+    /**
+     * Chamado pelo Spring Security após um login bem-sucedido quando o hash armazenado
+     * usa um fator de custo diferente do configurado (rehash transparente).
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Usuario usuario = usuarioRepository.findByEmail(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com o email: " + user.getUsername()));
+        usuario.setSenha(newPassword);
+        Usuario atualizado = usuarioRepository.save(usuario);
+        principalCache.invalidarAposCommit(usuario.getEmail());
+        return atualizado;
+    }
 }
@@ -2,19 +2,56 @@ package com.progress.progress_api.service;
 
 import com.progress.progress_api.dto.AdminDashboardDTO;
 import com.progress.progress_api.dto.FeedbackDTO;
+import com.progress.progress_api.dto.ProgressoPDIsDTO;
+import com.progress.progress_api.model.PDI.StatusPDI;
 import com.progress.progress_api.repository.FeedbackRepository;
 import com.progress.progress_api.repository.PDIRepository;
 import com.progress.progress_api.repository.UsuarioRepository;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Service
 public class DashboardService {
 
+    /**
+     * SNAPSHOT: lê os contadores em memória (padrão).
+     * PARALELO: consulta o banco com as seções em paralelo, respeitando um tempo limite.
+     * SEQUENCIAL: consulta o banco seção por seção.
+     */
+    public enum Modo { SNAPSHOT, PARALELO, SEQUENCIAL }
+
+    public static final String SECAO_USUARIOS = "usuarios";
+    public static final String SECAO_PDIS = "pdis";
+    public static final String SECAO_FEEDBACKS = "feedbacks";
+
+    private record Contagem(long total, Map<String, Long> porChave) {}
+
+    private static final List<StatusPDI> STATUS_EM_ABERTO = List.of(StatusPDI.PLANEJADO, StatusPDI.EM_ANDAMENTO, StatusPDI.ATRASADO);
+    private static final List<String> FAIXAS_PROGRESSO = List.of("0-24", "25-49", "50-74", "75-99", "100");
+
+    private static final long SEM_PRAZO = Long.MAX_VALUE;
+
     @Autowired
     private UsuarioRepository usuarioRepository;
 
@@ -23,39 +60,178 @@ public class DashboardService {
 
     @Autowired
     private FeedbackRepository feedbackRepository;
-    
+
     @Autowired
     private FeedbackService feedbackService; // Reutilizar para converter para DTO
 
+    @Autowired
+    private DashboardSnapshot dashboardSnapshot;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${dashboard.modo:SNAPSHOT}")
+    private Modo modo = Modo.SNAPSHOT;
+
+    @Value("${dashboard.orcamento-ms:500}")
+    private long orcamentoMs = 500;
+
+    // Threads virtuais: cada seção bloqueia no JDBC sem ocupar uma thread de plataforma
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
     public AdminDashboardDTO getAdminDashboardData() {
-        // 1. Estatísticas de Usuários
-        long totalUsuarios = usuarioRepository.count();
-        long totalAdmins = usuarioRepository.countByRoles_Name("ROLE_ADMIN");
-        long totalGestores = usuarioRepository.countByRoles_Name("ROLE_MANAGER");
-        long totalColaboradores = usuarioRepository.countByRoles_Name("ROLE_COLLABORATOR");
-        
-        Map<String, Long> usuariosPorPerfil = usuarioRepository.countUsuariosByRole().stream()
-                .collect(Collectors.toMap(obj -> (String) obj[0], obj -> (Long) obj[1]));
-
-        // 2. Estatísticas de PDIs
-        long totalPDIs = pdiRepository.count();
-        long pdisAtivos = pdiRepository.countByStatus("Em Andamento"); // Use os nomes exatos do seu status
-        long pdisConcluidos = pdiRepository.countByStatus("Concluído");
-        long pdisAtrasados = pdiRepository.countByStatus("Atrasado");
-
-        Map<String, Long> pdisPorStatus = pdiRepository.countPDIsByStatus().stream()
-                .collect(Collectors.toMap(obj -> (String) obj[0], obj -> (Long) obj[1]));
-
-        // 3. Feedbacks Recentes
-        List<FeedbackDTO> feedbacksRecentes = feedbackRepository.findTop5ByOrderByDataEnvioDesc().stream()
-                .map(feedbackService::convertToDTO) // Supondo que você tenha um método para converter
-                .collect(Collectors.toList());
-
-        // 4. Monta o DTO de resposta
-        return new AdminDashboardDTO(
-            totalUsuarios, totalColaboradores, totalGestores, totalAdmins, usuariosPorPerfil,
-            totalPDIs, pdisAtivos, pdisConcluidos, pdisAtrasados, pdisPorStatus,
-            feedbacksRecentes
-        );
-    }
-}
\ No newline at end of file
+        return switch (modo) {
+            case SEQUENCIAL -> calcularSequencial();
+            case PARALELO -> calcularParalelo(orcamentoMs);
+            case SNAPSHOT -> {
+                // Enquanto o snapshot não foi carregado, calcula diretamente no banco
+                if (!dashboardSnapshot.isCarregado()) {
+                    reconciliar();
+                }
+                yield dashboardSnapshot.montar();
+            }
+        };
+    }
+
+    /**
+     * Recalcula os agregados no banco e substitui os contadores do snapshot,
+     * corrigindo qualquer desvio acumulado pelas atualizações incrementais.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${dashboard.reconciliacao-ms:300000}", initialDelayString = "${dashboard.reconciliacao-ms:300000}")
+    public void reconciliar() {
+        DashboardSnapshot.Reconciliacao reconciliacao = dashboardSnapshot.iniciarReconciliacao();
+        try {
+            Contagem usuarios = contarUsuarios(SEM_PRAZO);
+            Contagem pdis = contarPDIs(SEM_PRAZO);
+            List<FeedbackDTO> recentes = buscarFeedbacksRecentes(SEM_PRAZO);
+            dashboardSnapshot.carregar(reconciliacao, usuarios.total(), usuarios.porChave(),
+                    pdis.total(), pdis.porChave(), recentes);
+        } catch (RuntimeException e) {
+            dashboardSnapshot.descartarReconciliacao(reconciliacao);
+            throw e;
+        }
+    }
+
+    /**
+     * Executa as seções uma após a outra.
+     */
+    public AdminDashboardDTO calcularSequencial() {
+        Contagem usuarios = contarUsuarios(SEM_PRAZO);
+        Contagem pdis = contarPDIs(SEM_PRAZO);
+        List<FeedbackDTO> recentes = buscarFeedbacksRecentes(SEM_PRAZO);
+        return AdminDashboardDTO.of(usuarios.total(), usuarios.porChave(), pdis.total(), pdis.porChave(),
+                recentes, List.of());
+    }
+
+    /**
+     * Executa as seções de usuários, PDIs e feedbacks em paralelo. Seções que não terminam
+     * dentro do orçamento são listadas em secoesIndisponiveis; as demais são retornadas.
+     * As consultas de cada seção rodam com statement_timeout igual ao orçamento restante, então o
+     * PostgreSQL as cancela e a conexão é devolvida ao pool junto com o fim do prazo.
+     */
+    public AdminDashboardDTO calcularParalelo(long orcamentoMs) {
+        long prazo = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(orcamentoMs);
+
+        CompletableFuture<Contagem> usuariosFuture = CompletableFuture.supplyAsync(() -> contarUsuarios(prazo), executor);
+        CompletableFuture<Contagem> pdisFuture = CompletableFuture.supplyAsync(() -> contarPDIs(prazo), executor);
+        CompletableFuture<List<FeedbackDTO>> feedbacksFuture =
+                CompletableFuture.supplyAsync(() -> buscarFeedbacksRecentes(prazo), executor);
+
+        List<String> indisponiveis = new ArrayList<>();
+        Contagem vazia = new Contagem(0, Map.of());
+        Contagem usuarios = aguardar(usuariosFuture, prazo, SECAO_USUARIOS, indisponiveis, vazia);
+        Contagem pdis = aguardar(pdisFuture, prazo, SECAO_PDIS, indisponiveis, vazia);
+        List<FeedbackDTO> recentes = aguardar(feedbacksFuture, prazo, SECAO_FEEDBACKS, indisponiveis, List.of());
+
+        return AdminDashboardDTO.of(usuarios.total(), usuarios.porChave(), pdis.total(), pdis.porChave(),
+                recentes, List.copyOf(indisponiveis));
+    }
+
+    /**
+     * Distribuição do progresso das metas dos PDIs em aberto. Usa os contadores gravados em pdis,
+     * sem ler metas_pdi: uma consulta agrupada por percentual (no máximo 101 linhas).
+     */
+    public ProgressoPDIsDTO calcularProgressoPDIs() {
+        List<Object[]> linhas = transactionTemplate.execute(status -> pdiRepository.countPorPercentualConcluido(STATUS_EM_ABERTO));
+        Map<String, Long> porFaixa = new LinkedHashMap<>();
+        FAIXAS_PROGRESSO.forEach(faixa -> porFaixa.put(faixa, 0L));
+        long total = 0;
+        long somaPercentuais = 0;
+        for (Object[] linha : linhas) {
+            int percentual = (Integer) linha[0];
+            long quantidade = (Long) linha[1];
+            porFaixa.merge(FAIXAS_PROGRESSO.get(Math.min(percentual / 25, 4)), quantidade, Long::sum);
+            total += quantidade;
+            somaPercentuais += percentual * quantidade;
+        }
+        return new ProgressoPDIsDTO(total, total == 0 ? 0 : (double) somaPercentuais / total, porFaixa);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    // --- SEÇÕES ---
+
+    private Contagem contarUsuarios(long prazoNanos) {
+        return emTransacao(prazoNanos, status -> new Contagem(
+                usuarioRepository.count(),
+                usuarioRepository.countUsuariosByRole().stream()
+                        .collect(Collectors.toMap(obj -> (String) obj[0], obj -> (Long) obj[1]))));
+    }
+
+    private Contagem contarPDIs(long prazoNanos) {
+        return emTransacao(prazoNanos, status -> new Contagem(
+                pdiRepository.count(),
+                pdiRepository.countPDIsByStatus().stream()
+                        .collect(Collectors.toMap(obj -> String.valueOf(obj[0]), obj -> (Long) obj[1]))));
+    }
+
+    private List<FeedbackDTO> buscarFeedbacksRecentes(long prazoNanos) {
+        // A conversão acessa autor e destinatário (LAZY), então precisa de uma transação aberta
+        return emTransacao(prazoNanos, status -> feedbackRepository.findTop5ByOrderByDataEnvioDesc().stream()
+                .map(feedbackService::convertToDTO)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Transação de uma seção. Com prazo, cada consulta da transação tem statement_timeout igual ao tempo
+     * restante (em ms: o timeout de consulta do JDBC e o de transação do Spring só aceitam segundos inteiros).
+     */
+    private <T> T emTransacao(long prazoNanos, TransactionCallback<T> secao) {
+        return transactionTemplate.execute(status -> {
+            if (prazoNanos != SEM_PRAZO) {
+                long restanteMs = TimeUnit.NANOSECONDS.toMillis(prazoNanos - System.nanoTime());
+                if (restanteMs <= 0) {
+                    throw new QueryTimeoutException("Orçamento do dashboard esgotado antes da consulta");
+                }
+                // is_local = true: vale só até o fim desta transação
+                jdbcTemplate.queryForObject("SELECT set_config('statement_timeout', ?, true)", String.class,
+                        restanteMs + "ms");
+            }
+            return secao.doInTransaction(status);
+        });
+    }
+
+    private static <T> T aguardar(CompletableFuture<T> future, long prazoNanos, String secao,
+                                  List<String> indisponiveis, T padrao) {
+        try {
+            long restante = Math.max(0, prazoNanos - System.nanoTime());
+            return future.get(restante, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Não interrompe a thread da seção: quem encerra a consulta é o statement_timeout
+            future.cancel(false);
+            indisponiveis.add(secao);
+            return padrao;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            indisponiveis.add(secao);
+            return padrao;
+        }
+    }
+}
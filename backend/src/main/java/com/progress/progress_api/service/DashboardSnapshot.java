@@ -0,0 +1,284 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.AdminDashboardDTO;
+import com.progress.progress_api.dto.DashboardDeltaDTO;
+import com.progress.progress_api.dto.FeedbackDTO;
+import com.progress.progress_api.model.PDI.StatusPDI;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Agregados do dashboard de administração mantidos em memória.
+ * É carregado a partir do banco pelo DashboardService e, depois disso, atualizado
+ * pelas escritas de usuários, PDIs e feedbacks. A leitura apenas soma os contadores,
+ * sem locks nem consultas. Uma reconciliação periódica substitui os contadores pelos
+ * valores do banco para que eles não se desviem; as alterações confirmadas enquanto ela
+ * consulta o banco são registradas e reaplicadas sobre os novos contadores.
+ * Cada alteração também é publicada como delta para os assinantes do stream do dashboard.
+ */
+@Component
+public class DashboardSnapshot {
+
+    private static final int TOTAL_FEEDBACKS_RECENTES = 5;
+
+    // Todos os contadores ficam num único objeto para que a reconciliação troque tudo de uma vez
+    private static final class Contadores {
+        final LongAdder totalUsuarios = new LongAdder();
+        final Map<String, LongAdder> usuariosPorPerfil = new ConcurrentHashMap<>();
+        final LongAdder totalPDIs = new LongAdder();
+        final Map<String, LongAdder> pdisPorStatus = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Reconciliação em andamento: guarda as variações aplicadas desde o seu início,
+     * que podem não estar nas contagens lidas do banco.
+     */
+    public static final class Reconciliacao {
+        private final List<Consumer<Contadores>> variacoes = new ArrayList<>();
+
+        private Reconciliacao() {
+        }
+    }
+
+    private volatile Contadores contadores = new Contadores();
+    private volatile List<FeedbackDTO> feedbacksRecentes = List.of();
+    private volatile boolean carregado = false;
+
+    // Protegida pelo monitor do snapshot, assim como a aplicação das variações
+    private final List<Reconciliacao> reconciliacoes = new ArrayList<>();
+
+    private final DashboardStreamService streamService;
+
+    public DashboardSnapshot(DashboardStreamService streamService) {
+        this.streamService = streamService;
+    }
+
+    public boolean isCarregado() {
+        return carregado;
+    }
+
+    /**
+     * Deve ser chamado antes de consultar o banco; as variações aplicadas a partir daqui
+     * são reaplicadas em carregar.
+     */
+    public synchronized Reconciliacao iniciarReconciliacao() {
+        Reconciliacao reconciliacao = new Reconciliacao();
+        reconciliacoes.add(reconciliacao);
+        return reconciliacao;
+    }
+
+    /**
+     * Abandona uma reconciliação cujas consultas falharam.
+     */
+    public synchronized void descartarReconciliacao(Reconciliacao reconciliacao) {
+        reconciliacoes.remove(reconciliacao);
+    }
+
+    /**
+     * Substitui o estado atual pelos valores calculados a partir do banco e reaplica
+     * as variações registradas desde iniciarReconciliacao.
+     */
+    public synchronized void carregar(Reconciliacao reconciliacao,
+                                      long totalUsuarios, Map<String, Long> usuariosPorPerfil,
+                                      long totalPDIs, Map<String, Long> pdisPorStatus,
+                                      List<FeedbackDTO> recentes) {
+        Contadores novos = new Contadores();
+        novos.totalUsuarios.add(totalUsuarios);
+        usuariosPorPerfil.forEach((perfil, total) -> contador(novos.usuariosPorPerfil, perfil).add(total));
+        novos.totalPDIs.add(totalPDIs);
+        pdisPorStatus.forEach((status, total) -> contador(novos.pdisPorStatus, status).add(total));
+
+        this.contadores = novos;
+        this.feedbacksRecentes = List.copyOf(recentes);
+        // Escritas confirmadas durante as consultas podem ter ficado fora das contagens
+        reconciliacoes.remove(reconciliacao);
+        reconciliacao.variacoes.forEach(variacao -> variacao.accept(novos));
+        this.carregado = true;
+
+        // Após a reconciliação, os assinantes recebem o estado completo novamente
+        streamService.publicarSnapshot(montar());
+    }
+
+    /**
+     * Monta o DTO do dashboard a partir dos contadores, sem acessar o banco.
+     */
+    public AdminDashboardDTO montar() {
+        Contadores atual = contadores;
+        Map<String, Long> usuariosPorPerfil = somar(atual.usuariosPorPerfil);
+        Map<String, Long> pdisPorStatus = somar(atual.pdisPorStatus);
+
+        return AdminDashboardDTO.of(atual.totalUsuarios.sum(), usuariosPorPerfil,
+                atual.totalPDIs.sum(), pdisPorStatus, feedbacksRecentes, List.of());
+    }
+
+    // --- ATUALIZAÇÕES (aplicadas somente após o commit da transação corrente) ---
+
+    public void registrarUsuario(Collection<String> perfis) {
+        aposCommit(() -> {
+            aplicar(atual -> {
+                atual.totalUsuarios.increment();
+                perfis.forEach(perfil -> contador(atual.usuariosPorPerfil, perfil).increment());
+            });
+
+            Map<String, Long> variacoes = new HashMap<>();
+            variacoes.put("totalUsuarios", 1L);
+            perfis.forEach(perfil -> variacoes.merge("usuariosPorPerfil." + perfil, 1L, Long::sum));
+            publicar(variacoes);
+        });
+    }
+
+    public void removerUsuario(Long usuarioId, Collection<String> perfis) {
+        aposCommit(() -> {
+            aplicar(atual -> {
+                atual.totalUsuarios.decrement();
+                perfis.forEach(perfil -> contador(atual.usuariosPorPerfil, perfil).decrement());
+                removerFeedbacksRecentesDoUsuario(usuarioId);
+            });
+
+            Map<String, Long> variacoes = new HashMap<>();
+            variacoes.put("totalUsuarios", -1L);
+            perfis.forEach(perfil -> variacoes.merge("usuariosPorPerfil." + perfil, -1L, Long::sum));
+            publicar(variacoes);
+        });
+    }
+
+    public void alterarPerfis(Collection<String> removidos, Collection<String> adicionados) {
+        aposCommit(() -> {
+            aplicar(atual -> {
+                removidos.forEach(perfil -> contador(atual.usuariosPorPerfil, perfil).decrement());
+                adicionados.forEach(perfil -> contador(atual.usuariosPorPerfil, perfil).increment());
+            });
+
+            Map<String, Long> variacoes = new HashMap<>();
+            removidos.forEach(perfil -> variacoes.merge("usuariosPorPerfil." + perfil, -1L, Long::sum));
+            adicionados.forEach(perfil -> variacoes.merge("usuariosPorPerfil." + perfil, 1L, Long::sum));
+            publicar(variacoes);
+        });
+    }
+
+    public void registrarPDI(StatusPDI status) {
+        aposCommit(() -> {
+            aplicar(atual -> {
+                atual.totalPDIs.increment();
+                contador(atual.pdisPorStatus, String.valueOf(status)).increment();
+            });
+            publicar(Map.of("totalPDIs", 1L, "pdisPorStatus." + status, 1L));
+        });
+    }
+
+    // Vários PDIs criados de uma vez (provisionamento em massa): um único delta
+    public void registrarPDIs(StatusPDI status, long quantidade) {
+        if (quantidade == 0) {
+            return;
+        }
+        aposCommit(() -> {
+            aplicar(atual -> {
+                atual.totalPDIs.add(quantidade);
+                contador(atual.pdisPorStatus, String.valueOf(status)).add(quantidade);
+            });
+            publicar(Map.of("totalPDIs", quantidade, "pdisPorStatus." + status, quantidade));
+        });
+    }
+
+    public void alterarStatusPDI(StatusPDI anterior, StatusPDI novo) {
+        if (anterior == novo) {
+            return;
+        }
+        aposCommit(() -> {
+            aplicar(atual -> {
+                contador(atual.pdisPorStatus, String.valueOf(anterior)).decrement();
+                contador(atual.pdisPorStatus, String.valueOf(novo)).increment();
+            });
+            publicar(Map.of("pdisPorStatus." + anterior, -1L, "pdisPorStatus." + novo, 1L));
+        });
+    }
+
+    public void removerPDI(StatusPDI status) {
+        aposCommit(() -> {
+            aplicar(atual -> {
+                atual.totalPDIs.decrement();
+                contador(atual.pdisPorStatus, String.valueOf(status)).decrement();
+            });
+            publicar(Map.of("totalPDIs", -1L, "pdisPorStatus." + status, -1L));
+        });
+    }
+
+    public void registrarFeedback(FeedbackDTO feedback) {
+        aposCommit(() -> {
+            aplicar(atual -> adicionarFeedbackRecente(feedback));
+            streamService.publicarDelta(new DashboardDeltaDTO(Map.of(), feedback));
+        });
+    }
+
+    // --- AUXILIARES ---
+
+    // Aplica a variação aos contadores atuais e a registra nas reconciliações em andamento
+    private synchronized void aplicar(Consumer<Contadores> variacao) {
+        variacao.accept(contadores);
+        reconciliacoes.forEach(reconciliacao -> reconciliacao.variacoes.add(variacao));
+    }
+
+    private synchronized void adicionarFeedbackRecente(FeedbackDTO feedback) {
+        List<FeedbackDTO> novos = new ArrayList<>(TOTAL_FEEDBACKS_RECENTES);
+        novos.add(feedback);
+        for (FeedbackDTO existente : feedbacksRecentes) {
+            if (novos.size() == TOTAL_FEEDBACKS_RECENTES) {
+                break;
+            }
+            // Reaplicado após uma reconciliação, o feedback pode já estar na lista lida do banco
+            if (feedback.getId() == null || !feedback.getId().equals(existente.getId())) {
+                novos.add(existente);
+            }
+        }
+        feedbacksRecentes = List.copyOf(novos);
+    }
+
+    private synchronized void removerFeedbacksRecentesDoUsuario(Long usuarioId) {
+        // A lista pode ficar com menos de 5 itens até a próxima reconciliação
+        feedbacksRecentes = feedbacksRecentes.stream()
+                .filter(f -> !usuarioId.equals(f.getAutorId()) && !usuarioId.equals(f.getDestinatarioId()))
+                .toList();
+    }
+
+    private void publicar(Map<String, Long> variacoes) {
+        streamService.publicarDelta(new DashboardDeltaDTO(variacoes, null));
+    }
+
+    private static LongAdder contador(Map<String, LongAdder> mapa, String chave) {
+        return mapa.computeIfAbsent(chave, k -> new LongAdder());
+    }
+
+    private static Map<String, Long> somar(Map<String, LongAdder> mapa) {
+        Map<String, Long> resultado = new HashMap<>();
+        mapa.forEach((chave, contador) -> {
+            long total = contador.sum();
+            if (total > 0) {
+                resultado.put(chave, total);
+            }
+        });
+        return resultado;
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+}
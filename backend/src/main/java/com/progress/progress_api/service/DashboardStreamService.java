@@ -0,0 +1,158 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.AdminDashboardDTO;
+import com.progress.progress_api.dto.DashboardDeltaDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Registro de assinantes do stream (SSE) do dashboard.
+ *
+ * Cada assinante recebe um snapshot completo ao se conectar e depois apenas deltas.
+ * Os eventos de cada assinante passam por uma fila limitada; se ela encher, o assinante
+ * é considerado lento e desconectado (o cliente reconecta e recebe um snapshot novo).
+ * Conexões ociosas não ocupam threads: o envio é feito por threads virtuais apenas
+ * enquanto há eventos na fila.
+ */
+@Service
+public class DashboardStreamService {
+
+    private record Evento(String nome, Object dados) {}
+
+    private final class Assinante {
+        final SseEmitter emitter;
+        final Queue<Evento> fila;
+        final AtomicBoolean enviando = new AtomicBoolean(false);
+
+        Assinante(SseEmitter emitter, int capacidadeFila) {
+            this.emitter = emitter;
+            this.fila = criarFila(capacidadeFila);
+        }
+    }
+
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final long timeoutMs;
+    private final int capacidadeFila;
+    private final Counter descartados;
+
+    public DashboardStreamService(@Value("${dashboard.stream.timeout-ms:1800000}") long timeoutMs,
+                                  @Value("${dashboard.stream.capacidade-fila:64}") int capacidadeFila,
+                                  MeterRegistry meterRegistry) {
+        this.timeoutMs = timeoutMs;
+        this.capacidadeFila = capacidadeFila;
+        this.descartados = meterRegistry.counter("dashboard.stream.assinantes.descartados");
+        Gauge.builder("dashboard.stream.assinantes", assinantes, Set::size).register(meterRegistry);
+    }
+
+    /**
+     * Registra um novo assinante e enfileira o snapshot inicial.
+     */
+    public SseEmitter inscrever(AdminDashboardDTO snapshotInicial) {
+        SseEmitter emitter = criarEmitter(timeoutMs);
+        Assinante assinante = new Assinante(emitter, capacidadeFila);
+        emitter.onCompletion(() -> assinantes.remove(assinante));
+        emitter.onTimeout(() -> assinantes.remove(assinante));
+        emitter.onError(e -> assinantes.remove(assinante));
+
+        assinantes.add(assinante);
+        enfileirar(assinante, new Evento("snapshot", snapshotInicial));
+        return emitter;
+    }
+
+    public void publicarDelta(DashboardDeltaDTO delta) {
+        publicar(new Evento("delta", delta));
+    }
+
+    public void publicarSnapshot(AdminDashboardDTO snapshot) {
+        publicar(new Evento("snapshot", snapshot));
+    }
+
+    /**
+     * Comentário periódico para manter a conexão aberta em proxies e detectar clientes desconectados.
+     */
+    @Scheduled(fixedDelayString = "${dashboard.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        publicar(new Evento(null, "heartbeat"));
+    }
+
+    public int totalAssinantes() {
+        return assinantes.size();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        assinantes.forEach(assinante -> assinante.emitter.complete());
+        executor.shutdownNow();
+    }
+
+    // Sobrescritos nos testes para observar os envios sem uma resposta HTTP
+    SseEmitter criarEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    <E> Queue<E> criarFila(int capacidade) {
+        return new ArrayBlockingQueue<>(capacidade);
+    }
+
+    private void publicar(Evento evento) {
+        if (assinantes.isEmpty()) {
+            return;
+        }
+        assinantes.forEach(assinante -> enfileirar(assinante, evento));
+    }
+
+    private void enfileirar(Assinante assinante, Evento evento) {
+        if (!assinante.fila.offer(evento)) {
+            // Consumidor lento: descarta em vez de acumular memória
+            descartados.increment();
+            desconectar(assinante);
+            return;
+        }
+        if (assinante.enviando.compareAndSet(false, true)) {
+            executor.execute(() -> drenar(assinante));
+        }
+    }
+
+    private void drenar(Assinante assinante) {
+        do {
+            Evento evento;
+            while ((evento = assinante.fila.poll()) != null) {
+                try {
+                    if (evento.nome() == null) {
+                        assinante.emitter.send(SseEmitter.event().comment(String.valueOf(evento.dados())));
+                    } else {
+                        assinante.emitter.send(SseEmitter.event().name(evento.nome()).data(evento.dados()));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    desconectar(assinante);
+                    return;
+                }
+            }
+            assinante.enviando.set(false);
+            // Um evento pode ter chegado entre o último poll e a liberação da flag
+        } while (!assinante.fila.isEmpty() && assinante.enviando.compareAndSet(false, true));
+    }
+
+    private void desconectar(Assinante assinante) {
+        if (assinantes.remove(assinante)) {
+            assinante.fila.clear();
+            assinante.emitter.complete();
+        }
+    }
+}
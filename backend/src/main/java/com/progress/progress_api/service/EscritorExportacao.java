@@ -0,0 +1,110 @@
+package com.progress.progress_api.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Grava um Stream em NDJSON ou CSV à medida que os itens chegam. Nenhum item é guardado depois de
+ * escrito: a memória usada depende só do buffer de saída, não da quantidade de itens.
+ */
+final class EscritorExportacao {
+
+    /**
+     * Coluna do CSV: nome no cabeçalho e como extrair o valor do item.
+     */
+    record Coluna<T>(String nome, Function<T, Object> valor) {}
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private EscritorExportacao() {
+    }
+
+    /**
+     * Um objeto JSON por linha. Retorna a quantidade de linhas escritas.
+     */
+    static long escreverNdjson(Stream<?> itens, ObjectMapper objectMapper, OutputStream saida) throws IOException {
+        // Sem flush a cada item: quem decide quando os bytes saem é o buffer
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long linhas = 0;
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(new BufferedWriter(
+                new OutputStreamWriter(saida, StandardCharsets.UTF_8), TAMANHO_BUFFER))) {
+            gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gerador.setRootValueSeparator(null);
+            Iterator<?> iterador = itens.iterator();
+            while (iterador.hasNext()) {
+                writer.writeValue(gerador, iterador.next());
+                gerador.writeRaw('\n');
+                linhas++;
+            }
+        }
+        return linhas;
+    }
+
+    /**
+     * CSV com cabeçalho (RFC 4180), legível pela importação. Retorna a quantidade de linhas, sem o cabeçalho.
+     */
+    static <T> long escreverCsv(Stream<T> itens, List<Coluna<T>> colunas, OutputStream saida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+        for (int i = 0; i < colunas.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            escreverCampo(writer, colunas.get(i).nome());
+        }
+        writer.write("\r\n");
+
+        long linhas = 0;
+        Iterator<T> iterador = itens.iterator();
+        while (iterador.hasNext()) {
+            T item = iterador.next();
+            for (int i = 0; i < colunas.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object valor = colunas.get(i).valor().apply(item);
+                if (valor != null) {
+                    escreverCampo(writer, valor.toString());
+                }
+            }
+            writer.write("\r\n");
+            linhas++;
+        }
+        writer.flush(); // Sem fechar: quem fecha a saída é o chamador
+        return linhas;
+    }
+
+    // Campos com separador, aspas ou quebra de linha vão entre aspas, com as aspas duplicadas
+    private static void escreverCampo(Writer writer, String campo) throws IOException {
+        boolean precisaAspas = false;
+        for (int i = 0; i < campo.length() && !precisaAspas; i++) {
+            char c = campo.charAt(i);
+            precisaAspas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!precisaAspas) {
+            writer.write(campo);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < campo.length(); i++) {
+            char c = campo.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+}
@@ -0,0 +1,224 @@
+package com.progress.progress_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.progress.progress_api.dto.FeedbackDTO;
+import com.progress.progress_api.dto.LinhaExportacaoPDIDTO;
+import com.progress.progress_api.dto.MetaPDIDTO;
+import com.progress.progress_api.dto.PDIDTO;
+import com.progress.progress_api.model.PDI;
+import com.progress.progress_api.repository.FeedbackRepository;
+import com.progress.progress_api.repository.PDIRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Exportação completa de feedbacks e PDIs em NDJSON ou CSV.
+ *
+ * As linhas vêm do banco por cursor (fetch size nas consultas de streaming do repositório) e são
+ * escritas na saída uma a uma, dentro de uma transação somente leitura: a memória usada é a mesma
+ * para mil ou dez milhões de linhas.
+ */
+@Service
+public class ExportacaoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportacaoService.class);
+
+    // Limites usados quando o intervalo não é informado (parâmetros nulos não têm tipo no PostgreSQL)
+    public static final LocalDateTime INICIO_SEM_LIMITE = LocalDateTime.of(1900, 1, 1, 0, 0);
+    public static final LocalDateTime FIM_SEM_LIMITE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    static final List<EscritorExportacao.Coluna<FeedbackDTO>> COLUNAS_FEEDBACK = List.of(
+            new EscritorExportacao.Coluna<>("id", FeedbackDTO::getId),
+            new EscritorExportacao.Coluna<>("autorId", FeedbackDTO::getAutorId),
+            new EscritorExportacao.Coluna<>("autorNome", FeedbackDTO::getAutorNome),
+            new EscritorExportacao.Coluna<>("destinatarioId", FeedbackDTO::getDestinatarioId),
+            new EscritorExportacao.Coluna<>("destinatarioNome", FeedbackDTO::getDestinatarioNome),
+            new EscritorExportacao.Coluna<>("feedbackTextual", FeedbackDTO::getFeedbackTextual),
+            new EscritorExportacao.Coluna<>("habilidadesUtilizadas", FeedbackDTO::getHabilidadesUtilizadas),
+            new EscritorExportacao.Coluna<>("dificuldadesEncontradas", FeedbackDTO::getDificuldadesEncontradas),
+            new EscritorExportacao.Coluna<>("interessesAprendizado", FeedbackDTO::getInteressesAprendizado),
+            new EscritorExportacao.Coluna<>("dataEnvio", FeedbackDTO::getDataEnvio),
+            new EscritorExportacao.Coluna<>("sentimentoAnalisado", FeedbackDTO::getSentimentoAnalisado),
+            new EscritorExportacao.Coluna<>("categoriaDificuldadeAnalisada", FeedbackDTO::getCategoriaDificuldadeAnalisada),
+            new EscritorExportacao.Coluna<>("metaSugeridaIA", FeedbackDTO::getMetaSugeridaIA),
+            new EscritorExportacao.Coluna<>("cursoRecomendadoIA", FeedbackDTO::getCursoRecomendadoIA),
+            new EscritorExportacao.Coluna<>("mentorIndicadoIA", FeedbackDTO::getMentorIndicadoIA),
+            new EscritorExportacao.Coluna<>("statusAnalise", FeedbackDTO::getStatusAnalise)
+    );
+
+    // No CSV cada linha é uma meta, com os dados do PDI repetidos
+    static final List<EscritorExportacao.Coluna<LinhaExportacaoPDIDTO>> COLUNAS_PDI = List.of(
+            new EscritorExportacao.Coluna<>("pdiId", LinhaExportacaoPDIDTO::pdiId),
+            new EscritorExportacao.Coluna<>("colaboradorId", LinhaExportacaoPDIDTO::colaboradorId),
+            new EscritorExportacao.Coluna<>("colaboradorNome", LinhaExportacaoPDIDTO::colaboradorNome),
+            new EscritorExportacao.Coluna<>("titulo", LinhaExportacaoPDIDTO::titulo),
+            new EscritorExportacao.Coluna<>("descricaoGeral", LinhaExportacaoPDIDTO::descricaoGeral),
+            new EscritorExportacao.Coluna<>("dataInicio", LinhaExportacaoPDIDTO::dataInicio),
+            new EscritorExportacao.Coluna<>("dataConclusaoPrevista", LinhaExportacaoPDIDTO::dataConclusaoPrevista),
+            new EscritorExportacao.Coluna<>("dataConclusaoReal", LinhaExportacaoPDIDTO::dataConclusaoReal),
+            new EscritorExportacao.Coluna<>("status", LinhaExportacaoPDIDTO::status),
+            new EscritorExportacao.Coluna<>("metaId", LinhaExportacaoPDIDTO::metaId),
+            new EscritorExportacao.Coluna<>("descricaoMeta", LinhaExportacaoPDIDTO::descricaoMeta),
+            new EscritorExportacao.Coluna<>("acoesNecessarias", LinhaExportacaoPDIDTO::acoesNecessarias),
+            new EscritorExportacao.Coluna<>("prazo", LinhaExportacaoPDIDTO::prazo),
+            new EscritorExportacao.Coluna<>("metaConcluida", LinhaExportacaoPDIDTO::metaConcluida),
+            new EscritorExportacao.Coluna<>("recursosNecessarios", LinhaExportacaoPDIDTO::recursosNecessarios),
+            new EscritorExportacao.Coluna<>("feedbackMeta", LinhaExportacaoPDIDTO::feedbackMeta)
+    );
+
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+
+    @Autowired
+    private PDIRepository pdiRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate transacaoLeitura;
+
+    public ExportacaoService(PlatformTransactionManager transactionManager) {
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+    }
+
+    /**
+     * Escreve na saída os feedbacks enviados em [inicio, fim). Retorna a quantidade de linhas.
+     */
+    public long exportarFeedbacks(OutputStream saida, FormatoArquivo formato,
+                                  LocalDateTime inicio, LocalDateTime fim) throws IOException {
+        return exportar("feedbacks", () -> {
+            try (Stream<FeedbackDTO> feedbacks = feedbackRepository.streamParaExportacao(inicio, fim)) {
+                return formato == FormatoArquivo.CSV
+                        ? EscritorExportacao.escreverCsv(feedbacks, COLUNAS_FEEDBACK, saida)
+                        : EscritorExportacao.escreverNdjson(feedbacks, objectMapper, saida);
+            }
+        });
+    }
+
+    /**
+     * Escreve na saída todos os PDIs com suas metas: no NDJSON, um PDI por linha com as metas aninhadas;
+     * no CSV, uma linha por meta. Retorna a quantidade de linhas.
+     */
+    public long exportarPDIs(OutputStream saida, FormatoArquivo formato) throws IOException {
+        return exportar("PDIs", () -> {
+            try (Stream<LinhaExportacaoPDIDTO> linhas = pdiRepository.streamParaExportacao()) {
+                return formato == FormatoArquivo.CSV
+                        ? EscritorExportacao.escreverCsv(linhas, COLUNAS_PDI, saida)
+                        : EscritorExportacao.escreverNdjson(agruparPorPDI(linhas), objectMapper, saida);
+            }
+        });
+    }
+
+    private interface Escrita {
+        long executar() throws IOException;
+    }
+
+    private long exportar(String tipo, Escrita escrita) throws IOException {
+        long inicio = System.currentTimeMillis();
+        long linhas;
+        try {
+            linhas = transacaoLeitura.execute(status -> {
+                try {
+                    return escrita.executar();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); // Ex: cliente desconectou no meio do download
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("Exportação de {}: {} linhas em {} ms", tipo, linhas, System.currentTimeMillis() - inicio);
+        return linhas;
+    }
+
+    /**
+     * Junta as linhas consecutivas do mesmo PDI (a consulta vem ordenada por PDI) num PDIDTO com
+     * as metas. Só as metas do PDI corrente ficam em memória.
+     */
+    static Stream<PDIDTO> agruparPorPDI(Stream<LinhaExportacaoPDIDTO> linhas) {
+        Iterator<LinhaExportacaoPDIDTO> origem = linhas.iterator();
+        Iterator<PDIDTO> agrupado = new Iterator<>() {
+            private LinhaExportacaoPDIDTO proxima; // Primeira linha do próximo PDI, já lida
+
+            @Override
+            public boolean hasNext() {
+                return proxima != null || origem.hasNext();
+            }
+
+            @Override
+            public PDIDTO next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                LinhaExportacaoPDIDTO linha = proxima != null ? proxima : origem.next();
+                proxima = null;
+                PDIDTO pdi = novoPDI(linha);
+                adicionarMeta(pdi, linha);
+                while (origem.hasNext()) {
+                    linha = origem.next();
+                    if (!linha.pdiId().equals(pdi.getId())) {
+                        proxima = linha;
+                        break;
+                    }
+                    adicionarMeta(pdi, linha);
+                }
+                pdi.setPercentualConcluido(PDI.percentual(pdi.getTotalMetas(), pdi.getMetasConcluidas()));
+                return pdi;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(agrupado, Spliterator.ORDERED), false)
+                .onClose(linhas::close);
+    }
+
+    private static PDIDTO novoPDI(LinhaExportacaoPDIDTO linha) {
+        PDIDTO pdi = new PDIDTO();
+        pdi.setId(linha.pdiId());
+        pdi.setColaboradorId(linha.colaboradorId());
+        pdi.setColaboradorNome(linha.colaboradorNome());
+        pdi.setTitulo(linha.titulo());
+        pdi.setDescricaoGeral(linha.descricaoGeral());
+        pdi.setDataInicio(linha.dataInicio());
+        pdi.setDataConclusaoPrevista(linha.dataConclusaoPrevista());
+        pdi.setDataConclusaoReal(linha.dataConclusaoReal());
+        pdi.setStatus(linha.status());
+        pdi.setMetas(new ArrayList<>());
+        return pdi;
+    }
+
+    private static void adicionarMeta(PDIDTO pdi, LinhaExportacaoPDIDTO linha) {
+        if (linha.metaId() == null) {
+            return; // PDI sem metas
+        }
+        MetaPDIDTO meta = new MetaPDIDTO();
+        meta.setId(linha.metaId());
+        meta.setDescricaoMeta(linha.descricaoMeta());
+        meta.setAcoesNecessarias(linha.acoesNecessarias());
+        meta.setPrazo(linha.prazo());
+        meta.setConcluida(Boolean.TRUE.equals(linha.metaConcluida()));
+        meta.setRecursosNecessarios(linha.recursosNecessarios());
+        meta.setFeedbackMeta(linha.feedbackMeta());
+        pdi.getMetas().add(meta);
+        pdi.setTotalMetas(pdi.getTotalMetas() + 1);
+        if (meta.isConcluida()) {
+            pdi.setMetasConcluidas(pdi.getMetasConcluidas() + 1);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.FeedbackDTO;
+import com.progress.progress_api.model.AnaliseFeedbackPendente;
+import com.progress.progress_api.model.Feedback;
+import com.progress.progress_api.repository.AnaliseFeedbackPendenteRepository;
+import com.progress.progress_api.repository.FeedbackRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Processa a outbox de análise de feedbacks (analise_feedback_outbox).
+ *
+ * A cada ciclo reserva um lote de linhas com FOR UPDATE SKIP LOCKED, adia a próxima tentativa
+ * delas pelo tempo de reserva (para que outra instância não as pegue) e distribui o lote no pool.
+ * A chamada à IA acontece fora de qualquer transação; só a leitura do feedback e a gravação do
+ * resultado usam conexão. Falhas são repetidas com backoff exponencial até o limite de tentativas,
+ * quando a linha é marcada como FALHOU junto com o feedback.
+ */
+@Service
+public class FeedbackAnaliseWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedbackAnaliseWorker.class);
+
+    private static final int TAMANHO_MAXIMO_ERRO = 1000;
+
+    @Autowired
+    private AnaliseFeedbackPendenteRepository analisePendenteRepository;
+
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+
+    @Autowired
+    private FeedbackService feedbackService; // Reutilizar para converter para DTO
+
+    @Autowired
+    private GeminiService geminiService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ExecutorService executor;
+    private final int threads;
+    private final int tamanhoLote;
+    private final int maxTentativas;
+    private final long backoffInicialMs;
+    private final long backoffMaximoMs;
+    private final long reservaMs;
+
+    private final AtomicInteger emAndamento = new AtomicInteger();
+    private final Counter concluidas;
+    private final Counter falhas;
+    private final Counter descartadas;
+
+    public FeedbackAnaliseWorker(@Value("${feedback.analise.threads:4}") int threads,
+                                 @Value("${feedback.analise.tamanho-lote:20}") int tamanhoLote,
+                                 @Value("${feedback.analise.max-tentativas:5}") int maxTentativas,
+                                 @Value("${feedback.analise.backoff-inicial-ms:2000}") long backoffInicialMs,
+                                 @Value("${feedback.analise.backoff-maximo-ms:300000}") long backoffMaximoMs,
+                                 @Value("${feedback.analise.reserva-ms:120000}") long reservaMs,
+                                 MeterRegistry meterRegistry) {
+        this.threads = threads;
+        this.tamanhoLote = tamanhoLote;
+        this.maxTentativas = maxTentativas;
+        this.backoffInicialMs = backoffInicialMs;
+        this.backoffMaximoMs = backoffMaximoMs;
+        this.reservaMs = reservaMs;
+
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "feedback-analise-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.concluidas = meterRegistry.counter("feedback.analise.concluidas");
+        this.falhas = meterRegistry.counter("feedback.analise.falhas");
+        this.descartadas = meterRegistry.counter("feedback.analise.descartadas");
+        Gauge.builder("feedback.analise.em-andamento", emAndamento, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Reserva e despacha um novo lote, limitado ao que o pool consegue absorver.
+     */
+    @Scheduled(fixedDelayString = "${feedback.analise.intervalo-ms:1000}")
+    public void processarPendentes() {
+        // Não reserva mais do que o pool processa: linhas reservadas e paradas na fila só atrasariam
+        int capacidade = Math.min(tamanhoLote, threads * 2 - emAndamento.get());
+        if (capacidade <= 0) {
+            return;
+        }
+
+        List<Long> reservadas = transactionTemplate.execute(status -> {
+            LocalDateTime agora = LocalDateTime.now();
+            List<AnaliseFeedbackPendente> pendentes = analisePendenteRepository.reservarPendentes(agora, capacidade);
+            pendentes.forEach(p -> p.setProximaTentativaEm(agora.plusNanos(reservaMs * 1_000_000)));
+            return pendentes.stream().map(AnaliseFeedbackPendente::getId).toList();
+        });
+
+        for (Long id : reservadas) {
+            emAndamento.incrementAndGet();
+            executor.execute(() -> {
+                try {
+                    processar(id);
+                } finally {
+                    emAndamento.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * Executa uma análise: lê o feedback, chama a IA sem transação aberta e grava o resultado.
+     */
+    void processar(Long pendenteId) {
+        FeedbackDTO dto;
+        try {
+            dto = transactionTemplate.execute(status -> carregar(pendenteId));
+        } catch (RuntimeException e) {
+            registrarFalha(pendenteId, e);
+            return;
+        }
+        if (dto == null) {
+            return;
+        }
+
+        try {
+            geminiService.analisarFeedbackComIA(dto);
+            transactionTemplate.executeWithoutResult(status -> gravarResultado(pendenteId, dto));
+            concluidas.increment();
+        } catch (RuntimeException e) {
+            registrarFalha(pendenteId, e);
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        // Análises interrompidas voltam a ser processadas quando a reserva expirar
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // --- AUXILIARES ---
+
+    private FeedbackDTO carregar(Long pendenteId) {
+        AnaliseFeedbackPendente pendente = analisePendenteRepository.findById(pendenteId).orElse(null);
+        if (pendente == null) {
+            return null;
+        }
+        Feedback feedback = feedbackRepository.findById(pendente.getFeedbackId()).orElse(null);
+        if (feedback == null) {
+            // O feedback foi removido depois de criado: não há mais o que analisar
+            analisePendenteRepository.delete(pendente);
+            descartadas.increment();
+            return null;
+        }
+        return feedbackService.convertToDTO(feedback);
+    }
+
+    private void gravarResultado(Long pendenteId, FeedbackDTO dto) {
+        feedbackRepository.findById(dto.getId()).ifPresent(feedback -> {
+            feedback.setSentimentoAnalisado(dto.getSentimentoAnalisado());
+            feedback.setCategoriaDificuldadeAnalisada(dto.getCategoriaDificuldadeAnalisada());
+            feedback.setMetaSugeridaIA(dto.getMetaSugeridaIA());
+            feedback.setCursoRecomendadoIA(dto.getCursoRecomendadoIA());
+            feedback.setMentorIndicadoIA(dto.getMentorIndicadoIA());
+            feedback.setStatusAnalise(Feedback.StatusAnalise.CONCLUIDA);
+        });
+        analisePendenteRepository.deleteById(pendenteId);
+    }
+
+    private void registrarFalha(Long pendenteId, RuntimeException erro) {
+        falhas.increment();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    analisePendenteRepository.findById(pendenteId).ifPresent(pendente -> {
+                        int tentativas = pendente.getTentativas() + 1;
+                        pendente.setTentativas(tentativas);
+                        pendente.setUltimoErro(resumir(erro));
+
+                        if (tentativas >= maxTentativas) {
+                            // Poison row: para de tentar e deixa o motivo registrado
+                            pendente.setStatus(AnaliseFeedbackPendente.Status.FALHOU);
+                            feedbackRepository.findById(pendente.getFeedbackId())
+                                    .ifPresent(f -> f.setStatusAnalise(Feedback.StatusAnalise.FALHOU));
+                            log.warn("Análise do feedback {} desistida após {} tentativas: {}",
+                                    pendente.getFeedbackId(), tentativas, pendente.getUltimoErro());
+                        } else {
+                            pendente.setProximaTentativaEm(LocalDateTime.now().plusNanos(backoff(tentativas) * 1_000_000));
+                            log.info("Análise do feedback {} falhou (tentativa {}), nova tentativa agendada",
+                                    pendente.getFeedbackId(), tentativas);
+                        }
+                    }));
+        } catch (RuntimeException e) {
+            // A linha continua reservada e volta a ser processada quando a reserva expirar
+            log.error("Não foi possível registrar a falha da análise {}", pendenteId, e);
+        }
+    }
+
+    private long backoff(int tentativas) {
+        long atraso = backoffInicialMs << Math.min(tentativas - 1, 20);
+        return Math.min(atraso, backoffMaximoMs);
+    }
+
+    private static String resumir(RuntimeException erro) {
+        String mensagem = erro.getClass().getSimpleName() + ": " + erro.getMessage();
+        return mensagem.length() > TAMANHO_MAXIMO_ERRO ? mensagem.substring(0, TAMANHO_MAXIMO_ERRO) : mensagem;
+    }
+}
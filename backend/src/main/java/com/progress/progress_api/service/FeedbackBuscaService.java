@@ -0,0 +1,272 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.FeedbackDTO;
+import com.progress.progress_api.dto.ResultadoBuscaFeedbackDTO;
+import com.progress.progress_api.model.Feedback;
+import com.progress.progress_api.repository.FeedbackRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Busca textual sobre feedbackTextual, habilidadesUtilizadas e dificuldadesEncontradas.
+ *
+ * O índice (IndiceInvertido) fica em memória: é reconstruído a partir do banco quando a aplicação
+ * sobe e recebe cada feedback novo depois do commit. A busca só consulta o banco para carregar
+ * os feedbacks da página de resultados, numa única consulta por ids.
+ *
+ * O índice é de cada instância e só recebe os feedbacks criados por ela: com mais de uma instância,
+ * um feedback criado em outra só aparece na busca depois de uma reconstrução (reinício). A aplicação
+ * roda numa instância só; escalar horizontalmente exige reconstruções periódicas ou um índice compartilhado.
+ */
+@Service
+public class FeedbackBuscaService {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedbackBuscaService.class);
+
+    private static final int LOTE_RECONSTRUCAO = 1000;
+    private static final int TAMANHO_TRECHO = 160;
+    // Buscas repetidas no índice para completar a página quando parte dos resultados já saiu do banco
+    private static final int MAX_RODADAS_BUSCA = 3;
+
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private IndiceInvertido indice = new IndiceInvertido();
+
+    // Feedbacks criados enquanto a reconstrução roda; são reaplicados no índice novo antes da troca
+    private List<Object[]> indexadosDuranteReconstrucao;
+
+    public FeedbackBuscaService(MeterRegistry meterRegistry) {
+        Gauge.builder("feedback.busca.documentos", this, s -> s.estatistica(IndiceInvertido::totalDocumentos))
+                .register(meterRegistry);
+        Gauge.builder("feedback.busca.termos", this, s -> s.estatistica(IndiceInvertido::totalTermosDistintos))
+                .register(meterRegistry);
+        Gauge.builder("feedback.busca.bytes-postings", this, s -> s.estatistica(IndiceInvertido::bytesPostings))
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reconstrói o índice lendo os feedbacks do banco em lotes, em ordem de id.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        long inicio = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            indexadosDuranteReconstrucao = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        IndiceInvertido novo = new IndiceInvertido();
+        long ultimoId = 0;
+        List<Object[]> lote;
+        do {
+            lote = feedbackRepository.buscarTextosParaIndice(ultimoId, Limit.of(LOTE_RECONSTRUCAO));
+            for (Object[] linha : lote) {
+                adicionar(novo, linha);
+                ultimoId = (Long) linha[0];
+            }
+        } while (lote.size() == LOTE_RECONSTRUCAO);
+
+        lock.writeLock().lock();
+        try {
+            indexadosDuranteReconstrucao.forEach(linha -> adicionar(novo, linha));
+            indexadosDuranteReconstrucao = null;
+            indice = novo;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de busca de feedbacks reconstruído: {} documentos, {} termos, {} KB de postings em {} ms",
+                novo.totalDocumentos(), novo.totalTermosDistintos(), novo.bytesPostings() / 1024,
+                System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Inclui o feedback no índice após o commit da transação corrente.
+     */
+    public void indexar(Feedback feedback) {
+        Object[] linha = {feedback.getId(), feedback.getFeedbackTextual(),
+                feedback.getHabilidadesUtilizadas(), feedback.getDificuldadesEncontradas()};
+        aposCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                adicionar(indice, linha);
+                if (indexadosDuranteReconstrucao != null) {
+                    indexadosDuranteReconstrucao.add(linha);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Retorna os feedbacks mais relevantes para a consulta, com os termos encontrados destacados.
+     */
+    public List<ResultadoBuscaFeedbackDTO> buscar(String consulta, int limite) {
+        Map<Long, FeedbackDTO> feedbacks = new HashMap<>();
+        List<IndiceInvertido.Resultado> encontrados = List.of();
+        for (int rodada = 0; rodada < MAX_RODADAS_BUSCA; rodada++) {
+            lock.readLock().lock();
+            try {
+                encontrados = indice.buscar(consulta, limite);
+            } finally {
+                lock.readLock().unlock();
+            }
+            List<Long> novos = encontrados.stream().map(r -> (long) r.docId())
+                    .filter(id -> !feedbacks.containsKey(id)).toList();
+            if (novos.isEmpty()) {
+                break;
+            }
+            feedbackRepository.buscarDTOsPorIds(novos).forEach(feedback -> feedbacks.put(feedback.getId(), feedback));
+
+            List<Long> removidos = novos.stream().filter(id -> !feedbacks.containsKey(id)).toList();
+            if (removidos.isEmpty()) {
+                break;
+            }
+            // Removidos do banco (ex: junto com o usuário): tira também do índice e busca de novo para completar a página
+            removidos.forEach(id -> remover(id.intValue()));
+        }
+        if (encontrados.isEmpty()) {
+            return List.of();
+        }
+
+        Set<String> termos = new HashSet<>(IndiceInvertido.analisar(consulta));
+        List<ResultadoBuscaFeedbackDTO> resultados = new ArrayList<>(encontrados.size());
+        for (IndiceInvertido.Resultado encontrado : encontrados) {
+            FeedbackDTO feedback = feedbacks.get((long) encontrado.docId());
+            if (feedback == null) {
+                continue; // Removido na última rodada
+            }
+            List<String> destaques = new ArrayList<>();
+            adicionarDestaque(destaques, feedback.getFeedbackTextual(), termos);
+            adicionarDestaque(destaques, feedback.getHabilidadesUtilizadas(), termos);
+            adicionarDestaque(destaques, feedback.getDificuldadesEncontradas(), termos);
+            resultados.add(new ResultadoBuscaFeedbackDTO(feedback, encontrado.pontuacao(), destaques));
+        }
+        return resultados;
+    }
+
+    // --- DESTAQUE ---
+
+    /**
+     * Gera um trecho do texto em volta do primeiro termo encontrado, com o HTML escapado e
+     * os termos da consulta envolvidos em &lt;mark&gt;. Campos sem termos encontrados são ignorados.
+     */
+    static void adicionarDestaque(List<String> destaques, String texto, Set<String> termos) {
+        if (texto == null || texto.isEmpty()) {
+            return;
+        }
+        // Posições [início, fim) das palavras do texto original cuja forma normalizada é um termo da consulta
+        List<int[]> ocorrencias = new ArrayList<>();
+        int inicio = -1;
+        for (int i = 0; i <= texto.length(); i++) {
+            boolean letraOuDigito = i < texto.length() && Character.isLetterOrDigit(texto.charAt(i));
+            if (letraOuDigito && inicio < 0) {
+                inicio = i;
+            } else if (!letraOuDigito && inicio >= 0) {
+                if (termos.contains(IndiceInvertido.normalizar(texto.substring(inicio, i)))) {
+                    ocorrencias.add(new int[]{inicio, i});
+                }
+                inicio = -1;
+            }
+        }
+        if (ocorrencias.isEmpty()) {
+            return;
+        }
+
+        int inicioTrecho = Math.max(0, ocorrencias.get(0)[0] - TAMANHO_TRECHO / 2);
+        int fimTrecho = Math.min(texto.length(), inicioTrecho + TAMANHO_TRECHO);
+        StringBuilder trecho = new StringBuilder();
+        if (inicioTrecho > 0) {
+            trecho.append("…");
+        }
+        int posicao = inicioTrecho;
+        for (int[] ocorrencia : ocorrencias) {
+            if (ocorrencia[1] > fimTrecho) {
+                break;
+            }
+            if (ocorrencia[0] < inicioTrecho) {
+                continue;
+            }
+            trecho.append(escapar(texto.substring(posicao, ocorrencia[0])))
+                    .append("<mark>")
+                    .append(escapar(texto.substring(ocorrencia[0], ocorrencia[1])))
+                    .append("</mark>");
+            posicao = ocorrencia[1];
+        }
+        trecho.append(escapar(texto.substring(posicao, fimTrecho)));
+        if (fimTrecho < texto.length()) {
+            trecho.append("…");
+        }
+        destaques.add(trecho.toString());
+    }
+
+    // Escapa só os caracteres especiais do HTML, mantendo os acentos legíveis
+    private static String escapar(String texto) {
+        return HtmlUtils.htmlEscape(texto, "UTF-8");
+    }
+
+    // --- AUXILIARES ---
+
+    private void remover(int docId) {
+        lock.writeLock().lock();
+        try {
+            indice.remover(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private double estatistica(Function<IndiceInvertido, Number> valor) {
+        lock.readLock().lock();
+        try {
+            return valor.apply(indice).doubleValue();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void adicionar(IndiceInvertido indice, Object[] linha) {
+        long id = (Long) linha[0];
+        if (id > Integer.MAX_VALUE) {
+            return; // Fora do intervalo de docIds do índice
+        }
+        indice.adicionar((int) id, (String) linha[1], (String) linha[2], (String) linha[3]);
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+}
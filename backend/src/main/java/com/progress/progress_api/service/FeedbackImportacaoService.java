@@ -0,0 +1,302 @@
+package com.progress.progress_api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.progress.progress_api.dto.FeedbackDTO;
+import com.progress.progress_api.dto.ResultadoImportacaoDTO;
+import com.progress.progress_api.model.AnaliseFeedbackPendente;
+import com.progress.progress_api.model.Feedback;
+import com.progress.progress_api.repository.UsuarioRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Importação de feedbacks em massa a partir de NDJSON (um FeedbackDTO por linha) ou CSV com cabeçalho.
+ *
+ * O arquivo é lido em streaming e gravado em lotes, cada lote na sua própria transação: a memória
+ * usada não depende do tamanho do arquivo. Autores e destinatários de cada lote são validados numa
+ * única consulta de ids e referenciados por proxy (getReferenceById), sem carregar os usuários.
+ * Com a sequence em blocos do Feedback e hibernate.jdbc.batch_size, os inserts de um lote vão ao
+ * banco em poucas instruções. Linhas inválidas não interrompem a importação: vão para o relatório.
+ *
+ * Os feedbacks importados não passam pelo DashboardSnapshot: a lista de feedbacks recentes do dashboard
+ * (a única parte do snapshot ligada a feedbacks) só os inclui na próxima reconciliação com o banco
+ * (dashboard.reconciliacao-ms). Publicar um delta por linha inundaria o stream do dashboard, e as datas
+ * de envio importadas nem sempre são recentes.
+ */
+@Service
+public class FeedbackImportacaoService {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedbackImportacaoService.class);
+
+    private record Linha(long numero, FeedbackDTO feedback) {}
+
+    // Estado de uma importação em andamento
+    private final class Importacao {
+        final boolean analisar;
+        final Map<Long, Boolean> usuariosExistentes = new HashMap<>();
+        final List<ResultadoImportacaoDTO.ErroLinha> erros = new ArrayList<>();
+        long linhasLidas;
+        long importados;
+        long rejeitados;
+        long errosOmitidos;
+
+        Importacao(boolean analisar) {
+            this.analisar = analisar;
+        }
+
+        void rejeitar(long linha, String mensagem) {
+            rejeitados++;
+            if (erros.size() < maxErrosRelatorio) {
+                erros.add(new ResultadoImportacaoDTO.ErroLinha(linha, mensagem));
+            } else {
+                errosOmitidos++;
+            }
+        }
+    }
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private FeedbackBuscaService feedbackBuscaService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${feedback.importacao.tamanho-lote:500}")
+    private int tamanhoLote = 500;
+
+    @Value("${feedback.importacao.max-erros-relatorio:1000}")
+    private int maxErrosRelatorio = 1000;
+
+    /**
+     * Importa os feedbacks do arquivo. Com analisar=true, cada feedback entra na outbox de análise
+     * da IA (processada em segundo plano); caso contrário fica com statusAnalise NAO_SOLICITADA.
+     */
+    public ResultadoImportacaoDTO importar(InputStream entrada, FormatoArquivo formato, boolean analisar) throws IOException {
+        long inicio = System.currentTimeMillis();
+        Importacao importacao = new Importacao(analisar);
+        List<Linha> lote = new ArrayList<>(tamanhoLote);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        if (formato == FormatoArquivo.CSV) {
+            lerCsv(reader, importacao, lote);
+        } else {
+            lerNdjson(reader, importacao, lote);
+        }
+        if (!lote.isEmpty()) {
+            gravar(lote, importacao);
+        }
+
+        long duracaoMs = System.currentTimeMillis() - inicio;
+        log.info("Importação de feedbacks: {} linhas, {} importados, {} rejeitados em {} ms",
+                importacao.linhasLidas, importacao.importados, importacao.rejeitados, duracaoMs);
+        return new ResultadoImportacaoDTO(importacao.linhasLidas, importacao.importados, importacao.rejeitados,
+                duracaoMs, importacao.erros, importacao.errosOmitidos);
+    }
+
+    // --- LEITURA ---
+
+    private void lerNdjson(BufferedReader reader, Importacao importacao, List<Linha> lote) throws IOException {
+        String texto;
+        long numero = 0;
+        while ((texto = reader.readLine()) != null) {
+            numero++;
+            if (texto.isBlank()) {
+                continue;
+            }
+            importacao.linhasLidas++;
+            try {
+                adicionar(new Linha(numero, objectMapper.readValue(texto, FeedbackDTO.class)), importacao, lote);
+            } catch (JsonProcessingException e) {
+                importacao.rejeitar(numero, "JSON inválido: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private void lerCsv(BufferedReader reader, Importacao importacao, List<Linha> lote) throws IOException {
+        LeitorCsv csv = new LeitorCsv(reader, ',');
+        List<String> cabecalho = csv.proximoRegistro();
+        if (cabecalho == null) {
+            return;
+        }
+        cabecalho = cabecalho.stream().map(String::trim).toList();
+
+        List<String> campos;
+        while ((campos = csv.proximoRegistro()) != null) {
+            importacao.linhasLidas++;
+            try {
+                adicionar(new Linha(csv.linhaDoRegistro(), paraDTO(cabecalho, campos)), importacao, lote);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                importacao.rejeitar(csv.linhaDoRegistro(), e.getMessage());
+            }
+        }
+    }
+
+    private static FeedbackDTO paraDTO(List<String> cabecalho, List<String> campos) {
+        if (campos.size() != cabecalho.size()) {
+            throw new IllegalArgumentException("Esperadas " + cabecalho.size() + " colunas, encontradas " + campos.size());
+        }
+        FeedbackDTO dto = new FeedbackDTO();
+        for (int i = 0; i < cabecalho.size(); i++) {
+            String valor = campos.get(i).isEmpty() ? null : campos.get(i);
+            switch (cabecalho.get(i)) {
+                case "autorId" -> dto.setAutorId(valor == null ? null : Long.valueOf(valor.trim()));
+                case "destinatarioId" -> dto.setDestinatarioId(valor == null ? null : Long.valueOf(valor.trim()));
+                case "feedbackTextual" -> dto.setFeedbackTextual(valor);
+                case "habilidadesUtilizadas" -> dto.setHabilidadesUtilizadas(valor);
+                case "dificuldadesEncontradas" -> dto.setDificuldadesEncontradas(valor);
+                case "interessesAprendizado" -> dto.setInteressesAprendizado(valor);
+                case "dataEnvio" -> dto.setDataEnvio(valor == null ? null : LocalDateTime.parse(valor.trim()));
+                default -> { } // Colunas desconhecidas são ignoradas
+            }
+        }
+        return dto;
+    }
+
+    private void adicionar(Linha linha, Importacao importacao, List<Linha> lote) {
+        FeedbackDTO dto = linha.feedback();
+        if (dto.getAutorId() == null || dto.getDestinatarioId() == null) {
+            importacao.rejeitar(linha.numero(), "autorId e destinatarioId são obrigatórios");
+            return;
+        }
+        if (dto.getFeedbackTextual() == null || dto.getFeedbackTextual().isBlank()) {
+            importacao.rejeitar(linha.numero(), "feedbackTextual é obrigatório");
+            return;
+        }
+        lote.add(linha);
+        if (lote.size() >= tamanhoLote) {
+            gravar(lote, importacao);
+            lote.clear();
+        }
+    }
+
+    // --- GRAVAÇÃO ---
+
+    private void gravar(List<Linha> lote, Importacao importacao) {
+        resolverUsuarios(lote, importacao.usuariosExistentes);
+
+        List<Linha> validas = new ArrayList<>(lote.size());
+        for (Linha linha : lote) {
+            FeedbackDTO dto = linha.feedback();
+            if (!importacao.usuariosExistentes.get(dto.getAutorId())) {
+                importacao.rejeitar(linha.numero(), "Autor não encontrado com ID: " + dto.getAutorId());
+            } else if (!importacao.usuariosExistentes.get(dto.getDestinatarioId())) {
+                importacao.rejeitar(linha.numero(), "Destinatário não encontrado com ID: " + dto.getDestinatarioId());
+            } else {
+                validas.add(linha);
+            }
+        }
+        if (validas.isEmpty()) {
+            return;
+        }
+
+        gravarOuDividir(validas, importacao);
+    }
+
+    /**
+     * Grava as linhas numa transação. Se a transação falhar, uma linha ruim não deve derrubar as demais:
+     * as linhas são divididas ao meio e cada metade é tentada numa transação nova, até isolar as linhas
+     * que falham, que vão para o relatório. Com poucas linhas ruins o custo extra é de poucas transações
+     * por linha ruim (log2 do tamanho do lote).
+     */
+    private void gravarOuDividir(List<Linha> linhas, Importacao importacao) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Linha linha : linhas) {
+                    Feedback feedback = novoFeedback(linha.feedback(), importacao.analisar);
+                    entityManager.persist(feedback);
+                    if (importacao.analisar) {
+                        // Com a sequence, o id já está disponível antes do insert
+                        entityManager.persist(new AnaliseFeedbackPendente(feedback.getId()));
+                    }
+                    feedbackBuscaService.indexar(feedback); // Só após o commit
+                }
+                entityManager.flush();
+                // Libera as entidades do lote para a memória não crescer com o arquivo
+                entityManager.clear();
+            });
+            importacao.importados += linhas.size();
+        } catch (DataAccessException | PersistenceException e) {
+            // O flush manual lança a exceção do Hibernate sem tradução para DataAccessException
+            if (linhas.size() == 1) {
+                importacao.rejeitar(linhas.get(0).numero(), "Falha ao gravar: " + causaRaiz(e).getMessage());
+                return;
+            }
+            int meio = linhas.size() / 2;
+            gravarOuDividir(linhas.subList(0, meio), importacao);
+            gravarOuDividir(linhas.subList(meio, linhas.size()), importacao);
+        }
+    }
+
+    private Feedback novoFeedback(FeedbackDTO dto, boolean analisar) {
+        Feedback feedback = new Feedback();
+        // Proxies: nenhum SELECT em usuarios, a existência já foi validada
+        feedback.setAutor(usuarioRepository.getReferenceById(dto.getAutorId()));
+        feedback.setDestinatario(usuarioRepository.getReferenceById(dto.getDestinatarioId()));
+        feedback.setFeedbackTextual(dto.getFeedbackTextual());
+        feedback.setHabilidadesUtilizadas(dto.getHabilidadesUtilizadas());
+        feedback.setDificuldadesEncontradas(dto.getDificuldadesEncontradas());
+        feedback.setInteressesAprendizado(dto.getInteressesAprendizado());
+        feedback.setDataEnvio(dto.getDataEnvio());
+        feedback.setStatusAnalise(analisar ? Feedback.StatusAnalise.PENDENTE : Feedback.StatusAnalise.NAO_SOLICITADA);
+        return feedback;
+    }
+
+    /**
+     * Consulta de uma vez os ids de usuários do lote que ainda não foram vistos nesta importação.
+     */
+    private void resolverUsuarios(List<Linha> lote, Map<Long, Boolean> usuariosExistentes) {
+        Set<Long> desconhecidos = new HashSet<>();
+        for (Linha linha : lote) {
+            if (!usuariosExistentes.containsKey(linha.feedback().getAutorId())) {
+                desconhecidos.add(linha.feedback().getAutorId());
+            }
+            if (!usuariosExistentes.containsKey(linha.feedback().getDestinatarioId())) {
+                desconhecidos.add(linha.feedback().getDestinatarioId());
+            }
+        }
+        if (desconhecidos.isEmpty()) {
+            return;
+        }
+        Set<Long> existentes = new HashSet<>(usuarioRepository.findIdsExistentes(desconhecidos));
+        desconhecidos.forEach(id -> usuariosExistentes.put(id, existentes.contains(id)));
+    }
+
+    private static Throwable causaRaiz(Throwable erro) {
+        Throwable causa = erro;
+        while (causa.getCause() != null && causa.getCause() != causa) {
+            causa = causa.getCause();
+        }
+        return causa;
+    }
+}
@@ -1,15 +1,21 @@
 package com.progress.progress_api.service;
 
 import com.progress.progress_api.dto.FeedbackDTO;
+import com.progress.progress_api.dto.PaginaFeedbackDTO;
+import com.progress.progress_api.model.AnaliseFeedbackPendente;
 import com.progress.progress_api.model.Feedback;
 import com.progress.progress_api.model.Usuario;
+import com.progress.progress_api.repository.AnaliseFeedbackPendenteRepository;
 import com.progress.progress_api.repository.FeedbackRepository;
 import com.progress.progress_api.repository.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class FeedbackService {
@@ -21,8 +27,18 @@ public class FeedbackService {
     private UsuarioRepository usuarioRepository;
     
     @Autowired
-    private GeminiService geminiService;
+    private AnaliseFeedbackPendenteRepository analisePendenteRepository;
 
+    @Autowired
+    private DashboardSnapshot dashboardSnapshot;
+
+    @Autowired
+    private FeedbackBuscaService feedbackBuscaService;
+
+    /**
+     * Grava o feedback e uma linha na outbox de análise na mesma transação.
+     * A análise da IA é feita depois pelo FeedbackAnaliseWorker; até lá o statusAnalise fica PENDENTE.
+     */
     @Transactional
     public FeedbackDTO criarFeedback(FeedbackDTO feedbackDTO) {
         Usuario autor = usuarioRepository.findById(feedbackDTO.getAutorId())
@@ -37,33 +53,43 @@ public class FeedbackService {
         feedback.setHabilidadesUtilizadas(feedbackDTO.getHabilidadesUtilizadas());
         feedback.setDificuldadesEncontradas(feedbackDTO.getDificuldadesEncontradas());
         feedback.setInteressesAprendizado(feedbackDTO.getInteressesAprendizado());
-        
-        geminiService.analisarFeedbackComIA(feedbackDTO);
-        
-        feedback.setSentimentoAnalisado(feedbackDTO.getSentimentoAnalisado());
-        feedback.setCategoriaDificuldadeAnalisada(feedbackDTO.getCategoriaDificuldadeAnalisada());
-        feedback.setMetaSugeridaIA(feedbackDTO.getMetaSugeridaIA());
-        feedback.setCursoRecomendadoIA(feedbackDTO.getCursoRecomendadoIA());
-        feedback.setMentorIndicadoIA(feedbackDTO.getMentorIndicadoIA());
+        feedback.setStatusAnalise(Feedback.StatusAnalise.PENDENTE);
 
         Feedback feedbackSalvo = feedbackRepository.save(feedback);
-        return convertToDTO(feedbackSalvo);
+        analisePendenteRepository.save(new AnaliseFeedbackPendente(feedbackSalvo.getId()));
+        FeedbackDTO dto = convertToDTO(feedbackSalvo);
+        dashboardSnapshot.registrarFeedback(dto);
+        feedbackBuscaService.indexar(feedbackSalvo);
+        return dto;
     }
 
+    /**
+     * Lista feedbacks em ordem decrescente de envio, uma página por vez (paginação por cursor).
+     * Cada página custa uma única consulta, independente do tamanho da tabela ou da posição da página.
+     * Filtros nulos são ignorados; cursor nulo começa pela primeira página.
+     */
     @Transactional(readOnly = true)
-    public List<FeedbackDTO> listarFeedbacksPorDestinatario(Long destinatarioId) {
-        Usuario destinatario = usuarioRepository.findById(destinatarioId)
-                .orElseThrow(() -> new RuntimeException("Destinatário não encontrado com ID: " + destinatarioId));
-        return feedbackRepository.findByDestinatario(destinatario).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-    }
-    
-    @Transactional(readOnly = true)
-    public List<FeedbackDTO> listarTodosFeedbacks() {
-        return feedbackRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public PaginaFeedbackDTO listarFeedbacks(Long autorId, Long destinatarioId, String sentimento,
+                                             String cursor, int limite) {
+        LocalDateTime dataCursor = null;
+        long idCursor = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] partes = decodificarCursor(cursor);
+            dataCursor = LocalDateTime.parse(partes[0]);
+            idCursor = Long.parseLong(partes[1]);
+        }
+
+        // Busca um item a mais só para saber se existe próxima página
+        List<FeedbackDTO> itens = feedbackRepository.buscarPagina(dataCursor, idCursor, autorId, destinatarioId,
+                sentimento != null && !sentimento.isBlank() ? sentimento : null, limite + 1);
+
+        String proximoCursor = null;
+        if (itens.size() > limite) {
+            itens = itens.subList(0, limite);
+            FeedbackDTO ultimo = itens.get(limite - 1);
+            proximoCursor = codificarCursor(ultimo.getDataEnvio(), ultimo.getId());
+        }
+        return new PaginaFeedbackDTO(List.copyOf(itens), proximoCursor);
     }
 
     // ### CORREÇÃO APLICADA AQUI ###
@@ -85,6 +111,27 @@ public class FeedbackService {
         dto.setMetaSugeridaIA(feedback.getMetaSugeridaIA());
         dto.setCursoRecomendadoIA(feedback.getCursoRecomendadoIA());
         dto.setMentorIndicadoIA(feedback.getMentorIndicadoIA());
+        dto.setStatusAnalise(feedback.getStatusAnalise());
         return dto;
     }
-}
\ No newline at end of file
+
+    // O cursor é opaco para o cliente: Base64 URL-safe de "dataEnvio|id" do último item da página
+    private static String codificarCursor(LocalDateTime dataEnvio, Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((dataEnvio + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodificarCursor(String cursor) {
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            }
+            LocalDateTime.parse(partes[0]);
+            Long.parseLong(partes[1]);
+            return partes;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor, e);
+        }
+    }
+}
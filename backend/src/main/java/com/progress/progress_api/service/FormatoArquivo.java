@@ -0,0 +1,25 @@
+package com.progress.progress_api.service;
+
+/**
+ * Formatos de arquivo aceitos na importação e gerados na exportação.
+ */
+public enum FormatoArquivo {
+    NDJSON("application/x-ndjson", "ndjson"), // Um objeto JSON por linha
+    CSV("text/csv", "csv"); // Com cabeçalho, RFC 4180
+
+    private final String contentType;
+    private final String extensao;
+
+    FormatoArquivo(String contentType, String extensao) {
+        this.contentType = contentType;
+        this.extensao = extensao;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+}
@@ -1,36 +1,83 @@
 package com.progress.progress_api.service;
 
+import com.progress.progress_api.dto.AnaliseIARequisicaoDTO;
+import com.progress.progress_api.dto.AnaliseIAResultadoDTO;
 import com.progress.progress_api.dto.FeedbackDTO;
 import com.progress.progress_api.dto.MetaPDIDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class GeminiService {
 
-    // Simula a análise de feedback pela IA
+    private static final Logger log = LoggerFactory.getLogger(GeminiService.class);
+
+    @Autowired
+    private AnaliseIABatchClient batchClient;
+
+    @Autowired
+    private AnaliseIACache analiseCache;
+
+    @Autowired
+    private ClassificadorLexicoService classificadorLexico;
+
+    @Value("${ia.batch.timeout-ms:10000}")
+    private long timeoutMs = 10000;
+
+    // Analisa o feedback. Sem ia.batch.enabled, quem analisa é o classificador léxico local.
+    // Com ia.batch.enabled=true, o léxico responde sozinho quando é confiante (casos simples) e os
+    // demais vão para o endpoint em lote, agrupados com as análises concorrentes.
+    // Respostas do modelo ficam no AnaliseIACache; as do léxico não, pois custam menos que o cache
+    // e mudam quando o léxico é recarregado.
     public void analisarFeedbackComIA(FeedbackDTO feedbackDTO) {
-        System.out.println("IA: Analisando feedback para: " + feedbackDTO.getDestinatarioNome());
-        // Lógica mockada
-        if (feedbackDTO.getFeedbackTextual() != null && feedbackDTO.getFeedbackTextual().toLowerCase().contains("difícil")) {
-            feedbackDTO.setSentimentoAnalisado("Negativo");
-            feedbackDTO.setCategoriaDificuldadeAnalisada("Gestão de Tarefas");
-            feedbackDTO.setMetaSugeridaIA("Melhorar organização em 20% no próximo mês.");
-            feedbackDTO.setCursoRecomendadoIA("Curso de Produtividade Avançada");
+        log.debug("IA: Analisando feedback para: {}", feedbackDTO.getDestinatarioNome());
+        AnaliseIARequisicaoDTO requisicao = AnaliseIARequisicaoDTO.de(feedbackDTO);
+        AnaliseIAResultadoDTO resultado;
+        if (!batchClient.isAtivo()) {
+            resultado = classificadorLexico.analisar(requisicao);
         } else {
-            feedbackDTO.setSentimentoAnalisado("Positivo");
-            feedbackDTO.setCategoriaDificuldadeAnalisada("N/A");
-            feedbackDTO.setMetaSugeridaIA("Continuar o excelente trabalho!");
+            resultado = classificadorLexico.analisarSeConfiante(requisicao);
+            if (resultado == null && analiseCache.isAtivo()) {
+                resultado = analiseCache.buscar(requisicao);
+            }
+            if (resultado == null) {
+                resultado = aguardar(batchClient.analisar(requisicao));
+                if (analiseCache.isAtivo()) {
+                    analiseCache.armazenar(requisicao, resultado);
+                }
+            }
         }
-        System.out.println("IA: Análise concluída. Sentimento: " + feedbackDTO.getSentimentoAnalisado());
+        resultado.aplicarEm(feedbackDTO);
+        log.debug("IA: Análise concluída. Sentimento: {}", feedbackDTO.getSentimentoAnalisado());
     }
 
-    // Simula a sugestão de metas para PDI pela IA
-    public List<MetaPDIDTO> sugerirMetasPDIPorIA(Long colaboradorId, String objetivoPrincipal) {
-        System.out.println("IA: Sugerindo metas de PDI para colaborador ID: " + colaboradorId + " com objetivo: " + objetivoPrincipal);
+    private AnaliseIAResultadoDTO aguardar(CompletableFuture<AnaliseIAResultadoDTO> futuro) {
+        try {
+            return futuro.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Análise da IA interrompida", e);
+        } catch (ExecutionException | TimeoutException e) {
+            // O worker da outbox registra a falha e agenda nova tentativa
+            throw new RuntimeException("Falha na análise da IA: " + e.getMessage(), e);
+        }
+    }
+
+    // Simula a sugestão de metas para PDI pela IA. Cada chamada iria ao modelo: quem chama
+    // deve passar pelo SugestaoMetasService, que guarda as sugestões por objetivo, cargo e área.
+    public List<MetaPDIDTO> sugerirMetasPDIPorIA(String objetivoPrincipal, String cargo, String area) {
+        log.debug("IA: Sugerindo metas de PDI para {} ({}) com objetivo: {}", cargo, area, objetivoPrincipal);
         List<MetaPDIDTO> metasSugeridas = new ArrayList<>();
-        
+
         MetaPDIDTO meta1 = new MetaPDIDTO();
         meta1.setDescricaoMeta("Concluir curso de " + objetivoPrincipal + " online");
         meta1.setAcoesNecessarias("Pesquisar cursos, inscrever-se, dedicar 5h/semana");
@@ -38,12 +85,12 @@ public class GeminiService {
         metasSugeridas.add(meta1);
 
         MetaPDIDTO meta2 = new MetaPDIDTO();
-        meta2.setDescricaoMeta("Aplicar conhecimentos de " + objetivoPrincipal + " em um projeto prático");
+        meta2.setDescricaoMeta("Aplicar conhecimentos de " + objetivoPrincipal + " em um projeto prático"
+                + (area != null ? " da área de " + area : ""));
         meta2.setAcoesNecessarias("Identificar projeto, definir escopo, executar e apresentar resultados");
-        meta2.setRecursosNecessarios("Mentoria de um colega sênior");
+        meta2.setRecursosNecessarios(cargo != null ? "Mentoria de um colega sênior no cargo de " + cargo : "Mentoria de um colega sênior");
         metasSugeridas.add(meta2);
 
-        System.out.println("IA: " + metasSugeridas.size() + " metas sugeridas.");
         return metasSugeridas;
     }
 }
@@ -0,0 +1,263 @@
+package com.progress.progress_api.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido em memória com ranking BM25.
+ *
+ * Cada termo guarda uma lista de postings compacta: um byte[] com pares (delta do docId, frequência)
+ * codificados em varint. Como os documentos chegam quase sempre em ordem crescente de id, a inclusão
+ * é só um append; um id fora de ordem (transações que confirmam fora de sequência) reescreve apenas
+ * a lista daquele termo. Remoções ficam marcadas num BitSet e são filtradas na busca.
+ *
+ * Não é thread-safe: quem usa (FeedbackBuscaService) controla a concorrência.
+ */
+public class IndiceInvertido {
+
+    public record Resultado(int docId, double pontuacao) {}
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "o", "as", "os", "de", "da", "do", "das", "dos", "e", "em", "no", "na", "nos", "nas",
+            "um", "uma", "uns", "umas", "para", "por", "com", "sem", "que", "se", "ao", "aos", "ou",
+            "mas", "mais", "muito", "foi", "ser", "sao", "esta", "este", "isso", "isto", "como", "ja");
+
+    private static final class Postings {
+        byte[] dados = new byte[8];
+        int tamanho;
+        int ultimoDoc = -1;
+        int documentos;
+
+        void adicionar(int docId, int frequencia) {
+            garantirEspaco(10);
+            tamanho = escreverVarint(dados, tamanho, docId - Math.max(ultimoDoc, 0));
+            tamanho = escreverVarint(dados, tamanho, frequencia);
+            ultimoDoc = docId;
+            documentos++;
+        }
+
+        void garantirEspaco(int extra) {
+            if (tamanho + extra > dados.length) {
+                dados = Arrays.copyOf(dados, Math.max(dados.length * 2, tamanho + extra));
+            }
+        }
+    }
+
+    private final Map<String, Postings> termos = new HashMap<>();
+    private int[] tamanhos = new int[16]; // Quantidade de termos de cada documento (0 = ausente)
+    private final BitSet removidos = new BitSet();
+    private int totalDocumentos;
+    private long totalTermos;
+
+    /**
+     * Indexa o documento. Um docId já indexado (ou removido) é ignorado: o conteúdo de um feedback não muda.
+     */
+    public void adicionar(int docId, String... campos) {
+        if (contem(docId) || removidos.get(docId)) {
+            return;
+        }
+        Map<String, Integer> frequencias = new HashMap<>();
+        int quantidade = 0;
+        for (String campo : campos) {
+            for (String termo : analisar(campo)) {
+                frequencias.merge(termo, 1, Integer::sum);
+                quantidade++;
+            }
+        }
+        if (quantidade == 0) {
+            return;
+        }
+
+        frequencias.forEach((termo, frequencia) -> {
+            Postings postings = termos.computeIfAbsent(termo, t -> new Postings());
+            if (docId > postings.ultimoDoc) {
+                postings.adicionar(docId, frequencia);
+            } else {
+                termos.put(termo, inserirForaDeOrdem(postings, docId, frequencia));
+            }
+        });
+
+        if (docId >= tamanhos.length) {
+            tamanhos = Arrays.copyOf(tamanhos, Math.max(tamanhos.length * 2, docId + 1));
+        }
+        tamanhos[docId] = quantidade;
+        totalDocumentos++;
+        totalTermos += quantidade;
+    }
+
+    public void remover(int docId) {
+        if (contem(docId)) {
+            removidos.set(docId);
+            totalDocumentos--;
+            totalTermos -= tamanhos[docId];
+        }
+    }
+
+    public boolean contem(int docId) {
+        return docId < tamanhos.length && tamanhos[docId] > 0 && !removidos.get(docId);
+    }
+
+    /**
+     * Busca os documentos que contêm ao menos um dos termos da consulta, ordenados por BM25.
+     */
+    public List<Resultado> buscar(String consulta, int limite) {
+        Set<String> termosConsulta = new LinkedHashSet<>(analisar(consulta));
+        if (termosConsulta.isEmpty() || totalDocumentos == 0) {
+            return List.of();
+        }
+
+        double tamanhoMedio = (double) totalTermos / totalDocumentos;
+        Map<Integer, Double> pontuacoes = new HashMap<>();
+        for (String termo : termosConsulta) {
+            Postings postings = termos.get(termo);
+            if (postings == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (totalDocumentos - postings.documentos + 0.5) / (postings.documentos + 0.5));
+
+            int posicao = 0;
+            int docId = 0;
+            int[] leitura = new int[1];
+            while (posicao < postings.tamanho) {
+                posicao = lerVarint(postings.dados, posicao, leitura);
+                docId += leitura[0];
+                posicao = lerVarint(postings.dados, posicao, leitura);
+                int frequencia = leitura[0];
+                if (removidos.get(docId)) {
+                    continue;
+                }
+                double normalizacao = K1 * (1 - B + B * tamanhos[docId] / tamanhoMedio);
+                double pontuacao = idf * frequencia * (K1 + 1) / (frequencia + normalizacao);
+                pontuacoes.merge(docId, pontuacao, Double::sum);
+            }
+        }
+
+        // Top-k com heap mínimo: mantém só os "limite" melhores
+        PriorityQueue<Resultado> melhores = new PriorityQueue<>(
+                (a, b) -> a.pontuacao() != b.pontuacao()
+                        ? Double.compare(a.pontuacao(), b.pontuacao())
+                        : Integer.compare(a.docId(), b.docId()));
+        pontuacoes.forEach((docId, pontuacao) -> {
+            melhores.add(new Resultado(docId, pontuacao));
+            if (melhores.size() > limite) {
+                melhores.poll();
+            }
+        });
+        List<Resultado> resultado = new ArrayList<>(melhores);
+        resultado.sort((a, b) -> a.pontuacao() != b.pontuacao()
+                ? Double.compare(b.pontuacao(), a.pontuacao())
+                : Integer.compare(b.docId(), a.docId())); // Empate: mais recente primeiro
+        return resultado;
+    }
+
+    public int totalDocumentos() {
+        return totalDocumentos;
+    }
+
+    public int totalTermosDistintos() {
+        return termos.size();
+    }
+
+    public long bytesPostings() {
+        long total = 0;
+        for (Postings postings : termos.values()) {
+            total += postings.dados.length;
+        }
+        return total;
+    }
+
+    // --- ANÁLISE DE TEXTO ---
+
+    /**
+     * Quebra o texto em termos: caixa baixa, sem acentos ("não" e "nao" viram o mesmo termo),
+     * ignorando termos de uma letra e stopwords do português.
+     */
+    public static List<String> analisar(String texto) {
+        List<String> termos = new ArrayList<>();
+        if (texto == null || texto.isEmpty()) {
+            return termos;
+        }
+        String normalizado = normalizar(texto);
+        int inicio = -1;
+        for (int i = 0; i <= normalizado.length(); i++) {
+            boolean letraOuDigito = i < normalizado.length() && Character.isLetterOrDigit(normalizado.charAt(i));
+            if (letraOuDigito && inicio < 0) {
+                inicio = i;
+            } else if (!letraOuDigito && inicio >= 0) {
+                String termo = normalizado.substring(inicio, i);
+                if (termo.length() > 1 && !STOPWORDS.contains(termo)) {
+                    termos.add(termo);
+                }
+                inicio = -1;
+            }
+        }
+        return termos;
+    }
+
+    /**
+     * Remove acentos e passa para caixa baixa. Também usado no destaque dos trechos.
+     */
+    public static String normalizar(String texto) {
+        String semAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return semAcentos.toLowerCase(Locale.ROOT);
+    }
+
+    // --- CODIFICAÇÃO ---
+
+    private static Postings inserirForaDeOrdem(Postings atual, int docId, int frequencia) {
+        Postings novo = new Postings();
+        int posicao = 0;
+        int doc = 0;
+        boolean inserido = false;
+        int[] leitura = new int[1];
+        while (posicao < atual.tamanho) {
+            posicao = lerVarint(atual.dados, posicao, leitura);
+            doc += leitura[0];
+            posicao = lerVarint(atual.dados, posicao, leitura);
+            if (!inserido && docId < doc) {
+                novo.adicionar(docId, frequencia);
+                inserido = true;
+            }
+            novo.adicionar(doc, leitura[0]);
+        }
+        if (!inserido) {
+            novo.adicionar(docId, frequencia);
+        }
+        return novo;
+    }
+
+    static int escreverVarint(byte[] destino, int posicao, int valor) {
+        while ((valor & ~0x7F) != 0) {
+            destino[posicao++] = (byte) ((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        destino[posicao++] = (byte) valor;
+        return posicao;
+    }
+
+    static int lerVarint(byte[] origem, int posicao, int[] valor) {
+        int resultado = 0;
+        int deslocamento = 0;
+        byte atual;
+        do {
+            atual = origem[posicao++];
+            resultado |= (atual & 0x7F) << deslocamento;
+            deslocamento += 7;
+        } while ((atual & 0x80) != 0);
+        valor[0] = resultado;
+        return posicao;
+    }
+}
@@ -0,0 +1,100 @@
+package com.progress.progress_api.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de CSV (RFC 4180) em streaming: lê um registro por vez, sem carregar o arquivo.
+ * Suporta campos entre aspas com vírgulas, quebras de linha e aspas duplicadas ("").
+ */
+class LeitorCsv {
+
+    private final Reader reader;
+    private final char separador;
+    private long linhaAtual = 1;
+    private long linhaDoRegistro;
+    private int proximo = -2; // -2 = nada lido antecipadamente
+
+    LeitorCsv(Reader reader, char separador) {
+        this.reader = reader;
+        this.separador = separador;
+    }
+
+    /**
+     * Retorna os campos do próximo registro, ou null no fim do arquivo. Linhas vazias são ignoradas.
+     */
+    List<String> proximoRegistro() throws IOException {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        boolean registroIniciado = false;
+        linhaDoRegistro = linhaAtual;
+
+        int c;
+        while ((c = ler()) != -1) {
+            if (entreAspas) {
+                if (c == '"') {
+                    int seguinte = ler();
+                    if (seguinte == '"') {
+                        campo.append('"');
+                    } else {
+                        entreAspas = false;
+                        devolver(seguinte);
+                    }
+                } else {
+                    if (c == '\n') {
+                        linhaAtual++;
+                    }
+                    campo.append((char) c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+                registroIniciado = true;
+            } else if (c == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+                registroIniciado = true;
+            } else if (c == '\r') {
+                // Ignorado; o \n seguinte encerra o registro
+            } else if (c == '\n') {
+                linhaAtual++;
+                if (registroIniciado || campo.length() > 0) {
+                    campos.add(campo.toString());
+                    return campos;
+                }
+                linhaDoRegistro = linhaAtual; // Linha vazia
+            } else {
+                campo.append((char) c);
+                registroIniciado = true;
+            }
+        }
+
+        if (registroIniciado || campo.length() > 0) {
+            campos.add(campo.toString());
+            return campos;
+        }
+        return null;
+    }
+
+    /**
+     * Linha do arquivo em que começou o último registro lido.
+     */
+    long linhaDoRegistro() {
+        return linhaDoRegistro;
+    }
+
+    private int ler() throws IOException {
+        if (proximo != -2) {
+            int c = proximo;
+            proximo = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void devolver(int c) {
+        proximo = c;
+    }
+}
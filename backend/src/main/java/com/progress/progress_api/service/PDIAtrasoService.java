@@ -0,0 +1,103 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.repository.PDIRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Marca como ATRASADO os PDIs que passaram da data de conclusão prevista sem serem concluídos ou cancelados.
+ *
+ * Roda no horário de pdi.atraso.cron, em uma única instância (TravaJobService), com UPDATEs em massa
+ * de até pdi.atraso.tamanho-lote linhas, cada um na própria transação, para não manter muitas linhas
+ * bloqueadas nem uma transação longa. O número de PDIs marcados e a duração ficam na trava do job
+ * (trava_job) e nas métricas pdi.atraso.*.
+ */
+@Service
+public class PDIAtrasoService {
+
+    private static final Logger log = LoggerFactory.getLogger(PDIAtrasoService.class);
+
+    public static final String JOB = "pdis_atrasados";
+
+    @Autowired
+    private PDIRepository pdiRepository;
+
+    @Autowired
+    private TravaJobService travaJobService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final int tamanhoLote;
+    private final Duration travaMaxima;
+    private final Duration travaMinima;
+    private final Counter marcados;
+    private final Timer duracao;
+
+    public PDIAtrasoService(@Value("${pdi.atraso.tamanho-lote:1000}") int tamanhoLote,
+                            @Value("${pdi.atraso.trava-maxima-ms:600000}") long travaMaximaMs,
+                            @Value("${pdi.atraso.trava-minima-ms:30000}") long travaMinimaMs,
+                            MeterRegistry meterRegistry) {
+        this.tamanhoLote = tamanhoLote;
+        this.travaMaxima = Duration.ofMillis(travaMaximaMs);
+        this.travaMinima = Duration.ofMillis(travaMinimaMs);
+        this.marcados = meterRegistry.counter("pdi.atraso.marcados");
+        this.duracao = meterRegistry.timer("pdi.atraso.execucao");
+    }
+
+    @Scheduled(cron = "${pdi.atraso.cron:0 5 0 * * *}")
+    public void executar() {
+        LocalDateTime inicio = LocalDateTime.now();
+        if (!travaJobService.adquirir(JOB, inicio, travaMaxima)) {
+            log.debug("Marcação de PDIs atrasados já está com outra instância");
+            return;
+        }
+
+        long inicioNanos = System.nanoTime();
+        long total = 0;
+        try {
+            total = marcarAtrasados(inicio.toLocalDate());
+        } finally {
+            long duracaoMs = Duration.ofNanos(System.nanoTime() - inicioNanos).toMillis();
+            travaJobService.liberar(JOB, inicio, travaMinima, total, duracaoMs);
+            duracao.record(Duration.ofMillis(duracaoMs));
+            log.info("Marcação de PDIs atrasados: {} PDIs em {} ms", total, duracaoMs);
+        }
+
+        // Os contadores em memória não veem o UPDATE em massa; as outras instâncias se corrigem na próxima reconciliação
+        if (total > 0) {
+            dashboardService.reconciliar();
+        }
+    }
+
+    /**
+     * Marca, lote a lote, os PDIs com conclusão prevista antes de "hoje". Retorna o total marcado.
+     */
+    public long marcarAtrasados(LocalDate hoje) {
+        long total = 0;
+        int marcadosNoLote;
+        do {
+            LocalDateTime agora = LocalDateTime.now();
+            Integer resultado = transactionTemplate.execute(status -> pdiRepository.marcarAtrasados(hoje, agora, tamanhoLote));
+            marcadosNoLote = resultado != null ? resultado : 0;
+            total += marcadosNoLote;
+            marcados.increment(marcadosNoLote);
+        } while (marcadosNoLote == tamanhoLote);
+        return total;
+    }
+}
@@ -0,0 +1,107 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.repository.PDIRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Reconstrói os contadores de progresso dos PDIs (totalMetas, metasConcluidas, percentualConcluido)
+ * a partir de metas_pdi. No dia a dia eles são mantidos pelo PDIService a cada gravação; este job corrige
+ * o que mudou por fora desse caminho (scripts, cargas diretas no banco) e preenche PDIs anteriores às colunas.
+ *
+ * Percorre a tabela em faixas de id de pdi.progresso.tamanho-lote, cada uma numa transação que primeiro
+ * trava os PDIs da faixa e depois recalcula com um UPDATE, gravando só os PDIs divergentes. Com a trava
+ * antes, a contagem enxerga as metas de toda gravação concorrente já confirmada, e as que chegarem depois
+ * esperam o fim da faixa. Roda em uma única instância (TravaJobService).
+ */
+@Service
+public class PDIProgressoService {
+
+    private static final Logger log = LoggerFactory.getLogger(PDIProgressoService.class);
+
+    public static final String JOB = "pdis_progresso";
+
+    @Autowired
+    private PDIRepository pdiRepository;
+
+    @Autowired
+    private TravaJobService travaJobService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final int tamanhoLote;
+    private final boolean repararAoIniciar;
+    private final Duration travaMaxima;
+    private final Duration travaMinima;
+    private final Counter corrigidos;
+
+    public PDIProgressoService(@Value("${pdi.progresso.tamanho-lote:5000}") int tamanhoLote,
+                               @Value("${pdi.progresso.reparar-ao-iniciar:true}") boolean repararAoIniciar,
+                               @Value("${pdi.progresso.trava-maxima-ms:1800000}") long travaMaximaMs,
+                               @Value("${pdi.progresso.trava-minima-ms:30000}") long travaMinimaMs,
+                               MeterRegistry meterRegistry) {
+        this.tamanhoLote = tamanhoLote;
+        this.repararAoIniciar = repararAoIniciar;
+        this.travaMaxima = Duration.ofMillis(travaMaximaMs);
+        this.travaMinima = Duration.ofMillis(travaMinimaMs);
+        this.corrigidos = meterRegistry.counter("pdi.progresso.corrigidos");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void repararAoIniciar() {
+        if (repararAoIniciar) {
+            executar();
+        }
+    }
+
+    @Scheduled(cron = "${pdi.progresso.cron:0 30 3 * * *}")
+    public void executar() {
+        LocalDateTime inicio = LocalDateTime.now();
+        if (!travaJobService.adquirir(JOB, inicio, travaMaxima)) {
+            log.debug("Reparo do progresso dos PDIs já está com outra instância");
+            return;
+        }
+
+        long inicioNanos = System.nanoTime();
+        long total = 0;
+        try {
+            total = reparar();
+        } finally {
+            long duracaoMs = Duration.ofNanos(System.nanoTime() - inicioNanos).toMillis();
+            travaJobService.liberar(JOB, inicio, travaMinima, total, duracaoMs);
+            log.info("Reparo do progresso dos PDIs: {} PDIs corrigidos em {} ms", total, duracaoMs);
+        }
+    }
+
+    /**
+     * Recalcula o progresso de todos os PDIs, faixa a faixa. Retorna quantos estavam divergentes.
+     */
+    public long reparar() {
+        long maiorId = pdiRepository.findMaiorId();
+        long total = 0;
+        for (long desde = 0; desde < maiorId; desde += tamanhoLote) {
+            long inicioFaixa = desde;
+            Integer resultado = transactionTemplate.execute(status -> {
+                pdiRepository.travarFaixa(inicioFaixa, inicioFaixa + tamanhoLote);
+                return pdiRepository.repararProgresso(inicioFaixa, inicioFaixa + tamanhoLote);
+            });
+            int corrigidosNaFaixa = resultado != null ? resultado : 0;
+            total += corrigidosNaFaixa;
+            corrigidos.increment(corrigidosNaFaixa);
+        }
+        return total;
+    }
+}
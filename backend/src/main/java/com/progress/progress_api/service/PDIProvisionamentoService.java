@@ -0,0 +1,256 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.MetaPDIDTO;
+import com.progress.progress_api.dto.PerfilColaboradorDTO;
+import com.progress.progress_api.dto.ProvisionamentoPDIDTO;
+import com.progress.progress_api.dto.ResultadoProvisionamentoDTO;
+import com.progress.progress_api.dto.ResultadoProvisionamentoDTO.Item;
+import com.progress.progress_api.dto.ResultadoProvisionamentoDTO.Situacao;
+import com.progress.progress_api.model.MetaPDI;
+import com.progress.progress_api.model.PDI;
+import com.progress.progress_api.model.PDI.StatusPDI;
+import com.progress.progress_api.repository.PDIRepository;
+import com.progress.progress_api.repository.UsuarioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Criação do mesmo PDI (título, datas e metas) para vários colaboradores, selecionados por ids
+ * ou por área/cargo.
+ *
+ * Os colaboradores são gravados em lotes, cada lote na sua própria transação, direto pelo JDBC:
+ * os ids são reservados em blocos nas mesmas sequences usadas pelo Hibernate (PDI.SEQUENCIA e
+ * MetaPDI.SEQUENCIA) e os inserts de PDIs e de metas seguem em batch (com reWriteBatchedInserts,
+ * poucas instruções multi-linha por lote), sem montar entidades.
+ * Colaboradores que já têm um PDI em aberto com o mesmo título são ignorados, então repetir a
+ * requisição depois de uma falha parcial só cria o que faltou.
+ */
+@Service
+public class PDIProvisionamentoService {
+
+    private static final Logger log = LoggerFactory.getLogger(PDIProvisionamentoService.class);
+
+    private static final List<StatusPDI> STATUS_ENCERRADOS = List.of(StatusPDI.CONCLUIDO, StatusPDI.CANCELADO);
+
+    private static final String RESERVAR_BLOCOS =
+            "SELECT nextval(CAST(? AS regclass)) FROM generate_series(1, ?)";
+
+    private static final String INSERIR_PDI =
+            "INSERT INTO pdis (id, colaborador_id, titulo, descricao_geral, data_inicio, data_conclusao_prevista, " +
+            "status, criado_em, atualizado_em, total_metas, metas_concluidas, percentual_concluido) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] TIPOS_PDI = {Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.DATE,
+            Types.DATE, Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP, Types.INTEGER, Types.INTEGER, Types.INTEGER};
+
+    private static final String INSERIR_META =
+            "INSERT INTO metas_pdi (id, pdi_id, descricao_meta, acoes_necessarias, prazo, concluida, " +
+            "recursos_necessarios, feedback_meta) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] TIPOS_META = {Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.DATE,
+            Types.BOOLEAN, Types.VARCHAR, Types.VARCHAR};
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PDIRepository pdiRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DashboardSnapshot dashboardSnapshot;
+
+    @Value("${pdi.provisionamento.tamanho-lote:200}")
+    private int tamanhoLote = 200;
+
+    @Value("${pdi.provisionamento.max-colaboradores:5000}")
+    private int maxColaboradores = 5000;
+
+    public ResultadoProvisionamentoDTO provisionar(ProvisionamentoPDIDTO modelo) {
+        validar(modelo);
+        long inicio = System.currentTimeMillis();
+        List<Item> itens = new ArrayList<>();
+
+        List<PerfilColaboradorDTO> colaboradores = selecionar(modelo, itens);
+        for (int i = 0; i < colaboradores.size(); i += tamanhoLote) {
+            gravarLote(modelo, colaboradores.subList(i, Math.min(i + tamanhoLote, colaboradores.size())), itens);
+        }
+
+        Map<Situacao, Long> porSituacao = itens.stream()
+                .collect(Collectors.groupingBy(Item::situacao, Collectors.counting()));
+        int criados = porSituacao.getOrDefault(Situacao.CRIADO, 0L).intValue();
+        int ignorados = porSituacao.getOrDefault(Situacao.JA_POSSUI_PDI_ABERTO, 0L).intValue()
+                + porSituacao.getOrDefault(Situacao.NAO_ENCONTRADO, 0L).intValue();
+        int falhas = porSituacao.getOrDefault(Situacao.FALHA, 0L).intValue();
+        long duracaoMs = System.currentTimeMillis() - inicio;
+        log.info("Provisionamento do PDI '{}': {} colaboradores, {} criados, {} ignorados, {} falhas em {} ms",
+                modelo.titulo(), itens.size(), criados, ignorados, falhas, duracaoMs);
+        return new ResultadoProvisionamentoDTO(itens.size(), criados, ignorados, falhas, duracaoMs, itens);
+    }
+
+    private void validar(ProvisionamentoPDIDTO modelo) {
+        if (modelo.titulo() == null || modelo.titulo().isBlank()) {
+            throw new IllegalArgumentException("O título do PDI é obrigatório");
+        }
+        if (modelo.metas() != null && modelo.metas().stream()
+                .anyMatch(meta -> meta == null || meta.getDescricaoMeta() == null || meta.getDescricaoMeta().isBlank())) {
+            throw new IllegalArgumentException("Toda meta precisa de descricaoMeta");
+        }
+        boolean porIds = modelo.colaboradorIds() != null && !modelo.colaboradorIds().isEmpty();
+        boolean porAreaOuCargo = !vazio(modelo.area()) || !vazio(modelo.cargo());
+        if (porIds == porAreaOuCargo) {
+            throw new IllegalArgumentException("Informe colaboradorIds ou area/cargo (e não ambos)");
+        }
+    }
+
+    /**
+     * Colaboradores selecionados, na ordem dos ids informados (ou do id, na seleção por área/cargo).
+     * Ids inexistentes entram no resultado como NAO_ENCONTRADO.
+     */
+    private List<PerfilColaboradorDTO> selecionar(ProvisionamentoPDIDTO modelo, List<Item> itens) {
+        if (modelo.colaboradorIds() == null || modelo.colaboradorIds().isEmpty()) {
+            List<PerfilColaboradorDTO> perfis = usuarioRepository.buscarPerfisPorAreaECargo(
+                    !vazio(modelo.area()), vazio(modelo.area()) ? "" : modelo.area(),
+                    !vazio(modelo.cargo()), vazio(modelo.cargo()) ? "" : modelo.cargo(),
+                    Limit.of(maxColaboradores + 1));
+            verificarMaximo(perfis.size());
+            return perfis;
+        }
+
+        Set<Long> ids = new LinkedHashSet<>(modelo.colaboradorIds());
+        ids.remove(null);
+        verificarMaximo(ids.size());
+        Map<Long, PerfilColaboradorDTO> encontrados = usuarioRepository.buscarPerfisPorIds(ids).stream()
+                .collect(Collectors.toMap(PerfilColaboradorDTO::id, Function.identity()));
+        List<PerfilColaboradorDTO> perfis = new ArrayList<>(encontrados.size());
+        for (Long id : ids) {
+            PerfilColaboradorDTO perfil = encontrados.get(id);
+            if (perfil == null) {
+                itens.add(new Item(id, null, Situacao.NAO_ENCONTRADO, null, "Colaborador não encontrado com ID: " + id));
+            } else {
+                perfis.add(perfil);
+            }
+        }
+        return perfis;
+    }
+
+    private void verificarMaximo(int selecionados) {
+        if (selecionados > maxColaboradores) {
+            throw new IllegalArgumentException("A seleção passa do máximo de " + maxColaboradores + " colaboradores");
+        }
+    }
+
+    private void gravarLote(ProvisionamentoPDIDTO modelo, List<PerfilColaboradorDTO> lote, List<Item> itens) {
+        List<Item> itensDoLote;
+        try {
+            itensDoLote = transactionTemplate.execute(status -> inserir(modelo, lote));
+        } catch (DataAccessException e) {
+            String mensagem = "Falha ao gravar o lote: " + causaRaiz(e).getMessage();
+            log.warn("Provisionamento do PDI '{}': lote de {} colaboradores não gravado: {}",
+                    modelo.titulo(), lote.size(), mensagem);
+            itensDoLote = lote.stream()
+                    .map(perfil -> new Item(perfil.id(), perfil.nome(), Situacao.FALHA, null, mensagem))
+                    .toList();
+        }
+        itens.addAll(itensDoLote);
+    }
+
+    private List<Item> inserir(ProvisionamentoPDIDTO modelo, List<PerfilColaboradorDTO> lote) {
+        Set<Long> comPDIAberto = new HashSet<>(pdiRepository.findColaboradoresComPDIAberto(
+                lote.stream().map(PerfilColaboradorDTO::id).toList(), modelo.titulo(), STATUS_ENCERRADOS));
+        List<PerfilColaboradorDTO> novos = lote.stream().filter(perfil -> !comPDIAberto.contains(perfil.id())).toList();
+
+        List<Long> pdiIds = reservarIds(PDI.SEQUENCIA, novos.size());
+        if (!novos.isEmpty()) {
+            List<MetaPDIDTO> metas = modelo.metas() != null ? modelo.metas() : List.of();
+            Iterator<Long> metaIds = reservarIds(MetaPDI.SEQUENCIA, novos.size() * metas.size()).iterator();
+            int concluidas = (int) metas.stream().filter(MetaPDIDTO::isConcluida).count();
+            LocalDateTime agora = LocalDateTime.now();
+            LocalDate dataInicio = modelo.dataInicio() != null ? modelo.dataInicio() : LocalDate.now();
+
+            List<Object[]> linhasPDI = new ArrayList<>(novos.size());
+            List<Object[]> linhasMeta = new ArrayList<>(novos.size() * metas.size());
+            for (int i = 0; i < novos.size(); i++) {
+                Long pdiId = pdiIds.get(i);
+                linhasPDI.add(new Object[]{pdiId, novos.get(i).id(), modelo.titulo(), modelo.descricaoGeral(),
+                        dataInicio, modelo.dataConclusaoPrevista(), StatusPDI.PLANEJADO.name(), agora, agora,
+                        metas.size(), concluidas, PDI.percentual(metas.size(), concluidas)});
+                for (MetaPDIDTO meta : metas) {
+                    linhasMeta.add(new Object[]{metaIds.next(), pdiId, meta.getDescricaoMeta(), meta.getAcoesNecessarias(),
+                            meta.getPrazo(), meta.isConcluida(), meta.getRecursosNecessarios(), meta.getFeedbackMeta()});
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERIR_PDI, linhasPDI, TIPOS_PDI);
+            if (!linhasMeta.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERIR_META, linhasMeta, TIPOS_META);
+            }
+            dashboardSnapshot.registrarPDIs(StatusPDI.PLANEJADO, novos.size());
+        }
+
+        List<Item> itens = new ArrayList<>(lote.size());
+        int proximo = 0;
+        for (PerfilColaboradorDTO perfil : lote) {
+            if (comPDIAberto.contains(perfil.id())) {
+                itens.add(new Item(perfil.id(), perfil.nome(), Situacao.JA_POSSUI_PDI_ABERTO, null,
+                        "Já possui um PDI em aberto com este título"));
+            } else {
+                itens.add(new Item(perfil.id(), perfil.nome(), Situacao.CRIADO, pdiIds.get(proximo++), null));
+            }
+        }
+        return itens;
+    }
+
+    /**
+     * Reserva a quantidade de ids na sequence, como o otimizador pooled do Hibernate faz: cada nextval
+     * entrega o bloco (valor - PDI.BLOCO_IDS, valor], que nenhuma outra sessão vai usar.
+     * Numa sequence nova o primeiro nextval devolve o valor inicial (1), que vale só por ele mesmo
+     * (o Hibernate busca outro bloco nesse caso); ids menores que 1 nunca são entregues.
+     */
+    List<Long> reservarIds(String sequencia, int quantidade) {
+        List<Long> ids = new ArrayList<>(quantidade);
+        while (ids.size() < quantidade) {
+            int blocos = (quantidade - ids.size() + PDI.BLOCO_IDS - 1) / PDI.BLOCO_IDS;
+            for (Long fimDoBloco : jdbcTemplate.queryForList(RESERVAR_BLOCOS, Long.class, sequencia, blocos)) {
+                for (long id = Math.max(1, fimDoBloco - PDI.BLOCO_IDS + 1); id <= fimDoBloco; id++) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids.subList(0, quantidade);
+    }
+
+    private static boolean vazio(String valor) {
+        return valor == null || valor.isBlank();
+    }
+
+    private static Throwable causaRaiz(Throwable erro) {
+        Throwable causa = erro;
+        while (causa.getCause() != null && causa.getCause() != causa) {
+            causa = causa.getCause();
+        }
+        return causa;
+    }
+}
@@ -0,0 +1,272 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.MetaPDIDTO;
+import com.progress.progress_api.dto.PDIDTO;
+import com.progress.progress_api.dto.PaginaDTO;
+import com.progress.progress_api.dto.ResumoPDIDTO;
+import com.progress.progress_api.model.MetaPDI;
+import com.progress.progress_api.model.PDI;
+import com.progress.progress_api.model.Usuario;
+import com.progress.progress_api.repository.PDIRepository;
+import com.progress.progress_api.repository.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class PDIService {
+
+    @Autowired
+    private PDIRepository pdiRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private DashboardSnapshot dashboardSnapshot;
+
+    // Filtros da listagem; nulos são ignorados. desde/ate se aplicam à dataInicio e
+    // progressoMinimo/progressoMaximo ao percentual de metas concluídas (inclusive).
+    public record Filtros(Long colaboradorId, PDI.StatusPDI status, LocalDate desde, LocalDate ate,
+                          Integer progressoMinimo, Integer progressoMaximo) {}
+
+    /**
+     * RECENTES: do PDI mais novo para o mais antigo (padrão).
+     * PROGRESSO: do menor para o maior percentual de metas concluídas.
+     */
+    public enum Ordenacao { RECENTES, PROGRESSO }
+
+    // Último item de uma página: de onde a próxima continua (campos nulos na primeira página)
+    private record Posicao(Integer progresso, Long id) {}
+
+    private static final Posicao INICIO = new Posicao(null, null);
+
+    // --- CONSULTAS ---
+
+    /**
+     * Lista PDIs com as metas, uma página por vez (paginação por cursor).
+     * Custa duas consultas por página: os PDIs da página e as metas de todos eles de uma vez.
+     */
+    @Transactional(readOnly = true)
+    public PaginaDTO<PDIDTO> listarPDIs(Filtros filtros, Ordenacao ordenacao, String cursor, int limite) {
+        Posicao apos = decodificarCursor(cursor, ordenacao);
+        int limiteMaisUm = limite + 1; // Um item a mais só para saber se existe próxima página
+        List<PDIDTO> itens = ordenacao == Ordenacao.PROGRESSO
+                ? pdiRepository.buscarPaginaPorProgresso(apos.progresso(), apos.id(), filtros.colaboradorId(),
+                        filtros.status(), filtros.desde(), filtros.ate(), filtros.progressoMinimo(),
+                        filtros.progressoMaximo(), limiteMaisUm)
+                : pdiRepository.buscarPagina(apos.id(), filtros.colaboradorId(),
+                        filtros.status(), filtros.desde(), filtros.ate(), filtros.progressoMinimo(),
+                        filtros.progressoMaximo(), limiteMaisUm);
+        PaginaDTO<PDIDTO> pagina = paginar(itens, limite, ordenacao,
+                pdi -> new Posicao(pdi.getPercentualConcluido(), pdi.getId()));
+        carregarMetas(pagina.itens());
+        return pagina;
+    }
+
+    /**
+     * Mesma listagem de listarPDIs, sem as metas: só título, status e progresso. Uma consulta por página.
+     */
+    @Transactional(readOnly = true)
+    public PaginaDTO<ResumoPDIDTO> listarResumos(Filtros filtros, Ordenacao ordenacao, String cursor, int limite) {
+        Posicao apos = decodificarCursor(cursor, ordenacao);
+        int limiteMaisUm = limite + 1;
+        List<ResumoPDIDTO> itens = ordenacao == Ordenacao.PROGRESSO
+                ? pdiRepository.buscarPaginaResumidaPorProgresso(apos.progresso(), apos.id(), filtros.colaboradorId(),
+                        filtros.status(), filtros.desde(), filtros.ate(), filtros.progressoMinimo(),
+                        filtros.progressoMaximo(), limiteMaisUm)
+                : pdiRepository.buscarPaginaResumida(apos.id(), filtros.colaboradorId(),
+                        filtros.status(), filtros.desde(), filtros.ate(), filtros.progressoMinimo(),
+                        filtros.progressoMaximo(), limiteMaisUm);
+        return paginar(itens, limite, ordenacao, resumo -> new Posicao(resumo.percentualConcluido(), resumo.id()));
+    }
+
+    @Transactional(readOnly = true)
+    public PDIDTO buscarPDI(Long id) {
+        PDIDTO pdi = pdiRepository.buscarDTOPorId(id)
+                .orElseThrow(() -> new RuntimeException("PDI não encontrado com ID: " + id));
+        carregarMetas(List.of(pdi));
+        return pdi;
+    }
+
+    // --- ESCRITAS ---
+
+    @Transactional
+    public PDIDTO criarPDI(PDIDTO pdiDTO) {
+        Usuario colaborador = usuarioRepository.findById(pdiDTO.getColaboradorId())
+                .orElseThrow(() -> new RuntimeException("Colaborador não encontrado com ID: " + pdiDTO.getColaboradorId()));
+
+        PDI pdi = new PDI();
+        pdi.setColaborador(colaborador);
+        pdi.setTitulo(pdiDTO.getTitulo());
+        pdi.setDescricaoGeral(pdiDTO.getDescricaoGeral());
+        pdi.setDataInicio(pdiDTO.getDataInicio() != null ? pdiDTO.getDataInicio() : LocalDate.now());
+        pdi.setDataConclusaoPrevista(pdiDTO.getDataConclusaoPrevista());
+        pdi.setDataConclusaoReal(pdiDTO.getDataConclusaoReal());
+        pdi.setStatus(pdiDTO.getStatus() != null ? pdiDTO.getStatus() : PDI.StatusPDI.PLANEJADO);
+        if (pdiDTO.getMetas() != null) {
+            pdiDTO.getMetas().forEach(metaDTO -> pdi.adicionarMeta(copiarMeta(metaDTO, new MetaPDI())));
+        }
+
+        pdi.recalcularProgresso();
+        PDI pdiSalvo = pdiRepository.save(pdi);
+        dashboardSnapshot.registrarPDI(pdiSalvo.getStatus());
+        return convertToDTO(pdiSalvo);
+    }
+
+    /**
+     * Atualiza o PDI. Campos nulos no DTO não são alterados. Quando as metas são enviadas, a lista
+     * enviada passa a ser a lista do PDI: metas com id são atualizadas, sem id são criadas e as
+     * ausentes são removidas.
+     */
+    @Transactional
+    public PDIDTO atualizarPDI(Long id, PDIDTO pdiDTO) {
+        PDI pdi = pdiRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("PDI não encontrado com ID: " + id));
+        PDI.StatusPDI statusAnterior = pdi.getStatus();
+
+        if (pdiDTO.getColaboradorId() != null && !pdiDTO.getColaboradorId().equals(pdi.getColaborador().getId())) {
+            pdi.setColaborador(usuarioRepository.findById(pdiDTO.getColaboradorId())
+                    .orElseThrow(() -> new RuntimeException("Colaborador não encontrado com ID: " + pdiDTO.getColaboradorId())));
+        }
+        if (pdiDTO.getTitulo() != null) {
+            pdi.setTitulo(pdiDTO.getTitulo());
+        }
+        if (pdiDTO.getDescricaoGeral() != null) {
+            pdi.setDescricaoGeral(pdiDTO.getDescricaoGeral());
+        }
+        if (pdiDTO.getDataInicio() != null) {
+            pdi.setDataInicio(pdiDTO.getDataInicio());
+        }
+        if (pdiDTO.getDataConclusaoPrevista() != null) {
+            pdi.setDataConclusaoPrevista(pdiDTO.getDataConclusaoPrevista());
+        }
+        if (pdiDTO.getDataConclusaoReal() != null) {
+            pdi.setDataConclusaoReal(pdiDTO.getDataConclusaoReal());
+        }
+        if (pdiDTO.getStatus() != null) {
+            pdi.setStatus(pdiDTO.getStatus());
+            if (pdiDTO.getStatus() == PDI.StatusPDI.CONCLUIDO && pdi.getDataConclusaoReal() == null) {
+                pdi.setDataConclusaoReal(LocalDate.now());
+            }
+        }
+        if (pdiDTO.getMetas() != null) {
+            sincronizarMetas(pdi, pdiDTO.getMetas());
+        }
+
+        pdi.recalcularProgresso(); // Sempre: a conversão para DTO abaixo carrega as metas de qualquer forma
+        PDI pdiAtualizado = pdiRepository.save(pdi);
+        dashboardSnapshot.alterarStatusPDI(statusAnterior, pdiAtualizado.getStatus());
+        return convertToDTO(pdiAtualizado);
+    }
+
+    @Transactional
+    public void deletarPDI(Long id) {
+        PDI pdi = pdiRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("PDI não encontrado com ID: " + id));
+        pdiRepository.delete(pdi);
+        dashboardSnapshot.removerPDI(pdi.getStatus());
+    }
+
+    // --- AUXILIARES ---
+
+    private void sincronizarMetas(PDI pdi, List<MetaPDIDTO> metasDTO) {
+        Map<Long, MetaPDI> existentes = pdi.getMetas().stream()
+                .collect(Collectors.toMap(MetaPDI::getId, Function.identity()));
+        pdi.getMetas().clear(); // orphanRemoval apaga as que não voltarem para a lista
+        for (MetaPDIDTO metaDTO : metasDTO) {
+            MetaPDI meta = metaDTO.getId() != null ? existentes.get(metaDTO.getId()) : null;
+            if (metaDTO.getId() != null && meta == null) {
+                throw new RuntimeException("Meta não encontrada neste PDI com ID: " + metaDTO.getId());
+            }
+            pdi.adicionarMeta(copiarMeta(metaDTO, meta != null ? meta : new MetaPDI()));
+        }
+    }
+
+    private static MetaPDI copiarMeta(MetaPDIDTO metaDTO, MetaPDI meta) {
+        meta.setDescricaoMeta(metaDTO.getDescricaoMeta());
+        meta.setAcoesNecessarias(metaDTO.getAcoesNecessarias());
+        meta.setPrazo(metaDTO.getPrazo());
+        meta.setConcluida(metaDTO.isConcluida());
+        meta.setRecursosNecessarios(metaDTO.getRecursosNecessarios());
+        meta.setFeedbackMeta(metaDTO.getFeedbackMeta());
+        return meta;
+    }
+
+    // Preenche as metas dos PDIs com uma única consulta, em vez de uma por PDI
+    private void carregarMetas(List<PDIDTO> pdis) {
+        if (pdis.isEmpty()) {
+            return;
+        }
+        Map<Long, PDIDTO> porId = new HashMap<>();
+        pdis.forEach(pdi -> porId.put(pdi.getId(), pdi));
+        for (Object[] linha : pdiRepository.buscarMetasPorPDIs(porId.keySet())) {
+            porId.get((Long) linha[0]).getMetas().add(convertMetaToDTO((MetaPDI) linha[1]));
+        }
+    }
+
+    public PDIDTO convertToDTO(PDI pdi) {
+        PDIDTO dto = new PDIDTO(pdi.getId(), pdi.getColaborador().getId(), pdi.getColaborador().getNome(),
+                pdi.getTitulo(), pdi.getDescricaoGeral(), pdi.getDataInicio(), pdi.getDataConclusaoPrevista(),
+                pdi.getDataConclusaoReal(), pdi.getStatus(), pdi.getTotalMetas(), pdi.getMetasConcluidas(),
+                pdi.getPercentualConcluido());
+        pdi.getMetas().forEach(meta -> dto.getMetas().add(convertMetaToDTO(meta)));
+        return dto;
+    }
+
+    private static MetaPDIDTO convertMetaToDTO(MetaPDI meta) {
+        MetaPDIDTO dto = new MetaPDIDTO();
+        dto.setId(meta.getId());
+        dto.setDescricaoMeta(meta.getDescricaoMeta());
+        dto.setAcoesNecessarias(meta.getAcoesNecessarias());
+        dto.setPrazo(meta.getPrazo());
+        dto.setConcluida(meta.isConcluida());
+        dto.setRecursosNecessarios(meta.getRecursosNecessarios());
+        dto.setFeedbackMeta(meta.getFeedbackMeta());
+        return dto;
+    }
+
+    private static <T> PaginaDTO<T> paginar(List<T> itens, int limite, Ordenacao ordenacao, Function<T, Posicao> posicao) {
+        String proximoCursor = null;
+        if (itens.size() > limite) {
+            itens = itens.subList(0, limite);
+            proximoCursor = codificarCursor(posicao.apply(itens.get(limite - 1)), ordenacao);
+        }
+        return new PaginaDTO<>(List.copyOf(itens), proximoCursor);
+    }
+
+    // O cursor é opaco para o cliente: Base64 URL-safe do id do último item da página,
+    // precedido do percentual concluído ("progresso:id") na ordenação por progresso
+    private static String codificarCursor(Posicao posicao, Ordenacao ordenacao) {
+        String valor = ordenacao == Ordenacao.PROGRESSO ? posicao.progresso() + ":" + posicao.id() : String.valueOf(posicao.id());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Posicao decodificarCursor(String cursor, Ordenacao ordenacao) {
+        if (cursor == null || cursor.isBlank()) {
+            return INICIO;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (ordenacao == Ordenacao.PROGRESSO) {
+                int separador = valor.indexOf(':');
+                if (separador < 0) {
+                    throw new IllegalArgumentException("Cursor de outra ordenação");
+                }
+                return new Posicao(Integer.parseInt(valor.substring(0, separador)), Long.parseLong(valor.substring(separador + 1)));
+            }
+            return new Posicao(null, Long.parseLong(valor));
+        } catch (IllegalArgumentException e) { // Inclui NumberFormatException
+            throw new IllegalArgumentException("Cursor inválido: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.TendenciasDTO;
+import com.progress.progress_api.model.FeedbackDiario;
+import com.progress.progress_api.model.PDI.StatusPDI;
+import com.progress.progress_api.model.PdiStatusDiario;
+import com.progress.progress_api.model.RollupControle;
+import com.progress.progress_api.model.RollupRemocao;
+import com.progress.progress_api.repository.FeedbackDiarioRepository;
+import com.progress.progress_api.repository.FeedbackRepository;
+import com.progress.progress_api.repository.PDIRepository;
+import com.progress.progress_api.repository.PdiStatusDiarioRepository;
+import com.progress.progress_api.repository.RollupControleRepository;
+import com.progress.progress_api.repository.RollupRemocaoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Mantém as tabelas de rollup diário usadas pelas tendências do dashboard.
+ * Cada execução processa apenas o que mudou desde a execução anterior, então o custo não cresce
+ * com o tamanho das tabelas:
+ * - PDIs: os que têm statusRollup diferente do status atual, mais os removidos (rollup_remocoes);
+ * - feedbacks: os dias com feedbacks alterados desde a marca d'água em rollup_controle, recuando
+ *   rollup.feedbacks.sobreposicao-ms para alcançar gravações confirmadas depois do seu atualizadoEm,
+ *   mais os dias de feedbacks removidos. Recalcular um dia é idempotente, então a sobreposição não
+ *   conta nada duas vezes.
+ * Roda em uma única instância por vez (TravaJobService): duas execuções simultâneas leriam o mesmo último
+ * dia e as mesmas remoções, e a segunda regravaria o dia sem as transições contabilizadas pela primeira.
+ */
+@Service
+public class RollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(RollupService.class);
+
+    public static final String JOB = "rollup_diario";
+
+    private static final String ROLLUP_FEEDBACKS = "feedbacks";
+    private static final LocalDateTime INICIO = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private PDIRepository pdiRepository;
+
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+
+    @Autowired
+    private PdiStatusDiarioRepository pdiStatusDiarioRepository;
+
+    @Autowired
+    private FeedbackDiarioRepository feedbackDiarioRepository;
+
+    @Autowired
+    private RollupControleRepository rollupControleRepository;
+
+    @Autowired
+    private RollupRemocaoRepository rollupRemocaoRepository;
+
+    @Autowired
+    private TravaJobService travaJobService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Maior atraso esperado entre o atualizadoEm de um feedback e o commit da sua transação
+    @Value("${rollup.feedbacks.sobreposicao-ms:300000}")
+    private long sobreposicaoMs;
+
+    @Value("${rollup.trava-maxima-ms:600000}")
+    private long travaMaximaMs;
+
+    @Value("${rollup.trava-minima-ms:30000}")
+    private long travaMinimaMs;
+
+    @Scheduled(cron = "${rollup.cron:0 */15 * * * *}")
+    public void executar() {
+        LocalDateTime inicio = LocalDateTime.now();
+        if (!travaJobService.adquirir(JOB, inicio, Duration.ofMillis(travaMaximaMs))) {
+            log.debug("Rollup diário já está com outra instância");
+            return;
+        }
+
+        long inicioNanos = System.nanoTime();
+        long linhas = 0;
+        try {
+            linhas += transactionTemplate.execute(status -> processarPDIs());
+            linhas += transactionTemplate.execute(status -> processarFeedbacks());
+        } finally {
+            long duracaoMs = Duration.ofNanos(System.nanoTime() - inicioNanos).toMillis();
+            travaJobService.liberar(JOB, inicio, Duration.ofMillis(travaMinimaMs), linhas, duracaoMs);
+            log.info("Rollup diário concluído em {} ms", duracaoMs);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public TendenciasDTO buscarTendencias(int dias) {
+        LocalDate inicio = LocalDate.now().minusDays(dias - 1L);
+        List<TendenciasDTO.PontoPdi> pdis = pdiStatusDiarioRepository.findByDiaGreaterThanEqualOrderByDiaAsc(inicio).stream()
+                .map(r -> new TendenciasDTO.PontoPdi(r.getDia(), r.getStatus(), r.getTotal()))
+                .toList();
+        List<TendenciasDTO.PontoFeedback> feedbacks = feedbackDiarioRepository.findByDiaGreaterThanEqualOrderByDiaAsc(inicio).stream()
+                .map(r -> new TendenciasDTO.PontoFeedback(r.getDia(), r.getSentimento(), r.getCategoria(), r.getTotal()))
+                .toList();
+        return new TendenciasDTO(pdis, feedbacks);
+    }
+
+    /**
+     * A distribuição de hoje é a do último dia registrado mais o saldo das transições de status
+     * ainda não contabilizadas, menos os PDIs removidos depois de contabilizados.
+     */
+    private int processarPDIs() {
+        LocalDate hoje = LocalDate.now();
+
+        Map<StatusPDI, Long> distribuicao = new EnumMap<>(StatusPDI.class);
+        pdiStatusDiarioRepository.findUltimoDia()
+                .forEach(r -> distribuicao.merge(r.getStatus(), r.getTotal(), Long::sum));
+
+        for (Object[] obj : pdiRepository.contabilizarTransicoesDeStatus()) {
+            long total = ((Number) obj[2]).longValue();
+            if (obj[0] != null) {
+                distribuicao.merge(StatusPDI.valueOf((String) obj[0]), -total, Long::sum);
+            }
+            distribuicao.merge(StatusPDI.valueOf((String) obj[1]), total, Long::sum);
+        }
+        for (RollupRemocao removido : consumirRemocoes(RollupRemocao.PDIS)) {
+            distribuicao.merge(StatusPDI.valueOf(removido.getStatus()), -1L, Long::sum);
+        }
+
+        // Regrava as linhas de hoje com a distribuição atualizada
+        pdiStatusDiarioRepository.deleteAll(pdiStatusDiarioRepository.findByDia(hoje));
+        pdiStatusDiarioRepository.flush();
+        distribuicao.forEach((status, total) -> {
+            PdiStatusDiario linha = new PdiStatusDiario();
+            linha.setDia(hoje);
+            linha.setStatus(status);
+            linha.setTotal(Math.max(0, total));
+            pdiStatusDiarioRepository.save(linha);
+        });
+        return distribuicao.size();
+    }
+
+    /**
+     * Recalcula apenas os dias que tiveram feedbacks criados, reanalisados ou removidos desde a última execução.
+     */
+    private int processarFeedbacks() {
+        RollupControle controle = controle(ROLLUP_FEEDBACKS);
+        LocalDateTime ate = LocalDateTime.now();
+        LocalDateTime desde = desde(controle).minus(Duration.ofMillis(sobreposicaoMs));
+
+        // O dia é a chave de deduplicação: cada dia alterado é recalculado uma vez por execução
+        Set<LocalDate> diasAlterados = new TreeSet<>(feedbackRepository.findDiasAlterados(desde, ate, primeiraExecucao(controle)));
+        consumirRemocoes(RollupRemocao.FEEDBACKS).forEach(removido -> diasAlterados.add(removido.getDia()));
+        for (LocalDate dia : diasAlterados) {
+            feedbackDiarioRepository.deleteByDia(dia);
+            for (Object[] obj : feedbackRepository.countPorSentimentoECategoria(dia.atStartOfDay(), dia.plusDays(1).atStartOfDay())) {
+                FeedbackDiario linha = new FeedbackDiario();
+                linha.setDia(dia);
+                linha.setSentimento((String) obj[0]);
+                linha.setCategoria((String) obj[1]);
+                linha.setTotal((Long) obj[2]);
+                feedbackDiarioRepository.save(linha);
+            }
+        }
+
+        controle.setProcessadoAte(ate);
+        rollupControleRepository.save(controle);
+        log.debug("Rollup de feedbacks: {} dias recalculados", diasAlterados.size());
+        return diasAlterados.size();
+    }
+
+    // Remoções lidas são apagadas na mesma transação; as confirmadas depois ficam para a próxima execução
+    private List<RollupRemocao> consumirRemocoes(String origem) {
+        List<RollupRemocao> remocoes = rollupRemocaoRepository.findByOrigem(origem);
+        rollupRemocaoRepository.deleteAllInBatch(remocoes);
+        return remocoes;
+    }
+
+    private static LocalDateTime desde(RollupControle controle) {
+        return controle.getProcessadoAte() != null ? controle.getProcessadoAte() : INICIO;
+    }
+
+    // Na primeira execução também entram as linhas antigas, que não têm atualizadoEm
+    private static boolean primeiraExecucao(RollupControle controle) {
+        return controle.getProcessadoAte() == null;
+    }
+
+    private RollupControle controle(String nome) {
+        return rollupControleRepository.findById(nome).orElseGet(() -> new RollupControle(nome, null));
+    }
+}
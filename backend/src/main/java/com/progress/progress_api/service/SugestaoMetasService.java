@@ -0,0 +1,272 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.MetaPDIDTO;
+import com.progress.progress_api.dto.PerfilColaboradorDTO;
+import com.progress.progress_api.dto.SugestaoMetasDTO;
+import com.progress.progress_api.repository.PDIRepository;
+import com.progress.progress_api.repository.UsuarioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sugestões de metas de PDI da IA, guardadas por objetivo (normalizado como no AnaliseIACache),
+ * cargo e área do colaborador: colaboradores do mesmo cargo e área com o mesmo objetivo recebem a mesma sugestão.
+ *
+ * O cache é um LRU em memória limitado a ia.sugestoes.max-size entradas. Cada entrada vale por
+ * ia.sugestoes.ttl-ms; depois disso é gerada de novo na próxima consulta. Um aquecimento periódico
+ * pré-calcula as sugestões dos títulos de PDI mais comuns de cada área, renovando as que passaram
+ * da metade da validade, para que a criação de PDIs quase nunca espere pelo modelo.
+ * Consultas simultâneas que não encontram a mesma chave esperam uma única chamada ao modelo.
+ *
+ * O cargo e a área de cada colaborador também ficam em memória, por ia.sugestoes.perfil-ttl-ms:
+ * um acerto não consulta o banco. Uma mudança de cargo ou de área vale para as sugestões depois desse prazo.
+ */
+@Service
+public class SugestaoMetasService {
+
+    private static final Logger log = LoggerFactory.getLogger(SugestaoMetasService.class);
+
+    private static final char SEPARADOR = '\u0000';
+    private static final int TAMANHO_MAXIMO_EQUIPE = 500;
+
+    private record Entrada(List<MetaPDIDTO> metas, long criadaEmNanos) {}
+
+    private record Perfil(String cargo, String area, long lidoEmNanos) {}
+
+    @Autowired
+    private GeminiService geminiService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PDIRepository pdiRepository;
+
+    private final Map<String, Entrada> memoria;
+    private final Map<Long, Perfil> perfis;
+    // Gerações em andamento por chave: quem não encontra a chave enquanto outra thread gera espera por ela
+    private final Map<String, CompletableFuture<Entrada>> emGeracao = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final long ttlPerfilNanos;
+    private final int objetivosPorArea;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter expiradas;
+    private final Counter aquecidas;
+
+    public SugestaoMetasService(@Value("${ia.sugestoes.max-size:5000}") int tamanhoMaximo,
+                                @Value("${ia.sugestoes.ttl-ms:86400000}") long ttlMs,
+                                @Value("${ia.sugestoes.aquecimento.objetivos-por-area:10}") int objetivosPorArea,
+                                @Value("${ia.sugestoes.perfil-ttl-ms:600000}") long ttlPerfilMs,
+                                MeterRegistry meterRegistry) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.ttlPerfilNanos = TimeUnit.MILLISECONDS.toNanos(ttlPerfilMs);
+        this.objetivosPorArea = objetivosPorArea;
+
+        // LinkedHashMap em ordem de acesso: a entrada mais antiga é a menos usada recentemente
+        this.memoria = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> maisAntiga) {
+                return size() > tamanhoMaximo;
+            }
+        };
+        this.perfis = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Perfil> maisAntigo) {
+                return size() > tamanhoMaximo;
+            }
+        };
+
+        this.hits = meterRegistry.counter("ia.sugestoes.hits");
+        this.misses = meterRegistry.counter("ia.sugestoes.misses");
+        this.expiradas = meterRegistry.counter("ia.sugestoes.expiradas");
+        this.aquecidas = meterRegistry.counter("ia.sugestoes.aquecidas");
+        Gauge.builder("ia.sugestoes.tamanho", this, s -> s.tamanho()).register(meterRegistry);
+    }
+
+    /**
+     * Metas sugeridas para o colaborador alcançar o objetivo, personalizadas pelo cargo e pela área dele.
+     */
+    public List<MetaPDIDTO> sugerir(Long colaboradorId, String objetivoPrincipal) {
+        Perfil perfil = perfil(colaboradorId);
+        return sugerir(objetivoPrincipal, perfil.cargo(), perfil.area());
+    }
+
+    public List<MetaPDIDTO> sugerir(String objetivoPrincipal, String cargo, String area) {
+        String chave = chave(objetivoPrincipal, cargo, area);
+        Entrada entrada = buscar(chave, 0);
+        if (entrada != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            entrada = gerar(chave, 0, objetivoPrincipal, cargo, area);
+        }
+        return copiar(entrada.metas());
+    }
+
+    /**
+     * Sugestões para todos os colaboradores da área (até 500) numa única chamada. Uma consulta traz
+     * a equipe e cada cargo distinto consulta o cache (ou o modelo) uma só vez.
+     */
+    public List<SugestaoMetasDTO> sugerirParaEquipe(String area, String objetivoPrincipal) {
+        List<PerfilColaboradorDTO> equipe = usuarioRepository.buscarPerfisPorArea(area, Limit.of(TAMANHO_MAXIMO_EQUIPE));
+        Map<String, List<MetaPDIDTO>> porCargo = new HashMap<>();
+        return equipe.stream()
+                .map(perfil -> new SugestaoMetasDTO(perfil.id(), perfil.nome(), perfil.cargo(),
+                        porCargo.computeIfAbsent(Objects.toString(perfil.cargo(), ""),
+                                cargo -> sugerir(objetivoPrincipal, perfil.cargo(), area))))
+                .toList();
+    }
+
+    /**
+     * Pré-calcula as sugestões dos títulos de PDI mais frequentes de cada área (com o cargo de quem os tem).
+     * Pula as entradas ainda na primeira metade da validade.
+     */
+    @Scheduled(fixedDelayString = "${ia.sugestoes.aquecimento.intervalo-ms:21600000}",
+               initialDelayString = "${ia.sugestoes.aquecimento.atraso-inicial-ms:30000}")
+    public void aquecer() {
+        long inicio = System.currentTimeMillis();
+        List<Object[]> objetivos = pdiRepository.buscarObjetivosMaisComuns(objetivosPorArea);
+        int geradas = 0;
+        for (Object[] linha : objetivos) {
+            String area = (String) linha[0];
+            String cargo = (String) linha[1];
+            String objetivo = (String) linha[2];
+            String chave = chave(objetivo, cargo, area);
+            if (buscar(chave, ttlNanos / 2) == null) {
+                gerar(chave, ttlNanos / 2, objetivo, cargo, area);
+                geradas++;
+            }
+        }
+        aquecidas.increment(geradas);
+        log.info("Aquecimento das sugestões de metas: {} objetivos, {} gerados em {} ms",
+                objetivos.size(), geradas, System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Descarta todas as sugestões (ex: depois de trocar o modelo ou o prompt).
+     */
+    public void invalidar() {
+        synchronized (memoria) {
+            memoria.clear();
+        }
+        synchronized (perfis) {
+            perfis.clear();
+        }
+    }
+
+    public int tamanho() {
+        synchronized (memoria) {
+            return memoria.size();
+        }
+    }
+
+    // --- AUXILIARES ---
+
+    // Entrada válida por pelo menos mais "margemNanos", ou null. Entradas vencidas são removidas
+    private Entrada buscar(String chave, long margemNanos) {
+        synchronized (memoria) {
+            Entrada entrada = memoria.get(chave);
+            if (entrada == null) {
+                return null;
+            }
+            long idade = System.nanoTime() - entrada.criadaEmNanos();
+            if (idade >= ttlNanos) {
+                memoria.remove(chave);
+                expiradas.increment();
+                return null;
+            }
+            return idade + margemNanos < ttlNanos ? entrada : null;
+        }
+    }
+
+    // Cargo e área do colaborador, do cache enquanto válidos
+    private Perfil perfil(Long colaboradorId) {
+        synchronized (perfis) {
+            Perfil perfil = perfis.get(colaboradorId);
+            if (perfil != null && System.nanoTime() - perfil.lidoEmNanos() < ttlPerfilNanos) {
+                return perfil;
+            }
+        }
+        PerfilColaboradorDTO lido = usuarioRepository.buscarPerfil(colaboradorId)
+                .orElseThrow(() -> new RuntimeException("Colaborador não encontrado com ID: " + colaboradorId));
+        Perfil perfil = new Perfil(lido.cargo(), lido.area(), System.nanoTime());
+        synchronized (perfis) {
+            perfis.put(colaboradorId, perfil);
+        }
+        return perfil;
+    }
+
+    // A chamada ao modelo fica fora do lock; só uma thread por chave chama o modelo, as demais esperam o resultado
+    private Entrada gerar(String chave, long margemNanos, String objetivoPrincipal, String cargo, String area) {
+        CompletableFuture<Entrada> geracao = new CompletableFuture<>();
+        CompletableFuture<Entrada> emAndamento = emGeracao.putIfAbsent(chave, geracao);
+        if (emAndamento != null) {
+            return aguardar(emAndamento);
+        }
+        try {
+            // Outra geração pode ter terminado entre a consulta ao cache e o putIfAbsent
+            Entrada entrada = buscar(chave, margemNanos);
+            if (entrada == null) {
+                entrada = new Entrada(copiar(geminiService.sugerirMetasPDIPorIA(objetivoPrincipal, cargo, area)),
+                        System.nanoTime());
+                synchronized (memoria) {
+                    memoria.put(chave, entrada);
+                }
+            }
+            geracao.complete(entrada);
+            return entrada;
+        } catch (RuntimeException e) {
+            geracao.completeExceptionally(e);
+            throw e;
+        } finally {
+            emGeracao.remove(chave, geracao);
+        }
+    }
+
+    private static Entrada aguardar(CompletableFuture<Entrada> geracao) {
+        try {
+            return geracao.join();
+        } catch (CompletionException e) {
+            // A falha da geração chega a quem esperava como chegou a quem chamou o modelo
+            throw e.getCause() instanceof RuntimeException causa ? causa : e;
+        }
+    }
+
+    static String chave(String objetivoPrincipal, String cargo, String area) {
+        return AnaliseIACache.normalizar(objetivoPrincipal) + SEPARADOR
+                + AnaliseIACache.normalizar(cargo) + SEPARADOR
+                + AnaliseIACache.normalizar(area);
+    }
+
+    // MetaPDIDTO é mutável: o cache guarda e entrega cópias, para que quem recebe possa alterá-las
+    private static List<MetaPDIDTO> copiar(List<MetaPDIDTO> metas) {
+        return metas.stream().map(meta -> {
+            MetaPDIDTO copia = new MetaPDIDTO();
+            copia.setDescricaoMeta(meta.getDescricaoMeta());
+            copia.setAcoesNecessarias(meta.getAcoesNecessarias());
+            copia.setPrazo(meta.getPrazo());
+            copia.setRecursosNecessarios(meta.getRecursosNecessarios());
+            return copia;
+        }).toList();
+    }
+}
@@ -0,0 +1,69 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.repository.TravaJobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Garante que um job agendado rode em uma única instância por vez, com uma linha por job em trava_job.
+ *
+ * A trava tem prazo: se a instância que a tomou cair no meio do job, ela se libera sozinha depois de
+ * duracaoMaxima. Ao liberar, a trava continua tomada até inicio + duracaoMinima, para que outra instância
+ * cujo agendamento dispare um pouco depois (relógios levemente diferentes) não repita a mesma execução.
+ * Cada operação roda e é confirmada na própria transação, antes e depois do job.
+ */
+@Service
+public class TravaJobService {
+
+    private static final LocalDateTime LIVRE = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private TravaJobRepository travaJobRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final String instancia = nomeInstancia();
+
+    /**
+     * Tenta tomar a trava do job. Retorna false se outra instância estiver com ela.
+     */
+    public boolean adquirir(String nome, LocalDateTime agora, Duration duracaoMaxima) {
+        Integer tomadas = transactionTemplate.execute(status -> {
+            travaJobRepository.criarSeAusente(nome, LIVRE);
+            return travaJobRepository.adquirir(nome, instancia, agora, agora.plus(duracaoMaxima));
+        });
+        return tomadas != null && tomadas == 1;
+    }
+
+    /**
+     * Libera a trava tomada em "inicio" e registra quantas linhas o job alterou e quanto tempo levou.
+     */
+    public void liberar(String nome, LocalDateTime inicio, Duration duracaoMinima, long linhas, long duracaoMs) {
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime ate = inicio.plus(duracaoMinima).isAfter(agora) ? inicio.plus(duracaoMinima) : agora;
+        transactionTemplate.executeWithoutResult(status ->
+                travaJobRepository.liberar(nome, instancia, ate, inicio, linhas, duracaoMs));
+    }
+
+    public String getInstancia() {
+        return instancia;
+    }
+
+    private static String nomeInstancia() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "desconhecido";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
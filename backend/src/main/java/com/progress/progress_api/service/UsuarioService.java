@@ -1,15 +1,23 @@
 package com.progress.progress_api.service;
 
+import com.progress.progress_api.dto.PaginaDTO;
 import com.progress.progress_api.dto.UsuarioDTO;
+import com.progress.progress_api.dto.UsuarioResumoDTO;
 import com.progress.progress_api.model.Role;
 import com.progress.progress_api.model.Usuario;
 import com.progress.progress_api.repository.RoleRepository;
 import com.progress.progress_api.repository.UsuarioRepository;
+import com.progress.progress_api.security.PasswordHashingExecutor;
+import com.progress.progress_api.security.PrincipalCache;
+import com.progress.progress_api.security.RoleRegistry;
+import com.progress.progress_api.security.TokenRevocationStore;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -18,6 +26,12 @@ import java.util.stream.Collectors;
 @Service
 public class UsuarioService {
 
+    // Filtros do diretório; nulos ou em branco não filtram. role aceita "MANAGER" ou "ROLE_MANAGER"
+    public record FiltrosDiretorio(String area, String cargo, String role) {}
+
+    // Último item da página anterior do diretório
+    private record PosicaoDiretorio(String nome, long id) {}
+
     @Autowired
     private UsuarioRepository usuarioRepository;
 
@@ -25,7 +39,19 @@ public class UsuarioService {
     private RoleRepository roleRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Autowired
+    private DashboardSnapshot dashboardSnapshot;
 
     // --- MÉTODOS DE CRIAÇÃO ---
 
@@ -43,16 +69,16 @@ public class UsuarioService {
         usuario.setArea(usuarioDTO.getArea());
         
         // IMPORTANTE: Hashear a senha antes de salvar!
-        usuario.setSenha(passwordEncoder.encode(usuarioDTO.getSenha()));
+        usuario.setSenha(passwordHashingExecutor.encode(usuarioDTO.getSenha()));
+
+        // Atribui o papel de colaborador por padrão (resolvido pelo registro, sem consulta)
+        Role defaultRole = roleRegistry.referencia("ROLE_COLLABORATOR");
 
-        // Atribui o papel de colaborador por padrão
-        Role defaultRole = roleRepository.findByName("ROLE_COLLABORATOR")
-                .orElseThrow(() -> new RuntimeException("Erro: Papel padrão 'ROLE_COLLABORATOR' não encontrado."));
-        
         usuario.setRoles(Set.of(defaultRole));
 
         // Salva a nova entidade no banco de dados
         Usuario novoUsuario = usuarioRepository.save(usuario);
+        dashboardSnapshot.registrarUsuario(Set.of(defaultRole.getName()));
         
         return convertToDTO(novoUsuario);
     }
@@ -65,11 +91,9 @@ public class UsuarioService {
             admin.setEmail("admin@admin.com");
             
             // Lembre-se de hashear a senha!
-            admin.setSenha(passwordEncoder.encode("admin123")); // Senha provisória, deve ser forte
+            admin.setSenha(passwordHashingExecutor.encode("admin123")); // Senha provisória, deve ser forte
             
-            // Busca o papel "ROLE_ADMIN" no banco de dados
-            Role adminRole = roleRepository.findByName("ROLE_ADMIN")
-                    .orElseThrow(() -> new RuntimeException("Erro: Papel 'ROLE_ADMIN' não encontrado."));
+            Role adminRole = roleRegistry.referencia("ROLE_ADMIN");
             
             admin.setRoles(Set.of(adminRole));
             
@@ -77,6 +101,7 @@ public class UsuarioService {
             admin.setArea("TI");
 
             usuarioRepository.save(admin);
+            dashboardSnapshot.registrarUsuario(Set.of(adminRole.getName()));
             System.out.println("Usuário admin inicial criado.");
         }
     }
@@ -90,6 +115,36 @@ public class UsuarioService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Diretório de usuários em ordem de nome, paginado por cursor. Lê só as colunas listadas e os
+     * papéis agregados na mesma consulta, sem montar entidades.
+     */
+    @Transactional(readOnly = true)
+    public PaginaDTO<UsuarioResumoDTO> listarDiretorio(FiltrosDiretorio filtros, String cursor, int limite) {
+        PosicaoDiretorio apos = decodificarCursor(cursor);
+        Long roleId = null;
+        if (preenchido(filtros.role())) {
+            Optional<RoleRegistry.Papel> papel = roleRegistry.buscar(filtros.role());
+            if (papel.isEmpty()) {
+                return new PaginaDTO<>(List.of(), null); // Nenhum usuário tem um papel que não existe
+            }
+            roleId = papel.get().id();
+        }
+        List<UsuarioResumoDTO> itens = usuarioRepository.buscarDiretorio(apos.nome(), apos.id(),
+                        valorOuNulo(filtros.area()), valorOuNulo(filtros.cargo()), roleId, limite + 1)
+                .stream()
+                .map(this::convertToResumo)
+                .toList();
+
+        String proximoCursor = null;
+        if (itens.size() > limite) {
+            itens = itens.subList(0, limite);
+            UsuarioResumoDTO ultimo = itens.get(limite - 1);
+            proximoCursor = codificarCursor(new PosicaoDiretorio(ultimo.nome(), ultimo.id()));
+        }
+        return new PaginaDTO<>(List.copyOf(itens), proximoCursor);
+    }
+
     @Transactional(readOnly = true)
     public Optional<UsuarioDTO> buscarUsuarioPorEmail(String email) {
         return usuarioRepository.findByEmail(email).map(this::convertToDTO);
@@ -107,6 +162,9 @@ public class UsuarioService {
         Usuario usuarioExistente = usuarioRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado com ID: " + id));
 
+        // O email antigo é a chave do principal em cache
+        principalCache.invalidarAposCommit(usuarioExistente.getEmail());
+
         usuarioExistente.setNome(usuarioDTO.getNome());
         usuarioExistente.setEmail(usuarioDTO.getEmail());
         usuarioExistente.setCargo(usuarioDTO.getCargo());
@@ -114,19 +172,122 @@ public class UsuarioService {
 
         // Atualiza a senha apenas se uma nova for fornecida
         if (usuarioDTO.getSenha() != null && !usuarioDTO.getSenha().isEmpty()) {
-            usuarioExistente.setSenha(passwordEncoder.encode(usuarioDTO.getSenha()));
+            usuarioExistente.setSenha(passwordHashingExecutor.encode(usuarioDTO.getSenha()));
         }
 
         Usuario usuarioAtualizado = usuarioRepository.save(usuarioExistente);
         return convertToDTO(usuarioAtualizado);
     }
 
+    /**
+     * Substitui os papéis do usuário. Nomes aceitos com ou sem o prefixo ROLE_; papéis inexistentes
+     * ou lista vazia lançam IllegalArgumentException.
+     */
+    @Transactional
+    public UsuarioDTO alterarRoles(Long id, Set<String> nomes) {
+        if (nomes == null || nomes.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um papel");
+        }
+        Set<Role> novos = nomes.stream()
+                .map(nome -> roleRegistry.buscar(nome)
+                        .orElseThrow(() -> new IllegalArgumentException("Papel não encontrado: " + nome)))
+                .map(papel -> new Role(papel.id(), papel.nome()))
+                .collect(Collectors.toSet());
+        Usuario usuario = usuarioRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Usuário não encontrado com ID: " + id));
+
+        Set<String> anteriores = usuario.getRoles().stream().map(Role::getName).collect(Collectors.toSet());
+        Set<String> atuais = novos.stream().map(Role::getName).collect(Collectors.toSet());
+        usuario.setRoles(novos);
+        Usuario usuarioAtualizado = usuarioRepository.save(usuario);
+
+        // As authorities vêm do principal; o primeiro request depois do commit recarrega com os papéis novos
+        principalCache.invalidarAposCommit(usuario.getEmail());
+        dashboardSnapshot.alterarPerfis(
+                anteriores.stream().filter(nome -> !atuais.contains(nome)).toList(),
+                atuais.stream().filter(nome -> !anteriores.contains(nome)).toList());
+        return convertToDTO(usuarioAtualizado);
+    }
+
+    /**
+     * Cria um papel novo (ex: "AUDITOR" vira ROLE_AUDITOR) e recarrega o RoleRegistry.
+     */
+    public String criarRole(String nome) {
+        String nomeCompleto = RoleRegistry.normalizar(nome);
+        if (nomeCompleto == null || !nomeCompleto.matches("ROLE_[A-Z0-9_]{1,15}")) {
+            throw new IllegalArgumentException("Nome de papel inválido: " + nome);
+        }
+        if (roleRegistry.buscar(nomeCompleto).isEmpty()) {
+            roleRepository.save(new Role(null, nomeCompleto));
+        }
+        roleRegistry.recarregar();
+        return nomeCompleto;
+    }
+
     @Transactional
     public void deletarUsuario(Long id) {
-        if (!usuarioRepository.existsById(id)) {
-            throw new RuntimeException("Usuário não encontrado com ID: " + id);
+        Usuario usuario = usuarioRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Usuário não encontrado com ID: " + id));
+        principalCache.invalidarAposCommit(usuario.getEmail());
+        tokenRevocationStore.revogarTodos(usuario.getEmail());
+
+        // Os PDIs e feedbacks do usuário são removidos em cascata; o dashboard precisa refletir isso
+        dashboardSnapshot.removerUsuario(usuario.getId(),
+                usuario.getRoles().stream().map(Role::getName).collect(Collectors.toSet()));
+        usuario.getPdis().forEach(pdi -> dashboardSnapshot.removerPDI(pdi.getStatus()));
+
+        usuarioRepository.delete(usuario);
+    }
+
+    /**
+     * Revoga todos os tokens já emitidos para o usuário (ex: conta comprometida).
+     */
+    @Transactional(readOnly = true)
+    public void revogarTokens(Long id) {
+        Usuario usuario = usuarioRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Usuário não encontrado com ID: " + id));
+        tokenRevocationStore.revogarTodos(usuario.getEmail());
+        principalCache.invalidar(usuario.getEmail());
+    }
+
+    // --- AUXILIARES DO DIRETÓRIO ---
+
+    private static boolean preenchido(String valor) {
+        return valor != null && !valor.isBlank();
+    }
+
+    private static String valorOuNulo(String valor) {
+        return preenchido(valor) ? valor : null;
+    }
+
+    // Cursor opaco: Base64 URL-safe de "id:nome" do último item da página
+    private static String codificarCursor(PosicaoDiretorio posicao) {
+        String valor = posicao.id() + ":" + posicao.nome();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static PosicaoDiretorio decodificarCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return new PosicaoDiretorio("", 0); // Antes de qualquer nome
         }
-        usuarioRepository.deleteById(id);
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = valor.indexOf(':');
+            if (separador < 0) {
+                throw new IllegalArgumentException("Cursor sem separador");
+            }
+            return new PosicaoDiretorio(valor.substring(separador + 1), Long.parseLong(valor.substring(0, separador)));
+        } catch (IllegalArgumentException e) { // Inclui NumberFormatException
+            throw new IllegalArgumentException("Cursor inválido: " + cursor, e);
+        }
+    }
+
+    private UsuarioResumoDTO convertToResumo(UsuarioRepository.LinhaDiretorio linha) {
+        Set<String> roles = linha.getRoleIds() == null ? Set.of() : Arrays.stream(linha.getRoleIds().split(","))
+                .map(id -> roleRegistry.buscar(Long.valueOf(id)).map(RoleRegistry.Papel::nome).orElse("?"))
+                .collect(Collectors.toUnmodifiableSet());
+        return new UsuarioResumoDTO(linha.getId(), linha.getNome(), linha.getEmail(), linha.getCargo(),
+                linha.getArea(), roles);
     }
 
     // --- MÉTODO AUXILIAR DE CONVERSÃO ---
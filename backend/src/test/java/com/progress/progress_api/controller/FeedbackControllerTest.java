@@ -0,0 +1,100 @@
+package com.progress.progress_api.controller;
+
+import com.progress.progress_api.dto.FeedbackDTO;
+import com.progress.progress_api.dto.PaginaFeedbackDTO;
+import com.progress.progress_api.model.Usuario;
+import com.progress.progress_api.service.FeedbackService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class FeedbackControllerTest {
+
+    private static final Long USUARIO_ID = 7L;
+
+    @Mock
+    private FeedbackService feedbackService;
+
+    @InjectMocks
+    private FeedbackController controller;
+
+    @BeforeEach
+    void setUp() {
+        when(feedbackService.listarFeedbacks(any(), any(), any(), any(), anyInt()))
+                .thenReturn(new PaginaFeedbackDTO(List.of(new FeedbackDTO()), "proximo"));
+    }
+
+    @Test
+    void colaboradorSemFiltroListaApenasOsRecebidos() {
+        ResponseEntity<List<FeedbackDTO>> resposta =
+                controller.listarFeedbacks(null, null, null, null, 20, autenticacao("ROLE_COLLABORATOR"));
+
+        assertEquals(HttpStatus.OK, resposta.getStatusCode());
+        assertEquals("proximo", resposta.getHeaders().getFirst(FeedbackController.HEADER_PROXIMO_CURSOR));
+        verify(feedbackService).listarFeedbacks(null, USUARIO_ID, null, null, 20);
+    }
+
+    @Test
+    void colaboradorPodeFiltrarPelosQueEnviou() {
+        controller.listarFeedbacks(USUARIO_ID, null, "Positivo", null, 20, autenticacao("ROLE_COLLABORATOR"));
+
+        verify(feedbackService).listarFeedbacks(USUARIO_ID, null, "Positivo", null, 20);
+    }
+
+    @Test
+    void colaboradorNaoListaFeedbacksDeOutros() {
+        Authentication colaborador = autenticacao("ROLE_COLLABORATOR");
+
+        assertEquals(HttpStatus.FORBIDDEN, controller.listarFeedbacks(99L, null, null, null, 20, colaborador).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, controller.listarFeedbacks(null, 99L, null, null, 20, colaborador).getStatusCode());
+        verify(feedbackService, never()).listarFeedbacks(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void gestorListaTodosComOLimiteRestrito() {
+        controller.listarFeedbacks(null, 99L, null, null, 1_000, autenticacao("ROLE_MANAGER"));
+        controller.listarFeedbacks(null, null, null, null, 0, autenticacao("ROLE_ADMIN"));
+
+        verify(feedbackService).listarFeedbacks(null, 99L, null, null, 100);
+        verify(feedbackService).listarFeedbacks(null, null, null, null, 1);
+    }
+
+    @Test
+    void cursorMalformadoResultaEm400() {
+        when(feedbackService.listarFeedbacks(any(), any(), any(), eq("xyz"), anyInt()))
+                .thenThrow(new IllegalArgumentException("Cursor inválido: xyz"));
+
+        ResponseEntity<List<FeedbackDTO>> resposta =
+                controller.listarFeedbacks(null, null, null, "xyz", 20, autenticacao("ROLE_ADMIN"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, resposta.getStatusCode());
+    }
+
+    private static Authentication autenticacao(String perfil) {
+        Usuario usuario = new Usuario();
+        usuario.setId(USUARIO_ID);
+        return new UsernamePasswordAuthenticationToken(usuario, null, List.of(new SimpleGrantedAuthority(perfil)));
+    }
+}
@@ -0,0 +1,98 @@
+package com.progress.progress_api.security;
+
+import com.progress.progress_api.config.JwtProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class JwtUtilTest {
+
+    private JwtUtil jwtUtil;
+    private UserDetails usuario;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("TestSecretKeyWithAtLeastThirtyTwoBytes!!");
+        properties.setExpirationMs(60_000);
+        jwtUtil = new JwtUtil(properties, 1000);
+        usuario = new User("colaborador@progress.com", "x", List.of());
+    }
+
+    @Test
+    void parseTokenReutilizaClaimsVerificadas() {
+        String token = jwtUtil.generateToken(usuario);
+
+        Claims primeira = jwtUtil.parseToken(token);
+        Claims segunda = jwtUtil.parseToken(token);
+
+        assertSame(primeira, segunda);
+        assertEquals("colaborador@progress.com", primeira.getSubject());
+        assertTrue(jwtUtil.validateToken(primeira, usuario));
+    }
+
+    @Test
+    void tokenExpiradoNaoEServidoDoCache() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("TestSecretKeyWithAtLeastThirtyTwoBytes!!");
+        properties.setExpirationMs(-1000);
+        JwtUtil util = new JwtUtil(properties, 1000);
+
+        String token = util.generateToken(usuario);
+
+        assertThrows(ExpiredJwtException.class, () -> util.parseToken(token));
+        assertThrows(ExpiredJwtException.class, () -> util.parseToken(token));
+    }
+
+    @Test
+    void assinaturaEVerificadaUmaVezPorToken() {
+        JwtParser parser = espionarParser(jwtUtil);
+        String token = jwtUtil.generateToken(usuario);
+
+        for (int i = 0; i < 5; i++) {
+            Claims claims = jwtUtil.parseToken(token);
+            assertTrue(jwtUtil.validateToken(claims, usuario));
+            assertEquals("colaborador@progress.com", jwtUtil.extractUsername(token));
+        }
+
+        verify(parser, times(1)).parseClaimsJws(token);
+    }
+
+    @Test
+    void cacheCheioVoltaAVerificarCadaChamada() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("TestSecretKeyWithAtLeastThirtyTwoBytes!!");
+        properties.setExpirationMs(60_000);
+        JwtUtil util = new JwtUtil(properties, 1);
+        JwtParser parser = espionarParser(util);
+        String primeiro = util.generateToken(usuario);
+        String segundo = util.generateToken(usuario);
+
+        util.parseToken(primeiro);
+        util.parseToken(segundo);
+        util.parseToken(segundo);
+        util.parseToken(primeiro);
+
+        verify(parser, times(1)).parseClaimsJws(primeiro);
+        verify(parser, times(2)).parseClaimsJws(segundo); // Não coube no cache de uma entrada
+    }
+
+    // O parser é criado uma vez no construtor; o espião conta as verificações de assinatura
+    private static JwtParser espionarParser(JwtUtil util) {
+        JwtParser parser = spy((JwtParser) ReflectionTestUtils.getField(util, "jwtParser"));
+        ReflectionTestUtils.setField(util, "jwtParser", parser);
+        return parser;
+    }
+}
@@ -0,0 +1,114 @@
+package com.progress.progress_api.security;
+
+import com.progress.progress_api.config.LoginThrottleProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+    private LoginThrottleProperties propriedades() {
+        LoginThrottleProperties properties = new LoginThrottleProperties();
+        properties.setCapacidadeEmail(5);
+        properties.setRecargaPorMinutoEmail(0); // sem recarga durante o teste
+        properties.setCapacidadeIp(1_000);
+        properties.setRecargaPorMinutoIp(0);
+        properties.setMaxChaves(10_000);
+        return properties;
+    }
+
+    @Test
+    void bloqueiaEmailAposEsgotarCapacidade() {
+        LoginRateLimiter limiter = new LoginRateLimiter(propriedades());
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tentar("alvo@progress.com", "10.0.0.1"));
+        }
+        assertTrue(limiter.tentar("alvo@progress.com", "10.0.0.2") > 0);
+        assertTrue(limiter.tentar(" ALVO@progress.com ", "10.0.0.3") > 0);
+        assertEquals(0, limiter.tentar("outro@progress.com", "10.0.0.1"));
+    }
+
+    @Test
+    void mantemLimiteDeChavesEmMemoria() {
+        LoginThrottleProperties properties = propriedades();
+        properties.setMaxChaves(100);
+        LoginRateLimiter limiter = new LoginRateLimiter(properties);
+
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tentar("usuario" + i + "@progress.com", "10.0." + (i / 256) + "." + (i % 256));
+        }
+        assertTrue(limiter.totalChaves() <= 200);
+    }
+
+    @Test
+    void limiteCheioRecusaChavesNovasSemDescartarBaldesAtivos() {
+        LoginThrottleProperties properties = propriedades();
+        properties.setMaxChaves(3);
+        LoginRateLimiter limiter = new LoginRateLimiter(properties);
+        for (int i = 0; i < 5; i++) {
+            limiter.tentar("alvo@progress.com", "10.0.0.1");
+        }
+        assertTrue(limiter.tentar("alvo@progress.com", "10.0.0.1") > 0);
+
+        // Alternar emails não abre espaço descartando o balde do alvo
+        for (int i = 0; i < 100; i++) {
+            limiter.tentar("rodizio" + i + "@progress.com", "10.0.0.1");
+        }
+        assertTrue(limiter.tentar("novo@progress.com", "10.0.0.1") > 0, "sem chave ociosa, a chave nova é recusada");
+        assertTrue(limiter.tentar("alvo@progress.com", "10.0.0.1") > 0, "o alvo continua bloqueado");
+        assertEquals(4, limiter.totalChaves());
+
+        // Chaves ociosas liberam vaga
+        properties.setIdleMs(-1_000);
+        limiter.removerOciosos();
+        assertEquals(0, limiter.tentar("novo@progress.com", "10.0.0.1"));
+    }
+
+    /**
+     * Simula um ataque de credential stuffing: muitas threads, poucos emails-alvo e muitos IPs.
+     * Nenhum email pode aceitar mais tentativas do que a capacidade, mesmo com as threads disputando os mesmos baldes.
+     */
+    @Test
+    void respeitaCapacidadeSobAtaqueConcorrente() throws Exception {
+        LoginRateLimiter limiter = new LoginRateLimiter(propriedades());
+        int threads = 32;
+        int tentativasPorThread = 5_000;
+        int emails = 64;
+
+        LongAdder permitidas = new LongAdder();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < tentativasPorThread; i++) {
+                    String email = "alvo" + (i % emails) + "@progress.com";
+                    String ip = "10." + thread + "." + (i % 200) + ".1";
+                    if (limiter.tentar(email, ip) == 0) {
+                        permitidas.increment();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        largada.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(emails * 5L, permitidas.sum());
+    }
+}
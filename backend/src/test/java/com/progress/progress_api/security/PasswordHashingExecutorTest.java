@@ -0,0 +1,108 @@
+package com.progress.progress_api.security;
+
+import com.progress.progress_api.controller.HashingSobrecarregadoHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class PasswordHashingExecutorTest {
+
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        liberar.countDown();
+        executor.encerrar();
+    }
+
+    @Test
+    void filaCheiaRecusaNaHoraEViraServicoIndisponivel() throws Exception {
+        executor = criar(1, 1, 5_000);
+        CountDownLatch ocupada = new CountDownLatch(1);
+        // Uma tarefa rodando e outra na fila ocupam toda a capacidade
+        CompletableFuture.runAsync(() -> executor.executar(() -> {
+            ocupada.countDown();
+            return liberar.await(5, TimeUnit.SECONDS);
+        }));
+        assertTrue(ocupada.await(2, TimeUnit.SECONDS));
+        CompletableFuture.runAsync(() -> executor.executar(() -> true));
+        Thread.sleep(100);
+
+        long inicio = System.nanoTime();
+        assertThrows(HashingSobrecarregadoException.class, () -> executor.encode("senha"));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio) < 1_000, "recusa sem esperar na fila");
+
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new LoginFalso(executor))
+                .setControllerAdvice(new HashingSobrecarregadoHandler())
+                .build();
+        mockMvc.perform(post("/login"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    void tarefaQuePassaDoTempoLimiteECanceladaEViraSobrecarga() throws Exception {
+        executor = criar(1, 10, 100);
+        CountDownLatch interrompida = new CountDownLatch(1);
+
+        long inicio = System.nanoTime();
+        assertThrows(HashingSobrecarregadoException.class, () -> executor.executar(() -> {
+            try {
+                return liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrompida.countDown();
+                throw e;
+            }
+        }));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio) < 1_000);
+        assertTrue(interrompida.await(2, TimeUnit.SECONDS), "a thread do pool é liberada");
+        assertEquals("ok", executor.executar(() -> "ok"));
+    }
+
+    @Test
+    void excecoesDaTarefaSaoRelancadasComoEstao() {
+        executor = criar(1, 10, 5_000);
+
+        assertThrows(BadCredentialsException.class, () -> executor.executar(() -> {
+            throw new BadCredentialsException("senha incorreta");
+        }));
+    }
+
+    private static PasswordHashingExecutor criar(int threads, int capacidadeFila, long timeoutMs) {
+        return new PasswordHashingExecutor(new BCryptPasswordEncoder(4), threads, capacidadeFila, timeoutMs,
+                new SimpleMeterRegistry());
+    }
+
+    @RestController
+    static class LoginFalso {
+
+        private final PasswordHashingExecutor executor;
+
+        LoginFalso(PasswordHashingExecutor executor) {
+            this.executor = executor;
+        }
+
+        @PostMapping("/login")
+        String login() {
+            return executor.encode("senha");
+        }
+    }
+}
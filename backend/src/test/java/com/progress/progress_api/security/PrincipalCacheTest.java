@@ -0,0 +1,52 @@
+package com.progress.progress_api.security;
+
+import com.progress.progress_api.model.Usuario;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrincipalCacheTest {
+
+    private static final String EMAIL = "gestor@empresa.com";
+
+    private final PrincipalCache cache = new PrincipalCache(60_000, 100, new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void invalidacaoEmTransacaoSoAconteceNoCommit() {
+        cache.armazenar(usuario());
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.invalidarAposCommit(EMAIL);
+        // Antes do commit o banco ainda tem os dados antigos; o cache continua coerente com ele
+        assertNotNull(cache.buscar(EMAIL));
+
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        assertNull(cache.buscar(EMAIL));
+    }
+
+    @Test
+    void foraDeTransacaoInvalidaNaHora() {
+        cache.armazenar(usuario());
+
+        cache.invalidarAposCommit(EMAIL);
+
+        assertNull(cache.buscar(EMAIL));
+    }
+
+    private static Usuario usuario() {
+        Usuario usuario = new Usuario();
+        usuario.setEmail(EMAIL);
+        return usuario;
+    }
+}
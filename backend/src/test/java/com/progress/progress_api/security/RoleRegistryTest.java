@@ -0,0 +1,93 @@
+package com.progress.progress_api.security;
+
+import com.progress.progress_api.model.Role;
+import com.progress.progress_api.repository.RoleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RoleRegistryTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Test
+    void resolvePapeisSemConsultarDepoisDeCarregado() {
+        when(roleRepository.findAll()).thenReturn(List.of(new Role(1L, "ROLE_ADMIN"), new Role(3L, "ROLE_COLLABORATOR")));
+        RoleRegistry registry = new RoleRegistry(roleRepository, 60_000);
+        registry.recarregar();
+
+        Role referencia = registry.referencia("COLLABORATOR");
+        assertEquals(new Role(3L, "ROLE_COLLABORATOR"), referencia);
+        assertNotSame(referencia, registry.referencia("ROLE_COLLABORATOR"), "cada referência é uma instância nova");
+        assertEquals("ROLE_ADMIN", registry.buscar(1L).orElseThrow().nome());
+        assertTrue(registry.buscar("MANAGER").isEmpty());
+        assertThrows(RuntimeException.class, () -> registry.referencia("ROLE_MANAGER"));
+
+        // A mesma instância de authority é reaproveitada entre usuários
+        assertSame(registry.autoridades(Set.of(new Role(1L, "ROLE_ADMIN"))).get(0),
+                registry.autoridades(Set.of(new Role(1L, "ROLE_ADMIN"))).get(0));
+        assertThrows(UnsupportedOperationException.class, () -> registry.nomes().add("ROLE_X"));
+        verify(roleRepository, times(1)).findAll();
+    }
+
+    @Test
+    void recarregarTrocaORegistroECargaPreguicosaAntesDoInicializador() {
+        when(roleRepository.findAll())
+                .thenReturn(List.of(new Role(1L, "ROLE_ADMIN")))
+                .thenReturn(List.of(new Role(1L, "ROLE_ADMIN"), new Role(4L, "ROLE_AUDITOR")));
+        RoleRegistry registry = new RoleRegistry(roleRepository, 60_000);
+
+        assertEquals(Set.of("ROLE_ADMIN"), registry.nomes(), "carregado no primeiro uso");
+        registry.recarregar();
+        assertEquals(4L, registry.referencia("AUDITOR").getId());
+    }
+
+    @Test
+    void nomeEmQualquerCaixaResolveOMesmoPapel() {
+        when(roleRepository.findAll()).thenReturn(List.of(new Role(2L, "ROLE_MANAGER")));
+        RoleRegistry registry = new RoleRegistry(roleRepository, 60_000);
+
+        assertEquals("ROLE_MANAGER", RoleRegistry.normalizar(" manager "));
+        assertEquals("ROLE_MANAGER", RoleRegistry.normalizar("role_manager"));
+        assertEquals(2L, registry.buscar("Manager").orElseThrow().id());
+        assertTrue(registry.buscar((String) null).isEmpty());
+        assertTrue(registry.buscar("  ").isEmpty());
+    }
+
+    @Test
+    void papelCriadoEmOutraInstanciaEEncontradoRecarregandoNaFalta() {
+        when(roleRepository.findAll())
+                .thenReturn(List.of(new Role(1L, "ROLE_ADMIN")))
+                .thenReturn(List.of(new Role(1L, "ROLE_ADMIN"), new Role(4L, "ROLE_AUDITOR")));
+        RoleRegistry registry = new RoleRegistry(roleRepository, 0);
+        registry.recarregar();
+
+        assertEquals(4L, registry.referencia("AUDITOR").getId());
+        assertEquals("ROLE_AUDITOR", registry.buscar(4L).orElseThrow().nome());
+        verify(roleRepository, times(2)).findAll();
+    }
+
+    @Test
+    void faltasSeguidasNaoRecarregamAntesDoIntervalo() {
+        when(roleRepository.findAll()).thenReturn(List.of(new Role(1L, "ROLE_ADMIN")));
+        RoleRegistry registry = new RoleRegistry(roleRepository, 60_000);
+        registry.recarregar();
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(registry.buscar("FANTASMA").isEmpty());
+            assertTrue(registry.buscar(99L).isEmpty());
+        }
+        verify(roleRepository, times(1)).findAll();
+    }
+}
@@ -0,0 +1,102 @@
+package com.progress.progress_api.security;
+
+import com.progress.progress_api.config.JwtProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationStoreTest {
+
+    private static final String EMAIL = "colaborador@progress.com";
+
+    private JwtProperties properties;
+    private TokenRevocationStore store;
+
+    @BeforeEach
+    void setUp() {
+        properties = new JwtProperties();
+        properties.setExpirationMs(60_000);
+        store = new TokenRevocationStore(properties, 1024);
+    }
+
+    @Test
+    void revogacaoPorJtiRecusaSoAqueleToken() {
+        Date agora = new Date();
+        store.revogar("jti-revogado", new Date(agora.getTime() + 60_000));
+
+        assertTrue(store.isRevoked(claims("jti-revogado", EMAIL, agora)));
+        assertFalse(store.isRevoked(claims("jti-ativo", EMAIL, agora)));
+        assertFalse(store.isRevoked(claims(null, EMAIL, agora)), "token sem jti");
+    }
+
+    @Test
+    void filtroDeBloomSaturadoNaoRecusaTokensNaoRevogados() {
+        TokenRevocationStore pequeno = new TokenRevocationStore(properties, 64);
+        Date expiracao = new Date(System.currentTimeMillis() + 60_000);
+        for (int i = 0; i < 200; i++) {
+            pequeno.revogar("revogado-" + i, expiracao);
+        }
+
+        // Com 64 bits todos ligados, o filtro responde "talvez" para qualquer jti; o conjunto exato decide
+        for (int i = 0; i < 200; i++) {
+            assertFalse(pequeno.isRevoked(claims("ativo-" + i, EMAIL, new Date())));
+        }
+        assertTrue(pequeno.isRevoked(claims("revogado-7", EMAIL, new Date())));
+    }
+
+    @Test
+    void corteDoUsuarioRecusaTokensEmitidosAteEle() {
+        long agora = System.currentTimeMillis();
+
+        store.revogarTodos(EMAIL);
+
+        assertTrue(store.isRevoked(claims("a", EMAIL, new Date(agora - 5_000))));
+        // "iat" tem precisão de segundos: emitido no mesmo segundo do corte também é recusado
+        assertTrue(store.isRevoked(claims("b", EMAIL, new Date(agora / 1000 * 1000))));
+        assertFalse(store.isRevoked(claims("c", EMAIL, new Date(agora + 2_000))), "emitido depois do corte");
+        assertFalse(store.isRevoked(claims("d", "outro@progress.com", new Date(agora - 5_000))));
+    }
+
+    @Test
+    void entradasSaemQuandoOsTokensQueElasCobremExpiram() {
+        Date agora = new Date();
+        store.revogar("expirado", new Date(agora.getTime() - 1));
+        store.revogar("valido", new Date(agora.getTime() + 60_000));
+
+        store.removerExpirados();
+
+        assertFalse(store.isRevoked(claims("expirado", EMAIL, agora)));
+        assertTrue(store.isRevoked(claims("valido", EMAIL, agora)), "continua no filtro reconstruído");
+
+        // O corte vale enquanto puder existir token emitido antes dele: até corte + expiração
+        store.revogarTodos(EMAIL);
+        store.removerExpirados();
+        assertTrue(store.isRevoked(claims(null, EMAIL, new Date(agora.getTime() - 5_000))));
+
+        properties.setExpirationMs(0);
+        store.removerExpirados();
+        assertFalse(store.isRevoked(claims(null, EMAIL, new Date(agora.getTime() - 5_000))));
+    }
+
+    @Test
+    void tamanhoDoFiltroMenorQueUmaPalavraERejeitado() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenRevocationStore(properties, 63));
+        assertThrows(IllegalArgumentException.class, () -> new TokenRevocationStore(properties, 0));
+
+        // Tamanho que não é múltiplo de 64 é arredondado para cima
+        TokenRevocationStore quebrado = new TokenRevocationStore(properties, 100);
+        Date agora = new Date();
+        quebrado.revogar("revogado", new Date(agora.getTime() + 60_000));
+        assertTrue(quebrado.isRevoked(claims("revogado", EMAIL, agora)));
+        assertFalse(quebrado.isRevoked(claims("ativo", EMAIL, agora)));
+    }
+
+    private static Claims claims(String jti, String email, Date emitidoEm) {
+        return Jwts.claims().setId(jti).setSubject(email).setIssuedAt(emitidoEm);
+    }
+}
@@ -0,0 +1,119 @@
+package com.progress.progress_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.progress.progress_api.dto.AnaliseIARequisicaoDTO;
+import com.progress.progress_api.dto.AnaliseIAResultadoDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnaliseIABatchClientTest {
+
+    private static final int ITENS = 200;
+
+    private AnaliseIAStubServer stub;
+    private final List<AnaliseIABatchClient> clientes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new AnaliseIAStubServer(0, 20, 1);
+        stub.iniciar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        clientes.forEach(AnaliseIABatchClient::encerrar);
+        stub.parar();
+    }
+
+    @Test
+    void cadaChamadaRecebeOProprioResultado() throws Exception {
+        AnaliseIABatchClient cliente = cliente(16, 10);
+
+        List<CompletableFuture<AnaliseIAResultadoDTO>> futuros = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            futuros.add(cliente.analisar(item(i)));
+        }
+
+        for (int i = 0; i < futuros.size(); i++) {
+            String esperado = i % 2 == 0 ? "Negativo" : "Positivo";
+            assertEquals(esperado, futuros.get(i).get(5, TimeUnit.SECONDS).sentimentoAnalisado(), "item " + i);
+        }
+        assertEquals(50, stub.getItens());
+        assertTrue(stub.getChamadas() < 50, "esperava lotes, houve " + stub.getChamadas() + " chamadas");
+    }
+
+    @Test
+    void falhaDoLoteChegaATodosOsFuturos() {
+        stub.parar();
+        AnaliseIABatchClient cliente = cliente(8, 5);
+
+        CompletableFuture<AnaliseIAResultadoDTO> primeiro = cliente.analisar(item(0));
+        CompletableFuture<AnaliseIAResultadoDTO> segundo = cliente.analisar(item(1));
+
+        assertThrows(ExecutionException.class, () -> primeiro.get(5, TimeUnit.SECONDS));
+        assertThrows(ExecutionException.class, () -> segundo.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void encerrarFalhaOLoteEmMontagemERecusaNovosItens() throws Exception {
+        // Janela longa: a despachante fica esperando mais itens com o primeiro já fora da fila
+        AnaliseIABatchClient cliente = cliente(16, 60_000);
+        CompletableFuture<AnaliseIAResultadoDTO> emMontagem = cliente.analisar(item(0));
+        Thread.sleep(100);
+
+        cliente.encerrar();
+
+        ExecutionException erro = assertThrows(ExecutionException.class, () -> emMontagem.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, erro.getCause());
+        assertTrue(cliente.analisar(item(1)).isCompletedExceptionally());
+        assertEquals(0, stub.getChamadas());
+    }
+
+    /**
+     * Com o mesmo limite de chamadas em voo, o cliente unitário faz uma chamada por item e o
+     * agrupado respeita o tamanho máximo do lote.
+     */
+    @Test
+    void agrupamentoReduzAsChamadas() throws Exception {
+        enviarTodos(cliente(1, 0));
+        long chamadasUnitario = stub.getChamadas();
+
+        enviarTodos(cliente(16, 10));
+        long chamadasLote = stub.getChamadas() - chamadasUnitario;
+
+        assertEquals(ITENS, chamadasUnitario);
+        assertTrue(chamadasLote >= (ITENS + 15) / 16, "lote acima do máximo: " + chamadasLote + " chamadas");
+        assertTrue(chamadasLote < chamadasUnitario);
+        assertEquals(2L * ITENS, stub.getItens());
+    }
+
+    private void enviarTodos(AnaliseIABatchClient cliente) throws Exception {
+        List<CompletableFuture<AnaliseIAResultadoDTO>> futuros = new ArrayList<>();
+        for (int i = 0; i < ITENS; i++) {
+            futuros.add(cliente.analisar(item(i)));
+        }
+        CompletableFuture.allOf(futuros.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+    }
+
+    private AnaliseIABatchClient cliente(int maxItens, long janelaMs) {
+        AnaliseIABatchClient cliente = new AnaliseIABatchClient(true, "http://localhost:" + stub.getPorta() + "/analises",
+                maxItens, janelaMs, 4, 10_000, new ObjectMapper(), new SimpleMeterRegistry());
+        clientes.add(cliente);
+        return cliente;
+    }
+
+    private static AnaliseIARequisicaoDTO item(int i) {
+        String texto = i % 2 == 0 ? "Foi difícil cumprir os prazos " + i : "Entrega tranquila " + i;
+        return new AnaliseIARequisicaoDTO(texto, null, null);
+    }
+}
@@ -0,0 +1,56 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.AnaliseIARequisicaoDTO;
+import com.progress.progress_api.dto.AnaliseIAResultadoDTO;
+import com.progress.progress_api.repository.AnaliseIACacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class AnaliseIACacheTest {
+
+    private static final AnaliseIAResultadoDTO RESULTADO =
+            new AnaliseIAResultadoDTO("Negativo", "Gestão de Tarefas", "Meta", null, null);
+
+    private AnaliseIACache cache(int tamanhoMaximo) {
+        return new AnaliseIACache(mock(AnaliseIACacheRepository.class), true, tamanhoMaximo, false, "1",
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void textosQueDiferemApenasEmEspacosECaixaCompartilhamAAnalise() {
+        AnaliseIACache cache = cache(100);
+        cache.armazenar(new AnaliseIARequisicaoDTO("Foi difícil  entregar", "Prazos", null), RESULTADO);
+
+        assertEquals(RESULTADO, cache.buscar(new AnaliseIARequisicaoDTO("  foi DIFÍCIL entregar\n", "prazos", "")));
+        assertNull(cache.buscar(new AnaliseIARequisicaoDTO("Foi difícil entregar", "Escopo", null)));
+        assertEquals(0.5, cache.taxaAcerto());
+        assertEquals(1, cache.chamadasEvitadas());
+    }
+
+    @Test
+    void camposDiferentesNaoColidemAoConcatenar() {
+        AnaliseIACache cache = cache(100);
+        assertNotEquals(cache.chave(new AnaliseIARequisicaoDTO("ab", "c", null)),
+                cache.chave(new AnaliseIARequisicaoDTO("a", "bc", null)));
+    }
+
+    @Test
+    void descartaAEntradaMenosUsadaRecentemente() {
+        AnaliseIACache cache = cache(2);
+        AnaliseIARequisicaoDTO a = new AnaliseIARequisicaoDTO("a", null, null);
+        AnaliseIARequisicaoDTO b = new AnaliseIARequisicaoDTO("b", null, null);
+        AnaliseIARequisicaoDTO c = new AnaliseIARequisicaoDTO("c", null, null);
+
+        cache.armazenar(a, RESULTADO);
+        cache.armazenar(b, RESULTADO);
+        cache.buscar(a);
+        cache.armazenar(c, RESULTADO);
+
+        assertEquals(2, cache.tamanho());
+        assertNotNull(cache.buscar(a));
+        assertNull(cache.buscar(b));
+    }
+}
@@ -0,0 +1,140 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.AnaliseIARequisicaoDTO;
+import com.progress.progress_api.dto.AnaliseIAResultadoDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassificadorLexicoTest {
+
+    private static final String LEXICO = """
+            [negacao]
+            não
+            sem
+            [sentimento]
+            +2 excelente
+            -2 difícil
+            -1.5 problema*
+            -2 deixou a desejar
+            [categoria Gestão de Tarefas]
+            meta = Melhorar organização
+            curso = Curso de Produtividade
+            2 prazo*
+            [categoria Comunicação]
+            2 comunicação
+            """;
+
+    private final ClassificadorLexico classificador = compilar(LEXICO);
+
+    @Test
+    void ignoraAcentosECaixaECasaPalavrasInteiras() {
+        assertEquals("Negativo", sentimento("Foi DIFICIL"));
+        assertEquals("Positivo", sentimento("Trabalho excelênte!"));
+        assertEquals("Neutro", sentimento("Inexcelente e dificilmente"), "não deveria casar dentro de palavras");
+        assertEquals("Negativo", sentimento("A entrega deixou   a\ndesejar"));
+        assertEquals("Negativo", sentimento("Muitos problemas"), "termo com * casa com o início da palavra");
+        assertEquals("Negativo", sentimento("Foi difi\u0301cil"), "texto em NFD");
+    }
+
+    @Test
+    void negacaoInverteOSentimentoDentroDaJanela() {
+        assertEquals("Positivo", sentimento("Não foi difícil"));
+        assertEquals("Positivo", sentimento("Entregou sem problemas"));
+        assertEquals("Negativo", sentimento("Não sei, o trabalho esta semana foi difícil"), "negação longe demais");
+    }
+
+    @Test
+    void escolheACategoriaComMaisPontosEUsaOsDadosDoLexico() {
+        AnaliseIAResultadoDTO resultado = classificador.analisar(
+                new AnaliseIARequisicaoDTO("Boa comunicação, mas prazos difíceis", "Prazo curto", null));
+
+        assertEquals("Gestão de Tarefas", resultado.categoriaDificuldadeAnalisada());
+        assertEquals("Melhorar organização", resultado.metaSugeridaIA());
+        assertEquals("Curso de Produtividade", resultado.cursoRecomendadoIA());
+
+        assertEquals("N/A", classificador.analisar(new AnaliseIARequisicaoDTO("Nada a declarar", null, null))
+                .categoriaDificuldadeAnalisada());
+    }
+
+    @Test
+    void confiancaDependeDoSaldoDeSentimento() {
+        ClassificadorLexico.Classificacao forte = classificador.classificar(
+                new AnaliseIARequisicaoDTO("Excelente, excelente trabalho", null, null));
+        ClassificadorLexico.Classificacao fraca = classificador.classificar(
+                new AnaliseIARequisicaoDTO("Excelente, mas difícil", null, null));
+
+        assertEquals(2, forte.ocorrencias());
+        assertTrue(forte.confiante(4));
+        assertFalse(fraca.confiante(4));
+        assertFalse(forte.confiante(0), "limiar 0 desliga o atalho");
+    }
+
+    @Test
+    void lexicoInvalidoERejeitadoComALinha() {
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> ClassificadorLexico.compilar(new StringReader("[sentimento]\n+2 bom\nsem peso\n")));
+        assertTrue(erro.getMessage().contains("linha 3"), erro.getMessage());
+    }
+
+    @Test
+    void servicoRecarregaOArquivoQuandoEleMuda(@TempDir Path pasta) throws Exception {
+        Path arquivo = pasta.resolve("lexico.txt");
+        Files.writeString(arquivo, "[sentimento]\n+2 bom\n");
+        ClassificadorLexicoService servico = new ClassificadorLexicoService(arquivo.toString(), 4, new SimpleMeterRegistry());
+        AnaliseIARequisicaoDTO requisicao = new AnaliseIARequisicaoDTO("bom", null, null);
+        assertEquals("Positivo", servico.analisar(requisicao).sentimentoAnalisado());
+
+        Files.writeString(arquivo, "[sentimento]\n-2 bom\n");
+        Files.setLastModifiedTime(arquivo, FileTime.from(Instant.now().plusSeconds(5)));
+        servico.recarregarSeAlterado();
+        assertEquals("Negativo", servico.analisar(requisicao).sentimentoAnalisado());
+
+        // Léxico inválido: o anterior continua valendo
+        Files.writeString(arquivo, "linha solta\n");
+        FileTime versaoInvalida = FileTime.from(Instant.now().plusSeconds(10));
+        Files.setLastModifiedTime(arquivo, versaoInvalida);
+        servico.recarregarSeAlterado();
+        assertEquals("Negativo", servico.analisar(requisicao).sentimentoAnalisado());
+
+        // Corrigido com a mesma data de modificação: a versão rejeitada não conta como carregada
+        Files.writeString(arquivo, "[sentimento]\n+2 bom\n");
+        Files.setLastModifiedTime(arquivo, versaoInvalida);
+        servico.recarregarSeAlterado();
+        assertEquals("Positivo", servico.analisar(requisicao).sentimentoAnalisado());
+    }
+
+    @Test
+    void lexicoPadraoClassificaUmFeedbackTipico() {
+        ClassificadorLexico padrao = ClassificadorLexico.padrao();
+        AnaliseIARequisicaoDTO documento = new AnaliseIARequisicaoDTO(
+                "Na sprint a entrega foi boa, mas tivemos problemas de comunicação com o time e " +
+                "o prazo ficou apertado. Não foi fácil priorizar as demandas, porém o resultado superou o esperado.",
+                "Dificuldade com testes automatizados e com o deploy", "Arquitetura e liderança");
+
+        assertTrue(padrao.getTotalTermos() > 0);
+        assertTrue(padrao.classificar(documento).ocorrencias() > 0);
+        // O campo de dificuldades pesa mais: testes e deploy levam a categoria para Técnica
+        assertEquals("Técnica", padrao.analisar(documento).categoriaDificuldadeAnalisada());
+    }
+
+    private String sentimento(String texto) {
+        return classificador.analisar(new AnaliseIARequisicaoDTO(texto, null, null)).sentimentoAnalisado();
+    }
+
+    private static ClassificadorLexico compilar(String lexico) {
+        try {
+            return ClassificadorLexico.compilar(new StringReader(lexico));
+        } catch (java.io.IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.model.Usuario;
+import com.progress.progress_api.repository.UsuarioRepository;
+import com.progress.progress_api.security.PrincipalCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.HashSet;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CustomUserDetailsServiceTest {
+
+    private static final String EMAIL = "colaborador@empresa.com";
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    @InjectMocks
+    private CustomUserDetailsService service;
+
+    // Configurado como o Spring Boot faz quando há um único UserDetailsPasswordService
+    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(6);
+
+    @Test
+    void hashComCustoMenorERegeradoNoLogin() {
+        Usuario usuario = usuario(new BCryptPasswordEncoder(4).encode("segredo"));
+        when(usuarioRepository.findByEmail(EMAIL)).thenReturn(Optional.of(usuario));
+        when(usuarioRepository.save(any(Usuario.class))).thenAnswer(i -> i.getArgument(0));
+
+        provider().authenticate(new UsernamePasswordAuthenticationToken(EMAIL, "segredo"));
+
+        ArgumentCaptor<Usuario> salvo = ArgumentCaptor.forClass(Usuario.class);
+        verify(usuarioRepository).save(salvo.capture());
+        assertTrue(salvo.getValue().getSenha().startsWith("$2a$06$"), salvo.getValue().getSenha());
+        assertTrue(encoder.matches("segredo", salvo.getValue().getSenha()));
+        verify(principalCache).invalidarAposCommit(EMAIL);
+    }
+
+    @Test
+    void hashNoCustoAtualOuSenhaErradaNaoRegravam() {
+        Usuario usuario = usuario(encoder.encode("segredo"));
+        when(usuarioRepository.findByEmail(EMAIL)).thenReturn(Optional.of(usuario));
+
+        provider().authenticate(new UsernamePasswordAuthenticationToken(EMAIL, "segredo"));
+        usuario.setSenha(new BCryptPasswordEncoder(4).encode("segredo"));
+        assertThrows(BadCredentialsException.class,
+                () -> provider().authenticate(new UsernamePasswordAuthenticationToken(EMAIL, "errada")));
+
+        verify(usuarioRepository, never()).save(any());
+    }
+
+    private DaoAuthenticationProvider provider() {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(service);
+        provider.setPasswordEncoder(encoder);
+        provider.setUserDetailsPasswordService(service);
+        return provider;
+    }
+
+    private static Usuario usuario(String hash) {
+        Usuario usuario = new Usuario();
+        usuario.setEmail(EMAIL);
+        usuario.setSenha(hash);
+        usuario.setRoles(new HashSet<>());
+        return usuario;
+    }
+}
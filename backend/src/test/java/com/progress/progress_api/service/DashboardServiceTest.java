@@ -0,0 +1,130 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.AdminDashboardDTO;
+import com.progress.progress_api.model.PDI.StatusPDI;
+import com.progress.progress_api.repository.FeedbackRepository;
+import com.progress.progress_api.repository.PDIRepository;
+import com.progress.progress_api.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class DashboardServiceTest {
+
+    private static final long LATENCIA_CONSULTA_MS = 10;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private PDIRepository pdiRepository;
+
+    @Mock
+    private FeedbackRepository feedbackRepository;
+
+    @Mock
+    private FeedbackService feedbackService;
+
+    @Mock
+    private DashboardSnapshot dashboardSnapshot;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        // Cada consulta simula uma ida ao banco
+        when(usuarioRepository.count()).thenAnswer(i -> atrasar(10L));
+        when(usuarioRepository.countUsuariosByRole()).thenAnswer(i -> atrasar(
+                List.<Object[]>of(new Object[]{"ROLE_ADMIN", 1L}, new Object[]{"ROLE_COLLABORATOR", 9L})));
+        when(pdiRepository.count()).thenAnswer(i -> atrasar(4L));
+        when(pdiRepository.countPDIsByStatus()).thenAnswer(i -> atrasar(
+                List.<Object[]>of(new Object[]{StatusPDI.EM_ANDAMENTO, 3L}, new Object[]{StatusPDI.ATRASADO, 1L})));
+        when(feedbackRepository.findTop5ByOrderByDataEnvioDesc()).thenAnswer(i -> atrasar(List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dashboardService.encerrar();
+    }
+
+    @Test
+    void modoParaleloRetornaOsMesmosTotaisQueOSequencial() {
+        AdminDashboardDTO sequencial = dashboardService.calcularSequencial();
+        AdminDashboardDTO paralelo = dashboardService.calcularParalelo(1_000);
+
+        assertEquals(sequencial, paralelo);
+        assertEquals(10, paralelo.totalUsuarios());
+        assertEquals(9, paralelo.totalColaboradores());
+        assertEquals(3, paralelo.pdisAtivos());
+        assertEquals(1, paralelo.pdisAtrasados());
+        assertTrue(paralelo.secoesIndisponiveis().isEmpty());
+    }
+
+    @Test
+    void secaoQueEstouraOrcamentoEhSinalizada() {
+        when(feedbackRepository.findTop5ByOrderByDataEnvioDesc()).thenAnswer(i -> {
+            Thread.sleep(2_000);
+            return List.of();
+        });
+
+        long inicio = System.nanoTime();
+        AdminDashboardDTO dto = dashboardService.calcularParalelo(200);
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        assertEquals(List.of(DashboardService.SECAO_FEEDBACKS), dto.secoesIndisponiveis());
+        assertEquals(10, dto.totalUsuarios());
+        assertEquals(4, dto.totalPDIs());
+        assertTrue(duracaoMs < 1_000, "deveria respeitar o orçamento, levou " + duracaoMs + " ms");
+    }
+
+    @Test
+    void consultasDoModoParaleloTemTimeoutDoOrcamentoRestante() {
+        ArgumentCaptor<Object> timeouts = ArgumentCaptor.forClass(Object.class);
+
+        dashboardService.calcularParalelo(300);
+        dashboardService.calcularSequencial();
+
+        verify(jdbcTemplate, times(3)).queryForObject(contains("statement_timeout"), eq(String.class), timeouts.capture());
+        for (Object timeout : timeouts.getAllValues()) {
+            long ms = Long.parseLong(((String) timeout).replace("ms", ""));
+            assertTrue(ms > 0 && ms <= 300, "timeout fora do orçamento: " + timeout);
+        }
+    }
+
+    private static <T> T atrasar(T valor) throws InterruptedException {
+        Thread.sleep(LATENCIA_CONSULTA_MS);
+        return valor;
+    }
+}
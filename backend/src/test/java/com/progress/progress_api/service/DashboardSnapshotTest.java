@@ -0,0 +1,151 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.AdminDashboardDTO;
+import com.progress.progress_api.dto.FeedbackDTO;
+import com.progress.progress_api.model.PDI.StatusPDI;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class DashboardSnapshotTest {
+
+    private final DashboardSnapshot snapshot = new DashboardSnapshot(mock(DashboardStreamService.class));
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void contadoresSoMudamNoCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        snapshot.registrarUsuario(Set.of("ROLE_ADMIN"));
+        snapshot.registrarPDI(StatusPDI.PLANEJADO);
+        // A transação ainda pode ser desfeita: nada aparece no dashboard
+        assertEquals(0, snapshot.montar().totalUsuarios());
+        assertEquals(0, snapshot.montar().totalPDIs());
+
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+
+        AdminDashboardDTO dashboard = snapshot.montar();
+        assertEquals(1, dashboard.totalUsuarios());
+        assertEquals(Map.of("ROLE_ADMIN", 1L), dashboard.usuariosPorPerfil());
+        assertEquals(1, dashboard.totalPDIs());
+        assertEquals(Map.of("PLANEJADO", 1L), dashboard.pdisPorStatus());
+    }
+
+    @Test
+    void rollbackNaoAlteraOsContadores() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        snapshot.registrarUsuario(Set.of("ROLE_ADMIN"));
+        snapshot.registrarPDIs(StatusPDI.PLANEJADO, 3);
+        snapshot.registrarFeedback(feedback(1L));
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        AdminDashboardDTO dashboard = snapshot.montar();
+        assertEquals(0, dashboard.totalUsuarios());
+        assertEquals(0, dashboard.totalPDIs());
+        assertTrue(dashboard.feedbacksRecentes().isEmpty());
+    }
+
+    @Test
+    void alterarStatusPDIMoveEntreAsFaixas() {
+        carregar(0, Map.of(), 2, Map.of("PLANEJADO", 2L));
+
+        snapshot.alterarStatusPDI(StatusPDI.PLANEJADO, StatusPDI.EM_ANDAMENTO);
+        snapshot.alterarStatusPDI(StatusPDI.EM_ANDAMENTO, StatusPDI.EM_ANDAMENTO);
+
+        AdminDashboardDTO dashboard = snapshot.montar();
+        assertEquals(2, dashboard.totalPDIs());
+        // O mesmo status não gera variação; faixas zeradas não aparecem
+        assertEquals(Map.of("PLANEJADO", 1L, "EM_ANDAMENTO", 1L), dashboard.pdisPorStatus());
+
+        snapshot.alterarStatusPDI(StatusPDI.PLANEJADO, StatusPDI.CONCLUIDO);
+        assertEquals(Map.of("EM_ANDAMENTO", 1L, "CONCLUIDO", 1L), snapshot.montar().pdisPorStatus());
+    }
+
+    @Test
+    void carregarSubstituiOsContadores() {
+        snapshot.registrarUsuario(Set.of("ROLE_COLLABORATOR"));
+        snapshot.registrarPDI(StatusPDI.ATRASADO);
+        assertFalse(snapshot.isCarregado());
+
+        carregar(10, Map.of("ROLE_ADMIN", 2L, "ROLE_COLLABORATOR", 8L), 4, Map.of("PLANEJADO", 4L));
+
+        // O desvio acumulado antes da reconciliação some junto com os contadores antigos
+        AdminDashboardDTO dashboard = snapshot.montar();
+        assertTrue(snapshot.isCarregado());
+        assertEquals(10, dashboard.totalUsuarios());
+        assertEquals(Map.of("ROLE_ADMIN", 2L, "ROLE_COLLABORATOR", 8L), dashboard.usuariosPorPerfil());
+        assertEquals(4, dashboard.totalPDIs());
+        assertEquals(Map.of("PLANEJADO", 4L), dashboard.pdisPorStatus());
+    }
+
+    @Test
+    void escritaConfirmadaDuranteAReconciliacaoEReaplicada() {
+        DashboardSnapshot.Reconciliacao reconciliacao = snapshot.iniciarReconciliacao();
+        // As contagens já foram lidas do banco quando o commit acontece
+        snapshot.registrarPDI(StatusPDI.PLANEJADO);
+        snapshot.registrarFeedback(feedback(7L));
+
+        snapshot.carregar(reconciliacao, 1, Map.of("ROLE_ADMIN", 1L), 3, Map.of("PLANEJADO", 3L), List.of(feedback(6L)));
+
+        AdminDashboardDTO dashboard = snapshot.montar();
+        assertEquals(4, dashboard.totalPDIs());
+        assertEquals(Map.of("PLANEJADO", 4L), dashboard.pdisPorStatus());
+        assertEquals(List.of(7L, 6L), dashboard.feedbacksRecentes().stream().map(FeedbackDTO::getId).toList());
+
+        // Depois do carregamento a reconciliação não acumula mais variações
+        snapshot.registrarPDI(StatusPDI.PLANEJADO);
+        assertEquals(5, snapshot.montar().totalPDIs());
+    }
+
+    @Test
+    void feedbackJaLidoPelaReconciliacaoNaoSeRepete() {
+        DashboardSnapshot.Reconciliacao reconciliacao = snapshot.iniciarReconciliacao();
+        snapshot.registrarFeedback(feedback(7L));
+
+        snapshot.carregar(reconciliacao, 0, Map.of(), 0, Map.of(), List.of(feedback(7L), feedback(6L)));
+
+        assertEquals(List.of(7L, 6L), snapshot.montar().feedbacksRecentes().stream().map(FeedbackDTO::getId).toList());
+    }
+
+    @Test
+    void reconciliacaoDescartadaDeixaDeAcumularVariacoes() {
+        DashboardSnapshot.Reconciliacao descartada = snapshot.iniciarReconciliacao();
+        snapshot.descartarReconciliacao(descartada);
+
+        snapshot.registrarUsuario(Set.of("ROLE_ADMIN"));
+
+        // Uma consulta que falhou não deixa a reconciliação guardando variações para sempre
+        assertEquals(List.of(), ReflectionTestUtils.getField(snapshot, "reconciliacoes"));
+        assertEquals(1, snapshot.montar().totalUsuarios());
+    }
+
+    private void carregar(long totalUsuarios, Map<String, Long> usuariosPorPerfil,
+                          long totalPDIs, Map<String, Long> pdisPorStatus) {
+        snapshot.carregar(snapshot.iniciarReconciliacao(), totalUsuarios, usuariosPorPerfil,
+                totalPDIs, pdisPorStatus, List.of());
+    }
+
+    private static FeedbackDTO feedback(Long id) {
+        FeedbackDTO feedback = new FeedbackDTO();
+        feedback.setId(id);
+        return feedback;
+    }
+}
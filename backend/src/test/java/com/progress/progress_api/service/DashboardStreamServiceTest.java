@@ -0,0 +1,156 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.AdminDashboardDTO;
+import com.progress.progress_api.dto.DashboardDeltaDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DashboardStreamServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DashboardStreamService service;
+
+    @AfterEach
+    void tearDown() {
+        service.encerrar();
+    }
+
+    @Test
+    void filaCheiaDesconectaOAssinanteEContaODescarte() throws InterruptedException {
+        EmitterDeTeste emitter = new EmitterDeTeste();
+        service = servico(2, emitter);
+        emitter.bloquear();
+
+        service.inscrever(snapshot());
+        // O snapshot inicial está sendo enviado e o envio está parado no cliente
+        assertTrue(emitter.envioIniciado.await(2, TimeUnit.SECONDS));
+        service.publicarDelta(delta());
+        service.publicarDelta(delta());
+        assertEquals(1, service.totalAssinantes());
+
+        // A fila de dois eventos já está cheia: o terceiro derruba o assinante
+        service.publicarDelta(delta());
+
+        assertEquals(0, service.totalAssinantes());
+        assertTrue(emitter.completo);
+        assertEquals(1.0, meterRegistry.counter("dashboard.stream.assinantes.descartados").count());
+        emitter.liberar();
+    }
+
+    @Test
+    void eventoQueChegaDepoisDoUltimoPollNaoFicaParado() throws InterruptedException {
+        EmitterDeTeste emitter = new EmitterDeTeste();
+        AtomicBoolean armado = new AtomicBoolean(false);
+        service = new DashboardStreamService(60_000, 64, meterRegistry) {
+            @Override
+            SseEmitter criarEmitter(long timeoutMs) {
+                return emitter;
+            }
+
+            @Override
+            <E> Queue<E> criarFila(int capacidade) {
+                DashboardStreamService servico = this;
+                return new ArrayBlockingQueue<>(capacidade) {
+                    @Override
+                    public E poll() {
+                        E evento = super.poll();
+                        if (evento == null && armado.compareAndSet(true, false)) {
+                            // A fila acabou de esvaziar, mas a flag de envio ainda está ligada:
+                            // quem publica agora não dispara outra thread de envio
+                            Thread publicador = Thread.ofVirtual().start(() -> servico.publicarDelta(delta()));
+                            try {
+                                publicador.join();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                        return evento;
+                    }
+                };
+            }
+        };
+        service.inscrever(snapshot());
+        aguardarEnvios(emitter, 1);
+
+        armado.set(true);
+        service.publicarDelta(delta());
+
+        // O delta publicado e o que chegou entre o último poll e a liberação da flag
+        aguardarEnvios(emitter, 3);
+        assertFalse(armado.get());
+    }
+
+    private DashboardStreamService servico(int capacidadeFila, SseEmitter emitter) {
+        return new DashboardStreamService(60_000, capacidadeFila, meterRegistry) {
+            @Override
+            SseEmitter criarEmitter(long timeoutMs) {
+                return emitter;
+            }
+        };
+    }
+
+    private static void aguardarEnvios(EmitterDeTeste emitter, int esperado) throws InterruptedException {
+        long prazo = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (emitter.enviados.get() < esperado) {
+            assertTrue(System.nanoTime() < prazo, () -> "evento " + esperado + " não foi enviado");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static AdminDashboardDTO snapshot() {
+        return AdminDashboardDTO.of(0, Map.of(), 0, Map.of(), List.of(), List.of());
+    }
+
+    private static DashboardDeltaDTO delta() {
+        return new DashboardDeltaDTO(Map.of("totalPDIs", 1L), null);
+    }
+
+    // Emitter sem resposta HTTP: conta os envios e pode segurar o primeiro como um cliente lento
+    private static final class EmitterDeTeste extends SseEmitter {
+        final AtomicInteger enviados = new AtomicInteger();
+        final CountDownLatch envioIniciado = new CountDownLatch(1);
+        private final CountDownLatch liberado = new CountDownLatch(1);
+        private volatile boolean bloqueado;
+        volatile boolean completo;
+
+        void bloquear() {
+            bloqueado = true;
+        }
+
+        void liberar() {
+            liberado.countDown();
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            envioIniciado.countDown();
+            if (bloqueado) {
+                try {
+                    liberado.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            enviados.incrementAndGet();
+        }
+
+        @Override
+        public void complete() {
+            completo = true;
+        }
+    }
+}
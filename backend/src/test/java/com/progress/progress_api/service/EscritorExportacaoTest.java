@@ -0,0 +1,130 @@
+package com.progress.progress_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.progress.progress_api.dto.FeedbackDTO;
+import com.progress.progress_api.dto.LinhaExportacaoPDIDTO;
+import com.progress.progress_api.dto.PDIDTO;
+import com.progress.progress_api.model.Feedback;
+import com.progress.progress_api.model.PDI;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EscritorExportacaoTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void csvEscapaCamposEPreservaOrdemDasColunas() throws Exception {
+        FeedbackDTO dto = feedback(7);
+        dto.setFeedbackTextual("Disse \"ótimo\", mas\nprecisa melhorar");
+        dto.setMetaSugeridaIA(null);
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        long linhas = EscritorExportacao.escreverCsv(Stream.of(dto), List.of(
+                new EscritorExportacao.Coluna<>("id", FeedbackDTO::getId),
+                new EscritorExportacao.Coluna<>("feedbackTextual", FeedbackDTO::getFeedbackTextual),
+                new EscritorExportacao.Coluna<>("metaSugeridaIA", FeedbackDTO::getMetaSugeridaIA)), saida);
+
+        assertEquals(1, linhas);
+        assertEquals("id,feedbackTextual,metaSugeridaIA\r\n7,\"Disse \"\"ótimo\"\", mas\nprecisa melhorar\",\r\n",
+                saida.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void ndjsonEscreveUmObjetoPorLinha() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        long linhas = EscritorExportacao.escreverNdjson(Stream.of(feedback(1), feedback(2)), objectMapper, saida);
+
+        String[] texto = saida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, linhas);
+        assertEquals(2, texto.length);
+        assertEquals(2L, objectMapper.readValue(texto[1], FeedbackDTO.class).getId());
+        assertTrue(texto[0].contains("\"dataEnvio\":\"2026-01-01T10:00:00\""), texto[0]);
+    }
+
+    @Test
+    void agrupaAsMetasConsecutivasDoMesmoPDI() {
+        List<PDIDTO> pdis = ExportacaoService.agruparPorPDI(Stream.of(
+                linhaPDI(1L, 10L), linhaPDI(1L, 11L), linhaPDI(2L, null), linhaPDI(3L, 12L))).toList();
+
+        assertEquals(List.of(1L, 2L, 3L), pdis.stream().map(PDIDTO::getId).toList());
+        assertEquals(2, pdis.get(0).getMetas().size());
+        assertTrue(pdis.get(1).getMetas().isEmpty());
+        assertEquals(12L, pdis.get(2).getMetas().get(0).getId());
+    }
+
+    /**
+     * O escritor não guarda as linhas: enquanto o Stream ainda está sendo lido, os bytes das linhas
+     * anteriores já foram para a saída, com no máximo um buffer de atraso.
+     */
+    @Test
+    void escreveASaidaEnquantoLeAsLinhas() throws Exception {
+        for (FormatoArquivo formato : FormatoArquivo.values()) {
+            int total = 200_000;
+            int intervalo = 20_000;
+            ContadorDeBytes saida = new ContadorDeBytes();
+            List<Long> bytesEscritos = new ArrayList<>();
+            Stream<FeedbackDTO> feedbacks = LongStream.rangeClosed(1, total)
+                    .mapToObj(EscritorExportacaoTest::feedback)
+                    .peek(dto -> {
+                        if (dto.getId() % intervalo == 0) {
+                            bytesEscritos.add(saida.bytes);
+                        }
+                    });
+
+            long linhas = formato == FormatoArquivo.CSV
+                    ? EscritorExportacao.escreverCsv(feedbacks, ExportacaoService.COLUNAS_FEEDBACK, saida)
+                    : EscritorExportacao.escreverNdjson(feedbacks, objectMapper, saida);
+
+            assertEquals(total, linhas);
+            assertEquals(total / intervalo, bytesEscritos.size());
+            assertTrue(bytesEscritos.get(0) > 0, formato + ": nada escrito antes do fim da leitura");
+            for (int i = 1; i < bytesEscritos.size(); i++) {
+                assertTrue(bytesEscritos.get(i) > bytesEscritos.get(i - 1), formato + ": saída parada na amostra " + i);
+            }
+        }
+    }
+
+    private static FeedbackDTO feedback(long id) {
+        return new FeedbackDTO(id, 1L, "Ana Souza", 2L, "Bruno Lima",
+                "Entregou a sprint " + id + " no prazo, com boa comunicação com o time",
+                "Java, SQL", "Estimativas", "Arquitetura", LocalDateTime.of(2026, 1, 1, 10, 0),
+                "Positivo", "Técnica", "Melhorar estimativas", "Curso de Scrum", "Carla",
+                Feedback.StatusAnalise.CONCLUIDA);
+    }
+
+    private static LinhaExportacaoPDIDTO linhaPDI(Long pdiId, Long metaId) {
+        return new LinhaExportacaoPDIDTO(pdiId, 5L, "Ana Souza", "PDI " + pdiId, null,
+                LocalDate.of(2026, 1, 1), null, null, PDI.StatusPDI.EM_ANDAMENTO,
+                metaId, metaId == null ? null : "Meta " + metaId, null, null, metaId == null ? null : false, null, null);
+    }
+
+    // Descarta os bytes, só contando
+    private static class ContadorDeBytes extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
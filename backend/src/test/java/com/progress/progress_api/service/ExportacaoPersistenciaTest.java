@@ -0,0 +1,90 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.FeedbackDTO;
+import com.progress.progress_api.dto.LinhaExportacaoPDIDTO;
+import com.progress.progress_api.repository.FeedbackRepository;
+import com.progress.progress_api.repository.PDIRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exportação lida do banco pelas consultas de streaming do repositório. As linhas são projeções (DTOs),
+ * não entidades: o contexto de persistência não cresce durante a leitura, então não há o que desanexar
+ * (detach/clear) a cada bloco. Se uma consulta passar a devolver entidades, estes testes falham.
+ * Precisa do PostgreSQL: só roda com mvn test -Pintegracao.
+ */
+@Tag("integracao")
+@SpringBootTest(properties = "pdi.progresso.reparar-ao-iniciar=false")
+@Transactional
+class ExportacaoPersistenciaTest {
+
+    private static final int TOTAL = 5_000;
+    private static final LocalDateTime INICIO = LocalDateTime.of(2199, 1, 1, 0, 0);
+
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+
+    @Autowired
+    private PDIRepository pdiRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void streamDeFeedbacksNaoAcumulaEntidadesNoContexto() throws Exception {
+        // Feedbacks num ano em que não há outros, desfeitos no fim do teste
+        Long usuarioId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM usuarios", Long.class);
+        jdbcTemplate.update("INSERT INTO feedbacks (id, autor_id, destinatario_id, feedback_textual, data_envio, " +
+                "status_analise) SELECT nextval('feedbacks_seq'), ?, ?, 'Feedback exportado ' || n, " +
+                "? + n * INTERVAL '1 minute', 'NAO_SOLICITADA' FROM generate_series(1, ?) n",
+                usuarioId, usuarioId, INICIO, TOTAL);
+        ContadorDeEntidades contador = new ContadorDeEntidades();
+
+        long linhas;
+        try (Stream<FeedbackDTO> feedbacks = feedbackRepository.streamParaExportacao(INICIO, INICIO.plusYears(1))) {
+            linhas = EscritorExportacao.escreverCsv(feedbacks.peek(f -> contador.amostrar()),
+                    ExportacaoService.COLUNAS_FEEDBACK, OutputStream.nullOutputStream());
+        }
+
+        assertEquals(TOTAL, linhas);
+        assertEquals(0, contador.maximo, "entidades gerenciadas durante a exportação");
+    }
+
+    @Test
+    void streamDePDIsNaoAcumulaEntidadesNoContexto() throws Exception {
+        ContadorDeEntidades contador = new ContadorDeEntidades();
+
+        try (Stream<LinhaExportacaoPDIDTO> linhas = pdiRepository.streamParaExportacao()) {
+            EscritorExportacao.escreverCsv(linhas.peek(l -> contador.amostrar()), ExportacaoService.COLUNAS_PDI,
+                    OutputStream.nullOutputStream());
+        }
+
+        assertEquals(0, contador.maximo, "entidades gerenciadas durante a exportação");
+    }
+
+    private final class ContadorDeEntidades {
+        int maximo;
+
+        void amostrar() {
+            int gerenciadas = entityManager.unwrap(SessionImplementor.class).getPersistenceContext()
+                    .getNumberOfManagedEntities();
+            maximo = Math.max(maximo, gerenciadas);
+        }
+    }
+}
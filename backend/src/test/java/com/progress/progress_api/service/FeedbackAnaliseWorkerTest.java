@@ -0,0 +1,249 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.FeedbackDTO;
+import com.progress.progress_api.model.AnaliseFeedbackPendente;
+import com.progress.progress_api.model.Feedback;
+import com.progress.progress_api.repository.AnaliseFeedbackPendenteRepository;
+import com.progress.progress_api.repository.FeedbackRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class FeedbackAnaliseWorkerTest {
+
+    private static final long BACKOFF_INICIAL_MS = 2_000;
+    private static final long RESERVA_MS = 120_000;
+
+    @Mock
+    private AnaliseFeedbackPendenteRepository analisePendenteRepository;
+
+    @Mock
+    private FeedbackRepository feedbackRepository;
+
+    @Mock
+    private FeedbackService feedbackService;
+
+    @Mock
+    private GeminiService geminiService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private FeedbackAnaliseWorker worker;
+
+    // Outbox e feedbacks "no banco"
+    private final Map<Long, AnaliseFeedbackPendente> outbox = new HashMap<>();
+    private final Map<Long, Feedback> feedbacks = new HashMap<>();
+
+    // Quantas das próximas transações de escrita falham antes de executar, como um banco fora do ar
+    private int escritasComFalha;
+
+    @BeforeEach
+    void setUp() {
+        worker = new FeedbackAnaliseWorker(1, 20, 3, BACKOFF_INICIAL_MS, 300_000, RESERVA_MS, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(worker, "analisePendenteRepository", analisePendenteRepository);
+        ReflectionTestUtils.setField(worker, "feedbackRepository", feedbackRepository);
+        ReflectionTestUtils.setField(worker, "feedbackService", feedbackService);
+        ReflectionTestUtils.setField(worker, "geminiService", geminiService);
+        ReflectionTestUtils.setField(worker, "transactionTemplate", transactionTemplate);
+
+        when(transactionTemplate.execute(any())).thenAnswer(i -> i.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doAnswer(i -> {
+            if (escritasComFalha > 0) {
+                escritasComFalha--;
+                throw new DataAccessResourceFailureException("conexão perdida");
+            }
+            i.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        when(analisePendenteRepository.findById(anyLong())).thenAnswer(i -> Optional.ofNullable(outbox.get(i.<Long>getArgument(0))));
+        doAnswer(i -> outbox.remove(i.<Long>getArgument(0))).when(analisePendenteRepository).deleteById(anyLong());
+        when(feedbackRepository.findById(anyLong())).thenAnswer(i -> Optional.ofNullable(feedbacks.get(i.<Long>getArgument(0))));
+        when(feedbackService.convertToDTO(any(Feedback.class))).thenAnswer(i -> {
+            FeedbackDTO dto = new FeedbackDTO();
+            dto.setId(i.<Feedback>getArgument(0).getId());
+            return dto;
+        });
+        doAnswer(i -> {
+            i.<FeedbackDTO>getArgument(0).setSentimentoAnalisado("Positivo");
+            return null;
+        }).when(geminiService).analisarFeedbackComIA(any());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        worker.encerrar();
+    }
+
+    @Test
+    void reservaAdiaAProximaTentativaEDespachaOLote() {
+        pendente(1L, 10L);
+        pendente(2L, 20L);
+        when(analisePendenteRepository.reservarPendentes(any(), anyInt())).thenReturn(List.copyOf(outbox.values()));
+
+        worker.processarPendentes();
+
+        // Um pool de uma thread absorve até dois itens; a reserva tira as linhas do alcance de outra instância
+        verify(analisePendenteRepository).reservarPendentes(any(), eq(2));
+        verify(geminiService, timeout(2_000).times(2)).analisarFeedbackComIA(any());
+        verify(analisePendenteRepository, timeout(2_000)).deleteById(1L);
+        verify(analisePendenteRepository, timeout(2_000)).deleteById(2L);
+        assertEquals(Feedback.StatusAnalise.CONCLUIDA, feedbacks.get(10L).getStatusAnalise());
+        assertEquals(Feedback.StatusAnalise.CONCLUIDA, feedbacks.get(20L).getStatusAnalise());
+    }
+
+    @Test
+    void reservaVaiAteOFimDoTempoDeReserva() {
+        AnaliseFeedbackPendente pendente = pendente(1L, 10L);
+        when(analisePendenteRepository.reservarPendentes(any(), anyInt())).thenReturn(List.of(pendente));
+        LocalDateTime antes = LocalDateTime.now();
+
+        worker.processarPendentes();
+
+        assertEntre(antes.plus(Duration.ofMillis(RESERVA_MS)), pendente.getProximaTentativaEm());
+        verify(analisePendenteRepository, timeout(2_000)).deleteById(1L);
+    }
+
+    @Test
+    void sucessoGravaOResultadoERemoveALinhaDaOutbox() {
+        pendente(1L, 10L);
+
+        worker.processar(1L);
+
+        Feedback feedback = feedbacks.get(10L);
+        assertEquals(Feedback.StatusAnalise.CONCLUIDA, feedback.getStatusAnalise());
+        assertEquals("Positivo", feedback.getSentimentoAnalisado());
+        assertFalse(outbox.containsKey(1L));
+    }
+
+    @Test
+    void falhaDaIAReagendaComBackoffExponencialAteDesistir() {
+        AnaliseFeedbackPendente pendente = pendente(1L, 10L);
+        doThrow(new IllegalStateException("cota excedida")).when(geminiService).analisarFeedbackComIA(any());
+
+        LocalDateTime antes = LocalDateTime.now();
+        worker.processar(1L);
+        assertEquals(1, pendente.getTentativas());
+        assertEquals("IllegalStateException: cota excedida", pendente.getUltimoErro());
+        assertEntre(antes.plus(Duration.ofMillis(BACKOFF_INICIAL_MS)), pendente.getProximaTentativaEm());
+
+        antes = LocalDateTime.now();
+        worker.processar(1L);
+        assertEquals(2, pendente.getTentativas());
+        assertEntre(antes.plus(Duration.ofMillis(BACKOFF_INICIAL_MS * 2)), pendente.getProximaTentativaEm());
+        assertEquals(AnaliseFeedbackPendente.Status.PENDENTE, pendente.getStatus());
+
+        // Terceira tentativa de três: a linha fica registrada como FALHOU, junto com o feedback
+        worker.processar(1L);
+        assertEquals(3, pendente.getTentativas());
+        assertEquals(AnaliseFeedbackPendente.Status.FALHOU, pendente.getStatus());
+        assertEquals(Feedback.StatusAnalise.FALHOU, feedbacks.get(10L).getStatusAnalise());
+        assertTrue(outbox.containsKey(1L), "a linha fica para diagnóstico");
+    }
+
+    @Test
+    void falhaAoGravarDepoisDaRespostaDaIAMantemALinhaParaNovaTentativa() {
+        AnaliseFeedbackPendente pendente = pendente(1L, 10L);
+        escritasComFalha = 1;
+
+        worker.processar(1L);
+
+        // A gravação do resultado não aconteceu; a falha foi registrada e a linha será reprocessada
+        assertTrue(outbox.containsKey(1L));
+        assertNull(feedbacks.get(10L).getStatusAnalise());
+        assertEquals(1, pendente.getTentativas());
+        assertTrue(pendente.getUltimoErro().contains("conexão perdida"));
+
+        worker.processar(1L);
+
+        assertFalse(outbox.containsKey(1L));
+        assertEquals(Feedback.StatusAnalise.CONCLUIDA, feedbacks.get(10L).getStatusAnalise());
+        verify(geminiService, times(2)).analisarFeedbackComIA(any());
+    }
+
+    @Test
+    void quedaEntreARespostaDaIAEAGravacaoDeixaALinhaReservada() {
+        AnaliseFeedbackPendente pendente = pendente(1L, 10L);
+        when(analisePendenteRepository.reservarPendentes(any(), anyInt())).thenReturn(List.of(pendente));
+        // Nem o resultado nem a falha chegam ao banco, como se a instância caísse depois da resposta da IA
+        escritasComFalha = 2;
+        LocalDateTime antes = LocalDateTime.now();
+
+        worker.processarPendentes();
+
+        verify(transactionTemplate, timeout(2_000).times(2)).executeWithoutResult(any());
+        verify(analisePendenteRepository, never()).deleteById(anyLong());
+        assertEquals(0, pendente.getTentativas());
+        assertNull(feedbacks.get(10L).getStatusAnalise());
+        // Só a reserva protege a linha: quando expirar, outra reserva a pega de novo
+        assertEntre(antes.plus(Duration.ofMillis(RESERVA_MS)), pendente.getProximaTentativaEm());
+
+        worker.processar(1L);
+
+        assertFalse(outbox.containsKey(1L));
+        assertEquals(Feedback.StatusAnalise.CONCLUIDA, feedbacks.get(10L).getStatusAnalise());
+    }
+
+    @Test
+    void feedbackRemovidoDescartaALinhaSemChamarAIA() {
+        AnaliseFeedbackPendente pendente = new AnaliseFeedbackPendente(99L);
+        pendente.setId(1L);
+        outbox.put(1L, pendente);
+
+        worker.processar(1L);
+
+        verify(analisePendenteRepository).delete(pendente);
+        verify(geminiService, never()).analisarFeedbackComIA(any());
+    }
+
+    private AnaliseFeedbackPendente pendente(Long id, Long feedbackId) {
+        Feedback feedback = new Feedback();
+        feedback.setId(feedbackId);
+        feedbacks.put(feedbackId, feedback);
+        AnaliseFeedbackPendente pendente = new AnaliseFeedbackPendente(feedbackId);
+        pendente.setId(id);
+        outbox.put(id, pendente);
+        return pendente;
+    }
+
+    // O horário calculado fica entre o esperado a partir de "antes" e o esperado a partir de agora
+    private static void assertEntre(LocalDateTime minimo, LocalDateTime valor) {
+        assertFalse(valor.isBefore(minimo), () -> valor + " antes de " + minimo);
+        assertTrue(valor.isBefore(minimo.plusSeconds(5)), () -> valor + " muito depois de " + minimo);
+    }
+}
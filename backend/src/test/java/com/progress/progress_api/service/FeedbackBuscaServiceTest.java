@@ -0,0 +1,75 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.FeedbackDTO;
+import com.progress.progress_api.dto.ResultadoBuscaFeedbackDTO;
+import com.progress.progress_api.model.Feedback;
+import com.progress.progress_api.repository.FeedbackRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FeedbackBuscaServiceTest {
+
+    @Mock
+    private FeedbackRepository feedbackRepository;
+
+    private FeedbackBuscaService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new FeedbackBuscaService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "feedbackRepository", feedbackRepository);
+        for (long id = 1; id <= 6; id++) {
+            // Mesma pontuação para todos: o empate põe os mais recentes primeiro
+            service.indexar(feedback(id, "Entrega fora do prazo"));
+        }
+    }
+
+    @Test
+    void feedbacksRemovidosDoBancoSaoSubstituidosPelosSeguintes() {
+        Set<Long> removidos = Set.of(6L, 5L);
+        when(feedbackRepository.buscarDTOsPorIds(anyList())).thenAnswer(i -> i.<Collection<Long>>getArgument(0).stream()
+                .filter(id -> !removidos.contains(id)).map(FeedbackBuscaServiceTest::dto).toList());
+
+        List<ResultadoBuscaFeedbackDTO> resultados = service.buscar("prazo", 3);
+
+        assertEquals(List.of(4L, 3L, 2L), resultados.stream().map(r -> r.feedback().getId()).toList());
+        // Segunda rodada carrega só os ids que ainda não tinham sido lidos
+        verify(feedbackRepository).buscarDTOsPorIds(List.of(6L, 5L, 4L));
+        verify(feedbackRepository).buscarDTOsPorIds(List.of(3L, 2L));
+        verify(feedbackRepository, times(2)).buscarDTOsPorIds(anyList());
+
+        // Os removidos saíram do índice: a próxima busca completa a página numa rodada só
+        assertEquals(List.of(4L, 3L, 2L), service.buscar("prazo", 3).stream().map(r -> r.feedback().getId()).toList());
+        verify(feedbackRepository, times(3)).buscarDTOsPorIds(anyList());
+    }
+
+    private static Feedback feedback(long id, String texto) {
+        Feedback feedback = new Feedback();
+        feedback.setId(id);
+        feedback.setFeedbackTextual(texto);
+        return feedback;
+    }
+
+    private static FeedbackDTO dto(long id) {
+        FeedbackDTO dto = new FeedbackDTO();
+        dto.setId(id);
+        dto.setFeedbackTextual("prazo " + id);
+        return dto;
+    }
+}
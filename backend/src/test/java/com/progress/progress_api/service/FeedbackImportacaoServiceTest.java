@@ -0,0 +1,107 @@
+package com.progress.progress_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.progress.progress_api.dto.ResultadoImportacaoDTO;
+import com.progress.progress_api.model.Feedback;
+import com.progress.progress_api.model.Usuario;
+import com.progress.progress_api.repository.UsuarioRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class FeedbackImportacaoServiceTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private FeedbackBuscaService feedbackBuscaService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private FeedbackImportacaoService service;
+
+    // Feedbacks persistidos na transação corrente e os que chegaram a ser gravados
+    private final List<Feedback> pendentes = new ArrayList<>();
+    private final List<String> gravados = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        when(usuarioRepository.findIdsExistentes(anyCollection())).thenReturn(List.of(1L, 2L));
+        when(usuarioRepository.getReferenceById(anyLong())).thenReturn(new Usuario());
+        doAnswer(i -> {
+            if (i.getArgument(0) instanceof Feedback feedback) {
+                pendentes.add(feedback);
+            }
+            return null;
+        }).when(entityManager).persist(any());
+        // O flush falha se a transação tem um feedback "ruim", como uma violação de constraint no banco
+        doAnswer(i -> {
+            if (pendentes.stream().anyMatch(f -> f.getFeedbackTextual().startsWith("ruim"))) {
+                throw new PersistenceException("valor muito longo");
+            }
+            return null;
+        }).when(entityManager).flush();
+        doAnswer(i -> {
+            pendentes.forEach(f -> gravados.add(f.getFeedbackTextual()));
+            pendentes.clear();
+            return null;
+        }).when(entityManager).clear();
+        // Cada execução é uma transação nova: o que ficou pendente de uma transação que falhou é descartado
+        doAnswer(i -> {
+            pendentes.clear();
+            i.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void falhaAoGravarUmaLinhaNaoRejeitaORestoDoLote() throws Exception {
+        String arquivo = String.join("\n",
+                linha("ok 1"), linha("ruim 2"), linha("ok 3"), linha("ok 4"), linha("ruim 5"), linha("ok 6"));
+
+        ResultadoImportacaoDTO resultado = service.importar(
+                new ByteArrayInputStream(arquivo.getBytes(StandardCharsets.UTF_8)), FormatoArquivo.NDJSON, false);
+
+        assertEquals(4, resultado.importados());
+        assertEquals(2, resultado.rejeitados());
+        assertEquals(List.of("ok 1", "ok 3", "ok 4", "ok 6"), gravados);
+        assertEquals(List.of(2L, 5L), resultado.erros().stream().map(ResultadoImportacaoDTO.ErroLinha::linha).toList());
+        assertTrue(resultado.erros().get(0).mensagem().contains("valor muito longo"));
+    }
+
+    private static String linha(String texto) {
+        return "{\"autorId\":1,\"destinatarioId\":2,\"feedbackTextual\":\"" + texto + "\"}";
+    }
+}
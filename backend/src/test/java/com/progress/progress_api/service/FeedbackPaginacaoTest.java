@@ -0,0 +1,116 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.FeedbackDTO;
+import com.progress.progress_api.dto.PaginaFeedbackDTO;
+import com.progress.progress_api.model.Feedback;
+import com.progress.progress_api.model.Usuario;
+import com.progress.progress_api.repository.FeedbackRepository;
+import com.progress.progress_api.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Paginação por cursor de feedbacks contra o banco configurado, incluindo empates em dataEnvio.
+ * Cada teste roda numa transação desfeita no final. Precisa do PostgreSQL: só roda com mvn test -Pintegracao.
+ */
+@Tag("integracao")
+@SpringBootTest(properties = "pdi.progresso.reparar-ao-iniciar=false")
+@Transactional
+class FeedbackPaginacaoTest {
+
+    private static final LocalDateTime DATA = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private FeedbackService feedbackService;
+
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    private Usuario autor;
+    private Usuario destinatario;
+    private Usuario outroDestinatario;
+
+    @BeforeEach
+    void setUp() {
+        autor = usuario("autor");
+        destinatario = usuario("destinatario");
+        outroDestinatario = usuario("outro");
+    }
+
+    @Test
+    void empatesEmDataEnvioSaoDesempatadosPeloId() {
+        // Cinco feedbacks com o mesmo dataEnvio e um mais antigo: as páginas cortam no meio do empate
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(feedback(destinatario, DATA, null).getId());
+        }
+        Long maisAntigo = feedback(destinatario, DATA.minusDays(1), null).getId();
+
+        List<Long> lidos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            PaginaFeedbackDTO pagina = feedbackService.listarFeedbacks(autor.getId(), null, null, cursor, 2);
+            pagina.itens().forEach(f -> lidos.add(f.getId()));
+            cursor = pagina.proximoCursor();
+            paginas++;
+        } while (cursor != null);
+
+        List<Long> esperado = new ArrayList<>(ids);
+        esperado.sort(Comparator.reverseOrder());
+        esperado.add(maisAntigo);
+        assertEquals(esperado, lidos, "sem repetir nem pular itens empatados");
+        assertEquals(3, paginas);
+    }
+
+    @Test
+    void filtrosPorAutorDestinatarioESentimento() {
+        Long positivo = feedback(destinatario, DATA, "Positivo").getId();
+        Long negativo = feedback(destinatario, DATA, "Negativo").getId();
+        Long paraOutro = feedback(outroDestinatario, DATA, "Positivo").getId();
+
+        assertEquals(List.of(paraOutro, negativo, positivo), idsDe(autor.getId(), null, null));
+        assertEquals(List.of(negativo, positivo), idsDe(null, destinatario.getId(), null));
+        assertEquals(List.of(positivo), idsDe(autor.getId(), destinatario.getId(), "Positivo"));
+        assertEquals(List.of(paraOutro), idsDe(null, outroDestinatario.getId(), "Positivo"));
+    }
+
+    private List<Long> idsDe(Long autorId, Long destinatarioId, String sentimento) {
+        return feedbackService.listarFeedbacks(autorId, destinatarioId, sentimento, null, 100).itens().stream()
+                .map(FeedbackDTO::getId)
+                .toList();
+    }
+
+    private Feedback feedback(Usuario para, LocalDateTime dataEnvio, String sentimento) {
+        Feedback feedback = new Feedback();
+        feedback.setAutor(autor);
+        feedback.setDestinatario(para);
+        feedback.setFeedbackTextual("Feedback do teste de paginação");
+        feedback.setDataEnvio(dataEnvio);
+        feedback.setSentimentoAnalisado(sentimento);
+        return feedbackRepository.saveAndFlush(feedback);
+    }
+
+    private Usuario usuario(String nome) {
+        Usuario usuario = new Usuario();
+        usuario.setNome("Usuário " + nome + " do teste de paginação");
+        usuario.setEmail("paginacao-" + nome + "-" + System.nanoTime() + "@teste.local");
+        usuario.setSenha("x");
+        return usuarioRepository.saveAndFlush(usuario);
+    }
+}
@@ -0,0 +1,101 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.FeedbackDTO;
+import com.progress.progress_api.dto.PaginaFeedbackDTO;
+import com.progress.progress_api.repository.FeedbackRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class FeedbackServiceTest {
+
+    private static final LocalDateTime DATA = LocalDateTime.of(2026, 3, 10, 14, 30, 15, 123_000_000);
+
+    @Mock
+    private FeedbackRepository feedbackRepository;
+
+    @InjectMocks
+    private FeedbackService feedbackService;
+
+    @Test
+    void paginaCheiaDevolveOCursorDoUltimoItemEOCursorVoltaParaOBanco() {
+        // O repositório recebe limite + 1: o item extra só indica que há próxima página
+        when(feedbackRepository.buscarPagina(isNull(), eq(Long.MAX_VALUE), any(), any(), any(), eq(4)))
+                .thenReturn(feedbacks(10, 9, 8, 7));
+
+        PaginaFeedbackDTO primeira = feedbackService.listarFeedbacks(null, null, null, null, 3);
+
+        assertEquals(List.of(10L, 9L, 8L), primeira.itens().stream().map(FeedbackDTO::getId).toList());
+        assertNotNull(primeira.proximoCursor());
+
+        when(feedbackRepository.buscarPagina(eq(DATA), eq(8L), any(), any(), any(), eq(4)))
+                .thenReturn(feedbacks(7));
+        PaginaFeedbackDTO segunda = feedbackService.listarFeedbacks(null, null, null, primeira.proximoCursor(), 3);
+
+        assertEquals(List.of(7L), segunda.itens().stream().map(FeedbackDTO::getId).toList());
+        assertNull(segunda.proximoCursor(), "última página não tem cursor");
+    }
+
+    @Test
+    void cursorMalformadoERejeitadoSemConsultarOBanco() {
+        List<String> invalidos = List.of(
+                "%%%",                                                   // não é Base64
+                cursor("2026-03-10T14:30"),                              // sem o id
+                cursor("2026-03-10T14:30|8|9"),                          // partes a mais
+                cursor("ontem|8"),                                       // data inválida
+                cursor("2026-03-10T14:30|oito"));                        // id inválido
+
+        for (String invalido : invalidos) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> feedbackService.listarFeedbacks(null, null, null, invalido, 20), invalido);
+        }
+        verify(feedbackRepository, never()).buscarPagina(any(), anyLong(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void filtrosSaoRepassadosAoRepositorio() {
+        when(feedbackRepository.buscarPagina(any(), anyLong(), any(), any(), any(), anyInt())).thenReturn(List.of());
+
+        feedbackService.listarFeedbacks(1L, 2L, "Positivo", null, 20);
+        verify(feedbackRepository).buscarPagina(null, Long.MAX_VALUE, 1L, 2L, "Positivo", 21);
+
+        // Sentimento em branco equivale a não filtrar
+        feedbackService.listarFeedbacks(null, 2L, " ", null, 20);
+        verify(feedbackRepository).buscarPagina(null, Long.MAX_VALUE, null, 2L, null, 21);
+    }
+
+    private static List<FeedbackDTO> feedbacks(long... ids) {
+        return LongStream.of(ids).mapToObj(id -> {
+            FeedbackDTO dto = new FeedbackDTO();
+            dto.setId(id);
+            dto.setDataEnvio(DATA);
+            return dto;
+        }).toList();
+    }
+
+    private static String cursor(String conteudo) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+}
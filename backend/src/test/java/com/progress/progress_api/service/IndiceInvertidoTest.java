@@ -0,0 +1,106 @@
+package com.progress.progress_api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceInvertidoTest {
+
+    @Test
+    void ignoraAcentosECaixa() {
+        IndiceInvertido indice = new IndiceInvertido();
+        indice.adicionar(1, "Comunicação difícil com o time", null, null);
+        indice.adicionar(2, "Entrega no prazo", "Organização", null);
+
+        assertEquals(List.of(1), ids(indice.buscar("COMUNICACAO", 10)));
+        assertEquals(List.of(1), ids(indice.buscar("dificil", 10)));
+        assertEquals(List.of(2), ids(indice.buscar("organizacao", 10)));
+        assertTrue(indice.buscar("de o a", 10).isEmpty(), "stopwords não deveriam casar");
+    }
+
+    @Test
+    void documentoComMaisTermosDaConsultaVemPrimeiro() {
+        IndiceInvertido indice = new IndiceInvertido();
+        indice.adicionar(1, "prazo apertado", null, null);
+        indice.adicionar(2, "comunicação e prazo apertado na entrega", null, null);
+        indice.adicionar(3, "comunicação", null, null);
+
+        List<Integer> resultado = ids(indice.buscar("comunicação prazo", 10));
+        assertEquals(2, resultado.get(0));
+        assertEquals(Set.of(1, 2, 3), Set.copyOf(resultado));
+    }
+
+    @Test
+    void aceitaIdsForaDeOrdemERemocoes() {
+        IndiceInvertido indice = new IndiceInvertido();
+        indice.adicionar(10, "feedback sobre liderança", null, null);
+        indice.adicionar(300, "liderança técnica", null, null);
+        indice.adicionar(5, "liderança de reuniões", null, null);
+        indice.adicionar(150, "liderança", null, null);
+
+        assertEquals(Set.of(5, 10, 150, 300), Set.copyOf(ids(indice.buscar("lideranca", 10))));
+
+        indice.remover(10);
+        assertEquals(Set.of(5, 150, 300), Set.copyOf(ids(indice.buscar("lideranca", 10))));
+        assertEquals(3, indice.totalDocumentos());
+    }
+
+    @Test
+    void varintIdaEVolta() {
+        byte[] buffer = new byte[5];
+        int[] lido = new int[1];
+        for (int valor : new int[]{0, 1, 127, 128, 16_383, 16_384, Integer.MAX_VALUE}) {
+            int fim = IndiceInvertido.escreverVarint(buffer, 0, valor);
+            assertEquals(fim, IndiceInvertido.lerVarint(buffer, 0, lido));
+            assertEquals(valor, lido[0]);
+        }
+    }
+
+    @Test
+    void destaqueEscapaHtmlEMarcaOsTermos() {
+        List<String> destaques = new ArrayList<>();
+        FeedbackBuscaService.adicionarDestaque(destaques, "Foi <b>difícil</b> manter a Comunicação",
+                Set.of("dificil", "comunicacao"));
+
+        assertEquals(List.of("Foi &lt;b&gt;<mark>difícil</mark>&lt;/b&gt; manter a <mark>Comunicação</mark>"), destaques);
+    }
+
+    /**
+     * Corpus sintético com termos de frequência enviesada. Cada posting guarda docId e frequência; em
+     * delta + varint, o total fica abaixo de 4 bytes por ocorrência de termo (um único int sem compressão).
+     */
+    @Test
+    void indiceCompactoComCorpusGrande() {
+        String[] vocabulario = new String[2_000];
+        for (int i = 0; i < vocabulario.length; i++) {
+            vocabulario[i] = "termo" + i;
+        }
+        Random random = new Random(42);
+        IndiceInvertido indice = new IndiceInvertido();
+        int documentos = 50_000;
+        for (int doc = 1; doc <= documentos; doc++) {
+            StringBuilder texto = new StringBuilder();
+            for (int palavra = 0; palavra < 30; palavra++) {
+                // Distribuição enviesada: poucos termos muito frequentes, muitos raros
+                int indiceTermo = (int) (vocabulario.length * Math.pow(random.nextDouble(), 3));
+                texto.append(vocabulario[indiceTermo]).append(' ');
+            }
+            indice.adicionar(doc, texto.toString(), null, null);
+        }
+
+        assertEquals(documentos, indice.totalDocumentos());
+        assertEquals(vocabulario.length, indice.totalTermosDistintos());
+        assertTrue(indice.bytesPostings() < documentos * 30L * 4,
+                "postings ocupam " + indice.bytesPostings() + " bytes");
+        assertEquals(20, indice.buscar(vocabulario[0], 20).size());
+    }
+
+    private static List<Integer> ids(List<IndiceInvertido.Resultado> resultados) {
+        return resultados.stream().map(IndiceInvertido.Resultado::docId).toList();
+    }
+}
@@ -0,0 +1,38 @@
+package com.progress.progress_api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeitorCsvTest {
+
+    @Test
+    void leCamposEntreAspasComVirgulaQuebraDeLinhaEAspas() throws IOException {
+        LeitorCsv csv = new LeitorCsv(new StringReader(
+                "a,b,c\r\n1,\"x, y\",\"linha 1\nlinha 2\"\n\n2,\"diz \"\"oi\"\"\",\n"), ',');
+
+        assertEquals(List.of("a", "b", "c"), csv.proximoRegistro());
+        assertEquals(1, csv.linhaDoRegistro());
+
+        assertEquals(List.of("1", "x, y", "linha 1\nlinha 2"), csv.proximoRegistro());
+        assertEquals(2, csv.linhaDoRegistro());
+
+        assertEquals(List.of("2", "diz \"oi\"", ""), csv.proximoRegistro());
+        assertEquals(5, csv.linhaDoRegistro(), "a linha vazia e a quebra dentro das aspas contam");
+
+        assertNull(csv.proximoRegistro());
+    }
+
+    @Test
+    void ultimoRegistroSemQuebraDeLinha() throws IOException {
+        LeitorCsv csv = new LeitorCsv(new StringReader("a;b\n1;2"), ';');
+
+        assertEquals(List.of("a", "b"), csv.proximoRegistro());
+        assertEquals(List.of("1", "2"), csv.proximoRegistro());
+        assertNull(csv.proximoRegistro());
+    }
+}
@@ -0,0 +1,86 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.repository.PDIRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PDIAtrasoServiceTest {
+
+    @Mock
+    private PDIRepository pdiRepository;
+
+    @Mock
+    private TravaJobService travaJobService;
+
+    @Mock
+    private DashboardService dashboardService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private PDIAtrasoService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PDIAtrasoService(100, 600_000, 30_000, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "pdiRepository", pdiRepository);
+        ReflectionTestUtils.setField(service, "travaJobService", travaJobService);
+        ReflectionTestUtils.setField(service, "dashboardService", dashboardService);
+        ReflectionTestUtils.setField(service, "transactionTemplate", transactionTemplate);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void marcaEmLotesAteSobrarMenosQueUmLote() {
+        when(travaJobService.adquirir(eq(PDIAtrasoService.JOB), any(), any())).thenReturn(true);
+        when(pdiRepository.marcarAtrasados(any(), any(), eq(100))).thenReturn(100, 100, 37);
+
+        service.executar();
+
+        verify(pdiRepository, times(3)).marcarAtrasados(any(), any(), eq(100));
+        verify(travaJobService).liberar(eq(PDIAtrasoService.JOB), any(), any(), eq(237L), anyLong());
+        verify(dashboardService).reconciliar();
+    }
+
+    @Test
+    void naoExecutaSemATrava() {
+        when(travaJobService.adquirir(eq(PDIAtrasoService.JOB), any(), any())).thenReturn(false);
+
+        service.executar();
+
+        verify(pdiRepository, never()).marcarAtrasados(any(), any(), eq(100));
+        verify(travaJobService, never()).liberar(any(), any(), any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void liberaATravaMesmoQuandoOUpdateFalha() {
+        when(travaJobService.adquirir(eq(PDIAtrasoService.JOB), any(), any())).thenReturn(true);
+        when(pdiRepository.marcarAtrasados(any(), any(), eq(100))).thenThrow(new IllegalStateException("banco fora"));
+
+        assertThrows(IllegalStateException.class, () -> service.executar());
+
+        verify(travaJobService).liberar(eq(PDIAtrasoService.JOB), any(), any(), eq(0L), anyLong());
+        verify(dashboardService, never()).reconciliar();
+    }
+}
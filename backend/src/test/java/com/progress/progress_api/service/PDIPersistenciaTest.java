@@ -0,0 +1,109 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.MetaPDIDTO;
+import com.progress.progress_api.dto.PDIDTO;
+import com.progress.progress_api.model.PDI;
+import com.progress.progress_api.model.Usuario;
+import com.progress.progress_api.repository.UsuarioRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Instruções SQL por PDI salvo, contadas pelas estatísticas do Hibernate contra o banco configurado.
+ * Cada teste roda numa transação desfeita no final. Precisa do PostgreSQL: só roda com mvn test -Pintegracao.
+ */
+@Tag("integracao")
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "pdi.progresso.reparar-ao-iniciar=false"
+})
+@Transactional
+class PDIPersistenciaTest {
+
+    private static final int METAS_POR_PDI = 10;
+
+    @Autowired
+    private PDIService pdiService;
+
+    @Autowired
+    private PDIProvisionamentoService provisionamentoService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics estatisticas;
+    private Long colaboradorId;
+
+    @BeforeEach
+    void setUp() {
+        Usuario colaborador = new Usuario();
+        colaborador.setNome("Colaborador do teste de persistência");
+        colaborador.setEmail("persistencia-" + System.nanoTime() + "@teste.local");
+        colaborador.setSenha("x");
+        colaboradorId = usuarioRepository.saveAndFlush(colaborador).getId();
+        estatisticas = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void salvarUmPDIComMetasUsaUmInsertEmLotePorTabela() {
+        pdiService.criarPDI(novoPDI(0)); // Aloca os blocos de ids das sequences
+        entityManager.flush();
+        estatisticas.clear();
+
+        pdiService.criarPDI(novoPDI(1));
+        entityManager.flush();
+
+        long instrucoes = estatisticas.getPrepareStatementCount();
+        assertEquals(1 + METAS_POR_PDI, estatisticas.getEntityInsertCount());
+        assertEquals(0, estatisticas.getEntityUpdateCount());
+        assertEquals(2, instrucoes, "um insert em pdis e um insert em lote em metas_pdi");
+    }
+
+    @Test
+    void provisionamentoNumaSequenceNovaComecaNoId1() {
+        // DDL transacional: a sequence some no rollback do teste
+        jdbcTemplate.execute("CREATE TEMPORARY SEQUENCE provisionamento_teste_seq INCREMENT BY " + PDI.BLOCO_IDS);
+
+        List<Long> ids = provisionamentoService.reservarIds("provisionamento_teste_seq", 60);
+
+        assertEquals(LongStream.rangeClosed(1, 60).boxed().toList(), ids);
+        assertEquals(101L + PDI.BLOCO_IDS, jdbcTemplate.queryForObject(
+                "SELECT nextval('provisionamento_teste_seq')", Long.class), "blocos 1, 51 e 101 consumidos");
+    }
+
+    private PDIDTO novoPDI(int numero) {
+        PDIDTO pdi = new PDIDTO();
+        pdi.setColaboradorId(colaboradorId);
+        pdi.setTitulo("PDI de persistência " + numero);
+        List<MetaPDIDTO> metas = new ArrayList<>();
+        for (int i = 0; i < METAS_POR_PDI; i++) {
+            MetaPDIDTO meta = new MetaPDIDTO();
+            meta.setDescricaoMeta("Meta " + i);
+            meta.setConcluida(i % 2 == 0);
+            metas.add(meta);
+        }
+        pdi.setMetas(metas);
+        return pdi;
+    }
+}
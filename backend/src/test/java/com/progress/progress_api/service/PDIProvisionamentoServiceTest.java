@@ -0,0 +1,164 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.MetaPDIDTO;
+import com.progress.progress_api.dto.PerfilColaboradorDTO;
+import com.progress.progress_api.dto.ProvisionamentoPDIDTO;
+import com.progress.progress_api.dto.ResultadoProvisionamentoDTO;
+import com.progress.progress_api.dto.ResultadoProvisionamentoDTO.Situacao;
+import com.progress.progress_api.model.PDI;
+import com.progress.progress_api.model.PDI.StatusPDI;
+import com.progress.progress_api.repository.PDIRepository;
+import com.progress.progress_api.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PDIProvisionamentoServiceTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private PDIRepository pdiRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private DashboardSnapshot dashboardSnapshot;
+
+    @InjectMocks
+    private PDIProvisionamentoService service;
+
+    private final AtomicLong sequence = new AtomicLong(100);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "tamanhoLote", 2);
+        when(transactionTemplate.execute(any())).thenAnswer(i -> i.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        // Sequence em blocos: cada nextval devolve o fim de um bloco de PDI.BLOCO_IDS ids
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), anyString(), anyInt())).thenAnswer(i -> LongStream
+                .range(0, i.<Integer>getArgument(3)).mapToObj(n -> sequence.addAndGet(PDI.BLOCO_IDS)).toList());
+        when(pdiRepository.findColaboradoresComPDIAberto(anyCollection(), anyString(), anyCollection())).thenReturn(List.of());
+    }
+
+    @Test
+    void criaOsPDIsEmLotesEIgnoraQuemJaTemOPDIAberto() {
+        when(usuarioRepository.buscarPerfisPorIds(anyCollection())).thenReturn(
+                List.of(perfil(1L), perfil(2L), perfil(3L), perfil(4L)));
+        when(pdiRepository.findColaboradoresComPDIAberto(anyCollection(), eq("Liderança"), anyCollection()))
+                .thenReturn(List.of(2L));
+        MetaPDIDTO concluida = meta("Mentoria");
+        concluida.setConcluida(true);
+
+        ResultadoProvisionamentoDTO resultado = service.provisionar(modelo(List.of(meta("Curso"), concluida),
+                List.of(1L, 2L, 3L, 9L, 4L, 1L)));
+
+        assertEquals(5, resultado.colaboradores());
+        assertEquals(3, resultado.criados());
+        assertEquals(2, resultado.ignorados());
+        assertEquals(List.of(Situacao.NAO_ENCONTRADO, Situacao.CRIADO, Situacao.JA_POSSUI_PDI_ABERTO, Situacao.CRIADO,
+                Situacao.CRIADO), resultado.itens().stream().map(ResultadoProvisionamentoDTO.Item::situacao).toList());
+        assertEquals(101L, resultado.itens().get(1).pdiId());
+
+        // Dois lotes: um batch de PDIs e um de metas em cada
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> linhas = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(4)).batchUpdate(anyString(), linhas.capture(), any(int[].class));
+        Object[] pdi = linhas.getAllValues().get(0).get(0);
+        assertEquals(List.of(101L, 1L, "Liderança"), List.of(pdi[0], pdi[1], pdi[2]));
+        assertEquals(List.of(2, 1, 50), List.of(pdi[9], pdi[10], pdi[11]));
+        Object[] primeiraMeta = linhas.getAllValues().get(1).get(0);
+        assertEquals(2, linhas.getAllValues().get(1).size(), "duas metas do único PDI criado no primeiro lote");
+        assertEquals(List.of(151L, 101L), List.of(primeiraMeta[0], primeiraMeta[1]), "id da meta reservado em outro bloco");
+        verify(dashboardSnapshot).registrarPDIs(StatusPDI.PLANEJADO, 1L);
+        verify(dashboardSnapshot).registrarPDIs(StatusPDI.PLANEJADO, 2L);
+    }
+
+    @Test
+    void falhaDeUmLoteNaoInterrompeOsDemais() {
+        when(usuarioRepository.buscarPerfisPorAreaECargo(eq(true), eq("TI"), eq(false), eq(""), any()))
+                .thenReturn(List.of(perfil(1L), perfil(2L), perfil(3L)));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class)))
+                .thenThrow(new DataIntegrityViolationException("erro", new RuntimeException("violação")))
+                .thenReturn(new int[]{1});
+
+        ProvisionamentoPDIDTO modelo = new ProvisionamentoPDIDTO("Liderança", null, null, null, List.of(),
+                "TI", null, null);
+        ResultadoProvisionamentoDTO resultado = service.provisionar(modelo);
+
+        assertEquals(2, resultado.falhas());
+        assertEquals(1, resultado.criados());
+        assertTrue(resultado.itens().get(0).mensagem().contains("violação"));
+        verify(dashboardSnapshot, times(1)).registrarPDIs(any(), anyLong());
+    }
+
+    @Test
+    void sequenceNovaNaoEntregaIdsMenoresQueUm() {
+        sequence.set(1 - PDI.BLOCO_IDS); // Primeiro nextval devolve o valor inicial, 1
+
+        List<Long> ids = service.reservarIds(PDI.SEQUENCIA, 60);
+
+        assertEquals(LongStream.rangeClosed(1, 60).boxed().toList(), ids);
+        verify(jdbcTemplate, times(2)).queryForList(anyString(), eq(Long.class), eq(PDI.SEQUENCIA), anyInt());
+    }
+
+    @Test
+    void selecaoEModeloInvalidosSaoRejeitados() {
+        assertThrows(IllegalArgumentException.class, () -> service.provisionar(modelo(List.of(), List.of())));
+        assertThrows(IllegalArgumentException.class, () -> service.provisionar(
+                new ProvisionamentoPDIDTO("Liderança", null, null, null, null, "TI", null, List.of(1L))));
+        assertThrows(IllegalArgumentException.class, () -> service.provisionar(modelo(List.of(meta(" ")), List.of(1L))));
+
+        ReflectionTestUtils.setField(service, "maxColaboradores", 2);
+        assertThrows(IllegalArgumentException.class, () -> service.provisionar(modelo(List.of(), List.of(1L, 2L, 3L))));
+        verify(usuarioRepository, never()).buscarPerfisPorIds(anyCollection());
+    }
+
+    private static ProvisionamentoPDIDTO modelo(List<MetaPDIDTO> metas, List<Long> colaboradorIds) {
+        return new ProvisionamentoPDIDTO("Liderança", "Trilha", null, null, metas, null, null, colaboradorIds);
+    }
+
+    private static PerfilColaboradorDTO perfil(Long id) {
+        return new PerfilColaboradorDTO(id, "Colaborador " + id, "Analista", "TI");
+    }
+
+    private static MetaPDIDTO meta(String descricao) {
+        MetaPDIDTO dto = new MetaPDIDTO();
+        dto.setDescricaoMeta(descricao);
+        return dto;
+    }
+}
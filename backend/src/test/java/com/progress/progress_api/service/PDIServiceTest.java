@@ -0,0 +1,186 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.MetaPDIDTO;
+import com.progress.progress_api.dto.PDIDTO;
+import com.progress.progress_api.dto.PaginaDTO;
+import com.progress.progress_api.model.MetaPDI;
+import com.progress.progress_api.model.PDI;
+import com.progress.progress_api.model.PDI.StatusPDI;
+import com.progress.progress_api.model.Usuario;
+import com.progress.progress_api.repository.PDIRepository;
+import com.progress.progress_api.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PDIServiceTest {
+
+    @Mock
+    private PDIRepository pdiRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private DashboardSnapshot dashboardSnapshot;
+
+    @InjectMocks
+    private PDIService pdiService;
+
+    @Test
+    void paginaPorCursorECarregaAsMetasDeUmaVez() {
+        when(pdiRepository.buscarPagina(any(), any(), any(), any(), any(), any(), any(), anyInt()))
+                .thenAnswer(i -> pdisAbaixoDe(i.getArgument(0), i.getArgument(7)));
+        when(pdiRepository.buscarMetasPorPDIs(anyCollection())).thenAnswer(i -> {
+            List<Object[]> linhas = new ArrayList<>();
+            for (Long pdiId : i.<Collection<Long>>getArgument(0)) {
+                linhas.add(new Object[]{pdiId, meta(pdiId * 10, "Meta do PDI " + pdiId)});
+            }
+            return linhas;
+        });
+        PDIService.Filtros semFiltros = new PDIService.Filtros(null, null, null, null, null, null);
+
+        PaginaDTO<PDIDTO> primeira = pdiService.listarPDIs(semFiltros, PDIService.Ordenacao.RECENTES, null, 2);
+        assertEquals(List.of(5L, 4L), primeira.itens().stream().map(PDIDTO::getId).toList());
+        assertEquals("Meta do PDI 4", primeira.itens().get(1).getMetas().get(0).getDescricaoMeta());
+        assertNotNull(primeira.proximoCursor());
+
+        PaginaDTO<PDIDTO> segunda = pdiService.listarPDIs(semFiltros, PDIService.Ordenacao.RECENTES, primeira.proximoCursor(), 2);
+        assertEquals(List.of(3L, 2L), segunda.itens().stream().map(PDIDTO::getId).toList());
+
+        PaginaDTO<PDIDTO> ultima = pdiService.listarPDIs(semFiltros, PDIService.Ordenacao.RECENTES, segunda.proximoCursor(), 2);
+        assertEquals(List.of(1L), ultima.itens().stream().map(PDIDTO::getId).toList());
+        assertNull(ultima.proximoCursor());
+
+        // Uma consulta de metas por página, não uma por PDI
+        verify(pdiRepository, times(3)).buscarMetasPorPDIs(anyCollection());
+    }
+
+    @Test
+    void filtrosNulosFicamForaDaConsultaECursorInvalidoERejeitado() {
+        when(pdiRepository.buscarPagina(any(), any(), any(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of());
+
+        pdiService.listarPDIs(new PDIService.Filtros(7L, null, LocalDate.of(2026, 1, 1), null, 50, null),
+                PDIService.Ordenacao.RECENTES, null, 10);
+        verify(pdiRepository).buscarPagina(null, 7L, null, LocalDate.of(2026, 1, 1), null, 50, null, 11);
+
+        assertThrows(IllegalArgumentException.class, () -> pdiService.listarPDIs(
+                new PDIService.Filtros(null, null, null, null, null, null), PDIService.Ordenacao.RECENTES, "nao-e-um-cursor", 10));
+    }
+
+    @Test
+    void ordenacaoPorProgressoContinuaDoProgressoEIdDoUltimoItem() {
+        when(pdiRepository.buscarPaginaPorProgresso(any(), any(), any(), any(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of(pdi(8L, 0), pdi(3L, 50), pdi(4L, 50)));
+        PDIService.Filtros semFiltros = new PDIService.Filtros(null, null, null, null, null, null);
+
+        PaginaDTO<PDIDTO> primeira = pdiService.listarPDIs(semFiltros, PDIService.Ordenacao.PROGRESSO, null, 2);
+        verify(pdiRepository).buscarPaginaPorProgresso(null, null, null, null, null, null, null, null, 3);
+
+        pdiService.listarPDIs(semFiltros, PDIService.Ordenacao.PROGRESSO, primeira.proximoCursor(), 2);
+        verify(pdiRepository).buscarPaginaPorProgresso(50, 3L, null, null, null, null, null, null, 3);
+
+        // Um cursor da ordenação por id não serve para a ordenação por progresso
+        when(pdiRepository.buscarPagina(any(), any(), any(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of(pdi(9L, 0), pdi(8L, 0)));
+        String cursorPorId = pdiService.listarPDIs(semFiltros, PDIService.Ordenacao.RECENTES, null, 1).proximoCursor();
+        assertThrows(IllegalArgumentException.class,
+                () -> pdiService.listarPDIs(semFiltros, PDIService.Ordenacao.PROGRESSO, cursorPorId, 2));
+    }
+
+    @Test
+    void criacaoGravaOsContadoresDeProgresso() {
+        Usuario colaborador = new Usuario();
+        colaborador.setId(1L);
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(colaborador));
+        when(pdiRepository.save(any(PDI.class))).thenAnswer(i -> i.getArgument(0));
+
+        PDIDTO novo = new PDIDTO();
+        novo.setColaboradorId(1L);
+        novo.setTitulo("Novo");
+        MetaPDIDTO concluida = metaDTO(null, "Concluída");
+        concluida.setConcluida(true);
+        novo.setMetas(List.of(concluida, metaDTO(null, "Aberta"), metaDTO(null, "Outra aberta")));
+
+        PDIDTO criado = pdiService.criarPDI(novo);
+
+        assertEquals(3, criado.getTotalMetas());
+        assertEquals(1, criado.getMetasConcluidas());
+        assertEquals(33, criado.getPercentualConcluido());
+    }
+
+    @Test
+    void atualizacaoSincronizaAsMetasEConcluiOPDI() {
+        Usuario colaborador = new Usuario();
+        colaborador.setId(1L);
+        PDI pdi = new PDI();
+        pdi.setId(9L);
+        pdi.setColaborador(colaborador);
+        pdi.setStatus(StatusPDI.EM_ANDAMENTO);
+        pdi.getMetas().addAll(List.of(meta(1L, "Mantida"), meta(2L, "Removida")));
+        when(pdiRepository.findById(9L)).thenReturn(Optional.of(pdi));
+        when(pdiRepository.save(any(PDI.class))).thenAnswer(i -> i.getArgument(0));
+
+        PDIDTO alteracao = new PDIDTO();
+        alteracao.setStatus(StatusPDI.CONCLUIDO);
+        MetaPDIDTO mantida = metaDTO(1L, "Mantida e editada");
+        mantida.setConcluida(true);
+        alteracao.setMetas(List.of(mantida, metaDTO(null, "Nova")));
+        PDIDTO atualizado = pdiService.atualizarPDI(9L, alteracao);
+
+        assertEquals(List.of("Mantida e editada", "Nova"),
+                atualizado.getMetas().stream().map(MetaPDIDTO::getDescricaoMeta).toList());
+        assertEquals(LocalDate.now(), atualizado.getDataConclusaoReal());
+        assertEquals(50, atualizado.getPercentualConcluido());
+        verify(dashboardSnapshot).alterarStatusPDI(StatusPDI.EM_ANDAMENTO, StatusPDI.CONCLUIDO);
+
+        alteracao.setMetas(List.of(metaDTO(99L, "De outro PDI")));
+        assertThrows(RuntimeException.class, () -> pdiService.atualizarPDI(9L, alteracao));
+    }
+
+    // Simula a consulta: ids decrescentes abaixo do cursor, de um total de 5 PDIs, até o limite pedido
+    private static List<PDIDTO> pdisAbaixoDe(Long idCursor, int limite) {
+        List<PDIDTO> pdis = new ArrayList<>();
+        for (long id = idCursor == null ? 5 : Math.min(idCursor - 1, 5); id >= 1 && pdis.size() < limite; id--) {
+            pdis.add(pdi(id, 0));
+        }
+        return pdis;
+    }
+
+    private static PDIDTO pdi(long id, int percentualConcluido) {
+        return new PDIDTO(id, 1L, "Colaborador", "PDI " + id, null, null, null, null, StatusPDI.PLANEJADO,
+                0, 0, percentualConcluido);
+    }
+
+    private static MetaPDI meta(Long id, String descricao) {
+        MetaPDI meta = new MetaPDI();
+        meta.setId(id);
+        meta.setDescricaoMeta(descricao);
+        return meta;
+    }
+
+    private static MetaPDIDTO metaDTO(Long id, String descricao) {
+        MetaPDIDTO dto = new MetaPDIDTO();
+        dto.setId(id);
+        dto.setDescricaoMeta(descricao);
+        return dto;
+    }
+}
@@ -0,0 +1,174 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.model.FeedbackDiario;
+import com.progress.progress_api.model.PDI.StatusPDI;
+import com.progress.progress_api.model.PdiStatusDiario;
+import com.progress.progress_api.model.RollupControle;
+import com.progress.progress_api.model.RollupRemocao;
+import com.progress.progress_api.repository.FeedbackDiarioRepository;
+import com.progress.progress_api.repository.FeedbackRepository;
+import com.progress.progress_api.repository.PDIRepository;
+import com.progress.progress_api.repository.PdiStatusDiarioRepository;
+import com.progress.progress_api.repository.RollupControleRepository;
+import com.progress.progress_api.repository.RollupRemocaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RollupServiceTest {
+
+    private static final LocalDate DIA = LocalDate.of(2025, 3, 10);
+
+    @Mock
+    private PDIRepository pdiRepository;
+
+    @Mock
+    private FeedbackRepository feedbackRepository;
+
+    @Mock
+    private PdiStatusDiarioRepository pdiStatusDiarioRepository;
+
+    @Mock
+    private FeedbackDiarioRepository feedbackDiarioRepository;
+
+    @Mock
+    private RollupControleRepository rollupControleRepository;
+
+    @Mock
+    private RollupRemocaoRepository rollupRemocaoRepository;
+
+    @Mock
+    private TravaJobService travaJobService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private RollupService service;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "sobreposicaoMs", 300_000L);
+        ReflectionTestUtils.setField(service, "travaMaximaMs", 600_000L);
+        ReflectionTestUtils.setField(service, "travaMinimaMs", 30_000L);
+        when(transactionTemplate.execute(any())).thenAnswer(i -> i.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(travaJobService.adquirir(eq(RollupService.JOB), any(), any())).thenReturn(true);
+        when(rollupControleRepository.findById(any())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void distribuicaoSomaTransicoesPendentesEDescontaPDIsRemovidos() {
+        when(pdiStatusDiarioRepository.findUltimoDia()).thenReturn(List.of(
+                linhaPdi(StatusPDI.PLANEJADO, 10), linhaPdi(StatusPDI.CONCLUIDO, 4)));
+        when(pdiRepository.contabilizarTransicoesDeStatus()).thenReturn(List.of(
+                new Object[]{null, "PLANEJADO", 3L},
+                new Object[]{"PLANEJADO", "CONCLUIDO", 2L}));
+        when(rollupRemocaoRepository.findByOrigem(RollupRemocao.PDIS)).thenReturn(List.of(
+                remocaoPdi(StatusPDI.CONCLUIDO), remocaoPdi(StatusPDI.PLANEJADO)));
+
+        service.executar();
+
+        ArgumentCaptor<PdiStatusDiario> linhas = ArgumentCaptor.forClass(PdiStatusDiario.class);
+        verify(pdiStatusDiarioRepository, times(2)).save(linhas.capture());
+        Map<StatusPDI, Long> distribuicao = linhas.getAllValues().stream()
+                .collect(Collectors.toMap(PdiStatusDiario::getStatus, PdiStatusDiario::getTotal));
+        assertEquals(Map.of(StatusPDI.PLANEJADO, 10L, StatusPDI.CONCLUIDO, 5L), distribuicao);
+        verify(rollupRemocaoRepository).deleteAllInBatch(List.of(
+                remocaoPdi(StatusPDI.CONCLUIDO), remocaoPdi(StatusPDI.PLANEJADO)));
+    }
+
+    @Test
+    void feedbacksRecuamAMarcaDAguaERecalculamCadaDiaUmaVez() {
+        LocalDateTime processadoAte = LocalDateTime.of(2025, 3, 11, 12, 0);
+        when(rollupControleRepository.findById(any())).thenReturn(Optional.of(new RollupControle("feedbacks", processadoAte)));
+        when(feedbackRepository.findDiasAlterados(any(), any(), anyBoolean())).thenReturn(List.of(DIA, DIA.plusDays(1)));
+        RollupRemocao removido = new RollupRemocao();
+        removido.setOrigem(RollupRemocao.FEEDBACKS);
+        removido.setDia(DIA);
+        RollupRemocao outroDia = new RollupRemocao();
+        outroDia.setOrigem(RollupRemocao.FEEDBACKS);
+        outroDia.setDia(DIA.minusDays(5));
+        when(rollupRemocaoRepository.findByOrigem(RollupRemocao.FEEDBACKS)).thenReturn(List.of(removido, outroDia));
+        when(feedbackRepository.countPorSentimentoECategoria(any(), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{"Positivo", "Comunicação", 7L}));
+
+        service.executar();
+
+        verify(feedbackRepository).findDiasAlterados(eq(processadoAte.minusMinutes(5)), any(), eq(false));
+        ArgumentCaptor<LocalDate> dias = ArgumentCaptor.forClass(LocalDate.class);
+        verify(feedbackDiarioRepository, times(3)).deleteByDia(dias.capture());
+        assertEquals(List.of(DIA.minusDays(5), DIA, DIA.plusDays(1)), dias.getAllValues(), "o dia alterado e removido só uma vez");
+        verify(feedbackDiarioRepository, times(3)).save(any(FeedbackDiario.class));
+        verify(rollupRemocaoRepository).deleteAllInBatch(List.of(removido, outroDia));
+    }
+
+    @Test
+    void naoExecutaSemATrava() {
+        when(travaJobService.adquirir(eq(RollupService.JOB), any(), any())).thenReturn(false);
+
+        service.executar();
+
+        verify(transactionTemplate, never()).execute(any());
+        verify(pdiRepository, never()).contabilizarTransicoesDeStatus();
+        verify(rollupRemocaoRepository, never()).findByOrigem(any());
+        verify(travaJobService, never()).liberar(any(), any(), any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void liberaATravaComAsLinhasGravadasMesmoQuandoFalha() {
+        when(pdiStatusDiarioRepository.findUltimoDia()).thenReturn(List.of(linhaPdi(StatusPDI.PLANEJADO, 10)));
+        when(feedbackRepository.findDiasAlterados(any(), any(), anyBoolean())).thenReturn(List.of(DIA));
+        when(rollupRemocaoRepository.findByOrigem(RollupRemocao.FEEDBACKS)).thenReturn(List.of());
+
+        service.executar();
+        verify(travaJobService).liberar(eq(RollupService.JOB), any(), eq(Duration.ofMillis(30_000)), eq(2L), anyLong());
+
+        when(feedbackRepository.findDiasAlterados(any(), any(), anyBoolean())).thenThrow(new IllegalStateException("banco fora"));
+        assertThrows(IllegalStateException.class, () -> service.executar());
+        verify(travaJobService).liberar(eq(RollupService.JOB), any(), any(), eq(1L), anyLong());
+    }
+
+    private static PdiStatusDiario linhaPdi(StatusPDI status, long total) {
+        PdiStatusDiario linha = new PdiStatusDiario();
+        linha.setDia(DIA);
+        linha.setStatus(status);
+        linha.setTotal(total);
+        return linha;
+    }
+
+    private static RollupRemocao remocaoPdi(StatusPDI status) {
+        RollupRemocao remocao = new RollupRemocao();
+        remocao.setOrigem(RollupRemocao.PDIS);
+        remocao.setStatus(status.name());
+        return remocao;
+    }
+}
@@ -0,0 +1,203 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.MetaPDIDTO;
+import com.progress.progress_api.dto.PerfilColaboradorDTO;
+import com.progress.progress_api.dto.SugestaoMetasDTO;
+import com.progress.progress_api.repository.PDIRepository;
+import com.progress.progress_api.repository.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SugestaoMetasServiceTest {
+
+    @Mock
+    private GeminiService geminiService;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private PDIRepository pdiRepository;
+
+    @Test
+    void objetivosEquivalentesReaproveitamASugestaoEAsCopiasSaoIndependentes() {
+        SugestaoMetasService service = criar(100, 60_000);
+        when(geminiService.sugerirMetasPDIPorIA(anyString(), any(), any())).thenAnswer(i -> metas(i.getArgument(0)));
+
+        List<MetaPDIDTO> primeira = service.sugerir("Liderança  de Equipes", "Analista", "TI");
+        primeira.get(0).setDescricaoMeta("alterada por quem chamou");
+        List<MetaPDIDTO> segunda = service.sugerir(" liderança de equipes ", "analista", "ti");
+
+        assertEquals("Meta para Liderança  de Equipes", segunda.get(0).getDescricaoMeta());
+        verify(geminiService, times(1)).sugerirMetasPDIPorIA(anyString(), any(), any());
+
+        service.sugerir("Liderança de equipes", "Gerente", "TI"); // Outro cargo, outra sugestão
+        verify(geminiService, times(2)).sugerirMetasPDIPorIA(anyString(), any(), any());
+    }
+
+    @Test
+    void entradasVencemPeloTtlESaoDescartadasPeloLru() throws InterruptedException {
+        SugestaoMetasService service = criar(2, 50);
+        when(geminiService.sugerirMetasPDIPorIA(anyString(), any(), any())).thenAnswer(i -> metas(i.getArgument(0)));
+
+        service.sugerir("A", "Analista", "TI");
+        Thread.sleep(60);
+        service.sugerir("A", "Analista", "TI"); // Vencida: gera de novo
+        verify(geminiService, times(2)).sugerirMetasPDIPorIA(eq("A"), any(), any());
+
+        service.sugerir("B", "Analista", "TI");
+        service.sugerir("C", "Analista", "TI"); // Passa do limite: sai a menos usada (A)
+        assertEquals(2, service.tamanho());
+        service.sugerir("A", "Analista", "TI");
+        verify(geminiService, times(3)).sugerirMetasPDIPorIA(eq("A"), any(), any());
+    }
+
+    @Test
+    void equipeConsultaOModeloUmaVezPorCargo() {
+        SugestaoMetasService service = criar(100, 60_000);
+        when(geminiService.sugerirMetasPDIPorIA(anyString(), any(), any())).thenAnswer(i -> metas(i.getArgument(0)));
+        when(usuarioRepository.buscarPerfisPorArea(eq("TI"), any())).thenReturn(List.of(
+                new PerfilColaboradorDTO(1L, "Ana", "Analista", "TI"),
+                new PerfilColaboradorDTO(2L, "Bruno", "Analista", "TI"),
+                new PerfilColaboradorDTO(3L, "Carla", "Gerente", "TI")));
+
+        List<SugestaoMetasDTO> sugestoes = service.sugerirParaEquipe("TI", "Comunicação");
+
+        assertEquals(List.of(1L, 2L, 3L), sugestoes.stream().map(SugestaoMetasDTO::colaboradorId).toList());
+        verify(geminiService, times(1)).sugerirMetasPDIPorIA("Comunicação", "Analista", "TI");
+        verify(geminiService, times(1)).sugerirMetasPDIPorIA("Comunicação", "Gerente", "TI");
+    }
+
+    @Test
+    void aquecimentoPreCalculaEDepoisSoServeDoCache() {
+        SugestaoMetasService service = criar(100, 60_000);
+        when(geminiService.sugerirMetasPDIPorIA(anyString(), any(), any())).thenAnswer(i -> metas(i.getArgument(0)));
+        List<Object[]> objetivos = new ArrayList<>();
+        objetivos.add(new Object[]{"TI", "Analista", "Arquitetura de software"});
+        objetivos.add(new Object[]{"RH", "Analista", "Recrutamento"});
+        when(pdiRepository.buscarObjetivosMaisComuns(anyInt())).thenReturn(objetivos);
+
+        service.aquecer();
+        service.aquecer(); // Entradas ainda frescas não são geradas de novo
+        verify(geminiService, times(2)).sugerirMetasPDIPorIA(anyString(), any(), any());
+
+        // Depois do aquecimento, os objetivos aquecidos vêm só do cache (sem ida ao modelo)
+        for (int i = 0; i < 100; i++) {
+            assertFalse(service.sugerir("Arquitetura de software", "Analista", "TI").isEmpty());
+        }
+        verify(geminiService, times(2)).sugerirMetasPDIPorIA(anyString(), any(), any());
+    }
+
+    @Test
+    void perfilDoColaboradorEConsultadoUmaVez() {
+        SugestaoMetasService service = criar(100, 60_000);
+        when(geminiService.sugerirMetasPDIPorIA(anyString(), any(), any())).thenAnswer(i -> metas(i.getArgument(0)));
+        when(usuarioRepository.buscarPerfil(7L)).thenReturn(Optional.of(new PerfilColaboradorDTO(7L, "Ana", "Analista", "TI")));
+
+        for (int i = 0; i < 100; i++) {
+            service.sugerir(7L, "Comunicação");
+        }
+
+        verify(usuarioRepository, times(1)).buscarPerfil(7L);
+        verify(geminiService, times(1)).sugerirMetasPDIPorIA("Comunicação", "Analista", "TI");
+        assertThrows(RuntimeException.class, () -> service.sugerir(8L, "Comunicação"), "colaborador inexistente");
+    }
+
+    @Test
+    void consultasSimultaneasDaMesmaChaveChamamOModeloUmaVez() throws Exception {
+        SugestaoMetasService service = criar(100, 60_000);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(geminiService.sugerirMetasPDIPorIA(anyString(), any(), any())).thenAnswer(i -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            return metas(i.getArgument(0));
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<MetaPDIDTO>>> respostas = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                respostas.add(executor.submit(() -> service.sugerir("Negociação", "Analista", "TI")));
+            }
+            // Todas as threads chegam à geração antes de o modelo responder
+            verify(geminiService, timeout(2_000)).sugerirMetasPDIPorIA(anyString(), any(), any());
+            Thread.sleep(100);
+            liberar.countDown();
+
+            for (Future<List<MetaPDIDTO>> resposta : respostas) {
+                assertEquals("Meta para Negociação", resposta.get(5, TimeUnit.SECONDS).get(0).getDescricaoMeta());
+            }
+            verify(geminiService, times(1)).sugerirMetasPDIPorIA(anyString(), any(), any());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void falhaDaGeracaoChegaAQuemEsperavaENaoFicaNoCache() throws Exception {
+        SugestaoMetasService service = criar(100, 60_000);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(geminiService.sugerirMetasPDIPorIA(anyString(), any(), any()))
+                .thenAnswer(i -> {
+                    liberar.await(5, TimeUnit.SECONDS);
+                    throw new IllegalStateException("modelo indisponível");
+                })
+                .thenAnswer(i -> metas(i.getArgument(0)));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<MetaPDIDTO>> primeira = executor.submit(() -> service.sugerir("Negociação", "Analista", "TI"));
+            verify(geminiService, timeout(2_000)).sugerirMetasPDIPorIA(anyString(), any(), any());
+            Future<List<MetaPDIDTO>> segunda = executor.submit(() -> service.sugerir("Negociação", "Analista", "TI"));
+            Thread.sleep(100);
+            liberar.countDown();
+
+            for (Future<List<MetaPDIDTO>> resposta : List.of(primeira, segunda)) {
+                ExecutionException erro = assertThrows(ExecutionException.class, () -> resposta.get(5, TimeUnit.SECONDS));
+                assertEquals("modelo indisponível", erro.getCause().getMessage());
+            }
+            assertFalse(service.sugerir("Negociação", "Analista", "TI").isEmpty(), "a próxima consulta gera de novo");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private SugestaoMetasService criar(int tamanhoMaximo, long ttlMs) {
+        SugestaoMetasService service = new SugestaoMetasService(tamanhoMaximo, ttlMs, 10, 60_000, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "geminiService", geminiService);
+        ReflectionTestUtils.setField(service, "usuarioRepository", usuarioRepository);
+        ReflectionTestUtils.setField(service, "pdiRepository", pdiRepository);
+        return service;
+    }
+
+    private static List<MetaPDIDTO> metas(String objetivo) {
+        MetaPDIDTO meta = new MetaPDIDTO();
+        meta.setDescricaoMeta("Meta para " + objetivo);
+        return new ArrayList<>(List.of(meta));
+    }
+}
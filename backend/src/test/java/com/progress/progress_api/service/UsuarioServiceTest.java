@@ -0,0 +1,129 @@
+package com.progress.progress_api.service;
+
+import com.progress.progress_api.dto.PaginaDTO;
+import com.progress.progress_api.dto.UsuarioDTO;
+import com.progress.progress_api.dto.UsuarioResumoDTO;
+import com.progress.progress_api.model.Role;
+import com.progress.progress_api.model.Usuario;
+import com.progress.progress_api.repository.RoleRepository;
+import com.progress.progress_api.repository.UsuarioRepository;
+import com.progress.progress_api.security.PasswordHashingExecutor;
+import com.progress.progress_api.security.PrincipalCache;
+import com.progress.progress_api.security.RoleRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UsuarioServiceTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private DashboardSnapshot dashboardSnapshot;
+
+    @InjectMocks
+    private UsuarioService usuarioService;
+
+    private record Linha(Long getId, String getNome, String getEmail, String getCargo, String getArea, String getRoleIds)
+            implements UsuarioRepository.LinhaDiretorio {}
+
+    @BeforeEach
+    void setUp() {
+        when(roleRepository.findAll()).thenReturn(List.of(new Role(1L, "ROLE_ADMIN"), new Role(2L, "ROLE_MANAGER"),
+                new Role(3L, "ROLE_COLLABORATOR")));
+        RoleRegistry roleRegistry = new RoleRegistry(roleRepository, 60_000);
+        roleRegistry.recarregar();
+        ReflectionTestUtils.setField(usuarioService, "roleRegistry", roleRegistry);
+        clearInvocations(roleRepository);
+    }
+
+    @Test
+    void diretorioContinuaDoNomeEIdDoUltimoItem() {
+        when(usuarioRepository.buscarDiretorio(anyString(), anyLong(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of(linha(7L, "Ana: RH", "1,2"), linha(3L, "Bruno", null),
+                        linha(5L, "Carla", "3")));
+        UsuarioService.FiltrosDiretorio semFiltros = new UsuarioService.FiltrosDiretorio(null, " ", null);
+
+        PaginaDTO<UsuarioResumoDTO> primeira = usuarioService.listarDiretorio(semFiltros, null, 2);
+        assertEquals(List.of(7L, 3L), primeira.itens().stream().map(UsuarioResumoDTO::id).toList());
+        assertEquals(Set.of("ROLE_ADMIN", "ROLE_MANAGER"), primeira.itens().get(0).roles());
+        assertEquals(Set.of(), primeira.itens().get(1).roles(), "usuário sem papéis");
+        verify(usuarioRepository).buscarDiretorio("", 0L, null, null, null, 3);
+
+        usuarioService.listarDiretorio(semFiltros, primeira.proximoCursor(), 2);
+        verify(usuarioRepository).buscarDiretorio(eq("Bruno"), eq(3L), any(), any(), any(), eq(3));
+    }
+
+    @Test
+    void filtroDePapelUsaOIdDoRegistroECursorInvalidoERejeitado() {
+        usuarioService.listarDiretorio(new UsuarioService.FiltrosDiretorio("TI", null, "MANAGER"), null, 10);
+        verify(usuarioRepository).buscarDiretorio("", 0L, "TI", null, 2L, 11);
+
+        // Papel inexistente: página vazia sem consultar
+        assertTrue(usuarioService.listarDiretorio(new UsuarioService.FiltrosDiretorio(null, null, "FANTASMA"), null, 10)
+                .itens().isEmpty());
+
+        assertThrows(IllegalArgumentException.class, () -> usuarioService.listarDiretorio(
+                new UsuarioService.FiltrosDiretorio(null, null, null), "nao-e-um-cursor", 10));
+    }
+
+    @Test
+    void criacaoEAlteracaoDePapeisNaoConsultamATabelaDePapeis() {
+        when(usuarioRepository.save(any(Usuario.class))).thenAnswer(i -> i.getArgument(0));
+        UsuarioDTO novo = new UsuarioDTO();
+        novo.setEmail("novo@empresa.com");
+        assertEquals(Set.of("ROLE_COLLABORATOR"), usuarioService.criarUsuario(novo).getRoles());
+
+        Usuario usuario = new Usuario();
+        usuario.setId(9L);
+        usuario.setEmail("gestor@empresa.com");
+        usuario.setRoles(new HashSet<>(Set.of(new Role(3L, "ROLE_COLLABORATOR"))));
+        when(usuarioRepository.findById(9L)).thenReturn(Optional.of(usuario));
+
+        UsuarioDTO alterado = usuarioService.alterarRoles(9L, Set.of("manager", "ROLE_COLLABORATOR"));
+        assertEquals(Set.of("ROLE_MANAGER", "ROLE_COLLABORATOR"), alterado.getRoles());
+        verify(principalCache).invalidarAposCommit("gestor@empresa.com");
+        verify(dashboardSnapshot).alterarPerfis(List.of(), List.of("ROLE_MANAGER"));
+        assertThrows(IllegalArgumentException.class, () -> usuarioService.alterarRoles(9L, Set.of("AUDITOR")));
+        Set<String> comNulo = new HashSet<>(Arrays.asList("ADMIN", null));
+        assertThrows(IllegalArgumentException.class, () -> usuarioService.alterarRoles(9L, comNulo));
+        assertThrows(IllegalArgumentException.class, () -> usuarioService.alterarRoles(9L, Set.of("ADMIN", " ")));
+        verifyNoInteractions(roleRepository);
+    }
+
+    private static Linha linha(Long id, String nome, String roles) {
+        return new Linha(id, nome, nome.toLowerCase() + "@empresa.com", "Analista", "TI", roles);
+    }
+}
@@ -4,7 +4,7 @@
 import React, { useEffect, useState } from 'react';
 import { useAuth } from '@/lib/auth';
 import { dashboardService } from '@/lib/apiService';
-import type { AdminDashboardData } from '@/lib/types';
+import type { AdminDashboardData, DashboardDelta } from '@/lib/types';
 import { LoadingScreen } from '@/components/ui/LoadingScreen';
 import { DashboardCard } from '@/components/ui/DashboardCard';
 import { BarChart, Bar, XAxis, YAxis, Tooltip, ResponsiveContainer, PieChart, Pie, Cell, Legend } from 'recharts';
@@ -13,6 +13,46 @@ import { BarChart, Bar, XAxis, YAxis, Tooltip, ResponsiveContainer, PieChart, Pi
 import { Users, ClipboardList, Target, CheckSquare, AlertTriangle } from 'lucide-react';
 
 const COLORS = ['#0088FE', '#00C49F', '#FFBB28', '#FF8042'];
+const TOTAL_FEEDBACKS_RECENTES = 5;
+const RECONEXAO_MS = 5000;
+
+// Aplica as variações do stream e recalcula os totais derivados dos mapas, como o backend faz
+function aplicarDelta(data: AdminDashboardData, delta: DashboardDelta): AdminDashboardData {
+  const usuariosPorPerfil = { ...data.usuariosPorPerfil };
+  const pdisPorStatus = { ...data.pdisPorStatus };
+  let { totalUsuarios, totalPDIs } = data;
+  for (const [chave, variacao] of Object.entries(delta.variacoes || {})) {
+    if (chave === 'totalUsuarios') {
+      totalUsuarios += variacao;
+    } else if (chave === 'totalPDIs') {
+      totalPDIs += variacao;
+    } else if (chave.startsWith('usuariosPorPerfil.')) {
+      const perfil = chave.slice('usuariosPorPerfil.'.length);
+      usuariosPorPerfil[perfil] = (usuariosPorPerfil[perfil] || 0) + variacao;
+    } else if (chave.startsWith('pdisPorStatus.')) {
+      const status = chave.slice('pdisPorStatus.'.length);
+      pdisPorStatus[status] = (pdisPorStatus[status] || 0) + variacao;
+    }
+  }
+  const feedbacksRecentes = delta.novoFeedback
+    ? [delta.novoFeedback, ...data.feedbacksRecentes.filter(f => f.id !== delta.novoFeedback?.id)].slice(0, TOTAL_FEEDBACKS_RECENTES)
+    : data.feedbacksRecentes;
+
+  return {
+    ...data,
+    totalUsuarios,
+    totalColaboradores: usuariosPorPerfil['ROLE_COLLABORATOR'] || 0,
+    totalGestores: usuariosPorPerfil['ROLE_MANAGER'] || 0,
+    totalAdmins: usuariosPorPerfil['ROLE_ADMIN'] || 0,
+    usuariosPorPerfil,
+    totalPDIs,
+    pdisAtivos: pdisPorStatus['EM_ANDAMENTO'] || 0,
+    pdisConcluidos: pdisPorStatus['CONCLUIDO'] || 0,
+    pdisAtrasados: pdisPorStatus['ATRASADO'] || 0,
+    pdisPorStatus,
+    feedbacksRecentes,
+  };
+}
 
 export default function DashboardPage() {
   const { user, token } = useAuth();
@@ -22,21 +62,48 @@ export default function DashboardPage() {
   const isAdmin = user?.roles.some(role => role.name === 'ROLE_ADMIN');
 
   useEffect(() => {
-    if (token && isAdmin) {
-      const fetchData = async () => {
+    if (!token || !isAdmin) {
+      setLoading(false);
+      return;
+    }
+    const controller = new AbortController();
+    let reconexao: ReturnType<typeof setTimeout> | undefined;
+
+    // O stream envia o estado completo ao conectar e depois só as variações, sem polling
+    const conectar = async () => {
+      try {
+        await dashboardService.streamAdminDashboard({
+          onSnapshot: snapshot => {
+            setData(snapshot);
+            setLoading(false);
+          },
+          onDelta: delta => setData(atual => (atual ? aplicarDelta(atual, delta) : atual)),
+        }, controller.signal);
+      } catch (error) {
+        if (controller.signal.aborted) {
+          return;
+        }
+        console.error("Stream do painel interrompido.", error);
+        // Sem stream, mostra ao menos os dados atuais enquanto aguarda a reconexão
         try {
-          const response = await dashboardService.getAdminDashboard();
-          setData(response);
-        } catch (error) {
-          console.error("Falha ao carregar dados do painel.", error);
+          setData(await dashboardService.getAdminDashboard());
+        } catch (fallbackError) {
+          console.error("Falha ao carregar dados do painel.", fallbackError);
         } finally {
           setLoading(false);
         }
-      };
-      fetchData();
-    } else {
-      setLoading(false);
-    }
+      }
+      // Conexão encerrada pelo servidor (timeout ou consumidor lento): reconecta e recebe um snapshot novo
+      if (!controller.signal.aborted) {
+        reconexao = setTimeout(conectar, RECONEXAO_MS);
+      }
+    };
+    conectar();
+
+    return () => {
+      controller.abort();
+      clearTimeout(reconexao);
+    };
   }, [token, isAdmin]);
 
   if (loading) {
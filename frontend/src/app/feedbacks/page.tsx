@@ -79,6 +79,8 @@ function FeedbackFormModal({ isOpen, onClose, onSave, isLoading, allUsers }: Fee
 export default function FeedbacksPage() {
   const { user } = useAuth();
   const [feedbacks, setFeedbacks] = useState<Feedback[]>([]);
+  const [proximoCursor, setProximoCursor] = useState<string | null>(null);
+  const [carregandoMais, setCarregandoMais] = useState(false);
   const [allUsers, setAllUsers] = useState<Usuario[]>([]); // Para o modal
   const [loading, setLoading] = useState(true);
   const [isModalOpen, setIsModalOpen] = useState(false);
@@ -90,8 +92,10 @@ const fetchAllData = useCallback(async () => {
     try {
       setLoading(true);
       
-      const receivedFeedbacks = await feedbackService.getAll({ destinatarioId: user.id });
-      setFeedbacks(receivedFeedbacks);
+      // Só a primeira página; as seguintes são buscadas pelo botão "Carregar mais"
+      const pagina = await feedbackService.getPage({ destinatarioId: user.id });
+      setFeedbacks(pagina.itens);
+      setProximoCursor(pagina.proximoCursor);
       
       // --- CORREÇÃO AQUI ---
       // Descomente as duas linhas abaixo para buscar os usuários
@@ -112,6 +116,20 @@ const fetchAllData = useCallback(async () => {
     }
   }, [user, fetchAllData]);
 
+  const handleCarregarMais = async () => {
+    if (!user?.id || !proximoCursor) return;
+    try {
+      setCarregandoMais(true);
+      const pagina = await feedbackService.getPage({ destinatarioId: user.id }, proximoCursor);
+      setFeedbacks(atuais => [...atuais, ...pagina.itens]);
+      setProximoCursor(pagina.proximoCursor);
+    } catch (error) {
+      console.error("Erro ao buscar mais feedbacks:", error);
+    } finally {
+      setCarregandoMais(false);
+    }
+  };
+
   const handleSaveFeedback = async (formData: CreateFeedbackFormData) => {
     try {
         setIsSaving(true);
@@ -149,6 +167,13 @@ const fetchAllData = useCallback(async () => {
         ) : (
           <p>Você ainda não recebeu nenhum feedback.</p>
         )}
+        {proximoCursor && (
+          <div className="flex justify-center">
+            <Button onClick={handleCarregarMais} variant="outline" disabled={carregandoMais}>
+              {carregandoMais ? "Carregando..." : "Carregar mais"}
+            </Button>
+          </div>
+        )}
       </div>
 
       <FeedbackFormModal 
@@ -3,7 +3,7 @@
 
 import React, { useState, useEffect, useCallback, FormEvent } from 'react';
 import { useAuth } from '@/lib/auth';
-import { fetchPDIsApi, createPDIApi, fetchUsersApi, updatePDIApi, fetchPDIByIdApi } from '@/lib/apiService';
+import { pdiService, createPDIApi, fetchUsersApi, updatePDIApi, fetchPDIByIdApi } from '@/lib/apiService';
 import { PDI, User, CreatePDIFormData, MetaPDI, PDIStatus, UpdatePDIFormData, UserRole } from '@/lib/types';
 import { FileText, PlusCircle, Edit3, Trash2, CalendarDays, UserCircle as UserIcon, Briefcase, AlertTriangle, CheckCircle, Clock, X } from 'lucide-react';
 import { format, parseISO } from 'date-fns';
@@ -267,6 +267,8 @@ function PDICard({ pdi, onEdit, onDelete, currentUserRole }: PDICardProps) {
 export default function PDIsPage() {
     const { user: currentUser } = useAuth();
     const [pdis, setPDIs] = useState<PDI[]>([]);
+    const [proximoCursor, setProximoCursor] = useState<string | null>(null);
+    const [isLoadingMore, setIsLoadingMore] = useState(false);
     const [allUsers, setAllUsers] = useState<User[]>([]);
     const [isLoading, setIsLoading] = useState(true);
     const [pageError, setPageError] = useState<string | null>(null);
@@ -279,17 +281,19 @@ export default function PDIsPage() {
         setIsLoading(true);
         setPageError(null);
         try {
-            let pdiData: PDI[] = [];
+            // Só a primeira página; as seguintes são buscadas pelo botão "Carregar mais"
+            let pagina = { itens: [] as PDI[], proximoCursor: null as string | null };
             if (currentUser.role === 'ADMIN' || currentUser.role === 'GESTOR') {
                 // Admin e Gestor podem precisar de uma lista mais ampla ou filtrada de PDIs
-                pdiData = (await fetchPDIsApi()).data; // Gestor pode precisar filtrar para sua equipe no backend
+                pagina = await pdiService.getPage(); // Gestor pode precisar filtrar para sua equipe no backend
                 const usersResponse = await fetchUsersApi(); // Para preencher selects no modal
                 setAllUsers(usersResponse.data);
             } else if (currentUser.role === 'COLABORADOR') {
-                pdiData = (await fetchPDIsApi({ colaboradorId: currentUser.id })).data;
+                pagina = await pdiService.getPage({ colaboradorId: currentUser.id });
                 setAllUsers([currentUser]); // Colaborador só cria PDI para si (ou precisa de lógica para selecionar gestor)
             }
-            setPDIs(pdiData);
+            setPDIs(pagina.itens);
+            setProximoCursor(pagina.proximoCursor);
         } catch (err: any) {
             setPageError(err.message || 'Falha ao carregar dados da página de PDIs.');
             console.error(err);
@@ -302,6 +306,21 @@ export default function PDIsPage() {
         fetchPageData();
     }, [fetchPageData]);
 
+    const handleLoadMore = async () => {
+        if (!currentUser || !proximoCursor) return;
+        setIsLoadingMore(true);
+        try {
+            const filtros = currentUser.role === 'COLABORADOR' ? { colaboradorId: currentUser.id } : undefined;
+            const pagina = await pdiService.getPage(filtros, proximoCursor);
+            setPDIs(atuais => [...atuais, ...pagina.itens]);
+            setProximoCursor(pagina.proximoCursor);
+        } catch (err: any) {
+            setPageError(err.message || 'Falha ao carregar mais PDIs.');
+        } finally {
+            setIsLoadingMore(false);
+        }
+    };
+
     const openAddModal = () => { setEditingPDI(null); setIsModalOpen(true); };
     const openEditModal = (pdiToEdit: PDI) => { setEditingPDI(pdiToEdit); setIsModalOpen(true); };
     const closeModal = () => { setIsModalOpen(false); setEditingPDI(null); };
@@ -391,6 +410,14 @@ export default function PDIsPage() {
                 </div>
             )}
 
+            {!isLoading && !pageError && proximoCursor && (
+                <div className="flex justify-center">
+                    <button onClick={handleLoadMore} disabled={isLoadingMore} className="px-4 py-2 text-sm btn-secondary disabled:opacity-70">
+                        {isLoadingMore ? 'Carregando...' : 'Carregar mais'}
+                    </button>
+                </div>
+            )}
+
             {isModalOpen && currentUser && (
                 <PDIFormModal
                     isOpen={isModalOpen}
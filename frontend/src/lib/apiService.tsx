@@ -1,7 +1,7 @@
 // src/lib/apiService.ts
 
 import type {
-    Usuario, Feedback, PDI, AuthResponse, AdminDashboardData,
+    Usuario, Feedback, PDI, AuthResponse, AdminDashboardData, DashboardDelta, Pagina,
     CreateUserFormData, UpdateUserFormData,
     CreateFeedbackFormData,
     CreatePDIFormData, UpdatePDIFormData
@@ -43,6 +43,55 @@ const apiClient = {
         });
         return handleResponse<R>(response);
     },
+    // Uma página de uma listagem paginada por cursor; o cursor da próxima vem no header X-Proximo-Cursor
+    async getPage<R>(endpoint: string, cursor?: string | null): Promise<Pagina<R>> {
+        const separator = endpoint.includes('?') ? '&' : '?';
+        const page = cursor ? `${endpoint}${separator}cursor=${encodeURIComponent(cursor)}` : endpoint;
+        const response = await fetch(`${API_BASE_URL}${page}`, {
+            method: 'GET',
+            headers: getAuthHeaders(),
+        });
+        const itens = await handleResponse<R[]>(response);
+        return { itens, proximoCursor: response.headers.get('X-Proximo-Cursor') };
+    },
+    // Stream SSE lido via fetch: EventSource não permite enviar o header Authorization.
+    // Resolve quando o servidor encerra a conexão e rejeita em erro ou quando o signal é abortado.
+    async stream(endpoint: string, onEvent: (name: string, data: string) => void, signal: AbortSignal): Promise<void> {
+        const headers = new Headers(getAuthHeaders());
+        headers.set('Accept', 'text/event-stream');
+        const response = await fetch(`${API_BASE_URL}${endpoint}`, { method: 'GET', headers, signal });
+        if (!response.ok || !response.body) {
+            await handleResponse<void>(response);
+            throw new Error('Stream indisponível.');
+        }
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffer = '';
+        let name = 'message';
+        let data: string[] = [];
+        for (;;) {
+            const { value, done } = await reader.read();
+            if (done) {
+                return;
+            }
+            buffer += value;
+            const lines = buffer.split(/\r?\n/);
+            buffer = lines.pop() ?? '';
+            for (const line of lines) {
+                if (line === '') {
+                    // Linha em branco encerra o evento; comentários (heartbeat) não têm dados
+                    if (data.length > 0) {
+                        onEvent(name, data.join('\n'));
+                    }
+                    name = 'message';
+                    data = [];
+                } else if (line.startsWith('event:')) {
+                    name = line.slice(6).trim();
+                } else if (line.startsWith('data:')) {
+                    data.push(line.slice(5).replace(/^ /, ''));
+                }
+            }
+        }
+    },
     async post<T, R>(endpoint: string, body: T): Promise<R> {
         const response = await fetch(`${API_BASE_URL}${endpoint}`, {
             method: 'POST',
@@ -102,7 +151,8 @@ export const userService = {
 };
 
 export const pdiService = {
-    getAll: (filters?: { colaboradorId?: number }): Promise<PDI[]> => {
+    // Uma página por vez: passe o proximoCursor da página anterior para buscar a seguinte
+    getPage: (filters?: { colaboradorId?: number }, cursor?: string | null): Promise<Pagina<PDI>> => {
         // Lógica corrigida aqui
         let query = '';
         if (filters) {
@@ -117,7 +167,7 @@ export const pdiService = {
                 query = `?${params}`;
             }
         }
-        return apiClient.get<PDI[]>(`/pdis${query}`);
+        return apiClient.getPage<PDI>(`/pdis${query}`, cursor);
     },
     getById: (id: number): Promise<PDI> => apiClient.get<PDI>(`/pdis/${id}`),
     create: (data: CreatePDIFormData): Promise<PDI> => apiClient.post('/pdis', data),
@@ -129,11 +179,25 @@ export const pdiService = {
 export const dashboardService = {
     getAdminDashboard: (): Promise<AdminDashboardData> => {
         return apiClient.get<AdminDashboardData>('/dashboard/admin');
+    },
+    // Um evento "snapshot" ao conectar (e após cada reconciliação) e eventos "delta" a cada alteração
+    streamAdminDashboard: (
+        handlers: { onSnapshot: (data: AdminDashboardData) => void; onDelta: (delta: DashboardDelta) => void },
+        signal: AbortSignal
+    ): Promise<void> => {
+        return apiClient.stream('/dashboard/admin/stream', (name, data) => {
+            if (name === 'snapshot') {
+                handlers.onSnapshot(JSON.parse(data));
+            } else if (name === 'delta') {
+                handlers.onDelta(JSON.parse(data));
+            }
+        }, signal);
     }
 };
 
 export const feedbackService = {
-    getAll: (filters?: { destinatarioId?: number; autorId?: number }): Promise<Feedback[]> => {
+    // Uma página por vez: passe o proximoCursor da página anterior para buscar a seguinte
+    getPage: (filters?: { destinatarioId?: number; autorId?: number }, cursor?: string | null): Promise<Pagina<Feedback>> => {
  let query = '';
         if (filters) {
             const cleanFilters: Record<string, string> = {};
@@ -150,7 +214,7 @@ export const feedbackService = {
                 query = `?${params}`;
             }
         }
-        return apiClient.get<Feedback[]>(`/feedbacks${query}`);
+        return apiClient.getPage<Feedback>(`/feedbacks${query}`, cursor);
     },
     create: (data: CreateFeedbackFormData): Promise<Feedback> => {
         return apiClient.post('/feedbacks', data);
@@ -81,6 +81,19 @@ export interface AdminDashboardData {
   feedbacksRecentes: Feedback[]; // Supondo que o tipo Feedback já esteja definido
 }
 
+// Página de uma listagem paginada por cursor; proximoCursor é null na última página
+export interface Pagina<T> {
+  itens: T[];
+  proximoCursor: string | null;
+}
+
+// Evento "delta" do stream do dashboard
+// Ex: { variacoes: { totalPDIs: 1, 'pdisPorStatus.PLANEJADO': 1 }, novoFeedback: null }
+export interface DashboardDelta {
+  variacoes: Record<string, number>;
+  novoFeedback: Feedback | null;
+}
+
 // ===================================
 // TIPOS PARA FORMULÁRIOS (CRIAÇÃO/EDIÇÃO)
 // ===================================